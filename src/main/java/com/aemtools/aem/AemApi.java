@@ -123,6 +123,10 @@ public class AemApi implements Callable<Integer> {
     @Option(names = {"--mock"}, description = "Use mock data (no AEM connection required)")
     private boolean mock;
 
+    @Option(names = {"--offline", "--from-snapshot"},
+            description = "Answer read-only commands from the local snapshot instead of AEM")
+    private boolean offline;
+
     @Option(names = {"--dry-run"}, description = "Show what would happen without making actual changes")
     private boolean dryRun;
 
@@ -4,6 +4,7 @@ import java.util.Arrays;
 
 public class CliFlags {
     public static boolean mockMode = false;
+    public static boolean offlineMode = false;
     public static boolean dryRunMode = false;
     public static boolean jsonOutput = false;
     public static boolean verbose = false;
@@ -14,6 +15,7 @@ public class CliFlags {
     
     public static void parse(String[] args) {
         mockMode = Arrays.asList(args).contains("--mock");
+        offlineMode = Arrays.asList(args).contains("--offline") || Arrays.asList(args).contains("--from-snapshot");
         dryRunMode = Arrays.asList(args).contains("--dry-run");
         jsonOutput = Arrays.asList(args).contains("--json");
         verbose = Arrays.asList(args).contains("--verbose");
@@ -38,7 +40,7 @@ public class CliFlags {
         
         if (verbose) {
             System.err.println("[DEBUG] Args: " + String.join(" ", args));
-            System.err.println("[DEBUG] mockMode: " + mockMode + ", jsonOutput: " + jsonOutput + ", outputFormat: " + outputFormat);
+            System.err.println("[DEBUG] mockMode: " + mockMode + ", offlineMode: " + offlineMode + ", jsonOutput: " + jsonOutput + ", outputFormat: " + outputFormat);
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.aemtools.aem.api;
 
 import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.client.DirectBinaryUpload;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -12,50 +13,59 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public class AssetsApi {
 
     private static final String API_BASE = "/api/assets";
+    private static final String DAM_ROOT = "/content/dam";
     
     private final AemApiClient client;
     private final ObjectMapper mapper;
+    private final DirectBinaryUpload directUpload;
+    private volatile boolean directBinaryUploadSupported = true;
 
     public AssetsApi(AemApiClient client) {
         this.client = client;
         this.mapper = client.getObjectMapper();
+        this.directUpload = new DirectBinaryUpload(client);
     }
 
     public List<Asset> list(String folderPath, int limit) throws IOException {
+        return parseAssetListing(client.get(listUrl(folderPath, limit)));
+    }
+
+    public CompletableFuture<List<Asset>> listAsync(String folderPath, int limit) {
+        return client.getAsync(listUrl(folderPath, limit)).thenApply(this::parseAssetListing);
+    }
+
+    private String listUrl(String folderPath, int limit) {
         String apiPath = normalizePath(folderPath);
         String url = API_BASE + apiPath + ".1.json";
         if (limit > 0) {
             url += (url.contains("?") ? "&" : "?") + "limit=" + limit;
         }
-        
-        JsonNode response = client.get(url);
+        return url;
+    }
+
+    /**
+     * Streams the entries of a folder listing one at a time instead of building the full list,
+     * so very large folders use constant memory. Close the stream if it is not fully consumed.
+     */
+    public Stream<Asset> stream(String folderPath, int limit) throws IOException {
+        return client.stream(listUrl(folderPath, limit), "entities", this::parseListedEntity).stream();
+    }
+
+    private List<Asset> parseAssetListing(JsonNode response) {
         List<Asset> assets = new ArrayList<>();
         
         if (response.has("entities")) {
             ArrayNode entities = (ArrayNode) response.get("entities");
             for (JsonNode entity : entities) {
-                String className = "";
-                JsonNode classNode = entity.get("class");
-                if (classNode != null) {
-                    if (classNode.isArray()) {
-                        className = classNode.elements().hasNext() ? classNode.elements().next().asText() : "";
-                    } else {
-                        className = classNode.asText();
-                    }
-                }
-                
-                if ("asset".equals(className) || "assets/asset".equals(className)) {
-                    assets.add(parseAsset(entity));
-                } else if (className.contains("folder")) {
-                    Asset folderAsset = new Asset();
-                    folderAsset.setName(entity.path("properties").path("name").asText());
-                    folderAsset.setTitle(entity.path("properties").path("dc:title").asText(folderAsset.getName()));
-                    folderAsset.setMimeType("folder");
-                    assets.add(folderAsset);
+                Asset asset = parseListedEntity(entity);
+                if (asset != null) {
+                    assets.add(asset);
                 }
             }
         } else if (response.isArray()) {
@@ -67,11 +77,42 @@ public class AssetsApi {
         return assets;
     }
 
+    /**
+     * Converts a Siren entity of a folder listing, or returns null for entity types other than
+     * assets and folders.
+     */
+    private Asset parseListedEntity(JsonNode entity) {
+        String className = "";
+        JsonNode classNode = entity.get("class");
+        if (classNode != null) {
+            if (classNode.isArray()) {
+                className = classNode.elements().hasNext() ? classNode.elements().next().asText() : "";
+            } else {
+                className = classNode.asText();
+            }
+        }
+
+        if ("asset".equals(className) || "assets/asset".equals(className)) {
+            return parseAsset(entity);
+        } else if (className.contains("folder")) {
+            Asset folderAsset = new Asset();
+            folderAsset.setName(entity.path("properties").path("name").asText());
+            folderAsset.setTitle(entity.path("properties").path("dc:title").asText(folderAsset.getName()));
+            folderAsset.setMimeType("folder");
+            return folderAsset;
+        }
+        return null;
+    }
+
     public List<Folder> listFolders(String folderPath) throws IOException {
-        String apiPath = normalizePath(folderPath);
-        String url = API_BASE + apiPath + ".1.json";
-        
-        JsonNode response = client.get(url);
+        return parseFolderListing(client.get(API_BASE + normalizePath(folderPath) + ".1.json"));
+    }
+
+    public CompletableFuture<List<Folder>> listFoldersAsync(String folderPath) {
+        return client.getAsync(API_BASE + normalizePath(folderPath) + ".1.json").thenApply(this::parseFolderListing);
+    }
+
+    private List<Folder> parseFolderListing(JsonNode response) {
         List<Folder> folders = new ArrayList<>();
         
         if (response.has("entities")) {
@@ -96,12 +137,54 @@ public class AssetsApi {
         return folders;
     }
 
+    /**
+     * Lists one page of a folder's direct children, split into subfolders and assets, with
+     * repository paths filled in from the parent so callers can descend without parsing links.
+     *
+     * @param folderPath the folder, as a DAM or Assets API path
+     * @param offset index of the first child to return
+     * @param limit maximum number of children to return
+     * @return the page; {@link Listing#entities()} below {@code limit} marks the last page
+     * @throws IOException if the API call fails
+     */
+    public Listing listChildren(String folderPath, int offset, int limit) throws IOException {
+        String apiPath = normalizePath(folderPath);
+        JsonNode response = client.get(API_BASE + apiPath + ".1.json?offset=" + offset + "&limit=" + limit);
+        String damPath = DAM_ROOT + apiPath;
+
+        List<Folder> folders = new ArrayList<>();
+        List<Asset> assets = new ArrayList<>();
+        int entities = 0;
+        for (JsonNode entity : response.path("entities")) {
+            entities++;
+            Asset child = parseListedEntity(entity);
+            if (child == null || child.getName() == null || child.getName().isEmpty()) {
+                continue;
+            }
+            String childPath = damPath + "/" + child.getName();
+            if ("folder".equals(child.getMimeType())) {
+                Folder folder = parseFolder(entity);
+                folder.setPath(childPath);
+                folders.add(folder);
+            } else {
+                child.setPath(childPath);
+                assets.add(child);
+            }
+        }
+        return new Listing(folders, assets, entities);
+    }
+
     public Asset get(String path) throws IOException {
         String apiPath = normalizePath(path);
         JsonNode response = client.get(API_BASE + apiPath + ".json");
         return parseAsset(response);
     }
 
+    public CompletableFuture<Asset> getAsync(String path) {
+        String apiPath = normalizePath(path);
+        return client.getAsync(API_BASE + apiPath + ".json").thenApply(this::parseAsset);
+    }
+
     public Folder createFolder(String parentPath, String folderName, String title) throws IOException {
         ObjectNode folderRequest = mapper.createObjectNode();
         folderRequest.put("jcr:primaryType", "sling:Folder");
@@ -160,7 +243,7 @@ public class AssetsApi {
         String url = API_BASE + apiPath + "/" + fileName;
         
         try {
-            JsonNode response = client.upload(url, data, "application/octet-stream");
+            JsonNode response = client.upload(url, data, mimeType != null ? mimeType : "application/octet-stream");
             return parseAsset(response);
         } catch (Exception e) {
             throw new IOException("Failed to upload asset: " + e.getMessage(), e);
@@ -168,15 +251,53 @@ public class AssetsApi {
     }
 
     public Asset uploadFile(String folderPath, java.nio.file.Path filePath) throws IOException {
+        return uploadFile(folderPath, filePath, null);
+    }
+
+    /**
+     * Uploads a local file without reading it into memory. Uses the direct binary upload
+     * protocol (parallel part PUTs) when the instance supports it and falls back to a
+     * streamed POST to the Assets HTTP API otherwise.
+     *
+     * @param folderPath the DAM folder
+     * @param filePath the local file
+     * @param listener optional progress listener, or null
+     * @return the uploaded asset
+     * @throws IOException if the upload fails
+     */
+    public Asset uploadFile(String folderPath, Path filePath, AemApiClient.TransferListener listener) throws IOException {
         String fileName = filePath.getFileName().toString();
-        byte[] data = java.nio.file.Files.readAllBytes(filePath);
-        
-        String mimeType = java.nio.file.Files.probeContentType(filePath);
+        String mimeType = Files.probeContentType(filePath);
         if (mimeType == null) {
             mimeType = "application/octet-stream";
         }
-        
-        return upload(folderPath, fileName, data, mimeType);
+
+        String apiPath = normalizePath(folderPath);
+        if (directBinaryUploadSupported) {
+            try {
+                String assetPath = directUpload.upload(DAM_ROOT + apiPath, filePath, mimeType, listener);
+                Asset asset = new Asset();
+                asset.setPath(assetPath);
+                asset.setName(fileName);
+                asset.setTitle(fileName);
+                asset.setMimeType(mimeType);
+                asset.setSize(Files.size(filePath));
+                return asset;
+            } catch (DirectBinaryUpload.UnsupportedException e) {
+                directBinaryUploadSupported = false;
+            }
+        }
+
+        try {
+            JsonNode response = client.upload(API_BASE + apiPath + "/" + fileName, filePath, mimeType);
+            if (listener != null) {
+                long size = Files.size(filePath);
+                listener.onProgress(size, size);
+            }
+            return parseAsset(response);
+        } catch (Exception e) {
+            throw new IOException("Failed to upload asset: " + e.getMessage(), e);
+        }
     }
 
     public boolean deleteAsset(String path) throws IOException {
@@ -188,14 +309,27 @@ public class AssetsApi {
         return deleteAsset(path);
     }
 
+    public CompletableFuture<Boolean> deleteAssetAsync(String path) {
+        String apiPath = normalizePath(path);
+        return client.deleteAsync(API_BASE + apiPath);
+    }
+
     public Asset updateMetadata(String path, JsonNode metadata) throws IOException {
         String apiPath = normalizePath(path);
+        JsonNode response = client.put(API_BASE + apiPath + ".json", metadataRequest(metadata));
+        return parseAsset(response);
+    }
+
+    public CompletableFuture<Asset> updateMetadataAsync(String path, JsonNode metadata) {
+        String apiPath = normalizePath(path);
+        return client.putAsync(API_BASE + apiPath + ".json", metadataRequest(metadata)).thenApply(this::parseAsset);
+    }
+
+    private ObjectNode metadataRequest(JsonNode metadata) {
         ObjectNode request = mapper.createObjectNode();
         request.put("class", "asset");
         request.set("properties", metadata);
-        
-        JsonNode response = client.put(API_BASE + apiPath + ".json", request);
-        return parseAsset(response);
+        return request;
     }
 
     public JsonNode move(String sourcePath, String destPath) throws IOException {
@@ -315,6 +449,12 @@ public class AssetsApi {
         return folder;
     }
 
+    /**
+     * One page of a folder listing.
+     */
+    public record Listing(List<Folder> folders, List<Asset> assets, int entities) {
+    }
+
     public static class Asset {
         private String path;
         private String name;
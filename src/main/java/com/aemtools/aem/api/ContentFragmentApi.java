@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class ContentFragmentApi {
 
@@ -21,10 +22,19 @@ public class ContentFragmentApi {
     }
 
     public List<ContentFragment> list(String folderPath, int limit) throws IOException {
+        return parseFragmentListing(client.get(listUrl(folderPath, limit)));
+    }
+
+    public CompletableFuture<List<ContentFragment>> listAsync(String folderPath, int limit) {
+        return client.getAsync(listUrl(folderPath, limit)).thenApply(this::parseFragmentListing);
+    }
+
+    private String listUrl(String folderPath, int limit) {
         String path = folderPath.endsWith("/") ? folderPath : folderPath + "/";
-        String url = ".1.json?type=dam:ContentFragment&p.limit=" + limit;
-        
-        JsonNode response = client.get(path + url);
+        return path + ".1.json?type=dam:ContentFragment&p.limit=" + limit;
+    }
+
+    private List<ContentFragment> parseFragmentListing(JsonNode response) {
         List<ContentFragment> fragments = new ArrayList<>();
         
         if (response.has("data")) {
@@ -47,6 +57,10 @@ public class ContentFragmentApi {
         return parseFragment(response);
     }
 
+    public CompletableFuture<ContentFragment> getAsync(String path) {
+        return client.getAsync(path + ".json").thenApply(this::parseFragment);
+    }
+
     public ContentFragment create(String parentPath, String name, String modelPath, String title) throws IOException {
         ObjectNode createRequest = mapper.createObjectNode();
         createRequest.put("model", modelPath);
@@ -65,6 +79,14 @@ public class ContentFragmentApi {
         return client.put("/api/content/fragments" + path + ".json", data);
     }
 
+    public CompletableFuture<Boolean> deleteAsync(String path) {
+        return client.deleteAsync("/api/content/fragments" + path);
+    }
+
+    public CompletableFuture<JsonNode> updateAsync(String path, JsonNode data) {
+        return client.putAsync("/api/content/fragments" + path + ".json", data);
+    }
+
     public String exportToJson(String folderPath, int limit) throws IOException {
         List<ContentFragment> fragments = list(folderPath, limit);
         ArrayNode jsonArray = mapper.createArrayNode();
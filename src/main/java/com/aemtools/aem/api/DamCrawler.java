@@ -0,0 +1,201 @@
+package com.aemtools.aem.api;
+
+import com.aemtools.aem.api.AssetsApi.Asset;
+import com.aemtools.aem.api.AssetsApi.Folder;
+import com.aemtools.aem.operations.OperationExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Walks a DAM folder tree through the Assets HTTP API with many folder listings in flight.
+ * <p>
+ * Every folder is listed on its own virtual thread, with an {@link OperationExecutor} capping
+ * how many listings run at once; subfolders are queued as soon as their parent's page arrives,
+ * so the walk fans out breadth-first across the tree instead of descending one request at a
+ * time. Large folders are read in pages of {@code pageSize} children.
+ * <p>
+ * The visitor is called as entries are discovered, never concurrently, and a folder is always
+ * visited before anything inside it. Entries arrive in no particular order across folders.
+ */
+public class DamCrawler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DamCrawler.class);
+
+    public static final int DEFAULT_MAX_CONCURRENT = 16;
+    public static final int DEFAULT_PAGE_SIZE = 200;
+
+    /**
+     * Receives entries as the crawl discovers them.
+     */
+    public interface Visitor {
+        /**
+         * @param depth 1 for children of the crawl root
+         */
+        void visitFolder(Folder folder, int depth);
+
+        void visitAsset(Asset asset, int depth);
+
+        default void onError(String folderPath, IOException error) {
+        }
+    }
+
+    private final AssetsApi assets;
+    private int maxDepth = -1;
+    private int maxConcurrent = DEFAULT_MAX_CONCURRENT;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private volatile boolean cancelled;
+
+    public DamCrawler(AssetsApi assets) {
+        this.assets = assets;
+    }
+
+    /**
+     * Number of levels below the root to visit; 1 visits only the root's children.
+     * Negative means unlimited.
+     */
+    public DamCrawler setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    public DamCrawler setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        return this;
+    }
+
+    public DamCrawler setPageSize(int pageSize) {
+        this.pageSize = Math.max(1, pageSize);
+        return this;
+    }
+
+    /**
+     * Stops a running crawl: listings already in flight finish, nothing new is started.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Crawls below a folder and blocks until the whole tree is walked or the crawl is cancelled.
+     *
+     * @param rootPath the folder to start from, e.g. /content/dam/site
+     * @param visitor receives every folder and asset found
+     * @return counts for the crawl
+     * @throws IOException if interrupted
+     */
+    public CrawlStats crawl(String rootPath, Visitor visitor) throws IOException {
+        cancelled = false;
+        Crawl crawl = new Crawl(visitor);
+        long start = System.nanoTime();
+        crawl.submit(rootPath, 0);
+        try {
+            crawl.done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new IOException("Crawl interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Crawl failed", e.getCause());
+        } finally {
+            crawl.executor.shutdownNow();
+        }
+        CrawlStats stats = new CrawlStats(crawl.folders.sum(), crawl.assetCount.sum(), crawl.requests.sum(),
+            crawl.errors.sum(), (System.nanoTime() - start) / 1_000_000, cancelled);
+        logger.info("Crawled {}: {}", rootPath, stats);
+        return stats;
+    }
+
+    /**
+     * State of one crawl, so a crawler can be reused.
+     */
+    private class Crawl {
+        final OperationExecutor executor = new OperationExecutor(OperationExecutor.Mode.VIRTUAL, maxConcurrent);
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger();
+        final Visitor visitor;
+        final LongAdder folders = new LongAdder();
+        final LongAdder assetCount = new LongAdder();
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        Crawl(Visitor visitor) {
+            this.visitor = visitor;
+        }
+
+        void submit(String folderPath, int depth) {
+            pending.incrementAndGet();
+            executor.submit(() -> {
+                try {
+                    list(folderPath, depth);
+                } catch (RuntimeException e) {
+                    done.completeExceptionally(e);
+                } finally {
+                    if (pending.decrementAndGet() == 0) {
+                        done.complete(null);
+                    }
+                }
+            });
+        }
+
+        private void list(String folderPath, int depth) {
+            int offset = 0;
+            while (!cancelled) {
+                AssetsApi.Listing page;
+                try {
+                    requests.increment();
+                    page = assets.listChildren(folderPath, offset, pageSize);
+                } catch (IOException e) {
+                    errors.increment();
+                    logger.debug("Failed to list {}: {}", folderPath, e.getMessage());
+                    synchronized (visitor) {
+                        visitor.onError(folderPath, e);
+                    }
+                    return;
+                }
+                int childDepth = depth + 1;
+                synchronized (visitor) {
+                    for (Folder folder : page.folders()) {
+                        visitor.visitFolder(folder, childDepth);
+                    }
+                    for (Asset asset : page.assets()) {
+                        visitor.visitAsset(asset, childDepth);
+                    }
+                }
+                folders.add(page.folders().size());
+                assetCount.add(page.assets().size());
+                if (maxDepth < 0 || childDepth < maxDepth) {
+                    for (Folder folder : page.folders()) {
+                        submit(folder.getPath(), childDepth);
+                    }
+                }
+                if (page.entities() < pageSize) {
+                    return;
+                }
+                offset += page.entities();
+            }
+        }
+    }
+
+    /**
+     * Counts for a finished crawl.
+     */
+    public record CrawlStats(long folders, long assets, long requests, long errors, long elapsedMs,
+                             boolean cancelled) {
+
+        public double assetsPerSecond() {
+            return elapsedMs > 0 ? assets * 1000.0 / elapsedMs : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d folders, %d assets, %d requests, %d errors in %d ms%s",
+                folders, assets, requests, errors, elapsedMs, cancelled ? " (cancelled)" : "");
+        }
+    }
+}
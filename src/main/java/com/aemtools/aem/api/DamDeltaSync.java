@@ -0,0 +1,334 @@
+package com.aemtools.aem.api;
+
+import com.aemtools.aem.api.AssetsApi.Asset;
+import com.aemtools.aem.client.AemApiClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Keeps a {@link DamSnapshot} of a DAM subtree current by fetching only assets whose
+ * {@code jcr:content/jcr:lastModified} is at or after the snapshot's watermark, so a refresh
+ * costs requests in proportion to what changed rather than to the size of the tree.
+ * <p>
+ * The first sync loads everything. Later syncs query QueryBuilder with a {@code daterange} on
+ * the last-modified date, paging by that date rather than by offset, so assets saved while
+ * the sync runs cannot shift a page and be skipped. The lower bound is moved back by
+ * {@link #DEFAULT_OVERLAP} to absorb clock skew and index lag; re-fetched assets are merged
+ * idempotently.
+ * <p>
+ * Deletions and moves do not touch {@code jcr:lastModified}, so they are found by a cheaper
+ * check: every sync compares the exact asset count with the snapshot's, and when they differ,
+ * when {@link #setVerifyInterval(Duration) the verify interval} has passed, or when asked, it
+ * lists just the asset paths and reconciles them with the snapshot.
+ */
+public class DamDeltaSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(DamDeltaSync.class);
+
+    public static final Duration DEFAULT_OVERLAP = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_VERIFY_INTERVAL = Duration.ofHours(24);
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    private static final String LAST_MODIFIED = "jcr:content/jcr:lastModified";
+    private static final DateTimeFormatter ECMA_DATE =
+        DateTimeFormatter.ofPattern("EEE MMM dd yyyy HH:mm:ss 'GMT'Z", Locale.US);
+
+    private final AemApiClient client;
+    private final DamSnapshot snapshot;
+    private Duration overlap = DEFAULT_OVERLAP;
+    private Duration verifyInterval = DEFAULT_VERIFY_INTERVAL;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private int requests;
+
+    public DamDeltaSync(AemApiClient client, DamSnapshot snapshot) {
+        this.client = client;
+        this.snapshot = snapshot;
+    }
+
+    public DamDeltaSync setOverlap(Duration overlap) {
+        this.overlap = overlap;
+        return this;
+    }
+
+    /**
+     * How often the path set is reconciled even when the asset count matches.
+     */
+    public DamDeltaSync setVerifyInterval(Duration verifyInterval) {
+        this.verifyInterval = verifyInterval;
+        return this;
+    }
+
+    public DamDeltaSync setPageSize(int pageSize) {
+        this.pageSize = Math.max(1, pageSize);
+        return this;
+    }
+
+    /**
+     * Brings the snapshot up to date and saves it.
+     *
+     * @param verify reconcile the path set with AEM regardless of count or interval
+     * @return what changed
+     * @throws IOException if a query fails; the saved snapshot is left unchanged
+     */
+    public SyncResult sync(boolean verify) throws IOException {
+        long start = System.currentTimeMillis();
+        requests = 0;
+        Counts counts = new Counts();
+        boolean full = snapshot.isEmpty() || snapshot.getWatermark() == 0;
+        boolean verified = false;
+
+        if (full) {
+            loadAll(counts);
+            snapshot.setLastVerified(start);
+        } else {
+            loadChangedSince(snapshot.getWatermark() - overlap.toMillis(), counts);
+            boolean due = verify || start - snapshot.getLastVerified() >= verifyInterval.toMillis();
+            if (!due) {
+                long remote = countAssets();
+                due = remote != snapshot.size();
+                if (due) {
+                    logger.info("Snapshot has {} assets, AEM has {}: reconciling", snapshot.size(), remote);
+                }
+            }
+            if (due) {
+                reconcile(counts);
+                snapshot.setLastVerified(start);
+                verified = true;
+            }
+        }
+        snapshot.save();
+
+        SyncResult result = new SyncResult(snapshot.getRootPath(), full, counts.fetched, counts.added,
+            counts.updated, counts.removed, snapshot.size(), verified,
+            requests, System.currentTimeMillis() - start);
+        logger.info("Synced {}", result);
+        return result;
+    }
+
+    private String baseQuery() {
+        return "/bin/querybuilder.json?path=" + encode(snapshot.getRootPath()) + "&type=dam:Asset";
+    }
+
+    private void loadAll(Counts counts) throws IOException {
+        QueryPager<JsonNode> pager = new QueryPager<>(client, baseQuery() + "&p.hits=full&p.nodedepth=2",
+            pageSize, hit -> hit).setPrefetch(true);
+        snapshot.clear();
+        long watermark = 0;
+        try (pager) {
+            while (pager.hasNext()) {
+                watermark = Math.max(watermark, merge(pager.next(), counts));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            requests += pager.getPagesFetched();
+        }
+        snapshot.setWatermark(watermark);
+    }
+
+    /**
+     * Pages through assets modified at or after {@code since}, keyed on the last-modified date:
+     * each page starts at the newest date of the previous one and skips the hits already seen
+     * with exactly that date.
+     */
+    private void loadChangedSince(long since, Counts counts) throws IOException {
+        long bound = Math.max(0, since);
+        int skip = 0;
+        long watermark = snapshot.getWatermark();
+        while (true) {
+            String query = baseQuery()
+                + "&daterange.property=" + encode(LAST_MODIFIED)
+                + "&daterange.lowerBound=" + encode(Instant.ofEpochMilli(bound).toString())
+                + "&daterange.lowerOperation=" + encode(">=")
+                + "&orderby=" + encode("@" + LAST_MODIFIED) + "&orderby.sort=asc"
+                + "&p.hits=full&p.nodedepth=2&p.guessTotal=true"
+                + "&p.offset=" + skip + "&p.limit=" + pageSize;
+            requests++;
+            JsonNode hits = client.getUncached(query).path("hits");
+
+            long last = -1;
+            int atLast = 0;
+            for (JsonNode hit : hits) {
+                long modified = merge(hit, counts);
+                watermark = Math.max(watermark, modified);
+                if (modified == last) {
+                    atLast++;
+                } else {
+                    last = modified;
+                    atLast = 1;
+                }
+            }
+            if (hits.size() < pageSize) {
+                break;
+            }
+            if (last > bound) {
+                bound = last;
+                skip = atLast;
+            } else {
+                // A whole page shared the bound's date, or its last hit had no usable date;
+                // moving the bound would stall or rewind, so step past the page by offset.
+                skip += hits.size();
+            }
+        }
+        snapshot.setWatermark(watermark);
+    }
+
+    /**
+     * Lists every asset path and brings the snapshot's path set in line: paths gone from AEM
+     * are dropped, and paths the snapshot lacks (typically moved assets, whose dates did not
+     * change) are fetched.
+     */
+    private void reconcile(Counts counts) throws IOException {
+        QueryPager<String> pager = new QueryPager<>(client,
+            baseQuery() + "&p.hits=selective&p.properties=jcr:path", 1000,
+            hit -> hit.path("jcr:path").asText(null)).setPrefetch(true);
+        Set<String> remote;
+        try (pager) {
+            remote = new HashSet<>(pager.toList());
+        } finally {
+            requests += pager.getPagesFetched();
+        }
+
+        List<String> gone = new ArrayList<>();
+        for (String path : snapshot.getPaths()) {
+            if (!remote.contains(path)) {
+                gone.add(path);
+            }
+        }
+        for (String path : gone) {
+            snapshot.remove(path);
+            counts.removed++;
+        }
+        for (String path : remote) {
+            if (!snapshot.contains(path)) {
+                fetchOne(path, counts);
+            }
+        }
+    }
+
+    private void fetchOne(String path, Counts counts) throws IOException {
+        requests++;
+        JsonNode response = client.getUncached("/bin/querybuilder.json?path=" + encode(path)
+            + "&path.exact=true&type=dam:Asset&p.hits=full&p.nodedepth=2&p.limit=1");
+        for (JsonNode hit : response.path("hits")) {
+            merge(hit, counts);
+        }
+    }
+
+    private long countAssets() throws IOException {
+        requests++;
+        return client.getUncached(baseQuery() + "&p.limit=0").path("total").asLong(-1);
+    }
+
+    /**
+     * Merges one full hit into the snapshot.
+     *
+     * @return its last-modified time in epoch milliseconds, or 0 if unknown
+     */
+    private long merge(JsonNode hit, Counts counts) {
+        String path = hit.path("jcr:path").asText(hit.path("path").asText());
+        if (path.isEmpty()) {
+            return 0;
+        }
+        JsonNode content = hit.path("jcr:content");
+        JsonNode metadata = content.path("metadata");
+        long modified = parseDate(content.path("jcr:lastModified").asText(null));
+
+        Asset asset = new Asset();
+        asset.setPath(path);
+        asset.setName(path.substring(path.lastIndexOf('/') + 1));
+        asset.setTitle(metadata.path("dc:title").asText(asset.getName()));
+        asset.setMimeType(metadata.path("dc:format").asText());
+        asset.setDescription(metadata.path("dc:description").asText());
+        asset.setSize(metadata.path("dam:size").asLong(0));
+        long created = parseDate(hit.path("jcr:created").asText(null));
+        asset.setCreated(created > 0 ? Instant.ofEpochMilli(created).toString() : null);
+        asset.setModified(modified > 0 ? Instant.ofEpochMilli(modified).toString() : null);
+
+        List<String> tags = new ArrayList<>();
+        JsonNode tagValues = metadata.path("cq:tags");
+        if (tagValues.isArray()) {
+            tagValues.forEach(tag -> tags.add(tag.asText()));
+        } else if (tagValues.isTextual()) {
+            tags.add(tagValues.asText());
+        }
+        String model = content.path("data").path("cq:model").asText(null);
+
+        counts.fetched++;
+        if (snapshot.put(asset, tags, model)) {
+            counts.added++;
+        } else {
+            counts.updated++;
+        }
+        return modified;
+    }
+
+    /**
+     * Parses a JCR date as rendered by QueryBuilder, either ISO-8601 or the ECMAScript form
+     * Sling uses in JSON ({@code Tue Oct 17 2023 10:15:30 GMT+0200}).
+     *
+     * @return epoch milliseconds, or 0 if missing or unparseable
+     */
+    static long parseDate(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return OffsetDateTime.parse(value).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            // fall through to the ECMAScript form
+        }
+        try {
+            int paren = value.indexOf(" (");
+            String trimmed = paren > 0 ? value.substring(0, paren) : value;
+            return OffsetDateTime.parse(trimmed, ECMA_DATE).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static class Counts {
+        long fetched;
+        long added;
+        long updated;
+        long removed;
+    }
+
+    /**
+     * Outcome of one sync.
+     *
+     * @param full       the snapshot was loaded from scratch
+     * @param fetched    assets read from AEM, including overlap re-reads
+     * @param verified   the path set was reconciled during this sync
+     */
+    public record SyncResult(String rootPath, boolean full, long fetched, long added, long updated,
+                             long removed, int total, boolean verified, int requests, long elapsedMs) {
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s, %d fetched, %d added, %d updated, %d removed, %d total, %d requests in %d ms%s",
+                rootPath, full ? "full load" : "delta", fetched, added, updated, removed, total, requests,
+                elapsedMs, verified ? " (verified)" : "");
+        }
+    }
+}
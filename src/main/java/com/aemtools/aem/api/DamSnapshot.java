@@ -0,0 +1,194 @@
+package com.aemtools.aem.api;
+
+import com.aemtools.aem.api.AssetsApi.Asset;
+import com.aemtools.aem.snapshot.SnapshotStore;
+import com.aemtools.aem.snapshot.SnapshotStore.Node;
+import com.aemtools.aem.snapshot.SnapshotStore.SyncState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Local copy of the assets below one DAM path, kept up to date by {@link DamDeltaSync}.
+ * <p>
+ * Besides the assets themselves it records the high-watermark, the newest
+ * {@code jcr:lastModified} merged so far, and when the set of paths was last checked against
+ * AEM. Entries live in the {@link SnapshotStore} with their tags and content fragment model,
+ * so offline queries can use them. Changes are held in memory until {@link #save()}, which
+ * writes them and the watermark in one transaction, so an interrupted sync leaves the
+ * previous state intact.
+ */
+public class DamSnapshot {
+
+    private final SnapshotStore store;
+    private final String environment;
+    private final String rootPath;
+    private final Map<String, Asset> assets = new TreeMap<>();
+    private final Map<String, Node> dirty = new HashMap<>();
+    private final Set<String> removed = new LinkedHashSet<>();
+    private boolean cleared;
+    private long watermark;
+    private long lastVerified;
+
+    public DamSnapshot(SnapshotStore store, String environment, String rootPath) {
+        this.store = store;
+        this.environment = environment;
+        this.rootPath = rootPath.endsWith("/") && rootPath.length() > 1
+            ? rootPath.substring(0, rootPath.length() - 1) : rootPath;
+    }
+
+    /**
+     * Loads the snapshot of a root path for an environment from the shared store.
+     */
+    public static DamSnapshot open(String environment, String rootPath) throws IOException {
+        DamSnapshot snapshot = new DamSnapshot(SnapshotStore.getInstance(), environment, rootPath);
+        snapshot.load();
+        return snapshot;
+    }
+
+    private String scope() {
+        return "dam:" + rootPath;
+    }
+
+    /**
+     * Reads the stored assets and sync state, discarding unsaved changes.
+     */
+    public void load() throws IOException {
+        assets.clear();
+        dirty.clear();
+        removed.clear();
+        cleared = false;
+        for (Node node : store.query(environment, new SnapshotStore.Query()
+                .setType(SnapshotStore.TYPE_ASSET).setRoot(rootPath, false))) {
+            assets.put(node.path(), store.read(node, Asset.class));
+        }
+        SyncState state = store.getSyncState(environment, scope());
+        watermark = state.watermark();
+        lastVerified = state.lastVerified();
+    }
+
+    /**
+     * Writes the pending changes and sync state in one transaction.
+     */
+    public void save() throws IOException {
+        store.write(environment, writer -> {
+            if (cleared) {
+                writer.deleteUnder(SnapshotStore.TYPE_ASSET, rootPath);
+            }
+            for (String path : removed) {
+                writer.delete(path);
+            }
+            for (Node node : dirty.values()) {
+                writer.put(node);
+            }
+            writer.setSyncState(scope(), new SyncState(watermark, lastVerified));
+        });
+        dirty.clear();
+        removed.clear();
+        cleared = false;
+    }
+
+    /**
+     * Discards all entries so the next sync reloads everything.
+     */
+    public void clear() {
+        assets.clear();
+        dirty.clear();
+        removed.clear();
+        cleared = true;
+        watermark = 0;
+        lastVerified = 0;
+    }
+
+    /**
+     * Adds or replaces an asset.
+     *
+     * @return true if the path was not in the snapshot before
+     */
+    public boolean put(Asset asset) {
+        return put(asset, List.of(), null);
+    }
+
+    /**
+     * Adds or replaces an asset with its {@code cq:tags} and, for content fragments, its model.
+     *
+     * @return true if the path was not in the snapshot before
+     */
+    public boolean put(Asset asset, List<String> tags, String model) {
+        String path = asset.getPath();
+        removed.remove(path);
+        dirty.put(path, store.node(SnapshotStore.TYPE_ASSET, path, asset, model,
+            DamDeltaSync.parseDate(asset.getModified()), tags));
+        return assets.put(path, asset) == null;
+    }
+
+    public boolean remove(String path) {
+        dirty.remove(path);
+        if (assets.remove(path) != null) {
+            removed.add(path);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean contains(String path) {
+        return assets.containsKey(path);
+    }
+
+    public Asset get(String path) {
+        return assets.get(path);
+    }
+
+    public Collection<Asset> getAssets() {
+        return assets.values();
+    }
+
+    public Set<String> getPaths() {
+        return assets.keySet();
+    }
+
+    public int size() {
+        return assets.size();
+    }
+
+    public boolean isEmpty() {
+        return assets.isEmpty();
+    }
+
+    public String getRootPath() {
+        return rootPath;
+    }
+
+    public Path getFile() {
+        return store.getFile();
+    }
+
+    /**
+     * Newest {@code jcr:lastModified} merged into the snapshot, in epoch milliseconds.
+     */
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    /**
+     * When the snapshot's paths were last reconciled with AEM, in epoch milliseconds.
+     */
+    public long getLastVerified() {
+        return lastVerified;
+    }
+
+    public void setLastVerified(long lastVerified) {
+        this.lastVerified = lastVerified;
+    }
+}
@@ -11,6 +11,7 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.Map;
 
 public class GraphQLApi {
@@ -31,6 +32,16 @@ public class GraphQLApi {
     }
 
     public JsonNode executeQuery(String endpoint, String query, Map<String, Object> variables) throws IOException {
+        String path = "/graphql/execute.json/" + endpoint;
+        return client.post(path, queryRequest(query, variables));
+    }
+
+    public CompletableFuture<JsonNode> executeQueryAsync(String endpoint, String query, Map<String, Object> variables) {
+        String path = "/graphql/execute.json/" + endpoint;
+        return client.postAsync(path, queryRequest(query, variables));
+    }
+
+    private ObjectNode queryRequest(String query, Map<String, Object> variables) {
         ObjectNode request = mapper.createObjectNode();
         request.put("query", query);
         
@@ -41,9 +52,7 @@ public class GraphQLApi {
             }
             request.set("variables", varsNode);
         }
-        
-        String path = "/graphql/execute.json/" + endpoint;
-        return client.post(path, request);
+        return request;
     }
 
     public JsonNode executePersistedQuery(String persistedQueryName) throws IOException {
@@ -56,6 +65,10 @@ public class GraphQLApi {
         return client.get(path);
     }
 
+    public CompletableFuture<JsonNode> executePersistedQueryAsync(String endpoint, String persistedQueryName) {
+        return client.getAsync("/graphql/execute.json/" + endpoint + "/" + persistedQueryName);
+    }
+
     public JsonNode executePersistedQuery(String endpoint, String persistedQueryName, Map<String, Object> variables) throws IOException {
         String varsParam = "";
         if (variables != null && !variables.isEmpty()) {
@@ -1,6 +1,7 @@
 package com.aemtools.aem.api;
 
 import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.client.PathIndex;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -10,6 +11,8 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.Map;
 
 public class PackagesApi {
 
@@ -22,11 +25,20 @@ public class PackagesApi {
     }
 
     public List<Package> list(String group) throws IOException {
-        String path = group != null 
+        return parsePackageList(client.get(listPath(group)));
+    }
+
+    public CompletableFuture<List<Package>> listAsync(String group) {
+        return client.getAsync(listPath(group)).thenApply(this::parsePackageList);
+    }
+
+    private static String listPath(String group) {
+        return group != null 
             ? "/crx/packmgr/list.jsp?filter=" + group + ":*" 
             : "/crx/packmgr/list.jsp";
-        
-        JsonNode response = client.get(path);
+    }
+
+    private List<Package> parsePackageList(JsonNode response) {
         List<Package> packages = new ArrayList<>();
         
         if (response.has("results")) {
@@ -45,6 +57,10 @@ public class PackagesApi {
         return parsePackage(response);
     }
 
+    public CompletableFuture<Package> getAsync(String group, String name) {
+        return client.getAsync("/crx/packmgr/" + group + "/" + name + ".json").thenApply(this::parsePackage);
+    }
+
     public boolean build(String group, String name) throws IOException {
         ObjectNode request = mapper.createObjectNode();
         request.put("cmd", "build");
@@ -59,8 +75,9 @@ public class PackagesApi {
         ObjectNode request = mapper.createObjectNode();
         request.put("cmd", "install");
         
+        // The package may touch any part of the repository
         String path = "/crx/packmgr/service.jsp/" + group + "/" + name;
-        JsonNode response = client.post(path, request);
+        JsonNode response = client.post(path, request, List.of(PathIndex.ROOT));
         
         return response.has("success") && response.get("success").asBoolean();
     }
@@ -69,8 +86,9 @@ public class PackagesApi {
         ObjectNode request = mapper.createObjectNode();
         request.put("cmd", "uninstall");
         
+        // The package may touch any part of the repository
         String path = "/crx/packmgr/service.jsp/" + group + "/" + name;
-        JsonNode response = client.post(path, request);
+        JsonNode response = client.post(path, request, List.of(PathIndex.ROOT));
         
         return response.has("success") && response.get("success").asBoolean();
     }
@@ -80,33 +98,81 @@ public class PackagesApi {
         return client.delete(path);
     }
 
+    /**
+     * Uploads a package archive as a multipart file part streamed from disk. Fails if a
+     * package with the same name and version already exists.
+     *
+     * @param zipPath the local package file
+     * @return the uploaded package
+     * @throws IOException if the upload fails
+     */
     public Package upload(Path zipPath) throws IOException {
-        byte[] data = java.nio.file.Files.readAllBytes(zipPath);
-        String fileName = zipPath.getFileName().toString();
-        
-        return upload(data, fileName);
+        return upload(zipPath, false);
+    }
+
+    /**
+     * Uploads a package archive as a multipart file part streamed from disk.
+     *
+     * @param zipPath the local package file
+     * @param force whether to replace an existing package with the same name and version
+     * @return the uploaded package
+     * @throws IOException if the upload fails
+     */
+    public Package upload(Path zipPath, boolean force) throws IOException {
+        String path = "/crx/packmgr/service/.json/?cmd=upload";
+        JsonNode response = client.postMultipart(path, Map.of("force", String.valueOf(force)), "package", zipPath,
+            "application/zip");
+        return parseUploadResponse(response);
     }
 
     public Package upload(byte[] zipData, String fileName) throws IOException {
         String path = "/crx/packmgr/service.jsp?cmd=upload";
         
         JsonNode response = client.upload(path, zipData, "application/zip");
-        
+        return parseUploadResponse(response);
+    }
+
+    private Package parseUploadResponse(JsonNode response) throws IOException {
         if (response.has("success") && response.get("success").asBoolean()) {
-            return parsePackage(response.path("package"));
+            return parsePackage(response.has("package") ? response.get("package") : response);
         }
         
         throw new IOException("Upload failed: " + response.toString());
     }
 
     public boolean download(String group, String name, Path destPath) throws IOException {
-        String path = "/crx/packmgr/" + group + "/" + name + ".zip";
-        byte[] data = client.download(path);
-        
-        java.nio.file.Files.write(destPath, data);
+        download(group, name, destPath, null);
         return true;
     }
 
+    /**
+     * Streams a package archive to disk. Heap usage stays constant regardless of package size.
+     *
+     * @param group the package group
+     * @param name the package name
+     * @param destPath the local file to write
+     * @param listener optional progress listener, or null
+     * @return bytes written and the SHA-256 of the archive
+     * @throws IOException if the download fails or is incomplete
+     */
+    public AemApiClient.TransferResult download(String group, String name, Path destPath,
+                                                AemApiClient.TransferListener listener) throws IOException {
+        return download(group, name, destPath, null, listener);
+    }
+
+    /**
+     * Streams a package archive to disk and verifies it against a known checksum. The file only
+     * appears at {@code destPath} once the checksum matches.
+     *
+     * @param expectedSha256 hex SHA-256 the archive must have, or null to skip the check
+     * @throws IOException if the download fails, is incomplete or the checksum does not match
+     */
+    public AemApiClient.TransferResult download(String group, String name, Path destPath, String expectedSha256,
+                                                AemApiClient.TransferListener listener) throws IOException {
+        String path = "/crx/packmgr/" + group + "/" + name + ".zip";
+        return client.download(path, destPath, expectedSha256, listener);
+    }
+
     public boolean recreate(String group, String name, String filterXml) throws IOException {
         ObjectNode request = mapper.createObjectNode();
         request.put("cmd", "recreate");
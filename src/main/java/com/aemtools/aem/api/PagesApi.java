@@ -7,8 +7,11 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class PagesApi {
 
@@ -21,9 +24,14 @@ public class PagesApi {
     }
 
     public List<Page> list(String parentPath, int limit) throws IOException {
-        String url = parentPath + ".1.json?type=cq:Page&p.limit=" + limit;
-        
-        JsonNode response = client.get(url);
+        return parsePageListing(client.get(parentPath + ".1.json?type=cq:Page&p.limit=" + limit));
+    }
+
+    public CompletableFuture<List<Page>> listAsync(String parentPath, int limit) {
+        return client.getAsync(parentPath + ".1.json?type=cq:Page&p.limit=" + limit).thenApply(this::parsePageListing);
+    }
+
+    private List<Page> parsePageListing(JsonNode response) {
         List<Page> pages = new ArrayList<>();
         
         if (response.has("data")) {
@@ -41,6 +49,10 @@ public class PagesApi {
         return parsePage(response);
     }
 
+    public CompletableFuture<Page> getAsync(String path) {
+        return client.getAsync(path + ".json").thenApply(this::parsePage);
+    }
+
     public Page getContent(String path) throws IOException {
         JsonNode response = client.get(path + "/jcr:content.json");
         
@@ -76,6 +88,14 @@ public class PagesApi {
         return client.put("/api/pages" + path + "/jcr:content.json", content);
     }
 
+    public CompletableFuture<Boolean> deleteAsync(String path) {
+        return client.deleteAsync("/api/pages" + path);
+    }
+
+    public CompletableFuture<JsonNode> updateAsync(String path, JsonNode content) {
+        return client.putAsync("/api/pages" + path + "/jcr:content.json", content);
+    }
+
     public JsonNode move(String sourcePath, String destPath) throws IOException {
         ObjectNode moveRequest = mapper.createObjectNode();
         moveRequest.put("dest", destPath);
@@ -84,21 +104,26 @@ public class PagesApi {
     }
 
     public List<Page> search(String query, int limit) throws IOException {
-        ObjectNode searchRequest = mapper.createObjectNode();
-        searchRequest.put("text", query);
-        searchRequest.put("type", "cq:Page");
-        
-        JsonNode response = client.post("/bin/cq/search.json", searchRequest);
-        List<Page> pages = new ArrayList<>();
-        
-        if (response.has("hits")) {
-            ArrayNode hits = (ArrayNode) response.get("hits");
-            for (JsonNode hit : hits) {
-                pages.add(parsePage(hit));
-            }
-        }
-        
-        return pages;
+        return scanSearch(query).setMaxResults(limit).toList();
+    }
+
+    /**
+     * Full-text page search through QueryBuilder, read with several result pages in flight
+     * so searches over large sites are not limited to one page.
+     */
+    public ParallelQueryFetcher<Page> scanSearch(String query) {
+        String queryPath = "/bin/querybuilder.json?type=cq:Page&fulltext="
+            + URLEncoder.encode(query, StandardCharsets.UTF_8)
+            + "&p.hits=full&p.nodedepth=1";
+        return new ParallelQueryFetcher<>(client, queryPath, this::parseSearchHit);
+    }
+
+    private Page parseSearchHit(JsonNode hit) {
+        Page page = parsePage(hit.path("jcr:content"));
+        page.setPath(hit.path("jcr:path").asText());
+        page.setName(page.getPath().substring(page.getPath().lastIndexOf('/') + 1));
+        page.setHasContent(hit.has("jcr:content"));
+        return page;
     }
 
     private Page parsePage(JsonNode node) {
@@ -0,0 +1,255 @@
+package com.aemtools.aem.api;
+
+import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.operations.OperationExecutor;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a whole QueryBuilder result with several pages in flight at once.
+ * <p>
+ * The first page is fetched on its own to learn {@code total}; the remaining offsets are then
+ * fanned out over a bounded {@link OperationExecutor} of {@code parallelism} requests. Pages
+ * are handed to the caller strictly in offset order, and at most {@code readAhead} pages are
+ * requested or buffered ahead of the one being consumed, so memory stays bounded however
+ * large the result is. Pages bypass the client's response cache.
+ * <p>
+ * Use {@link QueryPager} instead when results are processed slowly or the query is cheap to
+ * stop early; this fetcher is for full scans where throughput matters. If the result set
+ * changes during the scan, pages are still read up to the initial total, so hits can be
+ * missed or repeated at page boundaries.
+ */
+public class ParallelQueryFetcher<T> implements Iterator<T>, Closeable {
+
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int DEFAULT_READ_AHEAD = 8;
+
+    private final AemApiClient client;
+    private final String query;
+    private final int pageSize;
+    private final Function<JsonNode, T> mapper;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private int readAhead = DEFAULT_READ_AHEAD;
+    private long maxResults = -1;
+
+    private final Deque<CompletableFuture<List<T>>> window = new ArrayDeque<>();
+    private OperationExecutor executor;
+    private Iterator<T> page = Collections.emptyIterator();
+    private long nextOffset;
+    private long end;
+    private long total = -1;
+    private int pagesFetched;
+    private boolean started;
+    private boolean closed;
+
+    /**
+     * @param query a QueryBuilder path without {@code p.offset}, {@code p.limit} or {@code p.guessTotal}
+     * @param mapper maps one hit; hits mapped to null are skipped
+     */
+    public ParallelQueryFetcher(AemApiClient client, String query, int pageSize, Function<JsonNode, T> mapper) {
+        this.client = client;
+        this.query = query.contains("orderby=") ? query : query + "&orderby=path";
+        this.pageSize = Math.max(1, pageSize);
+        this.mapper = mapper;
+    }
+
+    public ParallelQueryFetcher(AemApiClient client, String query, Function<JsonNode, T> mapper) {
+        this(client, query, QueryPager.DEFAULT_PAGE_SIZE, mapper);
+    }
+
+    /**
+     * Maximum number of page requests in flight at once.
+     */
+    public ParallelQueryFetcher<T> setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * Maximum number of pages requested or buffered ahead of the one being consumed;
+     * never less than the parallelism.
+     */
+    public ParallelQueryFetcher<T> setReadAhead(int readAhead) {
+        this.readAhead = Math.max(1, readAhead);
+        return this;
+    }
+
+    /**
+     * Stops after this many hits; negative means all of them.
+     */
+    public ParallelQueryFetcher<T> setMaxResults(long maxResults) {
+        this.maxResults = maxResults;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (!started) {
+                start();
+            }
+            while (!page.hasNext()) {
+                CompletableFuture<List<T>> head = window.poll();
+                if (head == null) {
+                    finish();
+                    return false;
+                }
+                page = await(head).iterator();
+                pagesFetched++;
+                fill();
+            }
+            return true;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.next();
+    }
+
+    private void start() throws IOException {
+        started = true;
+        if (maxResults == 0) {
+            return;
+        }
+        int firstLimit = (int) (maxResults >= 0 ? Math.min(pageSize, maxResults) : pageSize);
+        // An exact total for full scans; when capped, counting stops at the cap.
+        String first = query + "&p.offset=0&p.limit=" + firstLimit
+            + (maxResults >= 0 ? "&p.guessTotal=" + maxResults : "");
+        JsonNode response = client.getUncached(first);
+        JsonNode hits = response.path("hits");
+        pagesFetched++;
+        total = response.path("total").asLong(hits.size());
+        end = maxResults >= 0 ? Math.min(total, maxResults) : total;
+        nextOffset = hits.size();
+        if (hits.size() < firstLimit) {
+            end = nextOffset;
+        }
+        page = map(hits).iterator();
+
+        if (nextOffset < end) {
+            executor = new OperationExecutor(OperationExecutor.Mode.VIRTUAL, parallelism);
+            fill();
+        }
+    }
+
+    private void fill() {
+        int depth = Math.max(readAhead, parallelism);
+        while (window.size() < depth && nextOffset < end) {
+            long offset = nextOffset;
+            int limit = (int) Math.min(pageSize, end - offset);
+            String path = query + "&p.offset=" + offset + "&p.limit=" + limit + "&p.guessTotal=true";
+            window.add(executor.supply(() -> map(client.getUncached(path).path("hits"))));
+            nextOffset += limit;
+        }
+    }
+
+    private List<T> map(JsonNode hits) {
+        List<T> results = new ArrayList<>(hits.size());
+        for (JsonNode hit : hits) {
+            T mapped = mapper.apply(hit);
+            if (mapped != null) {
+                results.add(mapped);
+            }
+        }
+        return results;
+    }
+
+    private static <R> R await(CompletableFuture<R> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private void finish() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Drains the remaining results into a list and closes the fetcher.
+     *
+     * @throws IOException if fetching a page fails
+     */
+    public List<T> toList() throws IOException {
+        List<T> results = new ArrayList<>();
+        try {
+            forEachRemaining(results::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            close();
+        }
+        return results;
+    }
+
+    /**
+     * Wraps this fetcher in a sequential stream that cancels outstanding pages when closed.
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this,
+            Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * The total reported by the first page, or -1 before it arrived.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public int getPagesFetched() {
+        return pagesFetched;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        page = Collections.emptyIterator();
+        for (CompletableFuture<List<T>> pending : window) {
+            pending.cancel(true);
+        }
+        window.clear();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
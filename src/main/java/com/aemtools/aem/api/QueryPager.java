@@ -0,0 +1,214 @@
+package com.aemtools.aem.api;
+
+import com.aemtools.aem.client.AemApiClient;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily walks every hit of a QueryBuilder query, fetching one {@code p.offset}/{@code p.limit}
+ * page at a time as the caller consumes the previous one, so listings are no longer truncated
+ * at a single {@code p.limit} and memory use is bounded by the page size.
+ * <p>
+ * With {@link #setPrefetch(boolean) prefetch} enabled, the next page is requested in the
+ * background as soon as a page arrives, overlapping network latency with processing.
+ * <p>
+ * Pages bypass the client's response cache: each is read once, and a cached page could predate
+ * the rest of the walk.
+ * <p>
+ * Offset paging is only correct over a stable order, so {@code orderby=path} is added to
+ * queries that do not specify one. Results that change while paging (for example content
+ * being retagged by the caller) can shift later pages; collect the paths first in that case.
+ */
+public class QueryPager<T> implements Iterator<T>, Closeable {
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    private final AemApiClient client;
+    private final String query;
+    private final int pageSize;
+    private final Function<JsonNode, T> mapper;
+    private boolean prefetch;
+    private long maxResults = -1;
+
+    private Iterator<T> page = Collections.emptyIterator();
+    private CompletableFuture<JsonNode> pending;
+    private long offset;
+    private long returned;
+    private long total = -1;
+    private int pagesFetched;
+    private boolean lastPage;
+    private boolean closed;
+
+    /**
+     * @param query a QueryBuilder path such as {@code /bin/querybuilder.json?path=/home/users&type=rep:User},
+     *              without {@code p.offset} or {@code p.limit}
+     * @param mapper maps one hit; hits mapped to null are skipped
+     */
+    public QueryPager(AemApiClient client, String query, int pageSize, Function<JsonNode, T> mapper) {
+        this.client = client;
+        this.query = query.contains("orderby=") ? query : query + "&orderby=path";
+        this.pageSize = Math.max(1, pageSize);
+        this.mapper = mapper;
+    }
+
+    public QueryPager(AemApiClient client, String query, Function<JsonNode, T> mapper) {
+        this(client, query, DEFAULT_PAGE_SIZE, mapper);
+    }
+
+    public QueryPager<T> setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+        return this;
+    }
+
+    /**
+     * Stops after this many results; negative means all of them.
+     */
+    public QueryPager<T> setMaxResults(long maxResults) {
+        this.maxResults = maxResults;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!page.hasNext()) {
+            if (closed || lastPage || limitReached()) {
+                return false;
+            }
+            try {
+                fetchPage();
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+        }
+        return !limitReached();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        returned++;
+        return page.next();
+    }
+
+    private boolean limitReached() {
+        return maxResults >= 0 && returned >= maxResults;
+    }
+
+    private void fetchPage() throws IOException {
+        int limit = pageLimit();
+        JsonNode response;
+        if (pending != null) {
+            response = await(pending);
+            pending = null;
+        } else {
+            response = client.getUncached(pagePath(offset, limit));
+        }
+        pagesFetched++;
+        total = response.path("total").asLong(total);
+
+        JsonNode hits = response.path("hits");
+        List<T> results = new ArrayList<>(hits.size());
+        for (JsonNode hit : hits) {
+            T mapped = mapper.apply(hit);
+            if (mapped != null) {
+                results.add(mapped);
+            }
+        }
+        offset += hits.size();
+        lastPage = hits.size() < limit || !response.path("more").asBoolean(true)
+            || (maxResults >= 0 && offset >= maxResults);
+        page = results.iterator();
+
+        if (prefetch && !lastPage) {
+            pending = client.getUncachedAsync(pagePath(offset, pageLimit()));
+        }
+    }
+
+    private int pageLimit() {
+        if (maxResults < 0) {
+            return pageSize;
+        }
+        return (int) Math.max(1, Math.min(pageSize, maxResults - offset));
+    }
+
+    private String pagePath(long pageOffset, int limit) {
+        return query + "&p.offset=" + pageOffset + "&p.limit=" + limit + "&p.guessTotal=true";
+    }
+
+    private static JsonNode await(CompletableFuture<JsonNode> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    /**
+     * Drains the remaining results into a list and closes the pager.
+     *
+     * @throws IOException if fetching a page fails
+     */
+    public List<T> toList() throws IOException {
+        List<T> results = new ArrayList<>();
+        try {
+            forEachRemaining(results::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            close();
+        }
+        return results;
+    }
+
+    /**
+     * Wraps this pager in a sequential stream that cancels any prefetch when closed.
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this,
+            Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * The total reported by the last page, an estimate because {@code p.guessTotal} is used,
+     * or -1 before the first page.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public int getPagesFetched() {
+        return pagesFetched;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        page = Collections.emptyIterator();
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class ReplicationApi {
 
@@ -25,11 +26,27 @@ public class ReplicationApi {
         request.put("cmd", "activate");
         request.put("path", path);
         
-        JsonNode response = client.post("/bin/replicate.json", request);
+        JsonNode response = client.post("/bin/replicate.json", request, List.of(path));
         
         return response.has("success") && response.get("success").asBoolean();
     }
 
+    public CompletableFuture<Boolean> publishAsync(String path) {
+        return replicateAsync("activate", path);
+    }
+
+    public CompletableFuture<Boolean> unpublishAsync(String path) {
+        return replicateAsync("deactivate", path);
+    }
+
+    private CompletableFuture<Boolean> replicateAsync(String cmd, String path) {
+        ObjectNode request = mapper.createObjectNode();
+        request.put("cmd", cmd);
+        request.put("path", path);
+        return client.postAsync("/bin/replicate.json", request, List.of(path))
+            .thenApply(response -> response.has("success") && response.get("success").asBoolean());
+    }
+
     public boolean publish(List<String> paths) throws IOException {
         ObjectNode request = mapper.createObjectNode();
         request.put("cmd", "activate");
@@ -40,7 +57,7 @@ public class ReplicationApi {
         }
         request.set("paths", pathsNode);
         
-        JsonNode response = client.post("/bin/replicate.json", request);
+        JsonNode response = client.post("/bin/replicate.json", request, paths);
         
         return response.has("success") && response.get("success").asBoolean();
     }
@@ -50,7 +67,7 @@ public class ReplicationApi {
         request.put("cmd", "deactivate");
         request.put("path", path);
         
-        JsonNode response = client.post("/bin/replicate.json", request);
+        JsonNode response = client.post("/bin/replicate.json", request, List.of(path));
         
         return response.has("success") && response.get("success").asBoolean();
     }
@@ -60,14 +77,21 @@ public class ReplicationApi {
         request.put("cmd", "delete");
         request.put("path", path);
         
-        JsonNode response = client.post("/bin/replicate.json", request);
+        JsonNode response = client.post("/bin/replicate.json", request, List.of(path));
         
         return response.has("success") && response.get("success").asBoolean();
     }
 
     public ReplicationStatus getStatus(String path) throws IOException {
-        JsonNode response = client.get("/bin/replicate.json?cmd=status&path=" + path);
-        
+        return parseStatus(path, client.get("/bin/replicate.json?cmd=status&path=" + path));
+    }
+
+    public CompletableFuture<ReplicationStatus> getStatusAsync(String path) {
+        return client.getAsync("/bin/replicate.json?cmd=status&path=" + path)
+            .thenApply(response -> parseStatus(path, response));
+    }
+
+    private ReplicationStatus parseStatus(String path, JsonNode response) {
         ReplicationStatus status = new ReplicationStatus();
         status.setPath(path);
         status.setPublished(response.path("published").asBoolean(false));
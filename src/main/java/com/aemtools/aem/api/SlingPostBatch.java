@@ -0,0 +1,239 @@
+package com.aemtools.aem.api;
+
+import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.client.AemHttpException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects property updates for many JCR nodes and sends them as a few Sling POST requests
+ * instead of one request per node.
+ * <p>
+ * Each request targets the deepest common ancestor of its nodes and addresses every property
+ * relatively ({@code ./jcr:content/cq:tags}), so one POST can update hundreds of nodes in a
+ * single JCR save. Requests are cut at {@code maxNodes} nodes or {@code maxBytes} of form
+ * body. Sling applies a request atomically, so when one fails with a client or server error
+ * it is split in half and retried until the failing nodes are isolated; the other nodes
+ * still get their updates. Overload responses and transport errors fail the whole request
+ * without splitting, to avoid multiplying load on a struggling instance.
+ * <p>
+ * Results are reported per node from the {@code changes} list of Sling's JSON response.
+ * Note that Sling creates missing intermediate nodes, so only queue updates for nodes known
+ * to exist.
+ */
+public class SlingPostBatch {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlingPostBatch.class);
+
+    public static final int DEFAULT_MAX_NODES = 200;
+    public static final int DEFAULT_MAX_BYTES = 256 * 1024;
+
+    private final AemApiClient client;
+    private final Map<String, List<Map.Entry<String, String>>> updates = new LinkedHashMap<>();
+    private int maxNodes = DEFAULT_MAX_NODES;
+    private int maxBytes = DEFAULT_MAX_BYTES;
+    private int requests;
+
+    public SlingPostBatch(AemApiClient client) {
+        this.client = client;
+    }
+
+    public SlingPostBatch setMaxNodes(int maxNodes) {
+        this.maxNodes = Math.max(1, maxNodes);
+        return this;
+    }
+
+    public SlingPostBatch setMaxBytes(int maxBytes) {
+        this.maxBytes = Math.max(1, maxBytes);
+        return this;
+    }
+
+    /**
+     * Replaces a multi-valued string property.
+     */
+    public SlingPostBatch set(String nodePath, String property, List<String> values) {
+        List<Map.Entry<String, String>> params = paramsFor(nodePath);
+        for (String value : values) {
+            params.add(Map.entry(property, value));
+        }
+        params.add(Map.entry(property + "@TypeHint", "String[]"));
+        return this;
+    }
+
+    /**
+     * Adds and removes values of a multi-valued string property without reading it first,
+     * using Sling's {@code @Patch} suffix. Values already present are not added twice.
+     */
+    public SlingPostBatch patch(String nodePath, String property, List<String> add, List<String> remove) {
+        List<Map.Entry<String, String>> params = paramsFor(nodePath);
+        for (String value : remove) {
+            params.add(Map.entry(property, "-" + value));
+        }
+        for (String value : add) {
+            params.add(Map.entry(property, "+" + value));
+        }
+        params.add(Map.entry(property + "@Patch", "true"));
+        params.add(Map.entry(property + "@TypeHint", "String[]"));
+        return this;
+    }
+
+    /**
+     * Removes a property.
+     */
+    public SlingPostBatch delete(String nodePath, String property) {
+        paramsFor(nodePath).add(Map.entry(property + "@Delete", ""));
+        return this;
+    }
+
+    private List<Map.Entry<String, String>> paramsFor(String nodePath) {
+        String path = nodePath.endsWith("/") && nodePath.length() > 1
+            ? nodePath.substring(0, nodePath.length() - 1) : nodePath;
+        return updates.computeIfAbsent(path, key -> new ArrayList<>());
+    }
+
+    public int size() {
+        return updates.size();
+    }
+
+    /**
+     * Number of POST requests sent by {@link #execute()}, including those from splitting.
+     */
+    public int getRequestCount() {
+        return requests;
+    }
+
+    /**
+     * Sends all queued updates and clears the batch.
+     *
+     * @return the outcome for every queued node, in the order the nodes were first queued
+     */
+    public Map<String, Result> execute() {
+        Map<String, Result> results = new LinkedHashMap<>();
+        List<String> chunk = new ArrayList<>();
+        long chunkBytes = 0;
+        for (Map.Entry<String, List<Map.Entry<String, String>>> node : updates.entrySet()) {
+            long nodeBytes = estimateBytes(node.getKey(), node.getValue());
+            if (!chunk.isEmpty() && (chunk.size() >= maxNodes || chunkBytes + nodeBytes > maxBytes)) {
+                send(chunk, results);
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.add(node.getKey());
+            chunkBytes += nodeBytes;
+        }
+        if (!chunk.isEmpty()) {
+            send(chunk, results);
+        }
+        updates.clear();
+        return results;
+    }
+
+    private void send(List<String> nodes, Map<String, Result> results) {
+        String root = commonAncestor(nodes);
+        List<Map.Entry<String, String>> form = new ArrayList<>();
+        for (String node : nodes) {
+            String prefix = node.equals(root) ? "./"
+                : "./" + node.substring(root.equals("/") ? 1 : root.length() + 1) + "/";
+            for (Map.Entry<String, String> param : updates.get(node)) {
+                form.add(Map.entry(prefix + param.getKey(), param.getValue()));
+            }
+        }
+        form.add(Map.entry(":http-equiv-accept", "application/json"));
+
+        requests++;
+        try {
+            JsonNode response = client.postForm(root, form);
+            Set<String> changed = changedNodes(response, nodes);
+            for (String node : nodes) {
+                results.put(node, changed == null || changed.contains(node)
+                    ? Result.ok(node) : Result.failed(node, "no change reported"));
+            }
+        } catch (AemHttpException e) {
+            if (nodes.size() > 1 && !e.isOverload()) {
+                logger.debug("Batch of {} under {} failed ({}), splitting", nodes.size(), root, e.getStatusCode());
+                int half = nodes.size() / 2;
+                send(nodes.subList(0, half), results);
+                send(nodes.subList(half, nodes.size()), results);
+            } else {
+                failAll(nodes, e, results);
+            }
+        } catch (IOException e) {
+            failAll(nodes, e, results);
+        }
+    }
+
+    private static void failAll(List<String> nodes, IOException error, Map<String, Result> results) {
+        logger.warn("Sling POST failed for {} node(s): {}", nodes.size(), error.getMessage());
+        for (String node : nodes) {
+            results.put(node, Result.failed(node, error.getMessage()));
+        }
+    }
+
+    /**
+     * Maps the {@code changes} of a Sling JSON response back to the queued nodes, or returns
+     * null if the response carries no change log, in which case the 2xx status is all we know.
+     */
+    private static Set<String> changedNodes(JsonNode response, List<String> nodes) {
+        JsonNode changes = response.path("changes");
+        if (!changes.isArray()) {
+            return null;
+        }
+        Set<String> changed = new HashSet<>();
+        Set<String> queued = new HashSet<>(nodes);
+        for (JsonNode change : changes) {
+            String argument = change.path("argument").asText(change.path("arguments").path(0).asText());
+            int slash = argument.lastIndexOf('/');
+            String node = slash > 0 ? argument.substring(0, slash) : "/";
+            if (queued.contains(node)) {
+                changed.add(node);
+            }
+        }
+        return changed;
+    }
+
+    static String commonAncestor(List<String> paths) {
+        String common = paths.get(0);
+        for (String path : paths) {
+            while (!path.equals(common) && !path.startsWith(common.equals("/") ? "/" : common + "/")) {
+                int slash = common.lastIndexOf('/');
+                common = slash > 0 ? common.substring(0, slash) : "/";
+            }
+        }
+        return common;
+    }
+
+    private static long estimateBytes(String node, List<Map.Entry<String, String>> params) {
+        long bytes = 0;
+        for (Map.Entry<String, String> param : params) {
+            bytes += node.length() + 4
+                + URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8).length()
+                + URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8).length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Outcome of the update queued for one node.
+     */
+    public record Result(String path, boolean success, String error) {
+
+        static Result ok(String path) {
+            return new Result(path, true, null);
+        }
+
+        static Result failed(String path, String error) {
+            return new Result(path, false, error);
+        }
+    }
+}
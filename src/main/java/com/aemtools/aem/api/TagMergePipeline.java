@@ -0,0 +1,230 @@
+package com.aemtools.aem.api;
+
+import com.aemtools.aem.api.TagsApi.MergeProgress;
+import com.aemtools.aem.api.TagsApi.MergeResult;
+import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.operations.OperationExecutor;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Streams a tag merge: a discovery thread pages through the query results into a bounded
+ * queue while parallel workers drain it in {@link SlingPostBatch} requests, so memory stays
+ * flat and discovery overlaps with writes.
+ * <p>
+ * Offset paging breaks if the writes change the result being paged, so the merge runs in two
+ * passes that each leave their own query untouched: the first adds the destination tag to
+ * everything tagged with the source, the second walks content tagged with the destination and
+ * removes the source where present. Both use {@code @Patch}, which edits the tag list inside
+ * AEM's save instead of writing back a list read earlier, so concurrent edits to other tags are
+ * never overwritten. The second pass scans all content tagged with the destination, including
+ * content that never had the source, so merging into a widely used tag reads all of its usages;
+ * only the items still carrying the source are written. A final exact count finds content still carrying the source tag (tagged
+ * while the merge ran, failed writes or index lag); the source tag is only deleted when that
+ * count is zero and no write failed. Merges are idempotent, so rerunning finishes the rest.
+ */
+class TagMergePipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagMergePipeline.class);
+    private static final String END = "";
+
+    private final AemApiClient client;
+    private final TagsApi tags;
+    private final String sourceTagId;
+    private final String destTagId;
+    private final int workers;
+    private final int batchSize;
+    private final Consumer<MergeProgress> progress;
+
+    private final AtomicLong discovered = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private long startNanos;
+
+    TagMergePipeline(AemApiClient client, TagsApi tags, String sourceTagId, String destTagId,
+                     int workers, int batchSize, Consumer<MergeProgress> progress) {
+        this.client = client;
+        this.tags = tags;
+        this.sourceTagId = sourceTagId;
+        this.destTagId = destTagId;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.progress = progress;
+    }
+
+    MergeResult run() throws IOException {
+        startNanos = System.nanoTime();
+
+        long retagged = runPass("add", tags.iterateTaggedContent(sourceTagId));
+        long discoveredInFirstPass = discovered.get();
+
+        String destQuery = String.format(
+            "/bin/querybuilder.json?property=cq:tags&property.value=%s&p.hits=selective&p.properties=%s",
+            URLEncoder.encode(destTagId, StandardCharsets.UTF_8),
+            URLEncoder.encode("jcr:path cq:tags", StandardCharsets.UTF_8));
+        QueryPager<String> stillTagged = new QueryPager<>(client, destQuery, hit -> hasSource(hit) ? path(hit) : null)
+            .setPrefetch(true);
+        runPass("remove", stillTagged);
+
+        long remaining = countTagged(sourceTagId);
+        boolean deleted = false;
+        if (failed.get() == 0 && remaining == 0) {
+            deleted = tags.deleteTag(sourceTagId, true);
+        } else {
+            logger.warn("Keeping tag {}: {} failed writes, {} items still tagged",
+                sourceTagId, failed.get(), remaining);
+        }
+        return new MergeResult(sourceTagId, destTagId, discoveredInFirstPass, retagged, failed.get(),
+            remaining, deleted, elapsedMs());
+    }
+
+    /**
+     * Feeds one pager into the queue and waits for the workers to drain it.
+     *
+     * @return number of nodes updated successfully in this pass
+     */
+    private long runPass(String phase, QueryPager<String> pager) throws IOException {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(batchSize * workers * 2);
+        OperationExecutor executor = new OperationExecutor(OperationExecutor.Mode.VIRTUAL, workers);
+        AtomicLong succeeded = new AtomicLong();
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            running.add(executor.submit(() -> work(phase, queue, succeeded)));
+        }
+
+        IOException discoveryError = null;
+        try (pager) {
+            while (pager.hasNext()) {
+                queue.put(pager.next());
+                if ("add".equals(phase)) {
+                    discovered.incrementAndGet();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            discoveryError = e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            discoveryError = new IOException("Merge interrupted", e);
+        }
+        for (int i = 0; i < workers; i++) {
+            try {
+                queue.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+                throw new IOException("Merge interrupted", e);
+            }
+        }
+
+        try {
+            for (Future<?> worker : running) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Merge interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Merge worker failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        if (discoveryError != null) {
+            throw discoveryError;
+        }
+        return succeeded.get();
+    }
+
+    private void work(String phase, BlockingQueue<String> queue, AtomicLong succeeded) {
+        List<String> chunk = new ArrayList<>(batchSize);
+        boolean done = false;
+        while (!done) {
+            chunk.clear();
+            try {
+                chunk.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(chunk, batchSize - 1);
+            done = chunk.remove(END);
+            while (chunk.remove(END)) {
+                // Hand extra end markers back to the other workers.
+                queue.add(END);
+            }
+            if (chunk.isEmpty()) {
+                continue;
+            }
+
+            try {
+                writeChunk(phase, chunk, succeeded);
+            } catch (RuntimeException e) {
+                // Keep draining: a dead worker would leave discovery blocked on a full queue.
+                failed.addAndGet(chunk.size());
+                logger.warn("Failed to {} tag on {} node(s): {}", phase, chunk.size(), e.toString());
+            }
+            processed.addAndGet(chunk.size());
+            if (progress != null) {
+                progress.accept(new MergeProgress(phase, discovered.get(), processed.get(), failed.get(), elapsedMs()));
+            }
+        }
+    }
+
+    private void writeChunk(String phase, List<String> chunk, AtomicLong succeeded) {
+        SlingPostBatch batch = new SlingPostBatch(client).setMaxNodes(batchSize);
+        for (String path : chunk) {
+            if ("add".equals(phase)) {
+                batch.patch(path, "cq:tags", List.of(destTagId), List.of());
+            } else {
+                batch.patch(path, "cq:tags", List.of(), List.of(sourceTagId));
+            }
+        }
+        for (SlingPostBatch.Result result : batch.execute().values()) {
+            if (result.success()) {
+                succeeded.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+                logger.warn("Failed to {} tag on {}: {}", phase, result.path(), result.error());
+            }
+        }
+    }
+
+    private boolean hasSource(JsonNode hit) {
+        for (JsonNode tag : hit.path("cq:tags")) {
+            if (sourceTagId.equals(tag.asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String path(JsonNode hit) {
+        return hit.path("jcr:path").asText(hit.path("path").asText());
+    }
+
+    /**
+     * Exact count; {@code p.guessTotal} could report zero for content the merge missed.
+     */
+    private long countTagged(String tagId) throws IOException {
+        String query = String.format("/bin/querybuilder.json?property=cq:tags&property.value=%s&p.limit=1",
+            URLEncoder.encode(tagId, StandardCharsets.UTF_8));
+        return client.getUncached(query).path("total").asLong(0);
+    }
+
+    private long elapsedMs() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -12,6 +12,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * API client for AEM Tag management operations.
@@ -21,6 +24,8 @@ public class TagsApi {
 
     private static final Logger logger = LoggerFactory.getLogger(TagsApi.class);
     private static final String TAG_BASE_PATH = "/content/cq:tags";
+    private static final int DEFAULT_MERGE_WORKERS = 4;
+    private static final int DEFAULT_MERGE_BATCH = 100;
     private final AemApiClient client;
 
     public TagsApi(AemApiClient client) {
@@ -34,25 +39,87 @@ public class TagsApi {
      *
      * @param path the tag path (default: /content/cq:tags)
      * @param recursive whether to list tags recursively
-     * @param limit maximum number of tags to return
+     * @param limit maximum number of tags to return, or -1 for all when recursive
      * @return list of tags
      * @throws IOException if the API call fails
      */
     public List<Tag> listTags(String path, boolean recursive, int limit) throws IOException {
         String searchPath = path != null ? path : TAG_BASE_PATH;
+        if (recursive) {
+            List<Tag> tags = scanTags(searchPath).setMaxResults(limit).toList();
+            logger.info("Found {} tags in {}", tags.size(), searchPath);
+            return tags;
+        }
+        return parseTags(client.get(listTagsPath(searchPath, false, limit)), searchPath, false);
+    }
 
-        String queryPath;
+    /**
+     * Iterates every tag below a path, fetching query pages lazily and prefetching the next
+     * page while the current one is processed.
+     *
+     * @param path the tag path (default: /content/cq:tags)
+     * @return lazy pager over the tags
+     */
+    public QueryPager<Tag> iterateTags(String path) {
+        String searchPath = path != null ? path : TAG_BASE_PATH;
+        return new QueryPager<>(client, tagQuery(searchPath), this::parseTag).setPrefetch(true);
+    }
+
+    /**
+     * Reads every tag below a path with several query pages in flight, for full taxonomy scans.
+     *
+     * @param path the tag path (default: /content/cq:tags)
+     * @return parallel fetcher over the tags, in path order
+     */
+    public ParallelQueryFetcher<Tag> scanTags(String path) {
+        String searchPath = path != null ? path : TAG_BASE_PATH;
+        return new ParallelQueryFetcher<>(client, tagQuery(searchPath), this::parseTag);
+    }
+
+    /**
+     * Lists tags without blocking the calling thread.
+     *
+     * @param path the tag path (default: /content/cq:tags)
+     * @param recursive whether to list tags recursively
+     * @param limit maximum number of tags to return
+     * @return future completing with the list of tags
+     */
+    public CompletableFuture<List<Tag>> listTagsAsync(String path, boolean recursive, int limit) {
+        String searchPath = path != null ? path : TAG_BASE_PATH;
+        return client.getAsync(listTagsPath(searchPath, recursive, limit))
+            .thenApply(response -> parseTags(response, searchPath, recursive));
+    }
+
+    /**
+     * Streams all tags below a path one at a time from the query response, so listings of any
+     * size use constant memory. Close the stream if it is not fully consumed.
+     *
+     * @param path the tag path (default: /content/cq:tags)
+     * @param limit maximum number of tags to return, or -1 for all
+     * @return stream of tags
+     * @throws IOException if the API call fails
+     */
+    public Stream<Tag> streamTags(String path, int limit) throws IOException {
+        String searchPath = path != null ? path : TAG_BASE_PATH;
+        return client.stream(listTagsPath(searchPath, true, limit), "hits", this::parseTag).stream();
+    }
+
+    private static String listTagsPath(String searchPath, boolean recursive, int limit) {
         if (recursive) {
-            queryPath = String.format(
-                "/bin/querybuilder.json?path=%s&type=cq:Tag&p.limit=%d&p.hits=full&orderby=@jcr:path",
-                URLEncoder.encode(searchPath, StandardCharsets.UTF_8), limit
-            );
-        } else {
-            // Non-recursive: just get direct children
-            queryPath = searchPath + ".1.json";
+            return tagQuery(searchPath) + "&p.limit=" + limit;
         }
+        // Non-recursive: just get direct children
+        return searchPath + ".1.json";
+    }
 
-        JsonNode response = client.get(queryPath);
+    private static String tagQuery(String searchPath) {
+        return String.format(
+            "/bin/querybuilder.json?path=%s&type=cq:Tag&p.hits=full&orderby=@jcr:path",
+            URLEncoder.encode(searchPath, StandardCharsets.UTF_8)
+        );
+    }
+
+    private List<Tag> parseTags(JsonNode response, String searchPath, boolean recursive) {
         List<Tag> tags = new ArrayList<>();
 
         if (recursive) {
@@ -126,6 +193,17 @@ public class TagsApi {
         return parseTagFromNode(path, response);
     }
 
+    /**
+     * Gets a specific tag without blocking the calling thread.
+     *
+     * @param tagId the tag ID (e.g., "namespace:tag/subtag")
+     * @return future completing with the tag details
+     */
+    public CompletableFuture<Tag> getTagAsync(String tagId) {
+        String path = tagIdToPath(tagId);
+        return client.getAsync(path + ".json").thenApply(response -> parseTagFromNode(path, response));
+    }
+
     /**
      * Creates a new tag.
      *
@@ -283,52 +361,41 @@ public class TagsApi {
      * Merges one tag into another.
      * All content tagged with sourceTag will be retagged with destTag.
      *
-     * @param sourceTagId the tag to merge from (will be deleted)
+     * @param sourceTagId the tag to merge from (deleted once every item is retagged)
      * @param destTagId the tag to merge into
      * @return number of items retagged
      * @throws IOException if the API call fails
      */
     public int mergeTags(String sourceTagId, String destTagId) throws IOException {
-        // Find all content using the source tag
-        List<String> contentPaths = getTaggedContent(sourceTagId, 1000);
-
-        // Retag each piece of content
-        int retagged = 0;
-        for (String contentPath : contentPaths) {
-            try {
-                // Get current tags
-                JsonNode content = client.get(contentPath + ".json");
-                JsonNode tagsNode = content.path("cq:tags");
-
-                List<String> tags = new ArrayList<>();
-                if (tagsNode.isArray()) {
-                    for (JsonNode tag : tagsNode) {
-                        String tagValue = tag.asText();
-                        if (tagValue.equals(sourceTagId)) {
-                            tags.add(destTagId);
-                        } else {
-                            tags.add(tagValue);
-                        }
-                    }
-                }
-
-                // Update tags
-                Map<String, Object> params = new HashMap<>();
-                params.put("cq:tags", tags.toArray(new String[0]));
-                params.put("cq:tags@TypeHint", "String[]");
+        return (int) mergeTags(sourceTagId, destTagId, DEFAULT_MERGE_WORKERS, DEFAULT_MERGE_BATCH, null).retagged();
+    }
 
-                client.post(contentPath, params);
-                retagged++;
-            } catch (Exception e) {
-                logger.warn("Failed to retag {}: {}", contentPath, e.getMessage());
-            }
+    /**
+     * Merges one tag into another as a streaming pipeline: content is discovered page by page
+     * while parallel workers retag it in batched Sling POST requests. The source tag is only
+     * deleted if every write succeeded and no content still carries it afterwards.
+     *
+     * @param sourceTagId the tag to merge from
+     * @param destTagId the tag to merge into
+     * @param workers number of concurrent write requests
+     * @param batchSize content nodes per write request
+     * @param progress called after each batch, or null
+     * @return merge outcome
+     * @throws IOException if discovery or deleting the source tag fails
+     * @throws IllegalArgumentException if both ids name the same tag
+     */
+    public MergeResult mergeTags(String sourceTagId, String destTagId, int workers, int batchSize,
+                                 Consumer<MergeProgress> progress) throws IOException {
+        // Merging a tag into itself would strip it from all content and then delete it
+        if (tagIdToPath(sourceTagId).equals(tagIdToPath(destTagId))) {
+            throw new IllegalArgumentException("Cannot merge tag " + sourceTagId + " into itself");
         }
-
-        // Delete the source tag
-        deleteTag(sourceTagId, true);
-
-        logger.info("Merged tag {} into {}, retagged {} items", sourceTagId, destTagId, retagged);
-        return retagged;
+        MergeResult result = new TagMergePipeline(client, this, sourceTagId, destTagId, workers, batchSize, progress)
+            .run();
+        logger.info("Merged tag {} into {}: retagged {} of {} items, {} failed, source {} ({} ms)",
+            sourceTagId, destTagId, result.retagged(), result.discovered(), result.failed(),
+            result.sourceDeleted() ? "deleted" : "kept", result.elapsedMs());
+        return result;
     }
 
     // ==================== Tag Usage ====================
@@ -354,27 +421,44 @@ public class TagsApi {
      * Gets content that uses a specific tag.
      *
      * @param tagId the tag ID
-     * @param limit maximum results
+     * @param limit maximum results, or -1 for all
      * @return list of content paths
      * @throws IOException if the API call fails
      */
     public List<String> getTaggedContent(String tagId, int limit) throws IOException {
-        String queryPath = String.format(
-            "/bin/querybuilder.json?property=cq:tags&property.value=%s&p.limit=%d",
-            URLEncoder.encode(tagId, StandardCharsets.UTF_8), limit
-        );
+        return scanTaggedContent(tagId).setMaxResults(limit).toList();
+    }
 
-        JsonNode response = client.get(queryPath);
-        List<String> paths = new ArrayList<>();
+    /**
+     * Iterates the paths of all content using a tag, one query page at a time.
+     *
+     * @param tagId the tag ID
+     * @return lazy pager over content paths
+     */
+    public QueryPager<String> iterateTaggedContent(String tagId) {
+        return new QueryPager<>(client, taggedContentQuery(tagId), TagsApi::hitPath).setPrefetch(true);
+    }
 
-        JsonNode hits = response.path("hits");
-        if (hits.isArray()) {
-            for (JsonNode hit : hits) {
-                paths.add(hit.path("jcr:path").asText(hit.path("path").asText()));
-            }
-        }
+    /**
+     * Reads the paths of all content using a tag with several query pages in flight,
+     * for tag-usage scans over large repositories.
+     *
+     * @param tagId the tag ID
+     * @return parallel fetcher over content paths
+     */
+    public ParallelQueryFetcher<String> scanTaggedContent(String tagId) {
+        return new ParallelQueryFetcher<>(client, taggedContentQuery(tagId), TagsApi::hitPath);
+    }
+
+    private static String taggedContentQuery(String tagId) {
+        return String.format(
+            "/bin/querybuilder.json?property=cq:tags&property.value=%s",
+            URLEncoder.encode(tagId, StandardCharsets.UTF_8)
+        );
+    }
 
-        return paths;
+    private static String hitPath(JsonNode hit) {
+        return hit.path("jcr:path").asText(hit.path("path").asText());
     }
 
     /**
@@ -387,42 +471,36 @@ public class TagsApi {
      * @throws IOException if the API call fails
      */
     public boolean applyTags(String contentPath, List<String> tagIds, boolean replace) throws IOException {
-        List<String> finalTags = new ArrayList<>();
-
-        if (!replace) {
-            // Get existing tags
-            try {
-                JsonNode content = client.get(contentPath + ".json");
-                JsonNode tagsNode = content.path("cq:tags");
-                if (tagsNode.isArray()) {
-                    for (JsonNode tag : tagsNode) {
-                        String tagValue = tag.asText();
-                        if (!finalTags.contains(tagValue)) {
-                            finalTags.add(tagValue);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                // Content might not exist yet
-            }
+        SlingPostBatch.Result result = applyTags(List.of(contentPath), tagIds, replace).get(contentPath);
+        if (!result.success()) {
+            throw new IOException("Failed to apply tags to " + contentPath + ": " + result.error());
         }
+        return true;
+    }
 
-        // Add new tags
-        for (String tagId : tagIds) {
-            if (!finalTags.contains(tagId)) {
-                finalTags.add(tagId);
+    /**
+     * Applies the same tags to many content nodes with batched Sling POST requests.
+     * Appending uses {@code @Patch}, so existing tags are kept without reading each node.
+     *
+     * @param contentPaths the content paths
+     * @param tagIds list of tag IDs to apply
+     * @param replace whether to replace existing tags or append
+     * @return the outcome per content path
+     */
+    public Map<String, SlingPostBatch.Result> applyTags(List<String> contentPaths, List<String> tagIds,
+                                                       boolean replace) {
+        SlingPostBatch batch = new SlingPostBatch(client);
+        for (String contentPath : contentPaths) {
+            if (replace) {
+                batch.set(contentPath, "cq:tags", tagIds);
+            } else {
+                batch.patch(contentPath, "cq:tags", tagIds, List.of());
             }
         }
-
-        // Apply tags
-        Map<String, Object> params = new HashMap<>();
-        params.put("cq:tags", finalTags.toArray(new String[0]));
-        params.put("cq:tags@TypeHint", "String[]");
-
-        client.post(contentPath, params);
-
-        logger.info("Applied {} tags to {}", finalTags.size(), contentPath);
-        return true;
+        Map<String, SlingPostBatch.Result> results = batch.execute();
+        logger.info("Applied {} tags to {} items in {} requests",
+            tagIds.size(), contentPaths.size(), batch.getRequestCount());
+        return results;
     }
 
     /**
@@ -434,33 +512,29 @@ public class TagsApi {
      * @throws IOException if the API call fails
      */
     public boolean removeTags(String contentPath, List<String> tagIds) throws IOException {
-        // Get existing tags
-        JsonNode content = client.get(contentPath + ".json");
-        JsonNode tagsNode = content.path("cq:tags");
-
-        List<String> remainingTags = new ArrayList<>();
-        if (tagsNode.isArray()) {
-            for (JsonNode tag : tagsNode) {
-                String tagValue = tag.asText();
-                if (!tagIds.contains(tagValue)) {
-                    remainingTags.add(tagValue);
-                }
-            }
+        SlingPostBatch.Result result = removeTags(List.of(contentPath), tagIds).get(contentPath);
+        if (!result.success()) {
+            throw new IOException("Failed to remove tags from " + contentPath + ": " + result.error());
         }
+        return true;
+    }
 
-        // Update tags
-        Map<String, Object> params = new HashMap<>();
-        if (remainingTags.isEmpty()) {
-            params.put("cq:tags@Delete", "");
-        } else {
-            params.put("cq:tags", remainingTags.toArray(new String[0]));
-            params.put("cq:tags@TypeHint", "String[]");
+    /**
+     * Removes tags from many content nodes with batched {@code @Patch} requests.
+     *
+     * @param contentPaths the content paths
+     * @param tagIds list of tag IDs to remove
+     * @return the outcome per content path
+     */
+    public Map<String, SlingPostBatch.Result> removeTags(List<String> contentPaths, List<String> tagIds) {
+        SlingPostBatch batch = new SlingPostBatch(client);
+        for (String contentPath : contentPaths) {
+            batch.patch(contentPath, "cq:tags", List.of(), tagIds);
         }
-
-        client.post(contentPath, params);
-
-        logger.info("Removed {} tags from {}", tagIds.size(), contentPath);
-        return true;
+        Map<String, SlingPostBatch.Result> results = batch.execute();
+        logger.info("Removed {} tags from {} items in {} requests",
+            tagIds.size(), contentPaths.size(), batch.getRequestCount());
+        return results;
     }
 
     // ==================== Localization ====================
@@ -601,4 +675,40 @@ public class TagsApi {
             return String.format("Namespace[%s, %s, %d tags]", id, title, tagCount);
         }
     }
+
+    /**
+     * Progress of a running tag merge.
+     */
+    public record MergeProgress(
+        String phase,
+        long discovered,
+        long processed,
+        long failed,
+        long elapsedMs
+    ) {
+        public double perSecond() {
+            return elapsedMs > 0 ? processed * 1000.0 / elapsedMs : 0;
+        }
+    }
+
+    /**
+     * Outcome of a tag merge.
+     */
+    public record MergeResult(
+        String sourceTagId,
+        String destTagId,
+        long discovered,
+        long retagged,
+        long failed,
+        long remaining,
+        boolean sourceDeleted,
+        long elapsedMs
+    ) {
+        @Override
+        public String toString() {
+            return String.format("Merge[%s -> %s, %d/%d retagged, %d failed, %d remaining, source %s]",
+                sourceTagId, destTagId, retagged, discovered, failed, remaining,
+                sourceDeleted ? "deleted" : "kept");
+        }
+    }
 }
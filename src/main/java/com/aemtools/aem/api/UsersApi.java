@@ -11,6 +11,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * API client for AEM User and Group management operations.
@@ -28,23 +30,84 @@ public class UsersApi {
     // ==================== User Operations ====================
 
     /**
-     * Lists users in AEM.
+     * Lists users in AEM, paging through the query results until {@code limit} is reached.
      *
      * @param path the path to search for users (default: /home/users)
-     * @param limit maximum number of users to return
+     * @param limit maximum number of users to return, or -1 for all
      * @return list of users
      * @throws IOException if the API call fails
      */
     public List<User> listUsers(String path, int limit) throws IOException {
         String searchPath = path != null ? path : "/home/users";
+        List<User> users = scanUsers(searchPath).setMaxResults(limit).toList();
+        logger.info("Found {} users in {}", users.size(), searchPath);
+        return users;
+    }
 
-        // Use query builder to find users
-        String queryPath = String.format(
-            "/bin/querybuilder.json?path=%s&type=rep:User&p.limit=%d&p.hits=full",
-            searchPath, limit
+    /**
+     * Iterates every user below a path, fetching pages lazily and prefetching the next page
+     * while the current one is processed.
+     *
+     * @param path the path to search for users (default: /home/users)
+     * @return lazy pager over the users
+     */
+    public QueryPager<User> iterateUsers(String path) {
+        String searchPath = path != null ? path : "/home/users";
+        return new QueryPager<>(client, authorizableQuery(searchPath, "rep:User"), this::parseUser)
+            .setPrefetch(true);
+    }
+
+    /**
+     * Reads every user below a path with several query pages in flight, for full scans.
+     *
+     * @param path the path to search for users (default: /home/users)
+     * @return parallel fetcher over the users, in query order
+     */
+    public ParallelQueryFetcher<User> scanUsers(String path) {
+        String searchPath = path != null ? path : "/home/users";
+        return new ParallelQueryFetcher<>(client, authorizableQuery(searchPath, "rep:User"), this::parseUser);
+    }
+
+    /**
+     * Lists users without blocking the calling thread.
+     *
+     * @param path the path to search for users (default: /home/users)
+     * @param limit maximum number of users to return
+     * @return future completing with the list of users
+     */
+    public CompletableFuture<List<User>> listUsersAsync(String path, int limit) {
+        String searchPath = path != null ? path : "/home/users";
+        return client.getAsync(authorizableQuery(searchPath, "rep:User", limit))
+            .thenApply(response -> parseUsers(response, searchPath));
+    }
+
+    /**
+     * Streams users one at a time from the query response instead of building the full list.
+     * The stream holds an open connection, so close it (try-with-resources) if not fully consumed.
+     *
+     * @param path the path to search for users (default: /home/users)
+     * @param limit maximum number of users to return, or -1 for all
+     * @return stream of users
+     * @throws IOException if the API call fails
+     */
+    public Stream<User> streamUsers(String path, int limit) throws IOException {
+        String searchPath = path != null ? path : "/home/users";
+        return client.stream(authorizableQuery(searchPath, "rep:User", limit), "hits", this::parseUser).stream();
+    }
+
+    private static String authorizableQuery(String searchPath, String type, int limit) {
+        return authorizableQuery(searchPath, type) + "&p.limit=" + limit;
+    }
+
+    private static String authorizableQuery(String searchPath, String type) {
+        // Use query builder to find authorizables
+        return String.format(
+            "/bin/querybuilder.json?path=%s&type=%s&p.hits=full",
+            searchPath, type
         );
+    }
 
-        JsonNode response = client.get(queryPath);
+    private List<User> parseUsers(JsonNode response, String searchPath) {
         List<User> users = new ArrayList<>();
 
         JsonNode hits = response.path("hits");
@@ -204,22 +267,70 @@ public class UsersApi {
     // ==================== Group Operations ====================
 
     /**
-     * Lists groups in AEM.
+     * Lists groups in AEM, paging through the query results until {@code limit} is reached.
      *
      * @param path the path to search for groups (default: /home/groups)
-     * @param limit maximum number of groups to return
+     * @param limit maximum number of groups to return, or -1 for all
      * @return list of groups
      * @throws IOException if the API call fails
      */
     public List<Group> listGroups(String path, int limit) throws IOException {
         String searchPath = path != null ? path : "/home/groups";
+        List<Group> groups = scanGroups(searchPath).setMaxResults(limit).toList();
+        logger.info("Found {} groups in {}", groups.size(), searchPath);
+        return groups;
+    }
 
-        String queryPath = String.format(
-            "/bin/querybuilder.json?path=%s&type=rep:Group&p.limit=%d&p.hits=full",
-            searchPath, limit
-        );
+    /**
+     * Iterates every group below a path, fetching pages lazily with prefetch.
+     *
+     * @param path the path to search for groups (default: /home/groups)
+     * @return lazy pager over the groups
+     */
+    public QueryPager<Group> iterateGroups(String path) {
+        String searchPath = path != null ? path : "/home/groups";
+        return new QueryPager<>(client, authorizableQuery(searchPath, "rep:Group"), this::parseGroup)
+            .setPrefetch(true);
+    }
 
-        JsonNode response = client.get(queryPath);
+    /**
+     * Reads every group below a path with several query pages in flight, for full scans.
+     *
+     * @param path the path to search for groups (default: /home/groups)
+     * @return parallel fetcher over the groups, in query order
+     */
+    public ParallelQueryFetcher<Group> scanGroups(String path) {
+        String searchPath = path != null ? path : "/home/groups";
+        return new ParallelQueryFetcher<>(client, authorizableQuery(searchPath, "rep:Group"), this::parseGroup);
+    }
+
+    /**
+     * Lists groups without blocking the calling thread.
+     *
+     * @param path the path to search for groups (default: /home/groups)
+     * @param limit maximum number of groups to return
+     * @return future completing with the list of groups
+     */
+    public CompletableFuture<List<Group>> listGroupsAsync(String path, int limit) {
+        String searchPath = path != null ? path : "/home/groups";
+        return client.getAsync(authorizableQuery(searchPath, "rep:Group", limit))
+            .thenApply(response -> parseGroups(response, searchPath));
+    }
+
+    /**
+     * Streams groups one at a time from the query response instead of building the full list.
+     *
+     * @param path the path to search for groups (default: /home/groups)
+     * @param limit maximum number of groups to return, or -1 for all
+     * @return stream of groups; close it if not fully consumed
+     * @throws IOException if the API call fails
+     */
+    public Stream<Group> streamGroups(String path, int limit) throws IOException {
+        String searchPath = path != null ? path : "/home/groups";
+        return client.stream(authorizableQuery(searchPath, "rep:Group", limit), "hits", this::parseGroup).stream();
+    }
+
+    private List<Group> parseGroups(JsonNode response, String searchPath) {
         List<Group> groups = new ArrayList<>();
 
         JsonNode hits = response.path("hits");
@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * API client for AEM Workflow operations.
@@ -24,6 +25,7 @@ public class WorkflowApi {
 
     // AEM Workflow API endpoints
     private static final String WORKFLOW_INSTANCES_PATH = "/etc/workflow/instances";
+    private static final String WORKFLOW_INSTANCE_STORE = "/var/workflow/instances";
     private static final String WORKFLOW_MODELS_PATH = "/var/workflow/models";
     private static final String WORKFLOW_CONSOLE_PATH = "/libs/cq/workflow/admin/console/content";
     private static final String WORKFLOW_API_PATH = "/api/workflow";
@@ -91,15 +93,31 @@ public class WorkflowApi {
      * @throws IOException if API call fails
      */
     public List<WorkflowInstance> listInstances(WorkflowStatus status, int limit) throws IOException {
-        List<WorkflowInstance> instances = new ArrayList<>();
+        return parseInstances(client.get(instancesPath(status)), limit);
+    }
 
+    /**
+     * Lists workflow instances without blocking the calling thread.
+     *
+     * @param status filter by status, or null for all
+     * @param limit maximum number of results
+     * @return future completing with the workflow instances
+     */
+    public CompletableFuture<List<WorkflowInstance>> listInstancesAsync(WorkflowStatus status, int limit) {
+        return client.getAsync(instancesPath(status)).thenApply(response -> parseInstances(response, limit));
+    }
+
+    private static String instancesPath(WorkflowStatus status) {
         StringBuilder path = new StringBuilder(WORKFLOW_INSTANCES_PATH);
         if (status != null) {
             path.append("/server0/").append(status.name().toLowerCase());
         }
         path.append(".json");
+        return path.toString();
+    }
 
-        JsonNode response = client.get(path.toString());
+    private List<WorkflowInstance> parseInstances(JsonNode response, int limit) {
+        List<WorkflowInstance> instances = new ArrayList<>();
 
         if (response.isObject()) {
             response.fields().forEachRemaining(entry -> {
@@ -126,6 +144,44 @@ public class WorkflowApi {
         return instances;
     }
 
+    /**
+     * Iterates all workflow instances in the repository through QueryBuilder, fetching pages
+     * lazily with prefetch, so instance stores of any size can be walked without truncation.
+     *
+     * @param status filter by status, or null for all
+     * @return lazy pager over workflow instances
+     */
+    public QueryPager<WorkflowInstance> iterateInstances(WorkflowStatus status) {
+        return new QueryPager<>(client, instanceQuery(status), hit -> {
+            String path = hit.path("jcr:path").asText(null);
+            WorkflowInstance instance = parseWorkflowInstance(hit, path);
+            if (instance.getId() == null || instance.getId().isEmpty()) {
+                instance.setId(path);
+            }
+            return instance.getId() != null ? instance : null;
+        }).setPrefetch(true);
+    }
+
+    /**
+     * Counts workflow instances with a single QueryBuilder request instead of listing them.
+     *
+     * @param status filter by status, or null for all
+     * @return number of matching instances
+     * @throws IOException if API call fails
+     */
+    public int countInstances(WorkflowStatus status) throws IOException {
+        return client.get(instanceQuery(status) + "&p.limit=0").path("total").asInt(0);
+    }
+
+    private static String instanceQuery(WorkflowStatus status) {
+        StringBuilder query = new StringBuilder("/bin/querybuilder.json?path=")
+            .append(WORKFLOW_INSTANCE_STORE).append("&type=cq:Workflow");
+        if (status != null) {
+            query.append("&property=status&property.value=").append(status.name());
+        }
+        return query.append("&p.hits=full").toString();
+    }
+
     /**
      * Lists all running workflow instances.
      *
@@ -150,6 +206,17 @@ public class WorkflowApi {
         return parseWorkflowInstance(response, path);
     }
 
+    /**
+     * Gets details of a specific workflow instance without blocking the calling thread.
+     *
+     * @param instanceId workflow instance ID
+     * @return future completing with the workflow instance details
+     */
+    public CompletableFuture<WorkflowInstance> getInstanceAsync(String instanceId) {
+        String path = instanceId.startsWith("/") ? instanceId : WORKFLOW_INSTANCES_PATH + "/" + instanceId;
+        return client.getAsync(path + ".json").thenApply(response -> parseWorkflowInstance(response, path));
+    }
+
     // ========================================
     // Workflow Operations
     // ========================================
@@ -190,13 +257,16 @@ public class WorkflowApi {
             request.set("metaData", metadataNode);
         }
 
+        // The payload is named in the body, so the request path alone would not evict its cached reads
+        List<String> affected = payloadPath != null && payloadPath.startsWith("/") ? List.of(payloadPath) : List.of();
+
         // Try the modern API endpoint first
         try {
-            JsonNode response = client.post("/api/workflow/instances", request);
+            JsonNode response = client.post("/api/workflow/instances", request, affected);
             return parseWorkflowInstance(response, null);
         } catch (IOException e) {
             // Fall back to classic endpoint
-            JsonNode response = client.post("/etc/workflow/instances.json", request);
+            JsonNode response = client.post("/etc/workflow/instances.json", request, affected);
             return parseWorkflowInstance(response, null);
         }
     }
@@ -490,11 +560,11 @@ public class WorkflowApi {
 
         // Count instances by status
         try {
-            stats.setRunning(listInstances(WorkflowStatus.RUNNING, 1000).size());
-            stats.setCompleted(listInstances(WorkflowStatus.COMPLETED, 1000).size());
-            stats.setSuspended(listInstances(WorkflowStatus.SUSPENDED, 1000).size());
-            stats.setAborted(listInstances(WorkflowStatus.ABORTED, 1000).size());
-            stats.setStale(listInstances(WorkflowStatus.STALE, 1000).size());
+            stats.setRunning(countInstances(WorkflowStatus.RUNNING));
+            stats.setCompleted(countInstances(WorkflowStatus.COMPLETED));
+            stats.setSuspended(countInstances(WorkflowStatus.SUSPENDED));
+            stats.setAborted(countInstances(WorkflowStatus.ABORTED));
+            stats.setStale(countInstances(WorkflowStatus.STALE));
         } catch (IOException e) {
             // Partial stats if some queries fail
         }
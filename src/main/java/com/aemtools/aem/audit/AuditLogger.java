@@ -1,27 +1,34 @@
 package com.aemtools.aem.audit;
 
+import com.aemtools.aem.config.ConfigManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.sql.*;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Persistent audit logger using SQLite.
  * Stores API call history, user actions, and system events.
+ * <p>
+ * API calls are handed to an {@link AuditWriter} and written in batches on a background
+ * thread; queries flush it first so they see every call logged before them.
  */
 public class AuditLogger {
 
     private static final Logger logger = LoggerFactory.getLogger(AuditLogger.class);
     private static AuditLogger instance;
     private static final String DB_FILE = System.getProperty("user.home") + "/.aem-api/audit.db";
+    private static final long FLUSH_TIMEOUT_MS = 5_000;
     private Connection connection;
+    private AuditWriter writer;
 
     private AuditLogger() {
         initDatabase();
@@ -39,26 +46,16 @@ public class AuditLogger {
             File dbFile = new File(DB_FILE);
             dbFile.getParentFile().mkdirs();
 
-            connection = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+            connection = openConnection();
 
             // Create tables if not exist
             try (Statement stmt = connection.createStatement()) {
-                // API calls table
-                stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS api_calls (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        timestamp TEXT NOT NULL,
-                        method TEXT NOT NULL,
-                        path TEXT NOT NULL,
-                        status_code INTEGER,
-                        duration_ms INTEGER,
-                        environment TEXT,
-                        user_id TEXT,
-                        request_size INTEGER,
-                        response_size INTEGER,
-                        error_message TEXT
-                    )
-                """);
+                if (vacuumMode().equals("incremental")) {
+                    enableIncrementalVacuum(stmt);
+                }
+                stmt.execute("PRAGMA journal_mode=WAL");
+
+                // API calls are stored in daily partitions created by the writer, see AuditPartitions
 
                 // User actions table
                 stmt.execute("""
@@ -84,11 +81,26 @@ public class AuditLogger {
                 """);
 
                 // Create indexes for faster queries
-                stmt.execute("CREATE INDEX IF NOT EXISTS idx_api_calls_timestamp ON api_calls(timestamp)");
-                stmt.execute("CREATE INDEX IF NOT EXISTS idx_api_calls_method ON api_calls(method)");
                 stmt.execute("CREATE INDEX IF NOT EXISTS idx_user_actions_timestamp ON user_actions(timestamp)");
                 stmt.execute("CREATE INDEX IF NOT EXISTS idx_system_events_timestamp ON system_events(timestamp)");
+
+                // Per-endpoint latency rollups, built from existing calls on first use
+                LatencyRollups.createSchema(stmt);
+
+                // Single api_calls table from earlier versions, moved into partitions below
+                if (tableExists(stmt, "api_calls")) {
+                    addColumnIfMissing(stmt, "api_calls", "retry_count", "INTEGER DEFAULT 0");
+                    addColumnIfMissing(stmt, "api_calls", "lease_ns", "INTEGER");
+                    addColumnIfMissing(stmt, "api_calls", "ttfb_ns", "INTEGER");
+                    addColumnIfMissing(stmt, "api_calls", "total_ns", "INTEGER");
+                    addColumnIfMissing(stmt, "api_calls", "endpoint", "TEXT");
+                }
             }
+            migrateApiCalls();
+
+            writer = new AuditWriter(openConnection(), AuditWriter.Settings.fromConfig(ConfigManager.getInstance()))
+                .start();
+            Runtime.getRuntime().addShutdownHook(new Thread(writer::close, "audit-writer-shutdown"));
 
             logger.info("Audit database initialized at: {}", DB_FILE);
         } catch (SQLException e) {
@@ -96,35 +108,144 @@ public class AuditLogger {
         }
     }
 
+    /**
+     * Opens a connection that waits for the other connection's transactions instead of failing.
+     * NORMAL sync is durable in WAL mode except for the last commits before a power loss.
+     */
+    private static Connection openConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout=5000");
+            stmt.execute("PRAGMA synchronous=NORMAL");
+        }
+        return conn;
+    }
+
+    /**
+     * Moves API calls from the single table of earlier versions into daily partitions, and
+     * builds the latency rollups if there are none yet. Rollups built before endpoint templates
+     * existed are keyed by raw paths, so they are rebuilt whenever records had to be moved.
+     */
+    private void migrateApiCalls() {
+        try {
+            connection.setAutoCommit(false);
+            try {
+                if (AuditPartitions.migrateLegacy(connection) > 0) {
+                    try (Statement stmt = connection.createStatement()) {
+                        stmt.executeUpdate("DELETE FROM api_latency_rollup");
+                    }
+                }
+                int rows = LatencyRollups.backfill(connection);
+                connection.commit();
+                if (rows > 0) {
+                    logger.info("Built latency rollups from {} existing API call records", rows);
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.warn("Failed to migrate API call records: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * How space freed by purges is returned to the file system, from the {@code audit.vacuum}
+     * default: {@code incremental} (the default) releases freed pages after each purge without
+     * rewriting the file, {@code full} runs a complete VACUUM after each purge, and {@code none}
+     * leaves freed pages for reuse.
+     */
+    private static String vacuumMode() {
+        String mode = ConfigManager.getInstance().getDefault("audit.vacuum", "incremental").trim().toLowerCase(Locale.ROOT);
+        return mode.equals("full") || mode.equals("none") ? mode : "incremental";
+    }
+
+    /**
+     * Switches the database to incremental auto-vacuum. An existing file only changes mode
+     * after one full VACUUM, which is run here once. The VACUUM rewrites the whole file and
+     * fails while another process has the database open; the audit log then keeps working
+     * without it and the conversion is retried on the next start.
+     */
+    private static void enableIncrementalVacuum(Statement stmt) {
+        try {
+            try (ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+                if (rs.next() && rs.getInt(1) == 2) {
+                    return;
+                }
+            }
+            logger.info("Converting the audit database to incremental vacuum; this runs once and may take a while");
+            stmt.execute("PRAGMA auto_vacuum=INCREMENTAL");
+            stmt.execute("VACUUM");
+            logger.info("Enabled incremental vacuum for the audit database");
+        } catch (SQLException e) {
+            logger.warn("Could not enable incremental vacuum for the audit database: {}", e.getMessage());
+        }
+    }
+
+    private static boolean tableExists(Statement stmt, String table) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + table + "'")) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Waits for queued API calls to be written, so queries include them.
+     */
+    public void flush() {
+        if (writer != null && !writer.flush(FLUSH_TIMEOUT_MS)) {
+            logger.debug("Audit writer still has {} records queued", writer.getQueued());
+        }
+    }
+
+    /**
+     * Adds a column to a table created by an older version of this tool.
+     */
+    private static void addColumnIfMissing(Statement stmt, String table, String column, String definition)
+            throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+    }
+
     /**
      * Logs an API call.
      */
     public void logApiCall(String method, String path, int statusCode, long durationMs,
                            String environment, String userId, Integer requestSize,
                            Integer responseSize, String errorMessage) {
-        if (connection == null) return;
+        logApiCall(method, path, statusCode, durationMs, environment, userId,
+            requestSize, responseSize, errorMessage, 0);
+    }
+
+    /**
+     * Logs an API call that needed {@code retryCount} retries before its final outcome.
+     */
+    public void logApiCall(String method, String path, int statusCode, long durationMs,
+                           String environment, String userId, Integer requestSize,
+                           Integer responseSize, String errorMessage, int retryCount) {
+        CallMetrics metrics = new CallMetrics(-1, -1, durationMs > 0 ? durationMs * 1_000_000 : -1,
+            requestSize != null ? requestSize : -1, responseSize != null ? responseSize : -1);
+        logApiCall(method, path, statusCode, environment, userId, errorMessage, retryCount, metrics);
+    }
 
-        String sql = """
-            INSERT INTO api_calls (timestamp, method, path, status_code, duration_ms,
-                                   environment, user_id, request_size, response_size, error_message)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-        """;
+    /**
+     * Logs an API call with its measured timings and sizes.
+     * The record is queued and written asynchronously; the timestamp is taken now.
+     */
+    public void logApiCall(String method, String path, int statusCode, String environment, String userId,
+                           String errorMessage, int retryCount, CallMetrics metrics) {
+        if (writer == null) return;
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, Instant.now().toString());
-            pstmt.setString(2, method);
-            pstmt.setString(3, path);
-            pstmt.setInt(4, statusCode);
-            pstmt.setLong(5, durationMs);
-            pstmt.setString(6, environment);
-            pstmt.setString(7, userId);
-            pstmt.setObject(8, requestSize);
-            pstmt.setObject(9, responseSize);
-            pstmt.setString(10, errorMessage);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            logger.warn("Failed to log API call: {}", e.getMessage());
-        }
+        writer.submit(new AuditWriter.ApiCall(System.currentTimeMillis(), method, path, statusCode,
+            environment, userId, errorMessage, retryCount, metrics != null ? metrics : CallMetrics.UNKNOWN));
     }
 
     /**
@@ -170,65 +291,59 @@ public class AuditLogger {
      * Retrieves recent API calls.
      */
     public List<ApiCallRecord> getRecentApiCalls(int limit) {
-        List<ApiCallRecord> records = new ArrayList<>();
-        if (connection == null) return records;
-
-        String sql = "SELECT * FROM api_calls ORDER BY timestamp DESC LIMIT ?";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, limit);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    records.add(new ApiCallRecord(
-                        rs.getLong("id"),
-                        rs.getString("timestamp"),
-                        rs.getString("method"),
-                        rs.getString("path"),
-                        rs.getInt("status_code"),
-                        rs.getLong("duration_ms"),
-                        rs.getString("environment"),
-                        rs.getString("user_id"),
-                        rs.getObject("request_size") != null ? rs.getInt("request_size") : null,
-                        rs.getObject("response_size") != null ? rs.getInt("response_size") : null,
-                        rs.getString("error_message")
-                    ));
-                }
-            }
-        } catch (SQLException e) {
-            logger.warn("Failed to retrieve API calls: {}", e.getMessage());
-        }
+        return queryApiCalls(null, null, 0, Long.MAX_VALUE, limit);
+    }
 
-        return records;
+    /**
+     * Retrieves recent API calls to one endpoint template, as shown by {@link #getStats()}.
+     */
+    public List<ApiCallRecord> getRecentApiCalls(String endpoint, int limit) {
+        return queryApiCalls("endpoint = ?", endpoint, 0, Long.MAX_VALUE, limit);
     }
 
     /**
      * Retrieves API calls within a time range.
      */
     public List<ApiCallRecord> getApiCallsInRange(Instant start, Instant end) {
+        return queryApiCalls(null, null, start.toEpochMilli(), end.toEpochMilli(), 0);
+    }
+
+    /**
+     * Reads API calls newest first, visiting only the partitions that overlap the time range
+     * and stopping once {@code limit} records are found.
+     *
+     * @param condition extra condition with at most one parameter, or null
+     * @param limit     maximum number of records, or 0 for all
+     */
+    private List<ApiCallRecord> queryApiCalls(String condition, String parameter, long fromMs, long toMs,
+                                              int limit) {
         List<ApiCallRecord> records = new ArrayList<>();
         if (connection == null) return records;
+        flush();
 
-        String sql = "SELECT * FROM api_calls WHERE timestamp >= ? AND timestamp <= ? ORDER BY timestamp DESC";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, start.toString());
-            pstmt.setString(2, end.toString());
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    records.add(new ApiCallRecord(
-                        rs.getLong("id"),
-                        rs.getString("timestamp"),
-                        rs.getString("method"),
-                        rs.getString("path"),
-                        rs.getInt("status_code"),
-                        rs.getLong("duration_ms"),
-                        rs.getString("environment"),
-                        rs.getString("user_id"),
-                        rs.getObject("request_size") != null ? rs.getInt("request_size") : null,
-                        rs.getObject("response_size") != null ? rs.getInt("response_size") : null,
-                        rs.getString("error_message")
-                    ));
+        try {
+            for (String table : AuditPartitions.tables(connection)) {
+                long dayStart = AuditPartitions.dayStart(table);
+                if (dayStart > toMs) continue;
+                if (dayStart + AuditPartitions.DAY_MS <= fromMs) break;
+
+                String sql = "SELECT * FROM " + table + " WHERE "
+                    + (condition != null ? condition + " AND " : "") + "ts >= ? AND ts <= ? ORDER BY ts DESC"
+                    + (limit > 0 ? " LIMIT " + (limit - records.size()) : "");
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    int index = 1;
+                    if (condition != null) {
+                        pstmt.setString(index++, parameter);
+                    }
+                    pstmt.setLong(index++, fromMs);
+                    pstmt.setLong(index, toMs);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            records.add(readApiCall(rs));
+                        }
+                    }
                 }
+                if (limit > 0 && records.size() >= limit) break;
             }
         } catch (SQLException e) {
             logger.warn("Failed to retrieve API calls: {}", e.getMessage());
@@ -237,6 +352,32 @@ public class AuditLogger {
         return records;
     }
 
+    private static ApiCallRecord readApiCall(ResultSet rs) throws SQLException {
+        return new ApiCallRecord(
+            rs.getLong("id"),
+            Instant.ofEpochMilli(rs.getLong("ts")).toString(),
+            rs.getString("method"),
+            rs.getString("path"),
+            rs.getInt("status_code"),
+            rs.getLong("duration_ms"),
+            rs.getString("environment"),
+            rs.getString("user_id"),
+            nullableLong(rs, "request_size"),
+            nullableLong(rs, "response_size"),
+            rs.getString("error_message"),
+            rs.getInt("retry_count"),
+            nullableLong(rs, "lease_ns"),
+            nullableLong(rs, "ttfb_ns"),
+            nullableLong(rs, "total_ns"),
+            rs.getString("endpoint")
+        );
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
     /**
      * Retrieves recent user actions.
      */
@@ -297,36 +438,47 @@ public class AuditLogger {
     }
 
     /**
-     * Gets audit statistics.
+     * Gets audit statistics, with endpoint latencies over the last 24 hours.
      */
     public AuditStats getStats() {
+        return getStats(Duration.ofHours(24));
+    }
+
+    /**
+     * Gets audit statistics.
+     * <p>
+     * API call figures come from the hourly latency rollups rather than the raw records, so the
+     * cost depends on the number of endpoints and hours kept, not on the number of calls.
+     *
+     * @param latencyWindow how far back the per-endpoint latency percentiles reach
+     */
+    public AuditStats getStats(Duration latencyWindow) {
         AuditStats stats = new AuditStats();
         if (connection == null) return stats;
+        flush();
 
         try (Statement stmt = connection.createStatement()) {
-            // Total API calls
-            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM api_calls")) {
-                if (rs.next()) stats.setTotalApiCalls(rs.getLong(1));
+            // API call totals, errors, retries and average response time
+            try (ResultSet rs = stmt.executeQuery("""
+                SELECT COALESCE(SUM(calls), 0), COALESCE(SUM(errors), 0), COALESCE(SUM(retries), 0),
+                       COALESCE(SUM(retried), 0), COALESCE(SUM(total_ns), 0), COALESCE(SUM(timed), 0)
+                FROM api_latency_rollup WHERE resolution_ms = %d
+            """.formatted(LatencyRollups.HOUR_MS))) {
+                if (rs.next()) {
+                    stats.setTotalApiCalls(rs.getLong(1));
+                    stats.setErrorCount(rs.getLong(2));
+                    stats.setTotalRetries(rs.getLong(3));
+                    stats.setRetriedCalls(rs.getLong(4));
+                    long timed = rs.getLong(6);
+                    stats.setAvgResponseTimeMs(timed > 0 ? rs.getLong(5) / 1e6 / timed : 0);
+                }
             }
 
             // API calls today
-            String today = LocalDateTime.now().format(DateTimeFormatter.ISO_DATE);
-            try (ResultSet rs = stmt.executeQuery(
-                    "SELECT COUNT(*) FROM api_calls WHERE timestamp LIKE '" + today + "%'")) {
-                if (rs.next()) stats.setApiCallsToday(rs.getLong(1));
-            }
-
-            // Error count
-            try (ResultSet rs = stmt.executeQuery(
-                    "SELECT COUNT(*) FROM api_calls WHERE status_code >= 400")) {
-                if (rs.next()) stats.setErrorCount(rs.getLong(1));
-            }
+            long midnight = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            stats.setApiCallsToday(LatencyRollups.callsSince(connection, midnight));
 
-            // Average response time
-            try (ResultSet rs = stmt.executeQuery(
-                    "SELECT AVG(duration_ms) FROM api_calls WHERE duration_ms IS NOT NULL")) {
-                if (rs.next()) stats.setAvgResponseTimeMs(rs.getDouble(1));
-            }
+            stats.setDroppedApiCalls(writer != null ? writer.getDropped() : 0);
 
             // Total user actions
             try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM user_actions")) {
@@ -338,21 +490,37 @@ public class AuditLogger {
                 if (rs.next()) stats.setTotalSystemEvents(rs.getLong(1));
             }
 
+            // Latest circuit breaker transition
+            try (ResultSet rs = stmt.executeQuery("""
+                SELECT timestamp, message FROM system_events
+                WHERE event_type LIKE 'CIRCUIT_%'
+                ORDER BY timestamp DESC
+                LIMIT 1
+            """)) {
+                if (rs.next()) {
+                    stats.setLastCircuitEvent(rs.getString("timestamp") + " " + rs.getString("message"));
+                }
+            }
+
             // Most used endpoints (top 5)
             try (ResultSet rs = stmt.executeQuery("""
-                SELECT method || ' ' || path as endpoint, COUNT(*) as count
-                FROM api_calls
-                GROUP BY method, path
+                SELECT endpoint, SUM(calls) as count
+                FROM api_latency_rollup
+                WHERE resolution_ms = %d
+                GROUP BY endpoint
                 ORDER BY count DESC
                 LIMIT 5
-            """)) {
+            """.formatted(LatencyRollups.HOUR_MS))) {
                 List<String> topEndpoints = new ArrayList<>();
                 while (rs.next()) {
-                    topEndpoints.add(rs.getString("endpoint") + " (" + rs.getInt("count") + ")");
+                    topEndpoints.add(rs.getString("endpoint") + " (" + rs.getLong("count") + ")");
                 }
                 stats.setTopEndpoints(topEndpoints);
             }
 
+            stats.setLatencyWindow(latencyWindow);
+            stats.setLatencies(LatencyRollups.endpointLatencies(connection, latencyWindow.toMillis(), 10));
+
         } catch (SQLException e) {
             logger.warn("Failed to get audit stats: {}", e.getMessage());
         }
@@ -362,24 +530,30 @@ public class AuditLogger {
 
     /**
      * Purges audit records older than the specified number of days.
+     * API call partitions older than the cutoff are dropped whole.
      */
     public int purgeOldRecords(int olderThanDays) {
         if (connection == null) return 0;
+        flush();
 
         Instant cutoff = Instant.now().minusSeconds(olderThanDays * 24L * 60 * 60);
         String cutoffStr = cutoff.toString();
         int totalDeleted = 0;
 
         try (Statement stmt = connection.createStatement()) {
-            totalDeleted += stmt.executeUpdate(
-                "DELETE FROM api_calls WHERE timestamp < '" + cutoffStr + "'");
+            totalDeleted += AuditPartitions.dropBefore(connection, cutoff.toEpochMilli());
             totalDeleted += stmt.executeUpdate(
                 "DELETE FROM user_actions WHERE timestamp < '" + cutoffStr + "'");
             totalDeleted += stmt.executeUpdate(
                 "DELETE FROM system_events WHERE timestamp < '" + cutoffStr + "'");
+            LatencyRollups.purge(connection, cutoff.toEpochMilli());
 
-            // Vacuum to reclaim space
-            stmt.execute("VACUUM");
+            // Return freed pages to the file system
+            switch (vacuumMode()) {
+                case "incremental" -> AuditPartitions.releaseFreePages(connection);
+                case "full" -> stmt.execute("VACUUM");
+                default -> { }
+            }
 
             logger.info("Purged {} audit records older than {} days", totalDeleted, olderThanDays);
         } catch (SQLException e) {
@@ -401,6 +575,9 @@ public class AuditLogger {
      * Closes the database connection.
      */
     public void close() {
+        if (writer != null) {
+            writer.close();
+        }
         if (connection != null) {
             try {
                 connection.close();
@@ -421,6 +598,33 @@ public class AuditLogger {
         CSV, JSON
     }
 
+    /**
+     * Timings and sizes measured for one HTTP exchange; -1 marks a value that was not measured.
+     *
+     * @param leaseNanos    time spent waiting for a pooled connection
+     * @param ttfbNanos     time from sending until the response head arrived, including the lease
+     * @param totalNanos    time from sending until the response body was fully read
+     * @param requestBytes  request body bytes written
+     * @param responseBytes response body bytes read
+     */
+    public record CallMetrics(long leaseNanos, long ttfbNanos, long totalNanos,
+                              long requestBytes, long responseBytes) {
+
+        public static final CallMetrics UNKNOWN = new CallMetrics(-1, -1, -1, -1, -1);
+
+        public long durationMs() {
+            return totalNanos >= 0 ? totalNanos / 1_000_000 : 0;
+        }
+    }
+
+    /**
+     * Call counts and latency percentiles for one endpoint over a period, in milliseconds.
+     * Percentiles are accurate to about 3%.
+     */
+    public record EndpointLatency(String endpoint, long calls, long errors, double avgMs,
+                                  double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+    }
+
     public record ApiCallRecord(
         long id,
         String timestamp,
@@ -430,14 +634,21 @@ public class AuditLogger {
         long durationMs,
         String environment,
         String userId,
-        Integer requestSize,
-        Integer responseSize,
-        String errorMessage
+        Long requestSize,
+        Long responseSize,
+        String errorMessage,
+        int retryCount,
+        Long leaseNanos,
+        Long ttfbNanos,
+        Long totalNanos,
+        String endpoint
     ) {
         @Override
         public String toString() {
-            return String.format("[%s] %s %s -> %d (%dms)",
-                timestamp, method, path, statusCode, durationMs);
+            String retries = retryCount > 0 ? ", " + retryCount + " retries" : "";
+            String ttfb = ttfbNanos != null ? String.format(", ttfb %.1fms", ttfbNanos / 1e6) : "";
+            return String.format("[%s] %s %s -> %d (%dms%s%s)",
+                timestamp, method, path, statusCode, durationMs, ttfb, retries);
         }
     }
 
@@ -472,10 +683,16 @@ public class AuditLogger {
         private long totalApiCalls;
         private long apiCallsToday;
         private long errorCount;
+        private long totalRetries;
+        private long retriedCalls;
+        private long droppedApiCalls;
         private double avgResponseTimeMs;
         private long totalUserActions;
         private long totalSystemEvents;
+        private String lastCircuitEvent;
         private List<String> topEndpoints = new ArrayList<>();
+        private Duration latencyWindow = Duration.ZERO;
+        private List<EndpointLatency> latencies = new ArrayList<>();
 
         public long getTotalApiCalls() { return totalApiCalls; }
         public void setTotalApiCalls(long totalApiCalls) { this.totalApiCalls = totalApiCalls; }
@@ -483,14 +700,26 @@ public class AuditLogger {
         public void setApiCallsToday(long apiCallsToday) { this.apiCallsToday = apiCallsToday; }
         public long getErrorCount() { return errorCount; }
         public void setErrorCount(long errorCount) { this.errorCount = errorCount; }
+        public long getTotalRetries() { return totalRetries; }
+        public void setTotalRetries(long totalRetries) { this.totalRetries = totalRetries; }
+        public long getRetriedCalls() { return retriedCalls; }
+        public void setRetriedCalls(long retriedCalls) { this.retriedCalls = retriedCalls; }
+        public long getDroppedApiCalls() { return droppedApiCalls; }
+        public void setDroppedApiCalls(long droppedApiCalls) { this.droppedApiCalls = droppedApiCalls; }
         public double getAvgResponseTimeMs() { return avgResponseTimeMs; }
         public void setAvgResponseTimeMs(double avgResponseTimeMs) { this.avgResponseTimeMs = avgResponseTimeMs; }
         public long getTotalUserActions() { return totalUserActions; }
         public void setTotalUserActions(long totalUserActions) { this.totalUserActions = totalUserActions; }
         public long getTotalSystemEvents() { return totalSystemEvents; }
         public void setTotalSystemEvents(long totalSystemEvents) { this.totalSystemEvents = totalSystemEvents; }
+        public String getLastCircuitEvent() { return lastCircuitEvent; }
+        public void setLastCircuitEvent(String lastCircuitEvent) { this.lastCircuitEvent = lastCircuitEvent; }
         public List<String> getTopEndpoints() { return topEndpoints; }
         public void setTopEndpoints(List<String> topEndpoints) { this.topEndpoints = topEndpoints; }
+        public Duration getLatencyWindow() { return latencyWindow; }
+        public void setLatencyWindow(Duration latencyWindow) { this.latencyWindow = latencyWindow; }
+        public List<EndpointLatency> getLatencies() { return latencies; }
+        public void setLatencies(List<EndpointLatency> latencies) { this.latencies = latencies; }
 
         @Override
         public String toString() {
@@ -498,13 +727,25 @@ public class AuditLogger {
                 "Audit Stats:\n" +
                 "  Total API Calls: %d (today: %d)\n" +
                 "  Errors: %d\n" +
+                "  Retries: %d (on %d calls)\n" +
+                "%s" +
                 "  Avg Response Time: %.1fms\n" +
                 "  User Actions: %d\n" +
                 "  System Events: %d\n" +
-                "  Top Endpoints: %s",
-                totalApiCalls, apiCallsToday, errorCount, avgResponseTimeMs,
-                totalUserActions, totalSystemEvents, String.join(", ", topEndpoints)
+                "  Top Endpoints: %s%s",
+                totalApiCalls, apiCallsToday, errorCount, totalRetries, retriedCalls,
+                droppedApiCalls > 0 ? "  Dropped (queue full): " + droppedApiCalls + "\n" : "", avgResponseTimeMs,
+                totalUserActions, totalSystemEvents, String.join(", ", topEndpoints), latencyLines()
             );
         }
+
+        private String latencyLines() {
+            StringBuilder sb = new StringBuilder();
+            for (EndpointLatency l : latencies) {
+                sb.append(String.format("%n  %s: p50 %.1fms, p95 %.1fms, p99 %.1fms, max %.1fms (%d calls)",
+                    l.endpoint(), l.p50Ms(), l.p95Ms(), l.p99Ms(), l.maxMs(), l.calls()));
+            }
+            return sb.toString();
+        }
     }
 }
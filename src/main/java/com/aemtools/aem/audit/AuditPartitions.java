@@ -0,0 +1,315 @@
+package com.aemtools.aem.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * API call records stored in one table per UTC day, named {@code api_calls_yyyyMMdd}.
+ * <p>
+ * Timestamps are epoch milliseconds in the {@code ts} column. Each partition has an index on
+ * {@code ts} for recent and range reads, and one on {@code endpoint, ts} for per-endpoint reads,
+ * which still fetch the full rows they return. The endpoint index also carries the status, retry
+ * and timing columns, so rebuilding the {@link LatencyRollups} is served from the index alone.
+ * Retention {@link #dropBefore drops} whole partitions, so only the day that straddles the
+ * cutoff is deleted row by row. Record ids are row ids and are unique within a day only.
+ * <p>
+ * An instance keeps prepared inserts for the partitions a connection is writing to.
+ */
+public final class AuditPartitions implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitions.class);
+
+    public static final String PREFIX = "api_calls_";
+    public static final long DAY_MS = 86_400_000;
+    private static final Pattern NAME = Pattern.compile(PREFIX + "\\d{8}");
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    /** Prepared inserts kept open; writes rarely span more than today and yesterday. */
+    private static final int OPEN_PARTITIONS = 3;
+
+    private static final String COLUMNS = """
+        ts, method, path, endpoint, status_code, duration_ms, environment, user_id,
+        request_size, response_size, error_message, retry_count, lease_ns, ttfb_ns, total_ns""";
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> inserts = new LinkedHashMap<>();
+    private final List<PreparedStatement> pending = new ArrayList<>();
+
+    public AuditPartitions(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Partition holding records at {@code epochMs}.
+     */
+    public static String tableFor(long epochMs) {
+        return PREFIX + Instant.ofEpochMilli(epochMs).atZone(ZoneOffset.UTC).toLocalDate().format(DAY);
+    }
+
+    /**
+     * Start of the day a partition holds, in epoch milliseconds.
+     */
+    public static long dayStart(String table) {
+        return LocalDate.parse(table.substring(PREFIX.length()), DAY)
+            .atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Existing partitions, newest first.
+     */
+    public static List<String> tables(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT name FROM sqlite_master WHERE type = 'table' AND name LIKE '" + PREFIX + "%'")) {
+            while (rs.next()) {
+                String name = rs.getString(1);
+                if (NAME.matcher(name).matches()) {
+                    tables.add(name);
+                }
+            }
+        }
+        tables.sort(Comparator.reverseOrder());
+        return tables;
+    }
+
+    static void createTable(Connection connection, String table) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS %1$s (
+                    id INTEGER PRIMARY KEY,
+                    ts INTEGER NOT NULL,
+                    method TEXT NOT NULL,
+                    path TEXT NOT NULL,
+                    endpoint TEXT,
+                    status_code INTEGER,
+                    duration_ms INTEGER,
+                    environment TEXT,
+                    user_id TEXT,
+                    request_size INTEGER,
+                    response_size INTEGER,
+                    error_message TEXT,
+                    retry_count INTEGER DEFAULT 0,
+                    lease_ns INTEGER,
+                    ttfb_ns INTEGER,
+                    total_ns INTEGER
+                )
+            """.formatted(table));
+            stmt.execute("CREATE INDEX IF NOT EXISTS %1$s_ts ON %1$s(ts)".formatted(table));
+            stmt.execute(("CREATE INDEX IF NOT EXISTS %1$s_endpoint"
+                + " ON %1$s(endpoint, ts, status_code, retry_count, total_ns)").formatted(table));
+        }
+    }
+
+    /**
+     * Adds a record to the insert batch of its partition, creating the partition if needed.
+     * Nothing is written until {@link #executeBatches()}.
+     */
+    public void add(AuditWriter.ApiCall call, String endpoint) throws SQLException {
+        PreparedStatement insert = insertFor(tableFor(call.timestamp()));
+        AuditLogger.CallMetrics metrics = call.metrics();
+        insert.setLong(1, call.timestamp());
+        insert.setString(2, call.method());
+        insert.setString(3, call.path());
+        insert.setString(4, endpoint);
+        insert.setInt(5, call.statusCode());
+        insert.setLong(6, metrics.durationMs());
+        insert.setString(7, call.environment());
+        insert.setString(8, call.userId());
+        insert.setObject(9, measured(metrics.requestBytes()));
+        insert.setObject(10, measured(metrics.responseBytes()));
+        insert.setString(11, call.errorMessage());
+        insert.setInt(12, call.retryCount());
+        insert.setObject(13, measured(metrics.leaseNanos()));
+        insert.setObject(14, measured(metrics.ttfbNanos()));
+        insert.setObject(15, measured(metrics.totalNanos()));
+        insert.addBatch();
+        if (!pending.contains(insert)) {
+            pending.add(insert);
+        }
+    }
+
+    public void executeBatches() throws SQLException {
+        try {
+            for (PreparedStatement insert : pending) {
+                insert.executeBatch();
+            }
+        } finally {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Discards unwritten batches and the prepared inserts, e.g. after a failed transaction
+     * or when partitions may have been dropped by another connection.
+     */
+    public void reset() {
+        pending.clear();
+        close();
+    }
+
+    private PreparedStatement insertFor(String table) throws SQLException {
+        PreparedStatement insert = inserts.get(table);
+        if (insert != null) {
+            return insert;
+        }
+        createTable(connection, table);
+        insert = connection.prepareStatement(
+            "INSERT INTO " + table + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        inserts.put(table, insert);
+        Iterator<PreparedStatement> open = inserts.values().iterator();
+        while (inserts.size() > OPEN_PARTITIONS && open.hasNext()) {
+            PreparedStatement stale = open.next();
+            if (stale != insert && !pending.contains(stale)) {
+                stale.close();
+                open.remove();
+            }
+        }
+        return insert;
+    }
+
+    private static Long measured(long value) {
+        return value >= 0 ? value : null;
+    }
+
+    /**
+     * Removes records older than {@code cutoffMs}: partitions that end before it are dropped,
+     * and the partition it falls in is trimmed.
+     *
+     * @return the number of records removed
+     */
+    public static int dropBefore(Connection connection, long cutoffMs) throws SQLException {
+        int deleted = 0;
+        try (Statement stmt = connection.createStatement()) {
+            for (String table : tables(connection)) {
+                long start = dayStart(table);
+                if (start + DAY_MS <= cutoffMs) {
+                    try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                        deleted += rs.next() ? rs.getInt(1) : 0;
+                    }
+                    stmt.execute("DROP TABLE " + table);
+                } else if (start < cutoffMs) {
+                    deleted += stmt.executeUpdate("DELETE FROM " + table + " WHERE ts < " + cutoffMs);
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns pages freed by dropped partitions to the file system when the database uses
+     * incremental auto-vacuum. The pragma frees one page per step and {@code execute} only
+     * steps it once, so it is run with {@code executeUpdate} and repeated while the free list
+     * keeps shrinking. Does nothing when auto-vacuum is off.
+     *
+     * @return the number of pages released
+     */
+    public static long releaseFreePages(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            long before = freePages(stmt);
+            long free = before;
+            while (free > 0) {
+                stmt.executeUpdate("PRAGMA incremental_vacuum");
+                long after = freePages(stmt);
+                if (after >= free) {
+                    break;
+                }
+                free = after;
+            }
+            return before - free;
+        }
+    }
+
+    private static long freePages(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA freelist_count")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Moves records from the single {@code api_calls} table used by earlier versions into
+     * partitions, converting ISO timestamps to epoch milliseconds and filling in endpoint
+     * templates, then drops it. Runs inside the caller's transaction.
+     *
+     * @return the number of records moved, 0 if there was no such table
+     */
+    public static int migrateLegacy(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'api_calls'")) {
+                if (!rs.next()) {
+                    return 0;
+                }
+            }
+            int moved = 0;
+            try (AuditPartitions partitions = new AuditPartitions(connection);
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM api_calls ORDER BY id")) {
+                while (rs.next()) {
+                    long totalNanos = rs.getLong("total_ns");
+                    if (rs.wasNull()) {
+                        long ms = rs.getLong("duration_ms");
+                        totalNanos = ms > 0 ? ms * 1_000_000 : -1;
+                    }
+                    AuditLogger.CallMetrics metrics = new AuditLogger.CallMetrics(
+                        orUnknown(rs, "lease_ns"), orUnknown(rs, "ttfb_ns"), totalNanos,
+                        orUnknown(rs, "request_size"), orUnknown(rs, "response_size"));
+                    AuditWriter.ApiCall call = new AuditWriter.ApiCall(
+                        parseTimestamp(rs.getString("timestamp")), rs.getString("method"), rs.getString("path"),
+                        rs.getInt("status_code"), rs.getString("environment"), rs.getString("user_id"),
+                        rs.getString("error_message"), rs.getInt("retry_count"), metrics);
+                    String endpoint = rs.getString("endpoint");
+                    partitions.add(call, endpoint != null ? endpoint
+                        : EndpointNormalizer.normalize(call.method(), call.path()));
+                    if (++moved % 1000 == 0) {
+                        partitions.executeBatches();
+                    }
+                }
+                partitions.executeBatches();
+            }
+            stmt.execute("DROP TABLE api_calls");
+            logger.info("Moved {} API call records into daily partitions", moved);
+            return moved;
+        }
+    }
+
+    private static long orUnknown(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? -1 : value;
+    }
+
+    private static long parseTimestamp(String timestamp) {
+        try {
+            return Instant.parse(timestamp).toEpochMilli();
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (PreparedStatement insert : inserts.values()) {
+            try {
+                insert.close();
+            } catch (SQLException e) {
+                logger.debug("Error closing partition insert: {}", e.getMessage());
+            }
+        }
+        inserts.clear();
+    }
+}
@@ -0,0 +1,302 @@
+package com.aemtools.aem.audit;
+
+import com.aemtools.aem.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes API call records on a background thread so request threads never wait on SQLite.
+ * <p>
+ * Callers {@link #submit} records into a bounded queue. A single writer thread drains it and
+ * inserts each batch in one transaction with reused prepared statements, flushing once
+ * {@link Settings#batchSize()} records are waiting or {@link Settings#flushIntervalMs()} has
+ * passed since the oldest one arrived. When the queue is full, {@link OverflowPolicy#BLOCK}
+ * makes callers wait for room and {@link OverflowPolicy#DROP} discards the record and counts
+ * it. {@link #close()} writes everything still queued.
+ * <p>
+ * Records go to the daily {@link AuditPartitions} with their {@link EndpointNormalizer}
+ * template, and each batch also updates the per-endpoint {@link LatencyRollups} in the same
+ * transaction.
+ * The writer owns its connection; readers use their own, which WAL mode lets run alongside it.
+ */
+public class AuditWriter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditWriter.class);
+
+    private final Connection connection;
+    private final Settings settings;
+    private final BlockingQueue<ApiCall> queue;
+    private final AuditPartitions partitions;
+    private final Thread thread;
+    private final LatencyRollups rollups = new LatencyRollups();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object progress = new Object();
+    private long processed;
+    private long batches;
+    private volatile boolean closed;
+
+    /**
+     * What {@link #submit} does when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Wait for the writer to make room; auditing is never lossy but can slow callers. */
+        BLOCK,
+        /** Discard the record and count it; callers never wait. */
+        DROP;
+
+        public static OverflowPolicy parse(String value) {
+            return value != null && value.trim().equalsIgnoreCase("drop") ? DROP : BLOCK;
+        }
+    }
+
+    /**
+     * Queue and batching limits.
+     * <p>
+     * Read from the {@code audit.*} defaults in {@link ConfigManager}:
+     * {@code audit.queueSize}, {@code audit.batchSize}, {@code audit.flushMs} and
+     * {@code audit.overflow} ({@code block} or {@code drop}).
+     */
+    public record Settings(int queueSize, int batchSize, long flushIntervalMs, OverflowPolicy overflow) {
+
+        public static Settings defaults() {
+            return new Settings(10_000, 500, 1_000, OverflowPolicy.BLOCK);
+        }
+
+        public static Settings fromConfig(ConfigManager config) {
+            Settings d = defaults();
+            return new Settings(
+                Math.max(1, config.getDefaultInt("audit.queueSize", d.queueSize())),
+                Math.max(1, config.getDefaultInt("audit.batchSize", d.batchSize())),
+                Math.max(1, config.getDefaultInt("audit.flushMs", (int) d.flushIntervalMs())),
+                OverflowPolicy.parse(config.getDefault("audit.overflow",
+                    d.overflow().name().toLowerCase(Locale.ROOT))));
+        }
+    }
+
+    /**
+     * One API call waiting to be written; {@code timestamp} is in epoch milliseconds.
+     */
+    public record ApiCall(long timestamp, String method, String path, int statusCode,
+                          String environment, String userId, String errorMessage, int retryCount,
+                          AuditLogger.CallMetrics metrics) {
+    }
+
+    /**
+     * Creates the rollup table on {@code connection}, which the writer takes ownership of;
+     * partitions are created as records for them arrive. Records are queued but not written
+     * until {@link #start()}.
+     */
+    public AuditWriter(Connection connection, Settings settings) throws SQLException {
+        this.connection = connection;
+        this.settings = settings;
+        this.queue = new ArrayBlockingQueue<>(settings.queueSize());
+        try (Statement stmt = connection.createStatement()) {
+            LatencyRollups.createSchema(stmt);
+        }
+        this.partitions = new AuditPartitions(connection);
+        this.thread = new Thread(this::run, "audit-writer");
+        thread.setDaemon(true);
+    }
+
+    public AuditWriter start() {
+        thread.start();
+        return this;
+    }
+
+    /**
+     * Queues a record, applying the overflow policy if the queue is full.
+     *
+     * @return false if the record was dropped
+     */
+    public boolean submit(ApiCall call) {
+        if (closed) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if (thread.getState() == Thread.State.TERMINATED) {
+            // Nothing would drain the queue, so a blocking put could wait forever.
+            long count = dropped.incrementAndGet();
+            if (count == 1 || count % 1000 == 0) {
+                logger.warn("Audit writer is not running: {} API call records dropped so far", count);
+            }
+            return false;
+        }
+        boolean queued;
+        if (settings.overflow() == OverflowPolicy.BLOCK) {
+            try {
+                queue.put(call);
+                queued = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+        } else {
+            queued = queue.offer(call);
+        }
+        if (!queued) {
+            long count = dropped.incrementAndGet();
+            if (count == 1 || count % 1000 == 0) {
+                logger.warn("Audit queue full: {} API call records dropped so far", count);
+            }
+            return false;
+        }
+        submitted.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Waits until every record queued before this call has been written, or the timeout passes.
+     *
+     * @return true if everything was written in time
+     */
+    public boolean flush(long timeoutMs) {
+        long target = submitted.get();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (progress) {
+            while (processed < target && thread.isAlive()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    progress.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return processed >= target;
+        }
+    }
+
+    private void run() {
+        List<ApiCall> batch = new ArrayList<>(settings.batchSize());
+        while (!closed || !queue.isEmpty()) {
+            try {
+                ApiCall first = queue.poll(settings.flushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.flushIntervalMs());
+                while (batch.size() < settings.batchSize() && !closed) {
+                    if (queue.drainTo(batch, settings.batchSize() - batch.size()) > 0) {
+                        continue;
+                    }
+                    ApiCall next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, settings.batchSize() - batch.size());
+            } catch (InterruptedException e) {
+                // close() interrupts a waiting writer; write what is left below
+                queue.drainTo(batch, settings.batchSize() - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        closeConnection();
+        synchronized (progress) {
+            progress.notifyAll();
+        }
+    }
+
+    private void write(List<ApiCall> batch) {
+        try {
+            connection.setAutoCommit(false);
+            try {
+                for (ApiCall call : batch) {
+                    String endpoint = EndpointNormalizer.normalize(call.method(), call.path());
+                    partitions.add(call, endpoint);
+                    rollups.add(call, endpoint);
+                }
+                partitions.executeBatches();
+                rollups.mergeInto(connection);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                partitions.reset();
+                rollups.clear();
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException | RuntimeException e) {
+            // A bad batch is lost, but the writer keeps draining the queue.
+            logger.warn("Failed to write {} audit records: {}", batch.size(), e.getMessage());
+        }
+        synchronized (progress) {
+            processed += batch.size();
+            batches++;
+            progress.notifyAll();
+        }
+    }
+
+    private void closeConnection() {
+        try {
+            partitions.close();
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Error closing audit writer: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records discarded because the queue was full or the writer was closed.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Transactions committed so far.
+     */
+    public long getBatches() {
+        synchronized (progress) {
+            return batches;
+        }
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting records, writes everything still queued and closes the connection.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (thread.getState() == Thread.State.NEW) {
+            thread.start();
+        }
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            logger.warn("Audit writer did not finish; {} records not written", queue.size());
+        }
+    }
+}
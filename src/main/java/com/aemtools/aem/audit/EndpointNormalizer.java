@@ -0,0 +1,179 @@
+package com.aemtools.aem.audit;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Collapses concrete request paths into endpoint templates, so calls that hit the same API
+ * with different content paths, IDs or query values are counted and timed together.
+ * <p>
+ * Examples:
+ * <ul>
+ *   <li>{@code /api/assets/my-site/hero.jpg.json} becomes {@code /api/assets/{path}.json}</li>
+ *   <li>{@code /home/users/j/jdoe.json} becomes {@code /home/users/{path}.json}</li>
+ *   <li>{@code /bin/querybuilder.json?path=/home/users&type=rep:User&property.value=jdoe}
+ *       becomes {@code querybuilder type=rep:User}</li>
+ *   <li>{@code /bin/replicate.json?cmd=status&path=/content/x} becomes
+ *       {@code /bin/replicate.json?cmd=status}</li>
+ *   <li>{@code /api/workflow/instances/1234} becomes {@code /api/workflow/instances/{id}}</li>
+ * </ul>
+ * Everything below a known content root is replaced by {@code {path}}, keeping the request
+ * selectors and extension. Elsewhere, numeric, UUID and long hexadecimal segments become
+ * {@code {id}}. Query strings are dropped except for {@code cmd}, which selects the operation,
+ * and Query Builder calls keep their {@code type} and {@code property} predicates.
+ */
+public final class EndpointNormalizer {
+
+    /** Roots whose remainder is a repository path; more specific roots come first. */
+    private static final List<String> PATH_ROOTS = List.of(
+        "/api/assets",
+        "/api/content/fragments",
+        "/api/pages",
+        "/graphql/execute.json",
+        "/graphql/persisted-query",
+        "/content/dam",
+        "/content/cq:tags",
+        "/content",
+        "/conf",
+        "/home/users",
+        "/home/groups",
+        "/etc/packages",
+        "/etc/workflow/instances",
+        "/var/workflow/instances",
+        "/var/workflow/models"
+    );
+
+    private static final Set<String> EXTENSIONS = Set.of("json", "html", "xml", "txt", "csv", "zip", "jsp");
+
+    /** Sling selectors kept in a template; anything else before the extension is part of the name. */
+    private static final Set<String> SELECTORS = Set.of("infinity", "tidy", "model", "children", "harray", "query");
+
+    private static final Pattern ID = Pattern.compile(
+        "\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-fA-F]{16,}");
+
+    private static final String QUERY_BUILDER = "/bin/querybuilder.json";
+
+    private EndpointNormalizer() {
+    }
+
+    /**
+     * Template for a call, as {@code METHOD template}.
+     */
+    public static String normalize(String method, String path) {
+        return method + " " + normalize(path);
+    }
+
+    /**
+     * Template for a request path, which may be a full URL and may carry a query string.
+     */
+    public static String normalize(String path) {
+        String p = path != null ? path : "";
+        int scheme = p.indexOf("://");
+        if (scheme >= 0) {
+            int slash = p.indexOf('/', scheme + 3);
+            p = slash >= 0 ? p.substring(slash) : "/";
+        }
+        String query = null;
+        int q = p.indexOf('?');
+        if (q >= 0) {
+            query = p.substring(q + 1);
+            p = p.substring(0, q);
+        }
+        int fragment = p.indexOf('#');
+        if (fragment >= 0) {
+            p = p.substring(0, fragment);
+        }
+        if (p.length() > 1 && p.endsWith("/")) {
+            p = p.substring(0, p.length() - 1);
+        }
+
+        if (p.equals(QUERY_BUILDER) || p.equals("/bin/querybuilder")) {
+            return queryBuilder(query);
+        }
+        return template(p) + command(query);
+    }
+
+    private static String template(String path) {
+        for (String root : PATH_ROOTS) {
+            if (path.startsWith(root + "/") && path.length() > root.length() + 1) {
+                return root + "/{path}" + requestSuffix(path.substring(path.lastIndexOf('/') + 1));
+            }
+        }
+        if (path.isEmpty()) {
+            return "/";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String segment : path.substring(1).split("/", -1)) {
+            sb.append('/');
+            int dot = segment.indexOf('.');
+            String name = dot >= 0 ? segment.substring(0, dot) : segment;
+            if (ID.matcher(name).matches()) {
+                sb.append("{id}").append(dot >= 0 ? segment.substring(dot) : "");
+            } else {
+                sb.append(segment);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Known selectors and extension at the end of the last path segment, e.g. {@code .infinity.json}
+     * for {@code page.infinity.json}, or {@code .json} for {@code hero.jpg.json}.
+     */
+    private static String requestSuffix(String segment) {
+        String[] parts = segment.split("\\.");
+        if (parts.length < 2 || !EXTENSIONS.contains(parts[parts.length - 1].toLowerCase(Locale.ROOT))) {
+            return "";
+        }
+        StringBuilder suffix = new StringBuilder("." + parts[parts.length - 1]);
+        for (int i = parts.length - 2; i >= 1; i--) {
+            String selector = parts[i];
+            if (SELECTORS.contains(selector)) {
+                suffix.insert(0, "." + selector);
+            } else if (selector.matches("\\d+")) {
+                suffix.insert(0, ".{n}");
+            } else {
+                break;
+            }
+        }
+        return suffix.toString();
+    }
+
+    private static String command(String query) {
+        String cmd = parameter(query, "cmd");
+        return cmd != null ? "?cmd=" + cmd : "";
+    }
+
+    private static String queryBuilder(String query) {
+        StringBuilder sb = new StringBuilder("querybuilder");
+        String type = parameter(query, "type");
+        if (type != null) {
+            sb.append(" type=").append(type);
+        }
+        String property = parameter(query, "property");
+        if (property != null) {
+            sb.append(" property=").append(property);
+        }
+        if (parameter(query, "fulltext") != null) {
+            sb.append(" fulltext");
+        }
+        return sb.toString();
+    }
+
+    private static String parameter(String query, String name) {
+        if (query == null || query.isEmpty()) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            if (key.equals(name)) {
+                String value = eq >= 0 ? pair.substring(eq + 1) : "";
+                return value.replace("%3A", ":").replace("%3a", ":");
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,158 @@
+package com.aemtools.aem.audit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Fixed-size latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * <p>
+ * Values are recorded in microseconds. Values below {@value #SUB_BUCKETS} are counted exactly;
+ * above that every power of two is split into {@value #SUB_BUCKETS} equal buckets, so a
+ * reported percentile is at most about 3% above the true value. Memory and percentile cost
+ * are constant in the number of recorded values, histograms merge by adding counts, and the
+ * serialized form holds only non-empty buckets.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Largest power of two tracked; 2^40 microseconds is about twelve days. */
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final byte FORMAT = 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+
+    public void recordNanos(long nanos) {
+        record(Math.max(0, nanos / 1_000));
+    }
+
+    /**
+     * Records one value in microseconds.
+     */
+    public void record(long micros) {
+        counts[index(micros)]++;
+        count++;
+        max = Math.max(max, micros);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Largest recorded value in microseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Value at or below which {@code percentile} percent of recorded values fall, in microseconds.
+     *
+     * @return the upper bound of the bucket holding that rank, capped at the maximum; 0 if empty
+     */
+    public long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, percentile) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(0, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int mantissa = (int) (micros >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + mantissa;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int mantissa = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + mantissa) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            int used = 0;
+            for (long c : counts) {
+                if (c > 0) {
+                    used++;
+                }
+            }
+            out.writeByte(FORMAT);
+            out.writeLong(max);
+            out.writeShort(used);
+            for (int i = 0; i < BUCKETS; i++) {
+                if (counts[i] > 0) {
+                    out.writeShort(i);
+                    out.writeLong(counts[i]);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a histogram written by {@link #toBytes()}; null or unreadable input gives an empty one.
+     */
+    public static LatencyHistogram fromBytes(byte[] data) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (data == null || data.length == 0) {
+            return histogram;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readByte() != FORMAT) {
+                return histogram;
+            }
+            histogram.max = in.readLong();
+            int used = in.readUnsignedShort();
+            for (int i = 0; i < used; i++) {
+                int index = in.readUnsignedShort();
+                long c = in.readLong();
+                if (index < BUCKETS) {
+                    histogram.counts[index] += c;
+                    histogram.count += c;
+                }
+            }
+        } catch (IOException e) {
+            return new LatencyHistogram();
+        }
+        return histogram;
+    }
+}
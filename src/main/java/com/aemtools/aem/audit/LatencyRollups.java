@@ -0,0 +1,282 @@
+package com.aemtools.aem.audit;
+
+import com.aemtools.aem.audit.AuditLogger.EndpointLatency;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-endpoint call counts and latency histograms, pre-aggregated by minute and by hour in
+ * {@code api_latency_rollup}, so statistics read a few rows per endpoint and period instead
+ * of scanning {@code api_calls}. Endpoints are {@link EndpointNormalizer} templates.
+ * <p>
+ * The audit writer accumulates each batch in memory and {@link #mergeInto merges} it into
+ * the stored rows in the same transaction as the raw inserts; rows are merged rather than
+ * replaced because other processes write to the same database. Minute rows serve windows up
+ * to {@link #MINUTE_WINDOW_MS} and are kept for {@link #MINUTE_RETENTION_MS}; hour rows serve
+ * everything else and follow the raw records' retention.
+ */
+final class LatencyRollups {
+
+    static final long MINUTE_MS = 60_000;
+    static final long HOUR_MS = 3_600_000;
+    static final long MINUTE_WINDOW_MS = 2 * HOUR_MS;
+    static final long MINUTE_RETENTION_MS = 48 * HOUR_MS;
+
+    private final Map<Key, Rollup> pending = new HashMap<>();
+
+    private record Key(long resolutionMs, long bucketStart, String endpoint) {
+    }
+
+    private static final class Rollup {
+        long calls;
+        long errors;
+        long retries;
+        long retried;
+        long totalNanos;
+        final LatencyHistogram histogram;
+
+        Rollup(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        void add(Rollup other) {
+            calls += other.calls;
+            errors += other.errors;
+            retries += other.retries;
+            retried += other.retried;
+            totalNanos += other.totalNanos;
+            histogram.add(other.histogram);
+        }
+    }
+
+    static void createSchema(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS api_latency_rollup (
+                resolution_ms INTEGER NOT NULL,
+                bucket_start INTEGER NOT NULL,
+                endpoint TEXT NOT NULL,
+                calls INTEGER NOT NULL,
+                errors INTEGER NOT NULL,
+                retries INTEGER NOT NULL,
+                retried INTEGER NOT NULL,
+                timed INTEGER NOT NULL,
+                total_ns INTEGER NOT NULL,
+                max_ns INTEGER NOT NULL,
+                histogram BLOB,
+                PRIMARY KEY (resolution_ms, bucket_start, endpoint)
+            )
+        """);
+    }
+
+    void add(long timestampMs, String endpoint, int statusCode, int retryCount, long totalNanos) {
+        for (long resolution : new long[] {MINUTE_MS, HOUR_MS}) {
+            Key key = new Key(resolution, timestampMs - Math.floorMod(timestampMs, resolution), endpoint);
+            Rollup rollup = pending.computeIfAbsent(key, k -> new Rollup(new LatencyHistogram()));
+            rollup.calls++;
+            if (statusCode >= 400) {
+                rollup.errors++;
+            }
+            if (retryCount > 0) {
+                rollup.retries += retryCount;
+                rollup.retried++;
+            }
+            if (totalNanos >= 0) {
+                rollup.totalNanos += totalNanos;
+                rollup.histogram.recordNanos(totalNanos);
+            }
+        }
+    }
+
+    void add(AuditWriter.ApiCall call, String endpoint) {
+        add(call.timestamp(), endpoint, call.statusCode(), call.retryCount(), call.metrics().totalNanos());
+    }
+
+    /**
+     * Adds the accumulated counts to the stored rows and clears them. Runs inside the
+     * caller's transaction.
+     */
+    void mergeInto(Connection connection) throws SQLException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement select = connection.prepareStatement("""
+                SELECT calls, errors, retries, retried, total_ns, histogram FROM api_latency_rollup
+                WHERE resolution_ms = ? AND bucket_start = ? AND endpoint = ?
+            """);
+             PreparedStatement upsert = connection.prepareStatement("""
+                INSERT OR REPLACE INTO api_latency_rollup (resolution_ms, bucket_start, endpoint, calls, errors,
+                    retries, retried, timed, total_ns, max_ns, histogram)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """)) {
+            for (Map.Entry<Key, Rollup> entry : pending.entrySet()) {
+                Key key = entry.getKey();
+                select.setLong(1, key.resolutionMs());
+                select.setLong(2, key.bucketStart());
+                select.setString(3, key.endpoint());
+                Rollup merged = new Rollup(new LatencyHistogram());
+                try (ResultSet rs = select.executeQuery()) {
+                    if (rs.next()) {
+                        merged = new Rollup(LatencyHistogram.fromBytes(rs.getBytes("histogram")));
+                        merged.calls = rs.getLong("calls");
+                        merged.errors = rs.getLong("errors");
+                        merged.retries = rs.getLong("retries");
+                        merged.retried = rs.getLong("retried");
+                        merged.totalNanos = rs.getLong("total_ns");
+                    }
+                }
+                merged.add(entry.getValue());
+
+                upsert.setLong(1, key.resolutionMs());
+                upsert.setLong(2, key.bucketStart());
+                upsert.setString(3, key.endpoint());
+                upsert.setLong(4, merged.calls);
+                upsert.setLong(5, merged.errors);
+                upsert.setLong(6, merged.retries);
+                upsert.setLong(7, merged.retried);
+                upsert.setLong(8, merged.histogram.getCount());
+                upsert.setLong(9, merged.totalNanos);
+                upsert.setLong(10, merged.histogram.getMax() * 1_000);
+                upsert.setBytes(11, merged.histogram.toBytes());
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+        }
+        pending.clear();
+    }
+
+    void clear() {
+        pending.clear();
+    }
+
+    /**
+     * Builds the rollups from the API call partitions when the table is empty, as happens the
+     * first time a database from an older version is opened.
+     */
+    static int backfill(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT 1 FROM api_latency_rollup LIMIT 1")) {
+                if (rs.next()) {
+                    return 0;
+                }
+            }
+            LatencyRollups rollups = new LatencyRollups();
+            int rows = 0;
+            for (String table : AuditPartitions.tables(connection)) {
+                // Served from the covering endpoint index; only rows without a template read the table
+                try (ResultSet rs = stmt.executeQuery("SELECT ts, endpoint, status_code, retry_count, total_ns FROM "
+                        + table + " WHERE endpoint IS NOT NULL")) {
+                    while (rs.next()) {
+                        rollups.add(rs.getLong("ts"), rs.getString("endpoint"), rs.getInt("status_code"),
+                            rs.getInt("retry_count"), totalNanos(rs));
+                        rows++;
+                    }
+                }
+                try (ResultSet rs = stmt.executeQuery("SELECT ts, method, path, status_code, retry_count, total_ns FROM "
+                        + table + " WHERE endpoint IS NULL")) {
+                    while (rs.next()) {
+                        String endpoint = EndpointNormalizer.normalize(rs.getString("method"), rs.getString("path"));
+                        rollups.add(rs.getLong("ts"), endpoint, rs.getInt("status_code"), rs.getInt("retry_count"),
+                            totalNanos(rs));
+                        rows++;
+                    }
+                }
+            }
+            rollups.mergeInto(connection);
+            return rows;
+        }
+    }
+
+    private static long totalNanos(ResultSet rs) throws SQLException {
+        long totalNanos = rs.getLong("total_ns");
+        return rs.wasNull() ? -1 : totalNanos;
+    }
+
+    /**
+     * Deletes hour rows older than {@code cutoffMs}, and minute rows past their own retention.
+     */
+    static int purge(Connection connection, long cutoffMs) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "DELETE FROM api_latency_rollup WHERE resolution_ms = ? AND bucket_start < ?")) {
+            pstmt.setLong(1, HOUR_MS);
+            pstmt.setLong(2, cutoffMs);
+            int deleted = pstmt.executeUpdate();
+            pstmt.setLong(1, MINUTE_MS);
+            pstmt.setLong(2, Math.max(cutoffMs, System.currentTimeMillis() - MINUTE_RETENTION_MS));
+            return deleted + pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Calls at or after {@code sinceMs}. Hour rows are aligned to UTC, so when the start does
+     * not fall on a UTC hour, as local midnight does in zones such as +05:30, the partial
+     * first hour is counted from minute rows.
+     */
+    static long callsSince(Connection connection, long sinceMs) throws SQLException {
+        long firstHour = sinceMs + Math.floorMod(-sinceMs, HOUR_MS);
+        try (PreparedStatement pstmt = connection.prepareStatement("""
+                SELECT COALESCE(SUM(calls), 0) FROM api_latency_rollup
+                WHERE (resolution_ms = ? AND bucket_start >= ?)
+                   OR (resolution_ms = ? AND bucket_start >= ? AND bucket_start < ?)
+            """)) {
+            pstmt.setLong(1, HOUR_MS);
+            pstmt.setLong(2, firstHour);
+            pstmt.setLong(3, MINUTE_MS);
+            pstmt.setLong(4, sinceMs);
+            pstmt.setLong(5, firstHour);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Latency per endpoint over the last {@code windowMs}, busiest first. Windows of up to two
+     * hours use minute rows; longer ones whole hours.
+     */
+    static List<EndpointLatency> endpointLatencies(Connection connection, long windowMs, int limit)
+            throws SQLException {
+        long resolution = windowMs <= MINUTE_WINDOW_MS ? MINUTE_MS : HOUR_MS;
+        long since = System.currentTimeMillis() - windowMs;
+        since -= Math.floorMod(since, resolution);
+
+        Map<String, Rollup> byEndpoint = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = connection.prepareStatement("""
+                SELECT endpoint, calls, errors, total_ns, histogram FROM api_latency_rollup
+                WHERE resolution_ms = ? AND bucket_start >= ?
+            """)) {
+            pstmt.setLong(1, resolution);
+            pstmt.setLong(2, since);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Rollup row = new Rollup(LatencyHistogram.fromBytes(rs.getBytes("histogram")));
+                    row.calls = rs.getLong("calls");
+                    row.errors = rs.getLong("errors");
+                    row.totalNanos = rs.getLong("total_ns");
+                    byEndpoint.computeIfAbsent(rs.getString("endpoint"), e -> new Rollup(new LatencyHistogram()))
+                        .add(row);
+                }
+            }
+        }
+
+        List<EndpointLatency> result = new ArrayList<>();
+        for (Map.Entry<String, Rollup> entry : byEndpoint.entrySet()) {
+            Rollup r = entry.getValue();
+            LatencyHistogram h = r.histogram;
+            result.add(new EndpointLatency(entry.getKey(), r.calls, r.errors,
+                h.getCount() > 0 ? r.totalNanos / 1e6 / h.getCount() : 0,
+                h.percentile(50) / 1e3, h.percentile(95) / 1e3, h.percentile(99) / 1e3, h.getMax() / 1e3));
+        }
+        result.sort(Comparator.comparingLong(EndpointLatency::calls).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+}
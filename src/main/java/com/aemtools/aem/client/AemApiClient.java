@@ -1,40 +1,88 @@
 package com.aemtools.aem.client;
 
 import com.aemtools.aem.audit.AuditLogger;
+import com.aemtools.aem.audit.AuditLogger.CallMetrics;
 import com.aemtools.aem.config.ConfigManager;
 import com.aemtools.aem.config.LoggerManager;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
 import org.apache.hc.client5.http.classic.methods.*;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.entity.UrlEncodedFormEntity;
+import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.FileEntity;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.http.message.BasicClassicHttpRequest;
+import org.apache.hc.core5.http.message.BasicNameValuePair;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class AemApiClient {
 
     private static final Logger logger = LoggerFactory.getLogger(AemApiClient.class);
     private static final long DEFAULT_CACHE_TTL_MS = 300000;
+    private static final long DEFAULT_STALE_WHILE_REVALIDATE_MS = 60000;
     private static final int MAX_CACHE_SIZE = 500;
+    private static final long MAX_CACHE_WEIGHT_BYTES = 64L * 1024 * 1024;
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
     
     private final CloseableHttpClient httpClient;
+    private final HttpSettings httpSettings;
+    private final String settingsEnvironment;
+    private final InstrumentedConnectionManager connectionManager;
+    private volatile AsyncTransport asyncTransport;
     private final ObjectMapper objectMapper;
     private final ConfigManager configManager;
     private boolean debugMode;
@@ -45,13 +93,25 @@ public class AemApiClient {
     private String httpsProxy;
     private String noProxy;
     
-    private final Map<String, CacheEntry> responseCache = new LinkedHashMap<>(16, 0.75f, true) {
-        @Override
-        protected boolean removeEldestEntry(Map.Entry eldest) {
-            return size() > MAX_CACHE_SIZE;
-        }
-    };
-    private long cacheTtlMs = DEFAULT_CACHE_TTL_MS;
+    private final ResponseCache responseCache =
+        new ResponseCache(MAX_CACHE_SIZE, MAX_CACHE_WEIGHT_BYTES, DEFAULT_CACHE_TTL_MS);
+    private final PathIndex pathIndex = new PathIndex();
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, CompletableFuture<JsonNode>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder singleFlightLeaders = new LongAdder();
+    private final LongAdder singleFlightCoalesced = new LongAdder();
+    private final List<RequestListener> requestListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, RetryPolicy> retryPolicies = new ConcurrentHashMap<>();
+    private volatile RetryPolicy defaultRetryPolicy = RetryPolicy.defaults();
+    private volatile RetryBudget retryBudget = RetryBudget.defaults();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder retriesExhausted = new LongAdder();
+    private final LongAdder retryBudgetRejections = new LongAdder();
+    private final ExecutorService revalidationExecutor = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "aem-cache-revalidate");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public AemApiClient() {
         this(null, null, null);
@@ -62,12 +122,24 @@ public class AemApiClient {
         this.httpsProxy = httpsProxy;
         this.noProxy = noProxy;
         
-        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
-        cm.setMaxTotal(10);
-        cm.setDefaultMaxPerRoute(5);
+        this.configManager = ConfigManager.getInstance();
+        // The pool is sized once; switching environments later keeps these settings (see getHttpSettings)
+        this.settingsEnvironment = configManager.getActiveEnvironment();
+        this.httpSettings = HttpSettings.fromConfig(configManager, settingsEnvironment);
+        this.connectionManager = new InstrumentedConnectionManager(httpSettings);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(httpSettings.leaseTimeoutMs()))
+            .setResponseTimeout(Timeout.ofMilliseconds(httpSettings.responseTimeoutMs()))
+            .setConnectionKeepAlive(TimeValue.ofMilliseconds(httpSettings.keepAliveMs()))
+            .build();
         
         var builder = HttpClients.custom()
-            .setConnectionManager(cm);
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .disableAutomaticRetries()
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofMilliseconds(httpSettings.idleEvictMs()));
         
         if (httpProxy != null && !httpProxy.isEmpty()) {
             logger.info("Proxy configured: http={}, https={}, no-proxy={}", httpProxy, httpsProxy, noProxy);
@@ -75,8 +147,9 @@ public class AemApiClient {
         
         this.httpClient = builder.build();
         this.objectMapper = new ObjectMapper();
-        this.configManager = ConfigManager.getInstance();
         this.debugMode = configManager.isDebugEnabled();
+        responseCache.setStaleWhileRevalidateMs(DEFAULT_STALE_WHILE_REVALIDATE_MS);
+        responseCache.setRemovalListener(pathIndex::remove);
     }
 
     public void setProxy(String httpProxy, String httpsProxy, String noProxy) {
@@ -108,47 +181,108 @@ public class AemApiClient {
     }
 
     public void setCacheTtlMs(long ttlMs) {
-        this.cacheTtlMs = ttlMs;
+        responseCache.setTtlMs(ttlMs);
+    }
+
+    /**
+     * Sets how long past its TTL a cached response may still be returned while it is
+     * revalidated in the background. Zero makes expired reads wait for the revalidation.
+     */
+    public void setStaleWhileRevalidateMs(long staleWhileRevalidateMs) {
+        responseCache.setStaleWhileRevalidateMs(staleWhileRevalidateMs);
     }
 
     public void clearCache() {
         responseCache.clear();
+        pathIndex.clear();
         logger.info("API response cache cleared");
     }
 
-    public Map<String, Object> getCacheStats() {
-        long now = System.currentTimeMillis();
-        int validEntries = 0;
-        for (CacheEntry entry : responseCache.values()) {
-            if (now - entry.timestamp < cacheTtlMs) {
-                validEntries++;
-            }
+    /**
+     * Evicts cached reads affected by a change at the given path: everything in its subtree
+     * plus the listings and queries registered on its ancestors.
+     *
+     * @param path a request path or JCR path
+     * @return the number of cache entries evicted
+     */
+    public int invalidateCache(String path) {
+        String resourcePath = PathIndex.resourcePath(path);
+        Set<String> keys = pathIndex.invalidate(resourcePath);
+        for (String key : keys) {
+            responseCache.invalidate(key);
+        }
+        if (debugMode && !keys.isEmpty()) {
+            logger.info("[CACHE INVALIDATE] {} -> {} entries", resourcePath, keys.size());
         }
+        return keys.size();
+    }
+
+    public Map<String, Object> getCacheStats() {
         Map<String, Object> stats = new LinkedHashMap<>();
         stats.put("enabled", cacheEnabled);
-        stats.put("total_entries", responseCache.size());
-        stats.put("valid_entries", validEntries);
-        stats.put("ttl_seconds", cacheTtlMs / 1000);
-        stats.put("max_entries", MAX_CACHE_SIZE);
+        stats.putAll(responseCache.stats());
+        stats.put("indexed_keys", pathIndex.size());
+        stats.put("single_flight_leaders", singleFlightLeaders.sum());
+        stats.put("single_flight_coalesced", singleFlightCoalesced.sum());
+        stats.put("single_flight_in_progress", inFlight.size());
         return stats;
     }
 
-    public void setEnforceHttps(boolean enforceHttps) {
-        this.enforceHttps = enforceHttps;
+    /**
+     * Returns the effective transport settings together with connection pool metrics:
+     * lease counts and wait times, and how often pooled connections were reused.
+     */
+    public Map<String, Object> getConnectionStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("environment", configManager.getActiveEnvironment());
+        stats.put("settings_environment", settingsEnvironment);
+        stats.putAll(httpSettings.toMap());
+        stats.putAll(connectionManager.metrics());
+        AsyncTransport transport = asyncTransport;
+        stats.put("async_requests", transport != null ? transport.requestCount() : 0);
+        stats.put("retries", retries.sum());
+        stats.put("retries_exhausted", retriesExhausted.sum());
+        stats.put("retry_budget_rejections", retryBudgetRejections.sum());
+        stats.put("retry_budget_tokens", String.format("%.1f", retryBudget.available()));
+        CircuitBreaker breaker = CircuitBreaker.find(configManager.getActiveEnvironmentUrl());
+        stats.put("circuit", breaker != null ? breaker.snapshot() : Map.of("state", "closed"));
+        return stats;
     }
 
-    private static class CacheEntry {
-        final String response;
-        final long timestamp;
-        
-        CacheEntry(String response) {
-            this.response = response;
-            this.timestamp = System.currentTimeMillis();
-        }
-        
-        boolean isValid() {
-            return System.currentTimeMillis() - timestamp < DEFAULT_CACHE_TTL_MS;
-        }
+    /**
+     * Sets the retry policy for all methods without a method-specific one.
+     */
+    public void setRetryPolicy(RetryPolicy policy) {
+        this.defaultRetryPolicy = policy;
+    }
+
+    /**
+     * Sets the retry policy for one HTTP method, e.g. {@link RetryPolicy#none()} for {@code POST}.
+     */
+    public void setRetryPolicy(String method, RetryPolicy policy) {
+        retryPolicies.put(method.toUpperCase(), policy);
+    }
+
+    public void setRetryBudget(RetryBudget budget) {
+        this.retryBudget = budget;
+    }
+
+    private RetryPolicy retryPolicy(String method) {
+        return retryPolicies.getOrDefault(method.toUpperCase(), defaultRetryPolicy);
+    }
+
+    /**
+     * Returns the transport settings the connection pool was built with. They are read once, from
+     * the environment that was active when this client was created; switching the active environment
+     * afterwards changes the target URL but not the pool size or timeouts. Create a new client to
+     * pick up another environment's {@code http.*} settings.
+     */
+    public HttpSettings getHttpSettings() {
+        return httpSettings;
+    }
+
+    public void setEnforceHttps(boolean enforceHttps) {
+        this.enforceHttps = enforceHttps;
     }
 
     private String generateCacheKey(String method, String url) {
@@ -169,62 +303,612 @@ public class AemApiClient {
         String url = buildUrl(path);
         String cacheKey = generateCacheKey("GET", url);
         
-        if (cacheEnabled) {
-            CacheEntry entry = responseCache.get(cacheKey);
-            if (entry != null && entry.isValid()) {
-                if (debugMode) {
-                    logger.info("[CACHE HIT] GET {}", url);
-                }
-                return objectMapper.readTree(entry.response);
-            }
+        if (!cacheEnabled) {
+            return singleFlight(cacheKey, () -> executeForResponse(new HttpGet(url)).body());
         }
+
+        ResponseCache.Entry cached = responseCache.getEntry(cacheKey);
+        JsonNode hit = lookupCached(path, url, cacheKey, cached);
+        if (hit != null) {
+            return hit;
+        }
+        responseCache.recordMiss();
         
-        JsonNode result = execute(new HttpGet(url));
-        
-        if (cacheEnabled) {
-            responseCache.put(cacheKey, new CacheEntry(result.toString()));
+        return singleFlight(cacheKey, () -> fetchAndCache(path, url, cacheKey, cached));
+    }
+
+    /**
+     * Non-blocking variant of {@link #get(String)} with the same caching, revalidation and
+     * request coalescing. Cache hits complete immediately without touching the network.
+     */
+    public CompletableFuture<JsonNode> getAsync(String path) {
+        String url;
+        try {
+            url = buildUrl(path);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String cacheKey = generateCacheKey("GET", url);
+
+        if (!cacheEnabled) {
+            return singleFlightAsync(cacheKey,
+                () -> executeAsync(SimpleHttpRequest.create("GET", url)).thenApply(JsonResponse::body));
+        }
+
+        ResponseCache.Entry cached = responseCache.getEntry(cacheKey);
+        JsonNode hit = lookupCached(path, url, cacheKey, cached);
+        if (hit != null) {
+            return CompletableFuture.completedFuture(hit);
+        }
+        responseCache.recordMiss();
+
+        return singleFlightAsync(cacheKey, () -> fetchAndCacheAsync(path, url, cacheKey, cached));
+    }
+
+    /**
+     * Fetches a JSON resource without reading or filling the response cache. Meant for one-shot
+     * reads such as query result pages, which are rarely requested twice, would only push useful
+     * entries out of the cache, and must not be answered from a copy older than the query.
+     */
+    public JsonNode getUncached(String path) throws IOException {
+        return executeForResponse(new HttpGet(buildUrl(path))).body();
+    }
+
+    /**
+     * Non-blocking variant of {@link #getUncached(String)}.
+     */
+    public CompletableFuture<JsonNode> getUncachedAsync(String path) {
+        String url;
+        try {
+            url = buildUrl(path);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return executeAsync(SimpleHttpRequest.create("GET", url)).thenApply(JsonResponse::body);
+    }
+
+    /**
+     * Returns the cached tree if it is fresh, or if it is stale but still servable, in which case
+     * a background revalidation is scheduled. Returns null when the caller has to fetch.
+     */
+    private JsonNode lookupCached(String path, String url, String cacheKey, ResponseCache.Entry cached) {
+        if (cached == null) {
+            return null;
+        }
+        if (!responseCache.isExpired(cached)) {
+            responseCache.recordHit();
             if (debugMode) {
-                logger.info("[CACHED] GET {}", url);
+                logger.info("[CACHE HIT] GET {}", url);
             }
+            return cached.value();
+        }
+        if (responseCache.isServableStale(cached)) {
+            responseCache.recordStaleHit();
+            if (debugMode) {
+                logger.info("[CACHE STALE] GET {}", url);
+            }
+            revalidateInBackground(path, url, cacheKey, cached);
+            return cached.value();
+        }
+        return null;
+    }
+
+    /**
+     * Runs the loader for a key unless an identical request is already in flight, in which case
+     * the caller waits for and shares that request's result (or failure). The shared tree must
+     * be treated as read-only, like any cached response.
+     */
+    private JsonNode singleFlight(String cacheKey, JsonLoader loader) throws IOException {
+        CompletableFuture<JsonNode> pending = new CompletableFuture<>();
+        CompletableFuture<JsonNode> leader = inFlight.putIfAbsent(cacheKey, pending);
+        if (leader != null) {
+            singleFlightCoalesced.increment();
+            return awaitLeader(leader);
+        }
+
+        singleFlightLeaders.increment();
+        try {
+            JsonNode result = loader.load();
+            pending.complete(result);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, pending);
+        }
+    }
+
+    private static JsonNode awaitLeader(CompletableFuture<JsonNode> leader) throws IOException {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for in-flight request", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof AemHttpException http) {
+                throw new AemHttpException(http);
+            }
+            // Keep the leader's message so callers see the same "HTTP nnn: ..." text.
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #singleFlight}. Sync and async callers share the same
+     * in-flight table, so a blocking get and a getAsync for the same URL also coalesce.
+     * Each caller receives its own copy of the shared future, so cancelling one does not
+     * affect the others.
+     */
+    private CompletableFuture<JsonNode> singleFlightAsync(String cacheKey,
+                                                         Supplier<CompletableFuture<JsonNode>> loader) {
+        CompletableFuture<JsonNode> pending = new CompletableFuture<>();
+        CompletableFuture<JsonNode> leader = inFlight.putIfAbsent(cacheKey, pending);
+        if (leader != null) {
+            singleFlightCoalesced.increment();
+            return leader.copy();
+        }
+
+        singleFlightLeaders.increment();
+        CompletableFuture<JsonNode> result;
+        try {
+            result = loader.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, error) -> {
+            inFlight.remove(cacheKey, pending);
+            if (error != null) {
+                pending.completeExceptionally(unwrap(error));
+            } else {
+                pending.complete(value);
+            }
+        });
+        return pending.copy();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Fetches a GET response into the cache. When a previous entry with validators exists the
+     * request is conditional, and a {@code 304 Not Modified} simply refreshes that entry.
+     */
+    private JsonNode fetchAndCache(String path, String url, String cacheKey,
+                                   ResponseCache.Entry previous) throws IOException {
+        HttpGet request = new HttpGet(url);
+        boolean conditional = addValidators(request, previous);
+        long generation = pathIndex.generation();
+        JsonResponse result = executeForResponse(request);
+        return storeResult(path, url, cacheKey, previous, conditional, generation, result);
+    }
+
+    private CompletableFuture<JsonNode> fetchAndCacheAsync(String path, String url, String cacheKey,
+                                                           ResponseCache.Entry previous) {
+        SimpleHttpRequest request = SimpleHttpRequest.create("GET", url);
+        boolean conditional = addValidators(request, previous);
+        long generation = pathIndex.generation();
+        return executeAsync(request)
+            .thenApply(result -> storeResult(path, url, cacheKey, previous, conditional, generation, result));
+    }
+
+    private boolean addValidators(HttpRequest request, ResponseCache.Entry previous) {
+        if (previous == null || !previous.hasValidators()) {
+            return false;
+        }
+        if (previous.etag() != null) {
+            request.setHeader("If-None-Match", previous.etag());
+        }
+        if (previous.lastModified() != null) {
+            request.setHeader("If-Modified-Since", previous.lastModified());
+        }
+        responseCache.recordRevalidation();
+        return true;
+    }
+
+    private JsonNode storeResult(String path, String url, String cacheKey, ResponseCache.Entry previous,
+                                 boolean conditional, long generation, JsonResponse result) {
+        if (pathIndex.generation() != generation) {
+            // A mutation ran while this read was in flight; the result may predate it.
+            return conditional && result.statusCode() == 304 ? previous.value() : result.body();
+        }
+
+        if (conditional && result.statusCode() == 304) {
+            responseCache.revalidated(cacheKey, previous, result.etag(), result.lastModified());
+            if (debugMode) {
+                logger.info("[NOT MODIFIED] GET {}", url);
+            }
+            return previous.value();
+        }
+
+        pathIndex.register(cacheKey, PathIndex.resourcePath(path));
+        responseCache.put(cacheKey, result.body(), result.size(), result.etag(), result.lastModified());
+        if (debugMode) {
+            logger.info("[CACHED] GET {}", url);
+        }
+        return result.body();
+    }
+
+    private void revalidateInBackground(String path, String url, String cacheKey, ResponseCache.Entry previous) {
+        if (!revalidating.add(cacheKey)) {
+            return;
+        }
+        try {
+            revalidationExecutor.execute(() -> {
+                try {
+                    singleFlight(cacheKey, () -> fetchAndCache(path, url, cacheKey, previous));
+                } catch (Exception e) {
+                    logger.debug("Background revalidation failed for {}: {}", url, e.getMessage());
+                } finally {
+                    revalidating.remove(cacheKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            revalidating.remove(cacheKey);
         }
-        
-        return result;
     }
 
     public JsonNode post(String path, Object body) throws IOException {
+        return post(path, body, List.of());
+    }
+
+    /**
+     * Posts to a servlet that names the content it changes in the request body, such as
+     * {@code /bin/replicate.json} or a workflow start, so the request path alone says nothing
+     * about which cached reads are affected. Pass {@link PathIndex#ROOT} when the reach is
+     * unknown, e.g. for a package install, to evict every cached read.
+     *
+     * @param affectedPaths the JCR paths whose cached reads are evicted besides {@code path}
+     */
+    public JsonNode post(String path, Object body, List<String> affectedPaths) throws IOException {
         HttpPost request = new HttpPost(buildUrl(path));
         String json = objectMapper.writeValueAsString(body);
         request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
-        return execute(request);
+        return executeMutation(request, mutated(path, affectedPaths));
     }
 
     public JsonNode put(String path, Object body) throws IOException {
         HttpPut request = new HttpPut(buildUrl(path));
         String json = objectMapper.writeValueAsString(body);
         request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
-        return execute(request);
+        return executeMutation(path, request);
     }
 
     public boolean delete(String path) throws IOException {
         HttpDelete request = new HttpDelete(buildUrl(path));
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            logAudit("DELETE", path, response.getCode());
-            return response.getCode() >= 200 && response.getCode() < 300;
+        authorize(request);
+        try {
+            RawResponse response = send(request);
+            logAudit("DELETE", path, response.statusCode(), response.retries(), response.metrics());
+            return response.statusCode() >= 200 && response.statusCode() < 300;
+        } finally {
+            invalidateAfterMutation(path);
         }
     }
 
+    /**
+     * Streams the elements of a top-level array in a GET response, such as the {@code hits} of a
+     * QueryBuilder query, parsing them one at a time as they arrive instead of buffering the body.
+     * Streamed responses bypass the cache and are not retried. The returned iterator holds a
+     * pooled connection until it is exhausted or closed, so use it in try-with-resources.
+     *
+     * @param path the request path relative to the active environment
+     * @param arrayField the top-level field holding the array, e.g. {@code hits} or {@code entities}
+     * @param mapper converts each element; elements mapped to null are skipped
+     * @throws IOException if the request fails or AEM answers with a non-2xx status
+     */
+    public <T> JsonArrayStream<T> stream(String path, String arrayField, Function<JsonNode, T> mapper)
+            throws IOException {
+        HttpGet request = new HttpGet(buildUrl(path));
+        String url = prepare(request);
+        CircuitBreaker breaker = circuitBreaker();
+        RequestTimer timer = new RequestTimer(connectionManager);
+        breaker.acquire();
+        long start = timer.startNanos();
+        ClassicHttpResponse response;
+        try {
+            response = httpClient.executeOpen(null, request, null);
+        } catch (IOException e) {
+            breaker.onFailure();
+            notifyFailure("GET", e, start);
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.release();
+            throw e;
+        }
+        timer.headersReceived();
+
+        int statusCode = response.getCode();
+        long retryAfterMs = AemHttpException.parseRetryAfter(headerValue(response, "Retry-After"));
+        breaker.onResponse(statusCode);
+        notifyResponse("GET", statusCode, start, retryAfterMs);
+
+        try {
+            HttpEntity entity = response.getEntity();
+            if (statusCode < 200 || statusCode >= 300) {
+                byte[] body = entity != null ? EntityUtils.toByteArray(entity) : new byte[0];
+                logAudit("GET", url, statusCode, 0, timer.finish(0, body.length));
+                throw new AemHttpException(statusCode, new String(body, StandardCharsets.UTF_8), retryAfterMs);
+            }
+            RequestTimer.CountingInputStream content = new RequestTimer.CountingInputStream(
+                entity != null ? entity.getContent() : InputStream.nullInputStream());
+            // Audited when the caller closes the stream, so the total time and size cover the body.
+            return new JsonArrayStream<>(content, objectMapper, arrayField, mapper, () -> {
+                try {
+                    response.close();
+                } finally {
+                    logAudit("GET", url, statusCode, 0, timer.finish(0, content.getCount()));
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    public CompletableFuture<JsonNode> postAsync(String path, Object body) {
+        return sendJsonAsync("POST", path, body, List.of(path));
+    }
+
+    /**
+     * Non-blocking variant of {@link #post(String, Object, List)}.
+     */
+    public CompletableFuture<JsonNode> postAsync(String path, Object body, List<String> affectedPaths) {
+        return sendJsonAsync("POST", path, body, mutated(path, affectedPaths));
+    }
+
+    public CompletableFuture<JsonNode> putAsync(String path, Object body) {
+        return sendJsonAsync("PUT", path, body, List.of(path));
+    }
+
+    /**
+     * Non-blocking variant of {@link #delete(String)}. Completes with false for non-2xx responses.
+     */
+    public CompletableFuture<Boolean> deleteAsync(String path) {
+        SimpleHttpRequest request;
+        try {
+            request = SimpleHttpRequest.create("DELETE", buildUrl(path));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        authorize(request);
+        return sendAsync(request)
+            .thenApply(response -> {
+                logAudit("DELETE", path, response.statusCode(), response.retries(), response.metrics());
+                return response.statusCode() >= 200 && response.statusCode() < 300;
+            })
+            .whenComplete((result, error) -> invalidateAfterMutation(path));
+    }
+
+    private CompletableFuture<JsonNode> sendJsonAsync(String method, String path, Object body,
+                                                      List<String> mutatedPaths) {
+        SimpleHttpRequest request;
+        try {
+            request = SimpleHttpRequest.create(method, buildUrl(path));
+            request.setBody(objectMapper.writeValueAsString(body), ContentType.APPLICATION_JSON);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return executeAsync(request)
+            .thenApply(JsonResponse::body)
+            .whenComplete((result, error) -> mutatedPaths.forEach(this::invalidateAfterMutation));
+    }
+
     public byte[] download(String path) throws IOException {
         HttpGet request = new HttpGet(buildUrl(path));
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            logAudit("DOWNLOAD", path, response.getCode());
-            return response.getEntity().getContent().readAllBytes();
+        authorize(request);
+        RequestTimer timer = new RequestTimer(connectionManager);
+        try (ClassicHttpResponse response = executeGuarded(request)) {
+            timer.headersReceived();
+            byte[] body = response.getEntity().getContent().readAllBytes();
+            logAudit("DOWNLOAD", path, response.getCode(), 0, timer.finish(0, body.length));
+            return body;
+        }
+    }
+
+    /**
+     * Streams a binary resource to a local file without buffering it on the heap.
+     * The body is written to a {@code .part} sibling first and moved into place
+     * only once the transfer and checksum verification succeed.
+     *
+     * @param path the resource path relative to the active environment
+     * @param destination the target file
+     * @param expectedSha256 optional hex SHA-256 to verify against, or null
+     * @param listener optional progress listener, or null
+     * @return the number of bytes written and their SHA-256 checksum
+     * @throws IOException if the request fails, is truncated or the checksum does not match
+     */
+    public TransferResult download(String path, Path destination, String expectedSha256,
+                                   TransferListener listener) throws IOException {
+        Path partial = destination.resolveSibling(destination.getFileName() + ".part");
+        TransferResult result;
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            result = download(path, channel, expectedSha256, listener);
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, destination, StandardCopyOption.REPLACE_EXISTING);
+        return result;
+    }
+
+    public TransferResult download(String path, Path destination, TransferListener listener) throws IOException {
+        return download(path, destination, null, listener);
+    }
+
+    /**
+     * Streams a binary resource into the given channel through a fixed-size direct buffer,
+     * computing a SHA-256 checksum on the fly. Heap usage is independent of the body size.
+     *
+     * @param path the resource path relative to the active environment
+     * @param target the channel to write to; it is not closed by this method
+     * @param expectedSha256 optional hex SHA-256 to verify against, or null
+     * @param listener optional progress listener, or null
+     * @return the number of bytes written and their SHA-256 checksum
+     * @throws IOException if the request fails, is truncated or the checksum does not match
+     */
+    public TransferResult download(String path, WritableByteChannel target, String expectedSha256,
+                                   TransferListener listener) throws IOException {
+        HttpGet request = new HttpGet(buildUrl(path));
+        authorize(request);
+
+        RequestTimer timer = new RequestTimer(connectionManager);
+        try (ClassicHttpResponse response = executeGuarded(request)) {
+            timer.headersReceived();
+            int statusCode = response.getCode();
+
+            HttpEntity entity = response.getEntity();
+            if (statusCode < 200 || statusCode >= 300) {
+                byte[] body = entity != null ? EntityUtils.toByteArray(entity) : new byte[0];
+                logAudit("DOWNLOAD", path, statusCode, 0, timer.finish(0, body.length));
+                throw new IOException("HTTP " + statusCode + ": " + path);
+            }
+            if (entity == null) {
+                throw new IOException("Empty response body: " + path);
+            }
+
+            long expectedLength = entity.getContentLength();
+            MessageDigest digest = sha256();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(TRANSFER_BUFFER_SIZE);
+            long transferred = 0;
+
+            try (ReadableByteChannel source = Channels.newChannel(entity.getContent())) {
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        transferred += target.write(buffer);
+                    }
+                    buffer.clear();
+                    if (listener != null) {
+                        listener.onProgress(transferred, expectedLength);
+                    }
+                }
+            } finally {
+                logAudit("DOWNLOAD", path, statusCode, 0, timer.finish(0, transferred));
+            }
+
+            if (expectedLength >= 0 && transferred != expectedLength) {
+                throw new IOException("Download truncated: received " + transferred
+                    + " of " + expectedLength + " bytes from " + path);
+            }
+
+            String checksum = HexFormat.of().formatHex(digest.digest());
+            if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(checksum)) {
+                throw new IOException("Checksum mismatch for " + path + ": expected "
+                    + expectedSha256 + " but got " + checksum);
+            }
+
+            if (debugMode) {
+                logger.info("Downloaded {} bytes from {} (sha256={})", transferred, path, checksum);
+            }
+            return new TransferResult(transferred, checksum);
+        }
+    }
+
+    private static MessageDigest sha256() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 not available", e);
         }
     }
 
     public JsonNode upload(String path, byte[] data, String contentType) throws IOException {
         HttpPost request = new HttpPost(buildUrl(path));
-        request.setEntity(new StringEntity(new String(data, StandardCharsets.UTF_8), ContentType.create(contentType)));
-        return execute(request);
+        request.setEntity(new ByteArrayEntity(data, ContentType.create(contentType)));
+        return executeMutation(path, request);
+    }
+
+    /**
+     * Uploads a file as the raw request body. The file is streamed from disk, never loaded on the heap.
+     */
+    public JsonNode upload(String path, Path file, String contentType) throws IOException {
+        HttpPost request = new HttpPost(buildUrl(path));
+        request.setEntity(new FileEntity(file.toFile(), ContentType.create(contentType)));
+        return executeMutation(path, request);
+    }
+
+    /**
+     * Uploads a stream as the raw request body. The stream is consumed once and not closed.
+     *
+     * @param length the stream length in bytes, or -1 to use chunked transfer encoding
+     */
+    public JsonNode upload(String path, InputStream data, long length, String contentType) throws IOException {
+        HttpPost request = new HttpPost(buildUrl(path));
+        request.setEntity(new InputStreamEntity(data, length, ContentType.create(contentType)));
+        return executeMutation(path, request);
+    }
+
+    /**
+     * Posts a multipart/form-data request with a single file part streamed from disk.
+     *
+     * @param fields plain form fields
+     * @param fileField the name of the file part
+     * @param file the file to attach
+     * @param contentType the content type of the file part
+     */
+    public JsonNode postMultipart(String path, Map<String, String> fields, String fileField,
+                                  Path file, String contentType) throws IOException {
+        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
+        builder.addBinaryBody(fileField, file.toFile(), ContentType.create(contentType), file.getFileName().toString());
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            builder.addTextBody(field.getKey(), field.getValue(), ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8));
+        }
+        HttpPost request = new HttpPost(buildUrl(path));
+        request.setEntity(builder.build());
+        return executeMutation(path, request);
+    }
+
+    /**
+     * Posts application/x-www-form-urlencoded parameters, as expected by Sling POST servlets.
+     */
+    public JsonNode postForm(String path, Map<String, String> params) throws IOException {
+        return postForm(path, List.copyOf(params.entrySet()));
+    }
+
+    /**
+     * Posts form parameters in order, allowing repeated names for multi-valued properties.
+     */
+    public JsonNode postForm(String path, List<Map.Entry<String, String>> params) throws IOException {
+        List<NameValuePair> pairs = new ArrayList<>();
+        params.forEach(param -> pairs.add(new BasicNameValuePair(param.getKey(), param.getValue())));
+        HttpPost request = new HttpPost(buildUrl(path));
+        request.setEntity(new UrlEncodedFormEntity(pairs, StandardCharsets.UTF_8));
+        return executeMutation(path, request);
+    }
+
+    /**
+     * Sends a PUT with the given entity to an absolute URL outside the AEM instance, such as a
+     * pre-signed blob storage URL handed out by the direct binary upload protocol.
+     * No AEM credentials are attached. The AEM circuit breaker is deliberately not consulted:
+     * blob storage is a different service, and its failures say nothing about the instance.
+     */
+    void putExternal(String url, HttpEntity entity) throws IOException {
+        HttpPut request = new HttpPut(url);
+        request.setEntity(RequestTimer.counting(entity));
+        RequestTimer timer = new RequestTimer(connectionManager);
+        int statusCode = httpClient.execute(request, response -> {
+            timer.headersReceived();
+            HttpEntity body = response.getEntity();
+            long received = body != null ? EntityUtils.toByteArray(body).length : 0;
+            logAudit("PUT", stripQuery(url), response.getCode(), 0, timer.finish(request.getEntity(), received));
+            return response.getCode();
+        });
+        if (statusCode < 200 || statusCode >= 300) {
+            throw new IOException("HTTP " + statusCode + ": " + stripQuery(url));
+        }
+    }
+
+    private static String stripQuery(String url) {
+        int query = url.indexOf('?');
+        return query >= 0 ? url.substring(0, query) : url;
     }
 
     public JsonNode move(String sourcePath, String destPath) throws IOException {
@@ -232,7 +916,12 @@ public class AemApiClient {
         request.setHeader("X-Destination", destPath);
         request.setHeader("X-Overwrite", "T");
         request.setHeader("X-Depth", "infinity");
-        return executeDirect(request);
+        try {
+            return executeDirect(request);
+        } finally {
+            invalidateAfterMutation(sourcePath);
+            invalidateAfterMutation(destPath);
+        }
     }
 
     public JsonNode copy(String sourcePath, String destPath) throws IOException {
@@ -240,18 +929,36 @@ public class AemApiClient {
         request.setHeader("X-Destination", destPath);
         request.setHeader("X-Overwrite", "T");
         request.setHeader("X-Depth", "infinity");
-        return executeDirect(request);
+        try {
+            return executeDirect(request);
+        } finally {
+            invalidateAfterMutation(destPath);
+        }
     }
 
-    private JsonNode executeDirect(BasicClassicHttpRequest request) throws IOException {
-        String token = configManager.getActiveAccessToken();
-        String basicAuth = configManager.getActiveBasicAuth();
-        
-        if (basicAuth != null && !basicAuth.isEmpty()) {
-            request.setHeader("Authorization", "Basic " + basicAuth);
-        } else if (token != null && !token.isEmpty()) {
-            request.setHeader("Authorization", "Bearer " + token);
+    /**
+     * Executes a streaming request through the circuit breaker, which is told the status once
+     * the headers arrive. The caller consumes and closes the response.
+     */
+    private ClassicHttpResponse executeGuarded(HttpUriRequestBase request) throws IOException {
+        CircuitBreaker breaker = circuitBreaker();
+        breaker.acquire();
+        ClassicHttpResponse response;
+        try {
+            response = httpClient.executeOpen(null, request, null);
+        } catch (IOException e) {
+            breaker.onFailure();
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.release();
+            throw e;
         }
+        breaker.onResponse(response.getCode());
+        return response;
+    }
+
+    private JsonNode executeDirect(BasicClassicHttpRequest request) throws IOException {
+        authorize(request);
         request.setHeader("Accept", "application/json");
 
         String path;
@@ -271,16 +978,38 @@ public class AemApiClient {
             }
         }
 
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            String responseBody;
+        CircuitBreaker breaker = circuitBreaker();
+        RequestTimer timer = new RequestTimer(connectionManager);
+        breaker.acquire();
+        long start = timer.startNanos();
+        ClassicHttpResponse executed;
+        try {
+            executed = httpClient.executeOpen(null, request, null);
+        } catch (IOException e) {
+            breaker.onFailure();
+            notifyFailure(method, e, start);
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.release();
+            throw e;
+        }
+        timer.headersReceived();
+
+        try (ClassicHttpResponse response = executed) {
+            byte[] responseBytes;
             try {
-                responseBody = EntityUtils.toString(response.getEntity());
+                HttpEntity entity = response.getEntity();
+                responseBytes = entity != null ? EntityUtils.toByteArray(entity) : new byte[0];
             } catch (Exception e) {
-                responseBody = "";
+                responseBytes = new byte[0];
             }
+            String responseBody = new String(responseBytes, StandardCharsets.UTF_8);
             
             int statusCode = response.getCode();
-            logAudit(method, path, statusCode);
+            long retryAfterMs = AemHttpException.parseRetryAfter(headerValue(response, "Retry-After"));
+            breaker.onResponse(statusCode);
+            notifyResponse(method, statusCode, start, retryAfterMs);
+            logAudit(method, path, statusCode, 0, timer.finish(0, responseBytes.length));
 
             if (debugMode) {
                 logger.info("Response: {} - {}", statusCode, responseBody.substring(0, Math.min(200, responseBody.length())));
@@ -298,20 +1027,65 @@ public class AemApiClient {
             } else if (statusCode == 409) {
                 throw new IOException("Conflict: " + path);
             } else {
-                throw new IOException("HTTP " + statusCode + ": " + responseBody);
+                throw new AemHttpException(statusCode, responseBody, retryAfterMs);
             }
         }
     }
 
     private JsonNode execute(HttpUriRequestBase request) throws IOException {
-        String token = configManager.getActiveAccessToken();
-        String basicAuth = configManager.getActiveBasicAuth();
-        
-        if (basicAuth != null && !basicAuth.isEmpty()) {
-            request.setHeader("Authorization", "Basic " + basicAuth);
-        } else if (token != null && !token.isEmpty()) {
-            request.setHeader("Authorization", "Bearer " + token);
+        return executeForResponse(request).body();
+    }
+
+    /**
+     * Executes a write and evicts the cached reads it may have affected. Invalidation also
+     * runs when the request fails, since a failed write may still have been partially applied.
+     */
+    private JsonNode executeMutation(String path, HttpUriRequestBase request) throws IOException {
+        return executeMutation(request, List.of(path));
+    }
+
+    private JsonNode executeMutation(HttpUriRequestBase request, List<String> mutatedPaths) throws IOException {
+        try {
+            return execute(request);
+        } finally {
+            mutatedPaths.forEach(this::invalidateAfterMutation);
         }
+    }
+
+    private static List<String> mutated(String path, List<String> affectedPaths) {
+        List<String> paths = new ArrayList<>(affectedPaths.size() + 1);
+        paths.add(path);
+        paths.addAll(affectedPaths);
+        return paths;
+    }
+
+    private void invalidateAfterMutation(String path) {
+        // Also runs with caching disabled so entries from before the toggle cannot resurface.
+        invalidateCache(path);
+    }
+
+    private JsonResponse executeForResponse(HttpUriRequestBase request) throws IOException {
+        String path = prepare(request);
+        return toJsonResponse(request, path, send(request));
+    }
+
+    /**
+     * Sends a request through the async transport without blocking the caller. Failures surface
+     * as exceptional completion with the same IOException the blocking call would throw.
+     */
+    private CompletableFuture<JsonResponse> executeAsync(SimpleHttpRequest request) {
+        String path = prepare(request);
+        return sendAsync(request).thenApply(response -> {
+            try {
+                return toJsonResponse(request, path, response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private String prepare(HttpRequest request) {
+        authorize(request);
         request.setHeader("Accept", "application/json");
 
         String path;
@@ -324,47 +1098,278 @@ public class AemApiClient {
         }
 
         if (debugMode) {
+            logger.info("Request: {} {}", method, path);
+        }
+        return path;
+    }
+
+    private JsonResponse toJsonResponse(HttpRequest request, String path, RawResponse response) throws IOException {
+        byte[] responseBody = response.body();
+        int statusCode = response.statusCode();
+        logAudit(request.getMethod(), path, statusCode, response.retries(), response.metrics());
+
+        if (debugMode) {
+            String text = new String(responseBody, StandardCharsets.UTF_8);
+            logger.info("Response: {} - {}", statusCode, text.length() > 500 ? text.substring(0, 500) + "..." : text);
+        }
+
+        String etag = response.etag();
+        String lastModified = response.lastModified();
+
+        if (statusCode == 304 && (request.containsHeader("If-None-Match")
+                || request.containsHeader("If-Modified-Since"))) {
+            return new JsonResponse(null, 0, statusCode, etag, lastModified);
+        } else if (statusCode >= 200 && statusCode < 300) {
+            if (responseBody.length == 0) {
+                return new JsonResponse(objectMapper.createObjectNode(), 0, statusCode, etag, lastModified);
+            }
+            return new JsonResponse(objectMapper.readTree(responseBody), responseBody.length,
+                statusCode, etag, lastModified);
+        } else {
+            throw new AemHttpException(statusCode, new String(responseBody, StandardCharsets.UTF_8),
+                response.retryAfterMs());
+        }
+    }
+
+    /**
+     * Sends a request and buffers the response body. Requests without a body go over the
+     * HTTP/2 transport when it is enabled; everything else uses the classic connection pool.
+     */
+    private RawResponse send(HttpUriRequestBase request) throws IOException {
+        String method = request.getMethod();
+        RetryPolicy policy = retryPolicy(method);
+        HttpEntity entity = request.getEntity();
+        boolean repeatable = entity == null || entity.isRepeatable();
+        retryBudget.onRequest();
+
+        for (int attempt = 1; ; attempt++) {
+            long delay;
             try {
-                logger.info("Request: {} {}", method, request.getUri());
-            } catch (Exception e) {
-                logger.info("Request: {} (URI unavailable)", method);
+                RawResponse raw = sendOnce(request).withRetries(attempt - 1);
+                if (!repeatable || !policy.shouldRetry(method, raw.statusCode(), attempt)) {
+                    return raw;
+                }
+                delay = retryDelay(policy, attempt, raw.retryAfterMs());
+                if (delay < 0) {
+                    return raw;
+                }
+                logger.debug("Retrying {} after HTTP {} in {} ms (attempt {})", method, raw.statusCode(), delay, attempt + 1);
+            } catch (IOException e) {
+                if (!repeatable || !policy.shouldRetry(method, e, attempt)) {
+                    throw e;
+                }
+                delay = retryDelay(policy, attempt, -1);
+                if (delay < 0) {
+                    throw e;
+                }
+                logger.debug("Retrying {} after {} in {} ms (attempt {})", method, e.getMessage(), delay, attempt + 1);
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting to retry", e);
             }
         }
+    }
 
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            String responseBody;
+    /**
+     * @return the delay before the next attempt, or -1 when the attempt should not be retried
+     *         because the server's Retry-After is too long or the retry budget is spent
+     */
+    private long retryDelay(RetryPolicy policy, int attempt, long retryAfterMs) {
+        long delay = policy.delayMs(attempt, retryAfterMs);
+        if (delay < 0) {
+            retriesExhausted.increment();
+            return -1;
+        }
+        if (!retryBudget.tryAcquireRetry()) {
+            retryBudgetRejections.increment();
+            return -1;
+        }
+        retries.increment();
+        return delay;
+    }
+
+    private RawResponse sendOnce(HttpUriRequestBase request) throws IOException {
+        CircuitBreaker breaker = circuitBreaker();
+        breaker.acquire();
+        long start = System.nanoTime();
+        RawResponse raw;
+        try {
+            raw = sendTimed(request);
+        } catch (IOException e) {
+            breaker.onFailure();
+            notifyFailure(request.getMethod(), e, start);
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.release();
+            throw e;
+        }
+        breaker.onResponse(raw.statusCode());
+        notifyResponse(request.getMethod(), raw.statusCode(), start, raw.retryAfterMs());
+        return raw;
+    }
+
+    /**
+     * The breaker is shared by all clients of the active environment's base URL, so a bulk job
+     * and the GUI panels see the same outage.
+     */
+    private CircuitBreaker circuitBreaker() {
+        String baseUrl = configManager.getActiveEnvironmentUrl();
+        return CircuitBreaker.forBaseUrl(baseUrl != null ? baseUrl : "",
+            () -> CircuitBreaker.Settings.fromConfig(configManager, configManager.getActiveEnvironment()));
+    }
+
+    private RawResponse sendTimed(HttpUriRequestBase request) throws IOException {
+        if (httpSettings.transport() == HttpSettings.Transport.HTTP2 && request.getEntity() == null) {
+            RequestTimer timer = new RequestTimer(null);
+            return toRawResponse(asyncTransport().send(request), timer, 0);
+        }
+
+        request.setEntity(RequestTimer.counting(request.getEntity()));
+        RequestTimer timer = new RequestTimer(connectionManager);
+        return httpClient.execute(request, response -> {
+            timer.headersReceived();
+            byte[] responseBody;
             try {
-                responseBody = EntityUtils.toString(response.getEntity());
+                HttpEntity entity = response.getEntity();
+                responseBody = entity != null ? EntityUtils.toByteArray(entity) : new byte[0];
             } catch (Exception e) {
-                responseBody = "";
+                responseBody = new byte[0];
             }
-            
-            int statusCode = response.getCode();
-            logAudit(method, path, statusCode);
+            return new RawResponse(response.getCode(), responseBody,
+                headerValue(response, "ETag"), headerValue(response, "Last-Modified"),
+                AemHttpException.parseRetryAfter(headerValue(response, "Retry-After")), 0,
+                timer.finish(request.getEntity(), responseBody.length));
+        });
+    }
 
-            if (debugMode) {
-                logger.info("Response: {} - {}", statusCode, responseBody.length() > 500 ? responseBody.substring(0, 500) + "..." : responseBody);
-            }
+    private CompletableFuture<RawResponse> sendAsync(SimpleHttpRequest request) {
+        retryBudget.onRequest();
+        return sendAsync(request, retryPolicy(request.getMethod()), 1);
+    }
 
-            if (statusCode >= 200 && statusCode < 300) {
-                if (responseBody == null || responseBody.isEmpty()) {
-                    return objectMapper.createObjectNode();
+    /**
+     * Asynchronous retry loop: the delay is scheduled on a timer instead of blocking a thread.
+     * Simple requests buffer their body, so every method can be repeated.
+     */
+    private CompletableFuture<RawResponse> sendAsync(SimpleHttpRequest request, RetryPolicy policy, int attempt) {
+        String method = request.getMethod();
+        return sendAsyncOnce(request).handle((raw, error) -> {
+            long delay;
+            if (raw != null) {
+                RawResponse result = raw.withRetries(attempt - 1);
+                if (!policy.shouldRetry(method, raw.statusCode(), attempt)
+                        || (delay = retryDelay(policy, attempt, raw.retryAfterMs())) < 0) {
+                    return CompletableFuture.completedFuture(result);
                 }
-                return objectMapper.readTree(responseBody);
             } else {
-                throw new IOException("HTTP " + statusCode + ": " + responseBody);
+                Throwable cause = unwrap(error);
+                if (!(cause instanceof IOException io) || !policy.shouldRetry(method, io, attempt)
+                        || (delay = retryDelay(policy, attempt, -1)) < 0) {
+                    return CompletableFuture.<RawResponse>failedFuture(cause);
+                }
+            }
+            return CompletableFuture.runAsync(() -> { },
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                .thenCompose(ignored -> sendAsync(request, policy, attempt + 1));
+        }).thenCompose(future -> future);
+    }
+
+    private CompletableFuture<RawResponse> sendAsyncOnce(SimpleHttpRequest request) {
+        CircuitBreaker breaker = circuitBreaker();
+        try {
+            breaker.acquire();
+        } catch (CircuitBreaker.CircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        RequestTimer timer = new RequestTimer(null);
+        long start = timer.startNanos();
+        byte[] requestBody = request.getBodyBytes();
+        CompletableFuture<SimpleHttpResponse> pending;
+        try {
+            pending = asyncTransport().execute(request);
+        } catch (RuntimeException e) {
+            breaker.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return pending
+            .thenApply(response -> toRawResponse(response, timer, requestBody != null ? requestBody.length : 0))
+            .whenComplete((raw, error) -> {
+                if (raw != null) {
+                    breaker.onResponse(raw.statusCode());
+                    notifyResponse(request.getMethod(), raw.statusCode(), start, raw.retryAfterMs());
+                } else {
+                    breaker.onFailure();
+                    if (unwrap(error) instanceof IOException io) {
+                        notifyFailure(request.getMethod(), io, start);
+                    }
+                }
+            });
+    }
+
+    /**
+     * The async transport buffers the whole response, so only the total time is known.
+     */
+    private static RawResponse toRawResponse(SimpleHttpResponse response, RequestTimer timer, long requestBytes) {
+        byte[] body = response.getBodyBytes();
+        body = body != null ? body : new byte[0];
+        return new RawResponse(response.getCode(), body,
+            headerValue(response, "ETag"), headerValue(response, "Last-Modified"),
+            AemHttpException.parseRetryAfter(headerValue(response, "Retry-After")), 0,
+            timer.finish(requestBytes, body.length));
+    }
+
+    /**
+     * The async client is started on first use unless HTTP/2 is configured, in which case it also
+     * carries the blocking body-less requests.
+     */
+    private AsyncTransport asyncTransport() {
+        AsyncTransport transport = asyncTransport;
+        if (transport == null) {
+            synchronized (this) {
+                transport = asyncTransport;
+                if (transport == null) {
+                    transport = new AsyncTransport(httpSettings);
+                    asyncTransport = transport;
+                }
             }
         }
+        return transport;
     }
 
-    private void logAudit(String method, String path, int statusCode) {
-        logAudit(method, path, statusCode, 0, null);
+    private static String headerValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
     }
 
-    private void logAudit(String method, String path, int statusCode, long durationMs, String errorMessage) {
+    private void authorize(HttpRequest request) {
+        String token = configManager.getActiveAccessToken();
+        String basicAuth = configManager.getActiveBasicAuth();
+
+        if (basicAuth != null && !basicAuth.isEmpty()) {
+            request.setHeader("Authorization", "Basic " + basicAuth);
+        } else if (token != null && !token.isEmpty()) {
+            request.setHeader("Authorization", "Bearer " + token);
+        }
+    }
+
+    private void logAudit(String method, String path, int statusCode, int retryCount, CallMetrics metrics) {
+        logAudit(method, path, statusCode, null, retryCount, metrics);
+    }
+
+    private void logAudit(String method, String path, int statusCode, String errorMessage, int retryCount,
+                          CallMetrics metrics) {
         String key = Instant.now().toString() + "|" + method + "|" + path + "|" + statusCode;
         auditLog.put(key, method + " " + path + " -> " + statusCode);
-        logger.info("AUDIT: {} {} -> {}", method, path, statusCode);
+        double ms = metrics.totalNanos() / 1e6;
+        if (retryCount > 0) {
+            logger.info("AUDIT: {} {} -> {} in {} ms after {} retries", method, path, statusCode,
+                String.format("%.1f", ms), retryCount);
+        } else {
+            logger.info("AUDIT: {} {} -> {} in {} ms", method, path, statusCode, String.format("%.1f", ms));
+        }
 
         // Persist to SQLite
         try {
@@ -372,18 +1377,56 @@ public class AemApiClient {
                 method,
                 path,
                 statusCode,
-                durationMs,
                 configManager.getActiveEnvironment(),
                 null, // userId - could be extracted from auth
-                null, // requestSize
-                null, // responseSize
-                errorMessage
+                errorMessage,
+                retryCount,
+                metrics
             );
         } catch (Exception e) {
             logger.debug("Failed to persist audit log: {}", e.getMessage());
         }
     }
 
+    /**
+     * Registers a listener that sees the status and latency of every request to AEM.
+     */
+    public void addRequestListener(RequestListener listener) {
+        requestListeners.add(listener);
+    }
+
+    public void removeRequestListener(RequestListener listener) {
+        requestListeners.remove(listener);
+    }
+
+    private void notifyResponse(String method, int statusCode, long startNanos, long retryAfterMs) {
+        if (requestListeners.isEmpty()) {
+            return;
+        }
+        long latency = System.nanoTime() - startNanos;
+        for (RequestListener listener : requestListeners) {
+            try {
+                listener.onResponse(method, statusCode, latency, retryAfterMs);
+            } catch (RuntimeException e) {
+                logger.debug("Request listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void notifyFailure(String method, IOException error, long startNanos) {
+        if (requestListeners.isEmpty()) {
+            return;
+        }
+        long latency = System.nanoTime() - startNanos;
+        for (RequestListener listener : requestListeners) {
+            try {
+                listener.onFailure(method, error, latency);
+            } catch (RuntimeException e) {
+                logger.debug("Request listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
     public Map<String, String> getAuditLog() {
         return new ConcurrentHashMap<>(auditLog);
     }
@@ -408,6 +1451,11 @@ public class AemApiClient {
     }
 
     public void close() throws IOException {
+        revalidationExecutor.shutdownNow();
+        AsyncTransport transport = asyncTransport;
+        if (transport != null) {
+            transport.close();
+        }
         httpClient.close();
     }
 
@@ -422,4 +1470,38 @@ public class AemApiClient {
     public String getBaseUrl() {
         return configManager.getActiveEnvironmentUrl();
     }
+
+    /**
+     * Receives progress notifications during streaming transfers.
+     */
+    @FunctionalInterface
+    public interface TransferListener {
+        /**
+         * @param transferred bytes transferred so far
+         * @param total total bytes expected, or -1 if unknown
+         */
+        void onProgress(long transferred, long total);
+    }
+
+    /**
+     * Outcome of a streaming transfer.
+     */
+    public record TransferResult(long bytes, String sha256) {
+    }
+
+    private record RawResponse(int statusCode, byte[] body, String etag, String lastModified,
+                               long retryAfterMs, int retries, CallMetrics metrics) {
+        RawResponse withRetries(int count) {
+            return count == retries ? this
+                : new RawResponse(statusCode, body, etag, lastModified, retryAfterMs, count, metrics);
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonLoader {
+        JsonNode load() throws IOException;
+    }
+
+    private record JsonResponse(JsonNode body, long size, int statusCode, String etag, String lastModified) {
+    }
 }
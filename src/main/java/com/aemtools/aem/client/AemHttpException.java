@@ -0,0 +1,78 @@
+package com.aemtools.aem.client;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Thrown when AEM answers with a non-success status. The message keeps the
+ * {@code "HTTP nnn: body"} form callers already match on; the status and any
+ * {@code Retry-After} delay are available without parsing it.
+ */
+public class AemHttpException extends IOException {
+
+    private final int statusCode;
+    private final long retryAfterMs;
+
+    public AemHttpException(int statusCode, String body, long retryAfterMs) {
+        super("HTTP " + statusCode + ": " + body);
+        this.statusCode = statusCode;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    /**
+     * Rethrows a failure observed on another thread, keeping its status and message.
+     */
+    AemHttpException(AemHttpException original) {
+        super(original.getMessage(), original);
+        this.statusCode = original.statusCode;
+        this.retryAfterMs = original.retryAfterMs;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return the delay the server asked for, or -1 if it sent no usable {@code Retry-After}
+     */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+
+    /**
+     * True for statuses AEM and its dispatcher use to shed load.
+     */
+    public boolean isOverload() {
+        return isOverload(statusCode);
+    }
+
+    public static boolean isOverload(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    /**
+     * Parses a {@code Retry-After} value given either as delay seconds or as an HTTP date.
+     *
+     * @return the delay in milliseconds, or -1 if the value is missing or malformed
+     */
+    public static long parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        String trimmed = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(trimmed)) * 1000;
+        } catch (NumberFormatException e) {
+            // fall through to the HTTP-date form
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
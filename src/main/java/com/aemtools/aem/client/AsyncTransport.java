@@ -0,0 +1,147 @@
+package com.aemtools.aem.client;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking HTTP transport backed by an async client.
+ * <p>
+ * With {@link HttpSettings.Transport#HTTP2} all requests to a host are multiplexed as streams
+ * over one connection, so fan-out reads are not limited by the size of a connection pool.
+ * Otherwise requests share a pooled set of HTTP/1.1 connections sized like the classic pool.
+ * Either way, a handful of I/O reactor threads serve any number of in-flight requests.
+ */
+class AsyncTransport implements Closeable {
+
+    private final CloseableHttpAsyncClient client;
+    private final long requestTimeoutMs;
+    private final LongAdder requests = new LongAdder();
+
+    AsyncTransport(HttpSettings settings) {
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(settings.leaseTimeoutMs()))
+            .setResponseTimeout(Timeout.ofMilliseconds(settings.responseTimeoutMs()))
+            .build();
+        IOReactorConfig reactorConfig = IOReactorConfig.custom()
+            .setSoTimeout(Timeout.ofMilliseconds(settings.socketTimeoutMs()))
+            .build();
+
+        if (settings.transport() == HttpSettings.Transport.HTTP2) {
+            this.client = HttpAsyncClients.customHttp2()
+                .setDefaultRequestConfig(requestConfig)
+                .setIOReactorConfig(reactorConfig)
+                .disableAutomaticRetries()
+                .build();
+        } else {
+            PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxTotal())
+                .setMaxConnPerRoute(settings.maxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.ofMilliseconds(settings.connectTimeoutMs()))
+                    .setSocketTimeout(Timeout.ofMilliseconds(settings.socketTimeoutMs()))
+                    .setTimeToLive(TimeValue.ofMilliseconds(settings.connectionTtlMs()))
+                    .setValidateAfterInactivity(TimeValue.ofMilliseconds(settings.validateAfterInactivityMs()))
+                    .build())
+                .build();
+            this.client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setIOReactorConfig(reactorConfig)
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(settings.idleEvictMs()))
+                .build();
+        }
+        this.requestTimeoutMs = settings.connectTimeoutMs() + settings.responseTimeoutMs();
+        client.start();
+    }
+
+    /**
+     * Sends a body-less classic request over the async transport and waits for the response.
+     */
+    SimpleHttpResponse send(HttpUriRequestBase request) throws IOException {
+        SimpleHttpRequest simple;
+        try {
+            simple = SimpleHttpRequest.create(request.getMethod(), request.getUri());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid request URI: " + e.getMessage(), e);
+        }
+        for (Header header : request.getHeaders()) {
+            simple.addHeader(header);
+        }
+
+        requests.increment();
+        Future<SimpleHttpResponse> future = client.execute(simple, null);
+        try {
+            return future.get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Request interrupted", e);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IOException("Request timed out after " + requestTimeoutMs + " ms", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException io ? io : new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Sends a request without blocking. The future completes on an I/O reactor thread,
+     * so dependent stages must not block.
+     */
+    CompletableFuture<SimpleHttpResponse> execute(SimpleHttpRequest request) {
+        requests.increment();
+        CompletableFuture<SimpleHttpResponse> result = new CompletableFuture<>();
+        client.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                result.complete(response);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    long requestCount() {
+        return requests.sum();
+    }
+
+    @Override
+    public void close() {
+        client.close(CloseMode.GRACEFUL);
+    }
+}
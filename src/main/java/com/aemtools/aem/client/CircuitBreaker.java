@@ -0,0 +1,300 @@
+package com.aemtools.aem.client;
+
+import com.aemtools.aem.audit.AuditLogger;
+import com.aemtools.aem.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker for one AEM instance, shared by every client talking to the same base URL.
+ * <p>
+ * While {@link State#CLOSED} the outcomes of the last {@code windowSize} requests are kept in a
+ * sliding window; once at least {@code minimumCalls} are recorded and the failure rate reaches
+ * {@code failureRatePercent}, the breaker opens. While {@link State#OPEN} every request fails
+ * immediately with {@link CircuitOpenException}. After {@code openMs} it lets
+ * {@code halfOpenCalls} probe requests through: if they all succeed it closes again, a single
+ * failure reopens it.
+ * <p>
+ * Only signs of an unreachable or overwhelmed instance count as failures: transport errors and
+ * 502/503/504. A 4xx or a 500 from a servlet proves the instance is up.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Breaker thresholds, read from the environment's {@code circuit.*} keys in {@code config.yaml}.
+     */
+    public record Settings(int windowSize, int minimumCalls, int failureRatePercent, long openMs, int halfOpenCalls) {
+
+        public static final String PREFIX = "circuit.";
+
+        public static Settings defaults() {
+            return new Settings(50, 20, 50, 30_000, 3);
+        }
+
+        public static Settings fromConfig(ConfigManager config, String environment) {
+            Settings d = defaults();
+            return new Settings(
+                (int) number(config, environment, "windowSize", d.windowSize()),
+                (int) number(config, environment, "minimumCalls", d.minimumCalls()),
+                (int) number(config, environment, "failureRatePercent", d.failureRatePercent()),
+                number(config, environment, "openMs", d.openMs()),
+                (int) number(config, environment, "halfOpenCalls", d.halfOpenCalls())
+            );
+        }
+
+        private static long number(ConfigManager config, String environment, String key, long defaultValue) {
+            String value = config.getEnvironmentSetting(environment, PREFIX + key);
+            if (value == null || value.isBlank()) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+    }
+
+    private final String name;
+    private final Settings settings;
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private long timesOpened;
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreaker(String name, Settings settings) {
+        this.name = name;
+        this.settings = settings;
+        this.window = new boolean[Math.max(1, settings.windowSize())];
+    }
+
+    /**
+     * Returns the breaker for a base URL, creating it with the supplied settings on first use.
+     */
+    public static CircuitBreaker forBaseUrl(String baseUrl, Supplier<Settings> settings) {
+        return BREAKERS.computeIfAbsent(normalize(baseUrl), key -> new CircuitBreaker(key, settings.get()));
+    }
+
+    /**
+     * Returns the existing breaker for a base URL, or null if no request was sent there yet.
+     */
+    public static CircuitBreaker find(String baseUrl) {
+        return baseUrl != null ? BREAKERS.get(normalize(baseUrl)) : null;
+    }
+
+    public static Collection<CircuitBreaker> all() {
+        return List.copyOf(BREAKERS.values());
+    }
+
+    private static String normalize(String baseUrl) {
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /**
+     * Asks permission to send a request.
+     *
+     * @throws CircuitOpenException if the breaker is open, or half-open with all probes in flight
+     */
+    public void acquire() throws CircuitOpenException {
+        State from;
+        State to;
+        synchronized (this) {
+            from = state;
+            if (state == State.OPEN) {
+                long remaining = openedAt + settings.openMs() - System.currentTimeMillis();
+                if (remaining > 0) {
+                    rejected.increment();
+                    throw new CircuitOpenException(name, remaining);
+                }
+                state = State.HALF_OPEN;
+                halfOpenPermits = 0;
+                halfOpenSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits >= settings.halfOpenCalls()) {
+                    rejected.increment();
+                    throw new CircuitOpenException(name, 0);
+                }
+                halfOpenPermits++;
+            }
+            to = state;
+        }
+        if (from != to) {
+            onTransition(from, to);
+        }
+    }
+
+    public void onSuccess() {
+        record(false);
+    }
+
+    /**
+     * Returns a permit without recording an outcome, for a request that failed before it
+     * reached the instance, e.g. on a programming error. Without this a half-open breaker
+     * would keep the probe slot and reject every later request.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenPermits > halfOpenSuccesses) {
+            halfOpenPermits--;
+        }
+    }
+
+    public void onFailure() {
+        record(true);
+    }
+
+    /**
+     * Records the outcome of a request that received a response.
+     */
+    public void onResponse(int statusCode) {
+        record(statusCode == 502 || statusCode == 503 || statusCode == 504);
+    }
+
+    private void record(boolean failure) {
+        State from;
+        State to;
+        synchronized (this) {
+            from = state;
+            switch (state) {
+                case HALF_OPEN -> {
+                    if (failure) {
+                        open();
+                    } else if (++halfOpenSuccesses >= settings.halfOpenCalls()) {
+                        state = State.CLOSED;
+                        clearWindow();
+                    }
+                }
+                case CLOSED -> {
+                    if (windowCount == window.length) {
+                        if (window[windowIndex]) {
+                            windowFailures--;
+                        }
+                    } else {
+                        windowCount++;
+                    }
+                    window[windowIndex] = failure;
+                    if (failure) {
+                        windowFailures++;
+                    }
+                    windowIndex = (windowIndex + 1) % window.length;
+                    if (windowCount >= settings.minimumCalls()
+                            && windowFailures * 100 >= settings.failureRatePercent() * windowCount) {
+                        open();
+                    }
+                }
+                case OPEN -> {
+                    // Late results of requests sent before the breaker opened.
+                }
+            }
+            to = state;
+        }
+        if (from != to) {
+            onTransition(from, to);
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        timesOpened++;
+        clearWindow();
+    }
+
+    private void clearWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    private void onTransition(State from, State to) {
+        AuditLogger.Severity severity = to == State.OPEN ? AuditLogger.Severity.ERROR : AuditLogger.Severity.INFO;
+        String message = name + ": " + from + " -> " + to;
+        if (to == State.OPEN) {
+            logger.warn("Circuit opened for {}; failing fast for {} ms", name, settings.openMs());
+        } else {
+            logger.info("Circuit {}", message);
+        }
+        try {
+            AuditLogger.getInstance().logSystemEvent("CIRCUIT_" + to, message, severity);
+        } catch (Exception e) {
+            logger.debug("Failed to persist circuit event: {}", e.getMessage());
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("base_url", name);
+        snapshot.put("state", state.name().toLowerCase());
+        snapshot.put("window_calls", windowCount);
+        snapshot.put("window_failures", windowFailures);
+        snapshot.put("failure_rate", windowCount > 0
+            ? String.format("%.1f%%", windowFailures * 100.0 / windowCount) : "n/a");
+        snapshot.put("failure_rate_threshold", settings.failureRatePercent() + "%");
+        snapshot.put("times_opened", timesOpened);
+        snapshot.put("rejected", rejected.sum());
+        if (state == State.OPEN) {
+            snapshot.put("retry_in_ms", Math.max(0, openedAt + settings.openMs() - System.currentTimeMillis()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Snapshots of every breaker in this process, for status displays.
+     */
+    public static List<Map<String, Object>> snapshots() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (CircuitBreaker breaker : all()) {
+            result.add(breaker.snapshot());
+        }
+        return result;
+    }
+
+    /**
+     * Thrown instead of sending a request while the breaker for its instance is open.
+     */
+    public static class CircuitOpenException extends IOException {
+        private final long retryInMs;
+
+        public CircuitOpenException(String baseUrl, long retryInMs) {
+            super("Circuit open for " + baseUrl + (retryInMs > 0 ? "; retry in " + retryInMs + " ms" : ""));
+            this.retryInMs = retryInMs;
+        }
+
+        public long getRetryInMs() {
+            return retryInMs;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.aemtools.aem.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client for the AEM as a Cloud Service direct binary upload protocol.
+ * <p>
+ * The upload runs in three steps: {@code initiateUpload} on the target folder returns
+ * pre-signed part URIs, the file parts are PUT to those URIs in parallel straight from
+ * memory-mapped regions of the file, and {@code completeUpload} lets AEM create the asset.
+ * Parts over 2 GiB cannot be mapped in one piece and are read through the file channel instead.
+ * Heap usage is bounded by the copy buffer, independent of file size.
+ */
+public class DirectBinaryUpload {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectBinaryUpload.class);
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final AemApiClient client;
+    private int parallelism = DEFAULT_PARALLELISM;
+
+    public DirectBinaryUpload(AemApiClient client) {
+        this.client = client;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Uploads a local file into a DAM folder.
+     *
+     * @param folderPath the JCR folder path (e.g. /content/dam/myfolder)
+     * @param file the local file
+     * @param mimeType the asset MIME type
+     * @param listener optional progress listener, or null
+     * @return the JCR path of the created asset
+     * @throws UnsupportedException if the instance does not offer direct binary upload: the
+     *         initiate call is answered with 404 or 405, or without upload URIs
+     * @throws IOException if any step of the upload fails
+     */
+    public String upload(String folderPath, Path file, String mimeType,
+                         AemApiClient.TransferListener listener) throws IOException {
+        String fileName = file.getFileName().toString();
+        long fileSize = Files.size(file);
+
+        Map<String, String> initParams = new LinkedHashMap<>();
+        initParams.put("fileName", fileName);
+        initParams.put("fileSize", String.valueOf(fileSize));
+
+        JsonNode init;
+        try {
+            init = client.postForm(folderPath + ".initiateUpload.json", initParams);
+        } catch (AemHttpException e) {
+            // Other failures, e.g. auth errors or an overloaded instance, say nothing about support
+            if (e.getStatusCode() == 404 || e.getStatusCode() == 405) {
+                throw new UnsupportedException("initiateUpload failed for " + folderPath + ": " + e.getMessage());
+            }
+            throw e;
+        }
+
+        JsonNode fileNode = init.path("files").path(0);
+        String completeUri = init.path("completeURI").asText(null);
+        JsonNode uploadUris = fileNode.path("uploadURIs");
+        if (completeUri == null || !uploadUris.isArray() || uploadUris.isEmpty()) {
+            throw new UnsupportedException("Direct binary upload not available at " + folderPath);
+        }
+
+        List<Part> parts = planParts(fileSize, uploadUris,
+            fileNode.path("minPartSize").asLong(0), fileNode.path("maxPartSize").asLong(0));
+        logger.info("Uploading {} ({} bytes) in {} part(s)", fileName, fileSize, parts.size());
+
+        transferParts(file, fileSize, parts, mimeType, listener);
+
+        Map<String, String> completeParams = new LinkedHashMap<>();
+        completeParams.put("fileName", fileName);
+        completeParams.put("mimeType", fileNode.path("mimeType").asText(mimeType));
+        completeParams.put("uploadToken", fileNode.path("uploadToken").asText());
+        client.postForm(completeUri, completeParams);
+
+        return folderPath + "/" + fileName;
+    }
+
+    /**
+     * Splits the file across the offered URIs, honoring the server's part size bounds.
+     */
+    static List<Part> planParts(long fileSize, JsonNode uploadUris, long minPartSize, long maxPartSize)
+            throws IOException {
+        int uriCount = uploadUris.size();
+        long partSize = Math.max(1, (fileSize + uriCount - 1) / uriCount);
+        if (minPartSize > 0 && partSize < minPartSize) {
+            partSize = minPartSize;
+        }
+        if (maxPartSize > 0 && partSize > maxPartSize) {
+            throw new IOException("File of " + fileSize + " bytes needs more than the " + uriCount
+                + " upload URIs offered (max part size " + maxPartSize + ")");
+        }
+
+        List<Part> parts = new ArrayList<>();
+        long offset = 0;
+        int index = 0;
+        do {
+            long length = Math.min(partSize, fileSize - offset);
+            parts.add(new Part(uploadUris.get(index).asText(), offset, length));
+            offset += length;
+            index++;
+        } while (offset < fileSize);
+        return parts;
+    }
+
+    private void transferParts(Path file, long fileSize, List<Part> parts, String mimeType,
+                               AemApiClient.TransferListener listener) throws IOException {
+        AtomicLong transferred = new AtomicLong();
+        ContentType contentType = ContentType.create(mimeType);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, parts.size()));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Part part : parts) {
+                futures.add(executor.submit(() -> {
+                    HttpEntity entity = part.mappable()
+                        ? new MappedRegionEntity(channel.map(FileChannel.MapMode.READ_ONLY, part.offset(), part.length()),
+                            contentType)
+                        : new FileRegionEntity(channel, part.offset(), part.length(), contentType);
+                    client.putExternal(part.uri(), entity);
+                    long done = transferred.addAndGet(part.length());
+                    if (listener != null) {
+                        listener.onProgress(done, fileSize);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException io ? io : new IOException("Part upload failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Upload interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    record Part(String uri, long offset, long length) {
+
+        /**
+         * True if the part fits in a single memory mapping, which is limited to 2 GiB.
+         */
+        boolean mappable() {
+            return length <= Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Thrown when the target instance does not support direct binary upload,
+     * so callers can fall back to a classic streamed POST.
+     */
+    public static class UnsupportedException extends IOException {
+        public UnsupportedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Repeatable entity backed by a memory-mapped file region.
+     */
+    private static class MappedRegionEntity extends AbstractHttpEntity {
+        private final ByteBuffer region;
+
+        MappedRegionEntity(ByteBuffer region, ContentType contentType) {
+            super(contentType, null);
+            this.region = region;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return region.capacity();
+        }
+
+        @Override
+        public InputStream getContent() {
+            ByteBuffer view = region.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return view.hasRemaining() ? view.get() & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (!view.hasRemaining()) {
+                        return -1;
+                    }
+                    int n = Math.min(len, view.remaining());
+                    view.get(b, off, n);
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            ByteBuffer view = region.duplicate();
+            byte[] chunk = new byte[COPY_BUFFER_SIZE];
+            while (view.hasRemaining()) {
+                int n = Math.min(chunk.length, view.remaining());
+                view.get(chunk, 0, n);
+                out.write(chunk, 0, n);
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Repeatable entity that reads a file region with positional reads, for parts too large
+     * to map. Positional reads leave the shared channel's position alone, so parts can be
+     * sent concurrently.
+     */
+    private static class FileRegionEntity extends AbstractHttpEntity {
+        private final FileChannel channel;
+        private final long offset;
+        private final long length;
+
+        FileRegionEntity(FileChannel channel, long offset, long length, ContentType contentType) {
+            super(contentType, null);
+            this.channel = channel;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return length;
+        }
+
+        @Override
+        public InputStream getContent() {
+            return new InputStream() {
+                private long position = offset;
+                private final long end = offset + length;
+
+                @Override
+                public int read() throws IOException {
+                    byte[] one = new byte[1];
+                    return read(one, 0, 1) == 1 ? one[0] & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    if (position >= end) {
+                        return -1;
+                    }
+                    ByteBuffer target = ByteBuffer.wrap(b, off, (int) Math.min(len, end - position));
+                    int n = channel.read(target, position);
+                    if (n < 0) {
+                        throw new IOException("File shrank during upload");
+                    }
+                    position += n;
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (InputStream in = getContent()) {
+                byte[] chunk = new byte[COPY_BUFFER_SIZE];
+                int n;
+                while ((n = in.read(chunk, 0, chunk.length)) != -1) {
+                    out.write(chunk, 0, n);
+                }
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.aemtools.aem.client;
+
+import com.aemtools.aem.config.ConfigManager;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * HTTP transport settings for one environment.
+ * <p>
+ * Values come from the environment's entry in {@code config.yaml} under {@code http.*} keys
+ * and fall back to defaults sized for bulk jobs against a single author instance:
+ * <pre>
+ * environments:
+ *   prod:
+ *     url: https://author.example.com
+ *     http.maxTotal: 64
+ *     http.maxPerRoute: 32
+ *     http.responseTimeoutMs: 120000
+ *     http.transport: http2
+ * </pre>
+ */
+public record HttpSettings(
+    int maxTotal,
+    int maxPerRoute,
+    long connectTimeoutMs,
+    long socketTimeoutMs,
+    long responseTimeoutMs,
+    long leaseTimeoutMs,
+    long connectionTtlMs,
+    long validateAfterInactivityMs,
+    long idleEvictMs,
+    long keepAliveMs,
+    Transport transport
+) {
+
+    public static final String PREFIX = "http.";
+
+    public static final String MAX_TOTAL = PREFIX + "maxTotal";
+    public static final String MAX_PER_ROUTE = PREFIX + "maxPerRoute";
+    public static final String CONNECT_TIMEOUT_MS = PREFIX + "connectTimeoutMs";
+    public static final String SOCKET_TIMEOUT_MS = PREFIX + "socketTimeoutMs";
+    public static final String RESPONSE_TIMEOUT_MS = PREFIX + "responseTimeoutMs";
+    public static final String LEASE_TIMEOUT_MS = PREFIX + "leaseTimeoutMs";
+    public static final String CONNECTION_TTL_MS = PREFIX + "connectionTtlMs";
+    public static final String VALIDATE_AFTER_INACTIVITY_MS = PREFIX + "validateAfterInactivityMs";
+    public static final String IDLE_EVICT_MS = PREFIX + "idleEvictMs";
+    public static final String KEEP_ALIVE_MS = PREFIX + "keepAliveMs";
+    public static final String TRANSPORT = PREFIX + "transport";
+
+    /**
+     * Wire protocol used for requests without a body.
+     */
+    public enum Transport {
+        /** Classic blocking HTTP/1.1 over the connection pool. */
+        HTTP1,
+        /** Multiplexed HTTP/2 over a single connection per host (TLS with ALPN, or h2c prior knowledge). */
+        HTTP2;
+
+        public static Transport parse(String value) {
+            if (value == null) {
+                return HTTP1;
+            }
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "http2", "h2", "2" -> HTTP2;
+                default -> HTTP1;
+            };
+        }
+    }
+
+    public static HttpSettings defaults() {
+        return new HttpSettings(50, 20, 10_000, 60_000, 60_000, 30_000,
+            300_000, 2_000, 60_000, 30_000, Transport.HTTP1);
+    }
+
+    /**
+     * Reads the settings for the active environment. The response timeout falls back to the
+     * global {@code timeout} default (in seconds) when the environment does not set one.
+     */
+    public static HttpSettings fromConfig(ConfigManager config) {
+        return fromConfig(config, config.getActiveEnvironment());
+    }
+
+    public static HttpSettings fromConfig(ConfigManager config, String environment) {
+        HttpSettings d = defaults();
+        long defaultResponseTimeout = config.getDefaultInt("timeout", (int) (d.responseTimeoutMs() / 1000)) * 1000L;
+        return new HttpSettings(
+            (int) number(config, environment, MAX_TOTAL, d.maxTotal()),
+            (int) number(config, environment, MAX_PER_ROUTE, d.maxPerRoute()),
+            number(config, environment, CONNECT_TIMEOUT_MS, d.connectTimeoutMs()),
+            number(config, environment, SOCKET_TIMEOUT_MS, d.socketTimeoutMs()),
+            number(config, environment, RESPONSE_TIMEOUT_MS, defaultResponseTimeout),
+            number(config, environment, LEASE_TIMEOUT_MS, d.leaseTimeoutMs()),
+            number(config, environment, CONNECTION_TTL_MS, d.connectionTtlMs()),
+            number(config, environment, VALIDATE_AFTER_INACTIVITY_MS, d.validateAfterInactivityMs()),
+            number(config, environment, IDLE_EVICT_MS, d.idleEvictMs()),
+            number(config, environment, KEEP_ALIVE_MS, d.keepAliveMs()),
+            Transport.parse(config.getEnvironmentSetting(environment, TRANSPORT))
+        );
+    }
+
+    private static long number(ConfigManager config, String environment, String key, long defaultValue) {
+        String value = config.getEnvironmentSetting(environment, key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("transport", transport.name().toLowerCase(Locale.ROOT));
+        map.put("max_total", maxTotal);
+        map.put("max_per_route", maxPerRoute);
+        map.put("connect_timeout_ms", connectTimeoutMs);
+        map.put("socket_timeout_ms", socketTimeoutMs);
+        map.put("response_timeout_ms", responseTimeoutMs);
+        map.put("lease_timeout_ms", leaseTimeoutMs);
+        map.put("connection_ttl_ms", connectionTtlMs);
+        map.put("validate_after_inactivity_ms", validateAfterInactivityMs);
+        map.put("idle_evict_ms", idleEvictMs);
+        map.put("keep_alive_ms", keepAliveMs);
+        return map;
+    }
+}
@@ -0,0 +1,115 @@
+package com.aemtools.aem.client;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pooling connection manager that records how long callers wait to lease a connection
+ * and how often a pooled connection is reused instead of a new one being opened.
+ * <p>
+ * Classic requests lease on the calling thread, so the wait of the most recent lease is also
+ * kept per thread for {@link RequestTimer} to attach to the request that caused it.
+ */
+class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder leaseTimeouts = new LongAdder();
+    private final LongAdder leaseWaitNanos = new LongAdder();
+    private final LongAccumulator maxLeaseWaitNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final ThreadLocal<Long> lastLeaseNanos = new ThreadLocal<>();
+
+    InstrumentedConnectionManager(HttpSettings settings) {
+        super();
+        setMaxTotal(settings.maxTotal());
+        setDefaultMaxPerRoute(settings.maxPerRoute());
+        setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.ofMilliseconds(settings.connectTimeoutMs()))
+            .setSocketTimeout(Timeout.ofMilliseconds(settings.socketTimeoutMs()))
+            .setTimeToLive(TimeValue.ofMilliseconds(settings.connectionTtlMs()))
+            .setValidateAfterInactivity(TimeValue.ofMilliseconds(settings.validateAfterInactivityMs()))
+            .build());
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        long start = System.nanoTime();
+        LeaseRequest delegate = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                try {
+                    ConnectionEndpoint endpoint = delegate.get(timeout);
+                    long waited = System.nanoTime() - start;
+                    leases.increment();
+                    leaseWaitNanos.add(waited);
+                    maxLeaseWaitNanos.accumulate(waited);
+                    lastLeaseNanos.set(waited);
+                    return endpoint;
+                } catch (TimeoutException e) {
+                    leaseTimeouts.increment();
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegate.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void connect(ConnectionEndpoint endpoint, TimeValue timeout, HttpContext context) throws IOException {
+        connectionsOpened.increment();
+        super.connect(endpoint, timeout, context);
+    }
+
+    /**
+     * Returns and clears this thread's most recent lease wait.
+     *
+     * @return nanoseconds, or -1 if this thread has not leased since the last call
+     */
+    long takeLeaseNanos() {
+        Long waited = lastLeaseNanos.get();
+        lastLeaseNanos.remove();
+        return waited != null ? waited : -1;
+    }
+
+    Map<String, Object> metrics() {
+        long leaseCount = leases.sum();
+        long opened = connectionsOpened.sum();
+        long reused = Math.max(0, leaseCount - opened);
+        PoolStats pool = getTotalStats();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("leases", leaseCount);
+        metrics.put("connections_opened", opened);
+        metrics.put("connections_reused", reused);
+        metrics.put("reuse_rate", leaseCount > 0 ? String.format("%.1f%%", reused * 100.0 / leaseCount) : "n/a");
+        metrics.put("lease_wait_avg_ms", leaseCount > 0 ? String.format("%.2f", leaseWaitNanos.sum() / 1e6 / leaseCount) : "n/a");
+        metrics.put("lease_wait_max_ms", String.format("%.2f", maxLeaseWaitNanos.get() / 1e6));
+        metrics.put("lease_timeouts", leaseTimeouts.sum());
+        metrics.put("pool_leased", pool.getLeased());
+        metrics.put("pool_available", pool.getAvailable());
+        metrics.put("pool_pending", pool.getPending());
+        metrics.put("pool_max", pool.getMax());
+        return metrics;
+    }
+}
@@ -0,0 +1,172 @@
+package com.aemtools.aem.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates the elements of one top-level array in a JSON document straight from an input stream,
+ * such as the {@code hits} of a QueryBuilder response or the {@code entities} of an Assets API
+ * listing. Only the current element is held as a tree, so memory use does not grow with the
+ * size of the response.
+ * <p>
+ * Scalar top-level fields that precede the array (QueryBuilder sends {@code total},
+ * {@code more} and {@code offset} first) are collected into {@link #header()}.
+ * Elements for which the mapper returns null are skipped.
+ */
+public class JsonArrayStream<T> implements Iterator<T>, Closeable {
+
+    private final JsonParser parser;
+    private final Function<JsonNode, T> mapper;
+    private final Closeable resource;
+    private final ObjectMapper objectMapper;
+    private final ObjectNode header;
+    private boolean inArray;
+    private T next;
+    private boolean closed;
+
+    JsonArrayStream(InputStream input, ObjectMapper objectMapper, String field,
+                    Function<JsonNode, T> mapper, Closeable resource) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(input);
+        this.mapper = mapper;
+        this.resource = resource;
+        this.header = objectMapper.createObjectNode();
+        try {
+            this.inArray = seek(field);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a stream over an in-memory or file-backed input; closing it closes the input.
+     */
+    public static <T> JsonArrayStream<T> of(InputStream input, ObjectMapper objectMapper, String field,
+                                            Function<JsonNode, T> mapper) throws IOException {
+        return new JsonArrayStream<>(input, objectMapper, field, mapper, input);
+    }
+
+    private boolean seek(String field) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (name.equals(field)) {
+                return value == JsonToken.START_ARRAY;
+            }
+            if (value.isScalarValue()) {
+                header.set(name, objectMapper.readTree(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scalar fields that appeared before the array.
+     */
+    public ObjectNode header() {
+        return header;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            while (inArray) {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    inArray = false;
+                    drain();
+                    break;
+                }
+                JsonNode element = objectMapper.readTree(parser);
+                T mapped = mapper.apply(element);
+                if (mapped != null) {
+                    next = mapped;
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+        close();
+        return false;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Reads the rest of the document to the end of the input, so a pooled HTTP connection
+     * sees the whole body and can be reused.
+     */
+    private void drain() throws IOException {
+        while (parser.nextToken() != null) {
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Wraps this iterator in a sequential stream that closes the underlying response when
+     * the stream is closed. Use it in try-with-resources unless it is fully consumed.
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this,
+            Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        inArray = false;
+        try {
+            parser.close();
+        } catch (IOException ignored) {
+            // nothing left to read
+        }
+        if (resource != null) {
+            try {
+                resource.close();
+            } catch (IOException ignored) {
+                // the connection is discarded either way
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.aemtools.aem.client;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trie over JCR paths that maps each resource to the response cache keys read from it.
+ * <p>
+ * A mutation under a path invalidates every cached read in that subtree plus the reads
+ * registered exactly on its ancestors (parent listings and queries rooted above it),
+ * leaving unrelated parts of the cache intact.
+ */
+public class PathIndex {
+
+    public static final String ROOT = "/";
+    private static final String API_ASSETS = "/api/assets";
+    private static final String DAM_ROOT = "/content/dam";
+    private static final String QUERY_BUILDER = "/bin/querybuilder";
+    private static final Set<String> EXTENSIONS = Set.of("json", "html", "jsp");
+    private static final Set<String> SELECTORS = Set.of("infinity", "tidy", "rw", "model", "children", "harray", "query");
+
+    private final TrieNode root = new TrieNode(null);
+    private final Map<String, String> pathsByKey = new HashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Associates a cache key with the resource path it was read from.
+     */
+    public synchronized void register(String key, String resourcePath) {
+        remove(key);
+        TrieNode node = root;
+        for (String segment : segments(resourcePath)) {
+            node = node.children.computeIfAbsent(segment, TrieNode::new);
+        }
+        node.keys.add(key);
+        pathsByKey.put(key, resourcePath);
+    }
+
+    /**
+     * Forgets a cache key, e.g. after the cache evicted it.
+     */
+    public synchronized void remove(String key) {
+        String path = pathsByKey.remove(key);
+        if (path == null) {
+            return;
+        }
+        Deque<TrieNode> trail = new ArrayDeque<>();
+        TrieNode node = root;
+        for (String segment : segments(path)) {
+            trail.push(node);
+            node = node.children.get(segment);
+            if (node == null) {
+                return;
+            }
+        }
+        node.keys.remove(key);
+        while (!trail.isEmpty() && node.keys.isEmpty() && node.children.isEmpty()) {
+            TrieNode parent = trail.pop();
+            parent.children.remove(node.name);
+            node = parent;
+        }
+    }
+
+    /**
+     * Removes and returns the keys affected by a change at the given resource path:
+     * all keys in its subtree and the keys registered exactly on each of its ancestors.
+     */
+    public synchronized Set<String> invalidate(String resourcePath) {
+        generation.incrementAndGet();
+        Set<String> affected = new HashSet<>(root.keys);
+        TrieNode node = root;
+        for (String segment : segments(resourcePath)) {
+            node = node.children.get(segment);
+            if (node == null) {
+                break;
+            }
+            affected.addAll(node.keys);
+        }
+        if (node != null) {
+            collectSubtree(node, affected);
+        }
+        for (String key : affected) {
+            remove(key);
+        }
+        return affected;
+    }
+
+    /**
+     * Incremented on every invalidation. A reader that captured the generation before a fetch
+     * can tell whether a mutation raced with it and skip caching a possibly stale result.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public synchronized int size() {
+        return pathsByKey.size();
+    }
+
+    public synchronized void clear() {
+        root.children.clear();
+        root.keys.clear();
+        pathsByKey.clear();
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Maps a request path to the JCR resource it reads or modifies.
+     * <ul>
+     *   <li>a {@code path} or {@code payload} query parameter names the resource (QueryBuilder, replication, workflow)</li>
+     *   <li>QueryBuilder requests without a path are treated as repository-wide</li>
+     *   <li>{@code /api/assets/...} maps onto {@code /content/dam/...}</li>
+     *   <li>Sling selectors and extensions are stripped, so {@code /content/dam/foo.1.json} becomes {@code /content/dam/foo};
+ *       other dots are part of the name, so {@code /api/assets/foo/bar.jpg} becomes {@code /content/dam/foo/bar.jpg}</li>
+     * </ul>
+     */
+    public static String resourcePath(String requestPath) {
+        String path = requestPath;
+        String query = null;
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            query = path.substring(queryStart + 1);
+            path = path.substring(0, queryStart);
+        }
+        int scheme = path.indexOf("://");
+        if (scheme >= 0) {
+            int slash = path.indexOf('/', scheme + 3);
+            path = slash >= 0 ? path.substring(slash) : ROOT;
+        }
+
+        if (query != null) {
+            String target = queryParam(query, "path");
+            if (target == null) {
+                target = queryParam(query, "payload");
+            }
+            if (target != null && target.startsWith("/")) {
+                return normalize(target);
+            }
+        }
+        if (path.startsWith(QUERY_BUILDER)) {
+            return ROOT;
+        }
+        if (path.equals(API_ASSETS) || path.startsWith(API_ASSETS + "/") || path.startsWith(API_ASSETS + ".")) {
+            path = DAM_ROOT + path.substring(API_ASSETS.length());
+        }
+        return normalize(path);
+    }
+
+    private static String normalize(String path) {
+        List<String> segments = segments(path);
+        if (segments.isEmpty()) {
+            return ROOT;
+        }
+        int last = segments.size() - 1;
+        String name = stripRequestSuffix(segments.get(last));
+        if (name.isEmpty()) {
+            segments.remove(last);
+        } else {
+            segments.set(last, name);
+        }
+        return segments.isEmpty() ? ROOT : "/" + String.join("/", segments);
+    }
+
+    /**
+     * Strips a rendering extension and the Sling selectors before it, e.g. {@code .infinity.json}
+     * or {@code .1.json}. Other dots belong to the node name, so {@code hero.jpg} and
+     * {@code hero.jpg.json} both name the asset {@code hero.jpg}.
+     */
+    private static String stripRequestSuffix(String name) {
+        int dot = name.lastIndexOf('.');
+        if (dot < 0 || !EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT))) {
+            return name;
+        }
+        name = name.substring(0, dot);
+        while ((dot = name.lastIndexOf('.')) >= 0 && isSelector(name.substring(dot + 1))) {
+            name = name.substring(0, dot);
+        }
+        return name;
+    }
+
+    private static boolean isSelector(String part) {
+        return SELECTORS.contains(part) || part.matches("-?\\d+");
+    }
+
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    private static String queryParam(String query, String name) {
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void collectSubtree(TrieNode node, Set<String> affected) {
+        Deque<TrieNode> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            TrieNode current = pending.pop();
+            affected.addAll(current.keys);
+            current.children.values().forEach(pending::push);
+        }
+    }
+
+    private static final class TrieNode {
+        private final String name;
+        private final Map<String, TrieNode> children = new HashMap<>();
+        private final Set<String> keys = new HashSet<>();
+
+        private TrieNode(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.aemtools.aem.client;
+
+import java.io.IOException;
+
+/**
+ * Observes every request {@link AemApiClient} sends to AEM, for flow control and metrics.
+ * <p>
+ * Callbacks run on the thread that completed the request, which may be an I/O reactor
+ * thread for async calls, so implementations must be fast and must not block.
+ */
+public interface RequestListener {
+
+    /**
+     * Called when a response was received, whatever its status.
+     *
+     * @param method the HTTP method
+     * @param statusCode the response status
+     * @param latencyNanos time from sending the request to receiving the full response
+     * @param retryAfterMs the server's {@code Retry-After} delay, or -1 if none was sent
+     */
+    void onResponse(String method, int statusCode, long latencyNanos, long retryAfterMs);
+
+    /**
+     * Called when no response was received, e.g. on a connect or response timeout.
+     */
+    default void onFailure(String method, IOException error, long latencyNanos) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.aemtools.aem.client;
+
+import com.aemtools.aem.audit.AuditLogger.CallMetrics;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Measures one HTTP exchange for the audit trail: the wait for a pooled connection, the time
+ * until the response head arrived, the total time until the body was read, and the bytes
+ * written and read. Times are taken with {@link System#nanoTime()} from construction, which
+ * should happen just before the request is executed.
+ */
+final class RequestTimer {
+
+    private final long start = System.nanoTime();
+    private final InstrumentedConnectionManager pool;
+    private long leaseNanos = -1;
+    private long ttfbNanos = -1;
+
+    /**
+     * @param pool the pool the request leases from, or null for transports without one
+     */
+    RequestTimer(InstrumentedConnectionManager pool) {
+        this.pool = pool;
+        if (pool != null) {
+            // Discard a lease left over from a request on this thread that was not timed.
+            pool.takeLeaseNanos();
+        }
+    }
+
+    long startNanos() {
+        return start;
+    }
+
+    /**
+     * Marks the arrival of the response head; for the classic client this is when
+     * {@code execute} returns, before the body is read.
+     */
+    void headersReceived() {
+        ttfbNanos = System.nanoTime() - start;
+        if (pool != null) {
+            leaseNanos = pool.takeLeaseNanos();
+        }
+    }
+
+    /**
+     * Ends the measurement.
+     *
+     * @param request the request entity, or null if the request had no body
+     * @param responseBytes body bytes read, or -1 if unknown
+     */
+    CallMetrics finish(HttpEntity request, long responseBytes) {
+        return new CallMetrics(leaseNanos, ttfbNanos, System.nanoTime() - start,
+            requestBytes(request), responseBytes);
+    }
+
+    CallMetrics finish(long requestBytes, long responseBytes) {
+        return new CallMetrics(leaseNanos, ttfbNanos, System.nanoTime() - start, requestBytes, responseBytes);
+    }
+
+    /**
+     * Wraps an entity of unknown length so the bytes actually written can be counted.
+     * Entities with a declared length are returned as they are.
+     */
+    static HttpEntity counting(HttpEntity entity) {
+        if (entity == null || entity.getContentLength() >= 0 || entity instanceof CountingEntity) {
+            return entity;
+        }
+        return new CountingEntity(entity);
+    }
+
+    static long requestBytes(HttpEntity entity) {
+        if (entity == null) {
+            return 0;
+        }
+        if (entity instanceof CountingEntity counting) {
+            return counting.written;
+        }
+        return entity.getContentLength();
+    }
+
+    /**
+     * Request entity that counts the bytes of its most recent write, so a retried request
+     * reports what the final attempt sent.
+     */
+    static final class CountingEntity extends HttpEntityWrapper {
+        private volatile long written = -1;
+
+        CountingEntity(HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            CountingOutputStream counter = new CountingOutputStream(out);
+            try {
+                super.writeTo(counter);
+            } finally {
+                written = counter.count;
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * Response stream that counts the bytes read through it.
+     */
+    static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
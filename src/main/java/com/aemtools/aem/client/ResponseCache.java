@@ -0,0 +1,410 @@
+package com.aemtools.aem.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe cache of parsed JSON responses with W-TinyLFU style eviction.
+ * <p>
+ * Reads are lock-free: entries live in a {@link ConcurrentHashMap} and a hit only bumps a
+ * count-min frequency sketch. Writes go through a single eviction lock that maintains a small
+ * admission window and a main region. When the cache exceeds its entry or weight budget, the
+ * oldest window entry competes with the oldest main entry and the one with the lower estimated
+ * access frequency is dropped. One-off reads therefore cannot flush frequently used listings.
+ * <p>
+ * Entries may carry {@code ETag}/{@code Last-Modified} validators. Such entries outlive their TTL
+ * so the client can revalidate them with a conditional GET; within the stale-while-revalidate
+ * window an expired entry may still be served while a background refresh runs.
+ * <p>
+ * Cached trees are shared between callers and must be treated as read-only.
+ */
+public class ResponseCache {
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int MAX_FREQUENCY = 15;
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ArrayDeque<Node> window = new ArrayDeque<>();
+    private final ArrayDeque<Node> main = new ArrayDeque<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong weightedSize = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicIntegerArray sketch;
+    private final int sketchMask;
+    private final AtomicInteger sketchAdditions = new AtomicInteger();
+    private final int sketchResetThreshold;
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final int windowCapacity;
+    private volatile long ttlMs;
+    private volatile long staleWhileRevalidateMs;
+    private volatile Consumer<String> removalListener = key -> { };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    public ResponseCache(int maxEntries, long maxWeight, long ttlMs) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxWeight = Math.max(1, maxWeight);
+        this.windowCapacity = Math.max(1, this.maxEntries / 100);
+        this.ttlMs = ttlMs;
+
+        int width = Integer.highestOneBit(Math.max(16, this.maxEntries * 4) - 1) << 1;
+        this.sketch = new AtomicIntegerArray(width);
+        this.sketchMask = width - 1;
+        this.sketchResetThreshold = this.maxEntries * 10;
+    }
+
+    /**
+     * Returns the cached tree for the key if present and younger than the TTL.
+     */
+    public JsonNode get(String key) {
+        Entry entry = getEntry(key);
+        if (entry == null || isExpired(entry)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    /**
+     * Returns the raw entry, fresh or expired, recording an access in the frequency sketch.
+     */
+    public Entry getEntry(String key) {
+        increment(key);
+        return entries.get(key);
+    }
+
+    public boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.storedAt() >= ttlMs;
+    }
+
+    /**
+     * Whether an expired entry may still be returned while it is refreshed in the background.
+     */
+    public boolean isServableStale(Entry entry) {
+        return System.currentTimeMillis() - entry.storedAt() < ttlMs + staleWhileRevalidateMs;
+    }
+
+    public void put(String key, JsonNode value, long weight) {
+        put(key, value, weight, null, null);
+    }
+
+    public void put(String key, JsonNode value, long weight, String etag, String lastModified) {
+        put(key, new Entry(value, Math.max(1, weight), System.currentTimeMillis(),
+            sequence.incrementAndGet(), etag, lastModified));
+    }
+
+    /**
+     * Marks an entry as fresh again after the server answered {@code 304 Not Modified}.
+     * Updated validators from the 304 response replace the stored ones when present.
+     */
+    public void revalidated(String key, Entry entry, String etag, String lastModified) {
+        notModified.increment();
+        Entry refreshed = new Entry(entry.value(), entry.weight(), System.currentTimeMillis(), entry.seq(),
+            etag != null ? etag : entry.etag(),
+            lastModified != null ? lastModified : entry.lastModified());
+        entries.replace(key, entry, refreshed);
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordStaleHit() {
+        staleHits.increment();
+    }
+
+    public void recordRevalidation() {
+        revalidations.increment();
+    }
+
+    void put(String key, Entry entry) {
+        evictionLock.lock();
+        try {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                weightedSize.addAndGet(-previous.weight());
+            }
+            weightedSize.addAndGet(entry.weight());
+            window.addLast(new Node(key, entry.seq()));
+            maintain();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void invalidate(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            weightedSize.addAndGet(-removed.weight());
+        }
+    }
+
+    /**
+     * Registers a callback notified with the key of every entry the cache drops on its own
+     * through eviction or expiry, so secondary indexes can stay in step.
+     */
+    public void setRemovalListener(Consumer<String> removalListener) {
+        this.removalListener = removalListener != null ? removalListener : key -> { };
+    }
+
+    public void clear() {
+        evictionLock.lock();
+        try {
+            entries.clear();
+            window.clear();
+            main.clear();
+            weightedSize.set(0);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public void setStaleWhileRevalidateMs(long staleWhileRevalidateMs) {
+        this.staleWhileRevalidateMs = Math.max(0, staleWhileRevalidateMs);
+    }
+
+    public long getStaleWhileRevalidateMs() {
+        return staleWhileRevalidateMs;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Map<String, Object> stats() {
+        int validEntries = 0;
+        for (Entry entry : entries.values()) {
+            if (!isExpired(entry)) {
+                validEntries++;
+            }
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("total_entries", entries.size());
+        stats.put("valid_entries", validEntries);
+        stats.put("ttl_seconds", ttlMs / 1000);
+        stats.put("stale_while_revalidate_seconds", staleWhileRevalidateMs / 1000);
+        stats.put("max_entries", maxEntries);
+        stats.put("weight_bytes", weightedSize.get());
+        stats.put("max_weight_bytes", maxWeight);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hit_rate", requests > 0 ? String.format("%.1f%%", hitCount * 100.0 / requests) : "n/a");
+        stats.put("evictions", evictions.sum());
+        stats.put("admission_rejections", rejections.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("stale_hits", staleHits.sum());
+        stats.put("revalidations", revalidations.sum());
+        stats.put("not_modified", notModified.sum());
+        stats.put("queued_nodes", queuedNodes());
+        return stats;
+    }
+
+    private int queuedNodes() {
+        evictionLock.lock();
+        try {
+            return window.size() + main.size();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void maintain() {
+        while (window.size() > windowCapacity) {
+            Node candidate = window.pollFirst();
+            if (!isLive(candidate)) {
+                continue;
+            }
+            if (!overBudget()) {
+                main.addLast(candidate);
+                continue;
+            }
+            Node victim = pollLive(main);
+            if (victim == null) {
+                main.addLast(candidate);
+            } else if (frequency(candidate.key()) > frequency(victim.key())) {
+                evict(victim, false);
+                main.addLast(candidate);
+            } else {
+                evict(candidate, true);
+                main.addFirst(victim);
+            }
+        }
+
+        while (overBudget()) {
+            Node victim = pollLive(main);
+            if (victim == null) {
+                victim = pollLive(window);
+            }
+            if (victim == null) {
+                break;
+            }
+            evict(victim, false);
+        }
+
+        compactMain();
+    }
+
+    /**
+     * Overwritten and invalidated keys leave their old node behind. The window drains itself,
+     * but the main region is only polled when over budget, so under steady refreshes it would
+     * grow without bound; it is swept once it holds twice as many nodes as there are entries.
+     */
+    private void compactMain() {
+        if (main.size() > 2 * Math.max(entries.size(), windowCapacity)) {
+            main.removeIf(node -> !isLive(node));
+        }
+    }
+
+    private boolean overBudget() {
+        return entries.size() > maxEntries || weightedSize.get() > maxWeight;
+    }
+
+    private Node pollLive(ArrayDeque<Node> deque) {
+        Node node;
+        while ((node = deque.pollFirst()) != null) {
+            Entry entry = entries.get(node.key());
+            if (entry != null && entry.seq() == node.seq()) {
+                if (isDiscardable(entry)) {
+                    if (entries.remove(node.key(), entry)) {
+                        weightedSize.addAndGet(-entry.weight());
+                        expirations.increment();
+                        removalListener.accept(node.key());
+                    }
+                    continue;
+                }
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Expired entries are kept while they can still be served stale, and for as long as the
+     * budget allows when they carry validators for a conditional refresh.
+     */
+    private boolean isDiscardable(Entry entry) {
+        return isExpired(entry) && !isServableStale(entry) && !entry.hasValidators();
+    }
+
+    private boolean isLive(Node node) {
+        Entry entry = entries.get(node.key());
+        return entry != null && entry.seq() == node.seq();
+    }
+
+    private void evict(Node node, boolean rejected) {
+        Entry entry = entries.get(node.key());
+        if (entry != null && entry.seq() == node.seq() && entries.remove(node.key(), entry)) {
+            weightedSize.addAndGet(-entry.weight());
+            if (rejected) {
+                rejections.increment();
+            } else {
+                evictions.increment();
+            }
+            removalListener.accept(node.key());
+        }
+    }
+
+    // ---- count-min frequency sketch with periodic aging ----
+
+    private void increment(String key) {
+        int hash = spread(key.hashCode());
+        for (int i = 0; i < SKETCH_DEPTH; i++) {
+            int index = indexOf(hash, i);
+            int current;
+            do {
+                current = sketch.get(index);
+                if (current >= MAX_FREQUENCY) {
+                    break;
+                }
+            } while (!sketch.compareAndSet(index, current, current + 1));
+        }
+        if (sketchAdditions.incrementAndGet() >= sketchResetThreshold) {
+            age();
+        }
+    }
+
+    int frequency(String key) {
+        int hash = spread(key.hashCode());
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < SKETCH_DEPTH; i++) {
+            min = Math.min(min, sketch.get(indexOf(hash, i)));
+        }
+        return min;
+    }
+
+    private synchronized void age() {
+        if (sketchAdditions.get() < sketchResetThreshold) {
+            return;
+        }
+        for (int i = 0; i < sketch.length(); i++) {
+            sketch.set(i, sketch.get(i) >>> 1);
+        }
+        sketchAdditions.set(0);
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h ^= h >>> 32;
+        return (int) h & sketchMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    /**
+     * An immutable cached response.
+     */
+    public record Entry(JsonNode value, long weight, long storedAt, long seq,
+                        String etag, String lastModified) {
+
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+    }
+
+    private record Node(String key, long seq) {
+    }
+}
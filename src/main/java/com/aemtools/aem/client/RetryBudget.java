@@ -0,0 +1,49 @@
+package com.aemtools.aem.client;
+
+/**
+ * Token bucket that caps retries to a fraction of regular traffic.
+ * <p>
+ * Every first attempt deposits {@code ratio} tokens and every retry withdraws one, so at
+ * steady state retries stay below {@code ratio} times the request rate. A small per-second
+ * allowance lets low-traffic sessions retry at all. During an outage, when nearly every
+ * request fails, the bucket drains and further failures surface immediately instead of
+ * multiplying the load on an author instance that is already struggling.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double maxTokens;
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+
+    public RetryBudget(double ratio, double minPerSecond, double maxTokens) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.maxTokens = maxTokens;
+        this.tokens = Math.min(maxTokens, minPerSecond);
+    }
+
+    public static RetryBudget defaults() {
+        return new RetryBudget(0.2, 5, 100);
+    }
+
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    public synchronized boolean tryAcquireRetry() {
+        long now = System.nanoTime();
+        tokens = Math.min(maxTokens, tokens + (now - lastRefill) / 1e9 * minPerSecond);
+        lastRefill = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized double available() {
+        return tokens;
+    }
+}
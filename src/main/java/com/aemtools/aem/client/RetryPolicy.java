@@ -0,0 +1,90 @@
+package com.aemtools.aem.client;
+
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether and when a failed request is sent again.
+ * <p>
+ * Idempotent methods are retried on transport errors and on the statuses in
+ * {@code retryableStatuses}. Other methods, notably {@code POST}, are only retried when the
+ * request provably never reached AEM: a refused or timed-out connect, a pool lease timeout,
+ * or a {@code 429}, which is rejected before any work is done.
+ * <p>
+ * Delays use exponential backoff with full jitter. A server {@code Retry-After} is honored
+ * as a lower bound, up to {@code maxRetryAfterMs}; a longer one ends the retries.
+ */
+public record RetryPolicy(
+    int maxAttempts,
+    long baseDelayMs,
+    long maxDelayMs,
+    long maxRetryAfterMs,
+    Set<Integer> retryableStatuses
+) {
+
+    private static final Set<String> IDEMPOTENT_METHODS =
+        Set.of("GET", "HEAD", "OPTIONS", "TRACE", "PUT", "DELETE");
+
+    public RetryPolicy {
+        maxAttempts = Math.max(1, maxAttempts);
+        retryableStatuses = Set.copyOf(retryableStatuses);
+    }
+
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(4, 200, 10_000, 60_000, Set.of(429, 502, 503, 504));
+    }
+
+    public static RetryPolicy none() {
+        return new RetryPolicy(1, 0, 0, 0, Set.of());
+    }
+
+    public static boolean isIdempotent(String method) {
+        return IDEMPOTENT_METHODS.contains(method.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @param attempt the number of attempts made so far, starting at 1
+     */
+    public boolean shouldRetry(String method, int statusCode, int attempt) {
+        if (attempt >= maxAttempts || !retryableStatuses.contains(statusCode)) {
+            return false;
+        }
+        return isIdempotent(method) || statusCode == 429;
+    }
+
+    public boolean shouldRetry(String method, IOException error, int attempt) {
+        if (attempt >= maxAttempts || error instanceof CircuitBreaker.CircuitOpenException) {
+            return false;
+        }
+        return isIdempotent(method) || notSent(error);
+    }
+
+    /**
+     * @param attempt the number of attempts made so far, starting at 1
+     * @param retryAfterMs the server's {@code Retry-After}, or -1
+     * @return the delay before the next attempt, or -1 if the server asked for a longer
+     *         pause than this policy is willing to wait
+     */
+    public long delayMs(int attempt, long retryAfterMs) {
+        if (retryAfterMs > maxRetryAfterMs) {
+            return -1;
+        }
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        long jittered = ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+        return Math.max(jittered, retryAfterMs);
+    }
+
+    private static boolean notSent(IOException error) {
+        return error instanceof ConnectException
+            || error instanceof ConnectTimeoutException
+            || error instanceof ConnectionRequestTimeoutException
+            || error instanceof UnknownHostException;
+    }
+}
@@ -2,8 +2,11 @@ package com.aemtools.aem.commands;
 
 import com.aemtools.aem.CliFlags;
 import com.aemtools.aem.api.AssetsApi;
+import com.aemtools.aem.api.DamDeltaSync;
+import com.aemtools.aem.api.DamSnapshot;
 import com.aemtools.aem.client.AemApiClient;
 import com.aemtools.aem.config.ConfigManager;
+import com.aemtools.aem.snapshot.SnapshotStore;
 import com.aemtools.aem.util.MockDataHelper;
 import com.fasterxml.jackson.databind.JsonNode;
 import picocli.CommandLine.Command;
@@ -12,6 +15,7 @@ import picocli.CommandLine.Option;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -22,7 +26,8 @@ import java.util.concurrent.Callable;
 @Command(name = "assets", description = "Assets operations", subcommands = {
     AssetsCommand.ListCommand.class,
     AssetsCommand.UploadCommand.class,
-    AssetsCommand.DeleteCommand.class
+    AssetsCommand.DeleteCommand.class,
+    AssetsCommand.SyncCommand.class
 })
 public class AssetsCommand implements Callable<Integer> {
 
@@ -33,7 +38,7 @@ public class AssetsCommand implements Callable<Integer> {
      */
     @Override
     public Integer call() throws Exception {
-        System.out.println("Use 'assets list', 'assets upload', or 'assets delete' for operations");
+        System.out.println("Use 'assets list', 'assets upload', 'assets delete', or 'assets sync' for operations");
         return 0;
     }
 
@@ -70,6 +75,10 @@ public class AssetsCommand implements Callable<Integer> {
                 return 0;
             }
 
+            if (CliFlags.offlineMode) {
+                return listFromSnapshot();
+            }
+
             ConfigManager config = ConfigManager.getInstance();
             String baseUrl = config.getActiveEnvironmentUrl();
 
@@ -83,6 +92,10 @@ public class AssetsCommand implements Callable<Integer> {
                 AssetsApi api = new AssetsApi(client);
 
                 List<AssetsApi.Asset> assets = api.list(path, max);
+                String jcrFolder = damPath(path);
+                SnapshotStore.mirror(SnapshotStore.TYPE_ASSET,
+                    assets.stream().filter(asset -> !"folder".equals(asset.getMimeType())).toList(),
+                    asset -> jcrFolder + "/" + asset.getName());
 
                 System.out.println("\nAssets in " + path + ":\n");
                 if (assets.isEmpty()) {
@@ -104,6 +117,36 @@ public class AssetsCommand implements Callable<Integer> {
                 return 1;
             }
         }
+
+        private int listFromSnapshot() {
+            try {
+                List<AssetsApi.Asset> assets = SnapshotStore.getInstance().query(SnapshotStore.currentEnvironment(),
+                    new SnapshotStore.Query()
+                        .setType(SnapshotStore.TYPE_ASSET)
+                        .setRoot(damPath(path), true)
+                        .setLimit(max), AssetsApi.Asset.class);
+
+                System.out.println("\nAssets in " + path + " (snapshot):\n");
+                for (AssetsApi.Asset asset : assets) {
+                    System.out.println("  " + asset);
+                }
+                System.out.println("\nTotal: " + assets.size());
+                if (assets.isEmpty()) {
+                    System.out.println("Nothing stored for " + path + ". Run 'assets sync --path " + path + "' while online.");
+                }
+                return 0;
+            } catch (Exception e) {
+                System.out.println("Error reading snapshot: " + e.getMessage());
+                return 1;
+            }
+        }
+
+        private static String damPath(String folderPath) {
+            String jcrPath = folderPath.startsWith("/content/dam") ? folderPath
+                : "/content/dam" + (folderPath.startsWith("/") ? "" : "/") + folderPath;
+            return jcrPath.endsWith("/") ? jcrPath.substring(0, jcrPath.length() - 1) : jcrPath;
+        }
+
     }
 
     /**
@@ -200,4 +243,63 @@ public class AssetsCommand implements Callable<Integer> {
             }
         }
     }
+
+    /**
+     * Refreshes the local snapshot of a DAM subtree with only what changed since the last run.
+     */
+    @Command(name = "sync", description = "Sync a local snapshot of a DAM subtree")
+    public static class SyncCommand implements Callable<Integer> {
+        @Option(names = {"-p", "--path"}, description = "Root folder", defaultValue = "/content/dam")
+        private String path;
+
+        @Option(names = {"--verify"}, description = "Reconcile deleted and moved assets now")
+        private boolean verify;
+
+        @Option(names = {"--full"}, description = "Discard the snapshot and reload everything")
+        private boolean full;
+
+        @Option(names = {"--verify-hours"}, description = "Hours between path reconciliations",
+            defaultValue = "24")
+        private int verifyHours;
+
+        /**
+         * Executes the sync command.
+         *
+         * @return exit code (0 for success, 1 for failure)
+         * @throws Exception if the sync fails
+         */
+        @Override
+        public Integer call() throws Exception {
+            ConfigManager config = ConfigManager.getInstance();
+            String baseUrl = config.getActiveEnvironmentUrl();
+
+            if (baseUrl == null || baseUrl.isEmpty()) {
+                System.out.println("Not connected. Run 'connect --env <env> --url <url>' first.");
+                return 1;
+            }
+
+            try {
+                DamSnapshot snapshot = DamSnapshot.open(SnapshotStore.currentEnvironment(), path);
+                if (full) {
+                    snapshot.clear();
+                }
+                AemApiClient client = new AemApiClient();
+                DamDeltaSync.SyncResult result = new DamDeltaSync(client, snapshot)
+                    .setVerifyInterval(Duration.ofHours(verifyHours))
+                    .sync(verify);
+
+                System.out.println("\nSynced " + path + (result.full() ? " (full load)" : " (delta)"));
+                System.out.println("  Added:    " + result.added());
+                System.out.println("  Updated:  " + result.updated());
+                System.out.println("  Removed:  " + result.removed() + (result.verified() ? " (verified)" : ""));
+                System.out.println("  Total:    " + result.total());
+                System.out.println("  Requests: " + result.requests() + " in " + result.elapsedMs() + " ms");
+                System.out.println("  Snapshot: " + snapshot.getFile());
+                return 0;
+            } catch (Exception e) {
+                System.out.println("Error: " + e.getMessage());
+                return 1;
+            }
+        }
+    }
 }
@@ -3,9 +3,11 @@ package com.aemtools.aem.commands;
 import com.aemtools.aem.audit.AuditLogger;
 import com.aemtools.aem.audit.AuditLogger.*;
 import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.client.CircuitBreaker;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -19,7 +21,8 @@ import java.util.concurrent.Callable;
     AuditCommand.StatsCommand.class,
     AuditCommand.PurgeCommand.class,
     AuditCommand.ClearCommand.class,
-    AuditCommand.CacheCommand.class
+    AuditCommand.CacheCommand.class,
+    AuditCommand.ConnectionsCommand.class
 })
 public class AuditCommand implements Callable<Integer> {
 
@@ -65,6 +68,10 @@ public class AuditCommand implements Callable<Integer> {
         @Option(names = {"--memory"}, description = "Show in-memory log only")
         private boolean memoryOnly;
 
+        @Option(names = {"--endpoint"},
+            description = "Only API calls to this endpoint template, as shown by 'audit stats' (e.g. \"GET querybuilder type=rep:User\")")
+        private String endpoint;
+
         /**
          * Executes the list audit entries command.
          *
@@ -76,6 +83,9 @@ public class AuditCommand implements Callable<Integer> {
             AuditLogger auditLogger = AuditLogger.getInstance();
 
             // Default to showing API calls if no filter specified
+            if (endpoint != null) {
+                apiCalls = true;
+            }
             if (!apiCalls && !userActions && !systemEvents && !memoryOnly) {
                 apiCalls = true;
             }
@@ -96,17 +106,22 @@ public class AuditCommand implements Callable<Integer> {
             }
 
             if (apiCalls) {
-                List<ApiCallRecord> records = auditLogger.getRecentApiCalls(max);
+                List<ApiCallRecord> records = endpoint != null
+                    ? auditLogger.getRecentApiCalls(endpoint, max)
+                    : auditLogger.getRecentApiCalls(max);
                 System.out.println("\n=== API Calls (" + records.size() + " entries) ===");
                 for (ApiCallRecord record : records) {
                     String status = record.statusCode() >= 400 ? "[ERROR]" : "[OK]";
-                    System.out.printf("  %s %s %s %s -> %d (%dms)%n",
+                    System.out.printf("  %s %s %s %s -> %d (%dms%s%s)%s%n",
                         record.timestamp().substring(0, 19),
                         status,
                         record.method(),
                         record.path(),
                         record.statusCode(),
-                        record.durationMs());
+                        record.durationMs(),
+                        record.ttfbNanos() != null ? String.format(", ttfb %.1fms", record.ttfbNanos() / 1e6) : "",
+                        record.responseSize() != null ? ", " + record.responseSize() + " B" : "",
+                        record.retryCount() > 0 ? " [" + record.retryCount() + " retries]" : "");
                 }
             }
 
@@ -143,18 +158,38 @@ public class AuditCommand implements Callable<Integer> {
      */
     @Command(name = "stats", description = "Show audit statistics")
     public static class StatsCommand implements Callable<Integer> {
+        @Option(names = {"--hours"}, description = "Latency window in hours", defaultValue = "24")
+        private int hours;
+
         @Override
         public Integer call() throws Exception {
             AuditLogger auditLogger = AuditLogger.getInstance();
-            AuditStats stats = auditLogger.getStats();
+            AuditStats stats = auditLogger.getStats(Duration.ofHours(Math.max(1, hours)));
 
             System.out.println("\n=== Audit Statistics ===");
             System.out.printf("  Total API Calls:    %d%n", stats.getTotalApiCalls());
             System.out.printf("  API Calls Today:    %d%n", stats.getApiCallsToday());
             System.out.printf("  Error Count:        %d%n", stats.getErrorCount());
+            System.out.printf("  Retries:            %d (on %d calls)%n", stats.getTotalRetries(), stats.getRetriedCalls());
+            if (stats.getDroppedApiCalls() > 0) {
+                System.out.printf("  Dropped Records:    %d (audit queue full)%n", stats.getDroppedApiCalls());
+            }
             System.out.printf("  Avg Response Time:  %.1f ms%n", stats.getAvgResponseTimeMs());
             System.out.printf("  User Actions:       %d%n", stats.getTotalUserActions());
             System.out.printf("  System Events:      %d%n", stats.getTotalSystemEvents());
+            if (stats.getLastCircuitEvent() != null) {
+                System.out.printf("  Last Circuit Event: %s%n", stats.getLastCircuitEvent());
+            }
+
+            List<Map<String, Object>> breakers = CircuitBreaker.snapshots();
+            if (!breakers.isEmpty()) {
+                System.out.println("\n  Circuit Breakers:");
+                for (Map<String, Object> breaker : breakers) {
+                    System.out.printf("    - %s: %s (failure rate %s, opened %s times, rejected %s)%n",
+                        breaker.get("base_url"), breaker.get("state"), breaker.get("failure_rate"),
+                        breaker.get("times_opened"), breaker.get("rejected"));
+                }
+            }
 
             List<String> topEndpoints = stats.getTopEndpoints();
             if (!topEndpoints.isEmpty()) {
@@ -164,6 +199,18 @@ public class AuditCommand implements Callable<Integer> {
                 }
             }
 
+            List<EndpointLatency> latencies = stats.getLatencies();
+            if (!latencies.isEmpty()) {
+                System.out.printf("%n  Latency (last %dh, ms):%n", stats.getLatencyWindow().toHours());
+                System.out.printf("    %-48s %7s %6s %8s %8s %8s %8s%n",
+                    "Endpoint", "Calls", "Errors", "p50", "p95", "p99", "Max");
+                for (EndpointLatency l : latencies) {
+                    String endpoint = l.endpoint().length() > 48 ? l.endpoint().substring(0, 45) + "..." : l.endpoint();
+                    System.out.printf("    %-48s %7d %6d %8.1f %8.1f %8.1f %8.1f%n",
+                        endpoint, l.calls(), l.errors(), l.p50Ms(), l.p95Ms(), l.p99Ms(), l.maxMs());
+                }
+            }
+
             return 0;
         }
     }
@@ -274,4 +321,30 @@ public class AuditCommand implements Callable<Integer> {
             return 0;
         }
     }
+
+    /**
+     * Shows HTTP transport settings and connection pool metrics.
+     */
+    @Command(name = "connections", description = "HTTP connection pool settings and metrics")
+    public static class ConnectionsCommand implements Callable<Integer> {
+
+        /**
+         * Prints connection reuse, lease wait times and pool occupancy.
+         *
+         * @return exit code 0
+         * @throws Exception if the stats cannot be read
+         */
+        @Override
+        public Integer call() throws Exception {
+            if (sharedClient == null) {
+                sharedClient = new AemApiClient();
+            }
+
+            System.out.println("\n=== HTTP Connections ===");
+            for (Map.Entry<String, Object> entry : sharedClient.getConnectionStats().entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+            }
+            return 0;
+        }
+    }
 }
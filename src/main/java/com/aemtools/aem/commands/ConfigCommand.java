@@ -1,9 +1,11 @@
 package com.aemtools.aem.commands;
 
+import com.aemtools.aem.client.HttpSettings;
 import com.aemtools.aem.config.ConfigManager;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 /**
@@ -13,7 +15,8 @@ import java.util.concurrent.Callable;
 @Command(name = "config", description = "Configuration management", subcommands = {
     ConfigCommand.ShowCommand.class,
     ConfigCommand.EnvCommand.class,
-    ConfigCommand.DefaultsCommand.class
+    ConfigCommand.DefaultsCommand.class,
+    ConfigCommand.HttpCommand.class
 })
 public class ConfigCommand implements Callable<Integer> {
 
@@ -152,4 +155,89 @@ public class ConfigCommand implements Callable<Integer> {
             return 0;
         }
     }
+
+    /**
+     * Sets per-environment HTTP transport options. Changes apply to clients created afterwards.
+     */
+    @Command(name = "http", description = "Set HTTP connection options for an environment")
+    public static class HttpCommand implements Callable<Integer> {
+        @Option(names = {"-e", "--env"}, description = "Environment (default: active)")
+        private String env;
+
+        @Option(names = {"--max-total"}, description = "Maximum pooled connections")
+        private Integer maxTotal;
+
+        @Option(names = {"--max-per-route"}, description = "Maximum pooled connections per host")
+        private Integer maxPerRoute;
+
+        @Option(names = {"--connect-timeout"}, description = "Connect timeout in ms")
+        private Long connectTimeout;
+
+        @Option(names = {"--socket-timeout"}, description = "Socket read timeout in ms")
+        private Long socketTimeout;
+
+        @Option(names = {"--response-timeout"}, description = "Response timeout in ms")
+        private Long responseTimeout;
+
+        @Option(names = {"--lease-timeout"}, description = "Max wait for a pooled connection in ms")
+        private Long leaseTimeout;
+
+        @Option(names = {"--ttl"}, description = "Connection time-to-live in ms")
+        private Long ttl;
+
+        @Option(names = {"--validate-after"}, description = "Revalidate idle connections after ms")
+        private Long validateAfter;
+
+        @Option(names = {"--idle-evict"}, description = "Close connections idle longer than ms")
+        private Long idleEvict;
+
+        @Option(names = {"--keep-alive"}, description = "Keep-alive when the server sends none, in ms")
+        private Long keepAlive;
+
+        @Option(names = {"--transport"}, description = "Transport: http1, http2")
+        private String transport;
+
+        /**
+         * Stores the given options and prints the effective settings.
+         *
+         * @return exit code 0
+         * @throws Exception if the configuration cannot be saved
+         */
+        @Override
+        public Integer call() throws Exception {
+            ConfigManager config = ConfigManager.getInstance();
+            String target = env != null ? env : config.getActiveEnvironment();
+
+            boolean changed = set(config, target, HttpSettings.MAX_TOTAL, maxTotal)
+                | set(config, target, HttpSettings.MAX_PER_ROUTE, maxPerRoute)
+                | set(config, target, HttpSettings.CONNECT_TIMEOUT_MS, connectTimeout)
+                | set(config, target, HttpSettings.SOCKET_TIMEOUT_MS, socketTimeout)
+                | set(config, target, HttpSettings.RESPONSE_TIMEOUT_MS, responseTimeout)
+                | set(config, target, HttpSettings.LEASE_TIMEOUT_MS, leaseTimeout)
+                | set(config, target, HttpSettings.CONNECTION_TTL_MS, ttl)
+                | set(config, target, HttpSettings.VALIDATE_AFTER_INACTIVITY_MS, validateAfter)
+                | set(config, target, HttpSettings.IDLE_EVICT_MS, idleEvict)
+                | set(config, target, HttpSettings.KEEP_ALIVE_MS, keepAlive)
+                | set(config, target, HttpSettings.TRANSPORT, transport);
+
+            if (changed) {
+                config.save();
+                System.out.println("HTTP settings saved for environment: " + target);
+            }
+
+            System.out.println("\nHTTP settings (" + target + "):");
+            for (Map.Entry<String, Object> entry : HttpSettings.fromConfig(config, target).toMap().entrySet()) {
+                System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+            }
+            return 0;
+        }
+
+        private static boolean set(ConfigManager config, String env, String key, Object value) {
+            if (value == null) {
+                return false;
+            }
+            config.setEnvironmentSetting(env, key, value.toString());
+            return true;
+        }
+    }
 }
@@ -1,11 +1,13 @@
 package com.aemtools.aem.commands;
 
 import com.aemtools.aem.api.AssetsApi;
+import com.aemtools.aem.api.DamCrawler;
 import com.aemtools.aem.client.AemApiClient;
 import com.aemtools.aem.config.ConfigManager;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -16,7 +18,8 @@ import java.util.concurrent.Callable;
 @Command(name = "folders", description = "Folder operations", subcommands = {
     FoldersCommand.CreateCommand.class,
     FoldersCommand.DeleteCommand.class,
-    FoldersCommand.ListCommand.class
+    FoldersCommand.ListCommand.class,
+    FoldersCommand.TreeCommand.class
 })
 public class FoldersCommand implements Callable<Integer> {
 
@@ -27,7 +30,7 @@ public class FoldersCommand implements Callable<Integer> {
      */
     @Override
     public Integer call() throws Exception {
-        System.out.println("Use 'folders create', 'folders delete', or 'folders list' for operations");
+        System.out.println("Use 'folders create', 'folders delete', 'folders list', or 'folders tree' for operations");
         return 0;
     }
 
@@ -171,4 +174,73 @@ public class FoldersCommand implements Callable<Integer> {
             }
         }
     }
+
+    /**
+     * Walks a folder tree with many listings in flight.
+     */
+    @Command(name = "tree", description = "Crawl a folder tree concurrently")
+    public static class TreeCommand implements Callable<Integer> {
+        @Option(names = {"-p", "--path"}, description = "Root path", defaultValue = "/content/dam")
+        private String path;
+
+        @Option(names = {"-d", "--depth"}, description = "Levels to descend (-1 for all)", defaultValue = "-1")
+        private int depth;
+
+        @Option(names = {"-c", "--concurrency"}, description = "Folder listings in flight",
+            defaultValue = "" + DamCrawler.DEFAULT_MAX_CONCURRENT)
+        private int concurrency;
+
+        @Option(names = {"--assets"}, description = "Print assets as well as folders")
+        private boolean showAssets;
+
+        /**
+         * Executes the tree crawl, printing entries as they are found.
+         *
+         * @return exit code (0 for success, 1 for failure)
+         * @throws Exception if the crawl fails
+         */
+        @Override
+        public Integer call() throws Exception {
+            ConfigManager config = ConfigManager.getInstance();
+            String baseUrl = config.getActiveEnvironmentUrl();
+
+            if (baseUrl == null || baseUrl.isEmpty()) {
+                System.out.println("Not connected. Run 'connect --env <env> --url <url>' first.");
+                return 1;
+            }
+
+            try {
+                AemApiClient client = new AemApiClient();
+                DamCrawler crawler = new DamCrawler(new AssetsApi(client))
+                    .setMaxDepth(depth)
+                    .setMaxConcurrent(concurrency);
+
+                DamCrawler.CrawlStats stats = crawler.crawl(path, new DamCrawler.Visitor() {
+                    @Override
+                    public void visitFolder(AssetsApi.Folder folder, int level) {
+                        System.out.println("  [folder] " + folder.getPath());
+                    }
+
+                    @Override
+                    public void visitAsset(AssetsApi.Asset asset, int level) {
+                        if (showAssets) {
+                            System.out.println("  " + asset.getPath());
+                        }
+                    }
+
+                    @Override
+                    public void onError(String folderPath, IOException error) {
+                        System.out.println("  [error] " + folderPath + ": " + error.getMessage());
+                    }
+                });
+
+                System.out.println("\n" + stats);
+                System.out.printf("Throughput: %.0f assets/s%n", stats.assetsPerSecond());
+                return stats.errors() == 0 ? 0 : 1;
+            } catch (Exception e) {
+                System.out.println("Error: " + e.getMessage());
+                return 1;
+            }
+        }
+    }
 }
@@ -2,13 +2,18 @@ package com.aemtools.aem.commands;
 
 import com.aemtools.aem.CliFlags;
 import com.aemtools.aem.api.AssetsApi;
+import com.aemtools.aem.api.PackagesApi;
+import com.aemtools.aem.api.PagesApi;
 import com.aemtools.aem.api.ReplicationApi;
 import com.aemtools.aem.api.TagsApi;
 import com.aemtools.aem.api.UsersApi;
 import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.operations.AdaptiveConcurrencyLimit;
+import com.aemtools.aem.operations.BulkOperations;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -44,6 +49,42 @@ public class RecipeCommand implements Callable<Integer> {
         return 0;
     }
 
+    /**
+     * Creates a listener that prints transfer progress on a single console line.
+     */
+    static AemApiClient.TransferListener consoleProgress() {
+        long[] lastPercent = {-1};
+        return (transferred, total) -> {
+            if (total > 0) {
+                long percent = transferred * 100 / total;
+                if (percent != lastPercent[0]) {
+                    lastPercent[0] = percent;
+                    System.out.print("\r  " + formatBytes(transferred) + " / " + formatBytes(total) + " (" + percent + "%)");
+                    if (transferred >= total) {
+                        System.out.println();
+                    }
+                }
+            } else if (transferred / (8L * 1024 * 1024) != lastPercent[0]) {
+                lastPercent[0] = transferred / (8L * 1024 * 1024);
+                System.out.print("\r  " + formatBytes(transferred));
+            }
+        };
+    }
+
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        String[] units = {"KB", "MB", "GB", "TB"};
+        double value = bytes;
+        int unit = -1;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return String.format("%.1f %s", value, units[unit]);
+    }
+
     /**
      * Recipe to launch a new site with pages, content, and assets.
      */
@@ -170,9 +211,11 @@ public class RecipeCommand implements Callable<Integer> {
 
                 System.out.println("Step 3: Downloading package...");
                 Path localZip = outPath.resolve(packageName + ".zip");
-                packagesApi.download(group, packageName, localZip);
+                AemApiClient.TransferResult result = packagesApi.download(group, packageName, localZip,
+                    consoleProgress());
 
                 System.out.println("\nBackup complete! File saved to: " + localZip.toAbsolutePath());
+                System.out.println("Size: " + formatBytes(result.bytes()) + ", SHA-256: " + result.sha256());
                 
                 // Cleanup? Usually good practice to delete the temporary package on the server
                 // System.out.println("Step 4: Cleaning up temporary package on server...");
@@ -211,6 +254,15 @@ public class RecipeCommand implements Callable<Integer> {
                 defaultValue = "true")
         private boolean publish;
 
+        @Option(names = {"--adaptive"},
+                description = "Process assets in parallel under a concurrency limit that backs off when AEM slows down or throttles")
+        private boolean adaptive;
+
+        @Option(names = {"--max-concurrent"},
+                description = "Upper bound for the adaptive concurrency limit (default: ${DEFAULT-VALUE})",
+                defaultValue = "16")
+        private int maxConcurrent;
+
         @Override
         public Integer call() throws Exception {
             System.out.println("\n=== Asset Batch Recipe ===");
@@ -243,29 +295,68 @@ public class RecipeCommand implements Callable<Integer> {
 
             System.out.println("\nFound " + files.size() + " assets to process.");
 
+            if (adaptive) {
+                return processAdaptive(client, files, assetsApi, tagsApi, replicationApi);
+            }
+
             for (int i = 0; i < files.size(); i++) {
                 Path file = files.get(i);
-                String fileName = file.getFileName().toString();
-                System.out.println(String.format("  [%d/%d] Processing %s...", i + 1, files.size(), fileName));
+                System.out.println(String.format("  [%d/%d] Processing %s...", i + 1, files.size(), file.getFileName()));
+                processAsset(file, assetsApi, tagsApi, replicationApi);
+            }
 
-                // 1. Upload
-                AssetsApi.Asset asset = assetsApi.uploadFile(destPath, file);
-                String assetPath = destPath + "/" + fileName;
+            System.out.println("\nAsset batch complete!");
+            return 0;
+        }
 
-                // 2. Tag
-                if (tags != null) {
-                    List<String> tagList = Arrays.asList(tags.split(","));
-                    tagsApi.applyTags(assetPath, tagList, false);
+        /**
+         * Runs the assets in parallel. The limit only reacts to the requests these operations send,
+         * so other traffic on the client does not throttle the batch.
+         */
+        private int processAdaptive(AemApiClient client, List<Path> files, AssetsApi assetsApi, TagsApi tagsApi,
+                                    ReplicationApi replicationApi) {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(Math.min(4, maxConcurrent), 1, maxConcurrent);
+            BulkOperations bulk = new BulkOperations(client, limit, maxConcurrent);
+            try {
+                List<BulkOperations.BulkOperation<Path>> operations = files.stream()
+                    .<BulkOperations.BulkOperation<Path>>map(file -> () -> {
+                        processAsset(file, assetsApi, tagsApi, replicationApi);
+                        return file;
+                    })
+                    .collect(Collectors.toList());
+
+                List<BulkOperations.BulkResult<Path>> results = bulk.executeInBatches(operations);
+                BulkOperations.BulkStatistics stats = bulk.getStatistics(results);
+                for (BulkOperations.BulkResult<Path> result : results) {
+                    if (!result.isSuccess()) {
+                        String name = result.getIndex() >= 0 ? files.get(result.getIndex()).getFileName().toString() : "?";
+                        System.err.println("  Failed " + name + ": " + result.getError().getMessage());
+                    }
                 }
+                System.out.println("\nAsset batch complete: " + stats.getSuccessCount() + " succeeded, "
+                    + stats.getErrorCount() + " failed (final concurrency limit " + limit.getLimit() + ")");
+                return stats.getErrorCount() == 0 ? 0 : 1;
+            } finally {
+                bulk.shutdown();
+            }
+        }
 
-                // 3. Publish
-                if (publish) {
-                    replicationApi.publish(assetPath, null);
-                }
+        private void processAsset(Path file, AssetsApi assetsApi, TagsApi tagsApi,
+                                  ReplicationApi replicationApi) throws IOException {
+            // 1. Upload
+            assetsApi.uploadFile(destPath, file);
+            String assetPath = destPath + "/" + file.getFileName();
+
+            // 2. Tag
+            if (tags != null) {
+                List<String> tagList = Arrays.asList(tags.split(","));
+                tagsApi.applyTags(assetPath, tagList, false);
             }
 
-            System.out.println("\nAsset batch complete!");
-            return 0;
+            // 3. Publish
+            if (publish) {
+                replicationApi.publish(assetPath, null);
+            }
         }
     }
 
@@ -357,6 +448,10 @@ public class RecipeCommand implements Callable<Integer> {
                 defaultValue = "true")
         private boolean install;
 
+        @Option(names = {"--sha256"},
+                description = "Expected SHA-256 of the package; the download fails if it does not match")
+        private String sha256;
+
         @Override
         public Integer call() throws Exception {
             System.out.println("\n=== Package Migration Recipe ===");
@@ -377,7 +472,10 @@ public class RecipeCommand implements Callable<Integer> {
                 System.out.println("\nStep 1: Downloading package from current environment...");
                 AemApiClient sourceClient = new AemApiClient();
                 PackagesApi sourceApi = new PackagesApi(sourceClient);
-                sourceApi.download(group, name, pkgPath);
+                AemApiClient.TransferResult download = sourceApi.download(group, name, pkgPath, sha256,
+                    consoleProgress());
+                System.out.println("  Downloaded " + formatBytes(download.bytes()) + " (SHA-256: " + download.sha256()
+                    + (sha256 != null ? ", verified" : "") + ")");
 
                 // Target operation (Ad-hoc client for target)
                 System.out.println("Step 2: Connecting to target environment [" + targetUrl + "]...");
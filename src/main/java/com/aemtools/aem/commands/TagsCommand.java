@@ -1,12 +1,15 @@
 package com.aemtools.aem.commands;
 
+import com.aemtools.aem.CliFlags;
 import com.aemtools.aem.api.TagsApi;
 import com.aemtools.aem.api.TagsApi.Tag;
 import com.aemtools.aem.api.TagsApi.TagNamespace;
 import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.snapshot.SnapshotStore;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -76,10 +79,15 @@ public class TagsCommand implements Callable<Integer> {
         @Override
         public Integer call() throws Exception {
             try {
-                TagsApi api = getApi();
-                List<Tag> tags = api.listTags(path, recursive, max);
+                List<Tag> tags;
+                if (CliFlags.offlineMode) {
+                    tags = listFromSnapshot();
+                } else {
+                    tags = getApi().listTags(path, recursive, max);
+                    SnapshotStore.mirror(SnapshotStore.TYPE_TAG, tags, Tag::path);
+                }
 
-                System.out.println("\n=== Tags (" + tags.size() + ") ===");
+                System.out.println("\n=== Tags (" + tags.size() + ")" + (CliFlags.offlineMode ? " [snapshot]" : "") + " ===");
                 System.out.printf("%-40s %-30s %s%n", "TAG ID", "TITLE", "CHILDREN");
                 System.out.println("-".repeat(80));
 
@@ -96,6 +104,14 @@ public class TagsCommand implements Callable<Integer> {
             }
         }
 
+        private List<Tag> listFromSnapshot() throws IOException {
+            String root = path.startsWith("/") ? path : "/content/cq:tags/" + path.replace(":", "/");
+            return SnapshotStore.getInstance().query(SnapshotStore.currentEnvironment(), new SnapshotStore.Query()
+                .setType(SnapshotStore.TYPE_TAG)
+                .setRoot(root, !recursive)
+                .setLimit(max), Tag.class);
+        }
+
         private String truncate(String s, int max) {
             if (s == null) return "";
             return s.length() > max ? s.substring(0, max - 2) + ".." : s;
@@ -304,6 +320,12 @@ public class TagsCommand implements Callable<Integer> {
         @Option(names = {"--confirm"}, description = "Confirm merge")
         private boolean confirm;
 
+        @Option(names = {"--workers"}, description = "Concurrent write requests", defaultValue = "4")
+        private int workers;
+
+        @Option(names = {"--batch"}, description = "Content items per write request", defaultValue = "100")
+        private int batch;
+
         @Override
         public Integer call() throws Exception {
             if (!confirm) {
@@ -316,9 +338,18 @@ public class TagsCommand implements Callable<Integer> {
 
             try {
                 TagsApi api = getApi();
-                int retagged = api.mergeTags(sourceTagId, destTagId);
+                TagsApi.MergeResult result = api.mergeTags(sourceTagId, destTagId, workers, batch,
+                    p -> System.out.printf("\r[%s] %d discovered, %d processed, %d failed (%.0f/s)",
+                        p.phase(), p.discovered(), p.processed(), p.failed(), p.perSecond()));
+                System.out.println();
                 System.out.println("Merged " + sourceTagId + " into " + destTagId);
-                System.out.println("Retagged " + retagged + " items");
+                System.out.println("Retagged " + result.retagged() + " of " + result.discovered()
+                    + " items in " + result.elapsedMs() + " ms");
+                if (!result.sourceDeleted()) {
+                    System.out.println("Source tag kept: " + result.failed() + " failed, "
+                        + result.remaining() + " items still tagged. Re-run to finish.");
+                    return 1;
+                }
                 return 0;
             } catch (Exception e) {
                 System.err.println("Error merging tags: " + e.getMessage());
@@ -1,12 +1,15 @@
 package com.aemtools.aem.commands;
 
+import com.aemtools.aem.CliFlags;
 import com.aemtools.aem.api.UsersApi;
 import com.aemtools.aem.api.UsersApi.User;
 import com.aemtools.aem.api.UsersApi.Group;
 import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.snapshot.SnapshotStore;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -71,11 +74,18 @@ public class UsersCommand implements Callable<Integer> {
         @Override
         public Integer call() throws Exception {
             try {
-                UsersApi api = getApi();
+                String marker = CliFlags.offlineMode ? " [snapshot]" : "";
 
                 if (groups) {
-                    List<Group> groupList = api.listGroups(path.replace("/users", "/groups"), max);
-                    System.out.println("\n=== Groups (" + groupList.size() + ") ===");
+                    String groupPath = path.replace("/users", "/groups");
+                    List<Group> groupList;
+                    if (CliFlags.offlineMode) {
+                        groupList = fromSnapshot(SnapshotStore.TYPE_GROUP, groupPath, Group.class);
+                    } else {
+                        groupList = getApi().listGroups(groupPath, max);
+                        SnapshotStore.mirror(SnapshotStore.TYPE_GROUP, groupList, Group::path);
+                    }
+                    System.out.println("\n=== Groups (" + groupList.size() + ")" + marker + " ===");
                     System.out.printf("%-25s %-30s %s%n", "ID", "NAME", "MEMBERS");
                     System.out.println("-".repeat(70));
                     for (Group group : groupList) {
@@ -85,8 +95,14 @@ public class UsersCommand implements Callable<Integer> {
                             group.memberCount());
                     }
                 } else {
-                    List<User> users = api.listUsers(path, max);
-                    System.out.println("\n=== Users (" + users.size() + ") ===");
+                    List<User> users;
+                    if (CliFlags.offlineMode) {
+                        users = fromSnapshot(SnapshotStore.TYPE_USER, path, User.class);
+                    } else {
+                        users = getApi().listUsers(path, max);
+                        SnapshotStore.mirror(SnapshotStore.TYPE_USER, users, User::path);
+                    }
+                    System.out.println("\n=== Users (" + users.size() + ")" + marker + " ===");
                     System.out.printf("%-20s %-25s %-30s %s%n", "ID", "NAME", "EMAIL", "STATUS");
                     System.out.println("-".repeat(85));
                     for (User user : users) {
@@ -104,6 +120,13 @@ public class UsersCommand implements Callable<Integer> {
             }
         }
 
+        private <T> List<T> fromSnapshot(String type, String root, Class<T> resultType) throws IOException {
+            return SnapshotStore.getInstance().query(SnapshotStore.currentEnvironment(), new SnapshotStore.Query()
+                .setType(type)
+                .setRoot(root, false)
+                .setLimit(max), resultType);
+        }
+
         private String truncate(String s, int max) {
             if (s == null) return "";
             return s.length() > max ? s.substring(0, max - 2) + ".." : s;
@@ -71,6 +71,10 @@ public class AppPaths {
         return getAgentDir().resolve("sessions");
     }
 
+    public static Path getSnapshotDir() {
+        return dataHome.resolve("snapshots");
+    }
+
     public static Path getMasterKeyFile() {
         return configHome.resolve(".key");
     }
@@ -231,6 +231,26 @@ public class ConfigManager {
         return env != null ? env.get("oauthRedirectUri") : "http://localhost:8080/callback";
     }
 
+    /**
+     * Returns a raw per-environment setting, such as the {@code http.*} transport options.
+     */
+    public String getEnvironmentSetting(String env, String key) {
+        Map<String, String> envConfig = environments.get(env);
+        return envConfig != null ? envConfig.get(key) : null;
+    }
+
+    public String getActiveEnvironmentSetting(String key) {
+        return getEnvironmentSetting(activeEnvironment, key);
+    }
+
+    public void setEnvironmentSetting(String env, String key, String value) {
+        if (value == null) {
+            getOrCreateEnvironment(env).remove(key);
+        } else {
+            getOrCreateEnvironment(env).put(key, value);
+        }
+    }
+
     private Map<String, String> getOrCreateEnvironment(String env) {
         return environments.computeIfAbsent(env, k -> new HashMap<>());
     }
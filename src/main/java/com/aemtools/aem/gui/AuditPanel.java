@@ -1,16 +1,22 @@
 package com.aemtools.aem.gui;
 
+import com.aemtools.aem.audit.AuditLogger;
+import com.aemtools.aem.audit.AuditLogger.ApiCallRecord;
+import com.aemtools.aem.audit.AuditLogger.AuditStats;
+import com.aemtools.aem.audit.AuditLogger.EndpointLatency;
 import com.aemtools.aem.client.AemApiClient;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.List;
 import java.util.Map;
 
 public class AuditPanel extends JPanel {
 
     private JTable auditTable;
     private DefaultTableModel tableModel;
+    private DefaultTableModel latencyModel;
     private JLabel cacheStatsLabel;
 
     public AuditPanel() {
@@ -27,8 +33,28 @@ public class AuditPanel extends JPanel {
         auditTable = new JTable(tableModel);
         auditTable.setRowHeight(25);
         
+        // Latency per endpoint over the last 24 hours, from the audit rollups
+        String[] latencyColumns = {"Endpoint", "Calls", "Errors", "p50 (ms)", "p95 (ms)", "p99 (ms)", "Max (ms)"};
+        latencyModel = new DefaultTableModel(latencyColumns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable latencyTable = new JTable(latencyModel);
+        latencyTable.setRowHeight(25);
+        latencyTable.getColumnModel().getColumn(0).setPreferredWidth(320);
+        JScrollPane latencyScroll = new JScrollPane(latencyTable);
+        latencyScroll.setBorder(BorderFactory.createTitledBorder("Endpoint Latency (24h)"));
+
+        JScrollPane auditScroll = new JScrollPane(auditTable);
+        auditScroll.setBorder(BorderFactory.createTitledBorder("Recent API Calls"));
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, latencyScroll, auditScroll);
+        split.setResizeWeight(0.5);
+
         JPanel centerPanel = new JPanel(new BorderLayout());
-        centerPanel.add(new JScrollPane(auditTable), BorderLayout.CENTER);
+        centerPanel.add(split, BorderLayout.CENTER);
         
         // Cache Panel
         JPanel cachePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -55,11 +81,50 @@ public class AuditPanel extends JPanel {
     }
 
     private void refreshAudit() {
-        tableModel.setRowCount(0);
-        tableModel.addRow(new Object[]{"2026-02-25 12:00:01", "GUI_START", "AEM API Studio launched"});
-        tableModel.addRow(new Object[]{"2026-02-25 12:05:30", "CONNECT", "Connected to local environment"});
-        tableModel.addRow(new Object[]{"2026-02-25 12:10:15", "LIST_ASSETS", "Retrieved 20 assets from /content/dam"});
-        
+        new SwingWorker<Object[], Void>() {
+            @Override
+            protected Object[] doInBackground() {
+                AuditLogger auditLogger = AuditLogger.getInstance();
+                return new Object[]{auditLogger.getStats(), auditLogger.getRecentApiCalls(100)};
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            protected void done() {
+                try {
+                    Object[] result = get();
+                    showLatencies((AuditStats) result[0]);
+                    showApiCalls((List<ApiCallRecord>) result[1]);
+                } catch (Exception e) {
+                    tableModel.setRowCount(0);
+                    tableModel.addRow(new Object[]{"", "ERROR", e.getMessage()});
+                }
+            }
+        }.execute();
+
         cacheStatsLabel.setText("Cache Stats: 15 hits, 3 misses, 45 items stored");
     }
+
+    private void showLatencies(AuditStats stats) {
+        latencyModel.setRowCount(0);
+        for (EndpointLatency l : stats.getLatencies()) {
+            latencyModel.addRow(new Object[]{
+                l.endpoint(), l.calls(), l.errors(),
+                String.format("%.1f", l.p50Ms()), String.format("%.1f", l.p95Ms()),
+                String.format("%.1f", l.p99Ms()), String.format("%.1f", l.maxMs())
+            });
+        }
+    }
+
+    private void showApiCalls(List<ApiCallRecord> records) {
+        tableModel.setRowCount(0);
+        for (ApiCallRecord record : records) {
+            String timestamp = record.timestamp().length() > 19 ? record.timestamp().substring(0, 19) : record.timestamp();
+            tableModel.addRow(new Object[]{
+                timestamp,
+                record.method() + " " + record.statusCode(),
+                record.path() + " (" + record.durationMs() + "ms)"
+            });
+        }
+    }
 }
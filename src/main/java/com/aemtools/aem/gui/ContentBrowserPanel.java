@@ -2,6 +2,7 @@ package com.aemtools.aem.gui;
 
 import com.aemtools.aem.CliFlags;
 import com.aemtools.aem.api.AssetsApi;
+import com.aemtools.aem.api.DamCrawler;
 import com.aemtools.aem.client.AemApiClient;
 import com.aemtools.aem.util.MockDataHelper;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -11,7 +12,9 @@ import javax.swing.table.DefaultTableModel;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 import java.awt.*;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ContentBrowserPanel extends JPanel {
 
@@ -20,6 +23,7 @@ public class ContentBrowserPanel extends JPanel {
     private DefaultTableModel tableModel;
     private JEditorPane detailsPane;
     private String currentPath = "/content/dam";
+    private static final int TREE_DEPTH = 3;
 
     public ContentBrowserPanel() {
         setLayout(new BorderLayout());
@@ -92,6 +96,49 @@ public class ContentBrowserPanel extends JPanel {
         add(toolbar, BorderLayout.NORTH);
         
         refreshContent();
+        if (!CliFlags.mockMode) {
+            loadFolderTree(root);
+        }
+    }
+
+    /**
+     * Fills the folder tree in the background, adding nodes as the crawl finds them.
+     */
+    private void loadFolderTree(DefaultMutableTreeNode root) {
+        DefaultTreeModel model = (DefaultTreeModel) folderTree.getModel();
+        Map<String, DefaultMutableTreeNode> nodes = new HashMap<>();
+        nodes.put((String) root.getUserObject(), root);
+
+        Thread.ofVirtual().name("dam-tree").start(() -> {
+            try {
+                DamCrawler crawler = new DamCrawler(new AssetsApi(new AemApiClient())).setMaxDepth(TREE_DEPTH);
+                crawler.crawl((String) root.getUserObject(), new DamCrawler.Visitor() {
+                    @Override
+                    public void visitFolder(AssetsApi.Folder folder, int depth) {
+                        String path = folder.getPath();
+                        String parentPath = path.substring(0, path.lastIndexOf('/'));
+                        SwingUtilities.invokeLater(() -> {
+                            DefaultMutableTreeNode parent = nodes.get(parentPath);
+                            if (parent == null) {
+                                return;
+                            }
+                            DefaultMutableTreeNode node = new DefaultMutableTreeNode(path);
+                            nodes.put(path, node);
+                            model.insertNodeInto(node, parent, parent.getChildCount());
+                            if (parent == root) {
+                                folderTree.expandPath(new javax.swing.tree.TreePath(root.getPath()));
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void visitAsset(AssetsApi.Asset asset, int depth) {
+                    }
+                });
+            } catch (Exception e) {
+                System.err.println("Error loading folder tree: " + e.getMessage());
+            }
+        });
     }
 
     private void showItemDetails() {
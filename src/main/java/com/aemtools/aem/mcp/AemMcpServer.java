@@ -1,5 +1,6 @@
 package com.aemtools.aem.mcp;
 
+import com.aemtools.aem.CliFlags;
 import com.aemtools.aem.api.AssetsApi;
 import com.aemtools.aem.api.ContentFragmentApi;
 import com.aemtools.aem.api.GraphQLApi;
@@ -10,7 +11,9 @@ import com.aemtools.aem.api.TagsApi;
 import com.aemtools.aem.api.UsersApi;
 import com.aemtools.aem.api.WorkflowApi;
 import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.client.CircuitBreaker;
 import com.aemtools.aem.config.ConfigManager;
+import com.aemtools.aem.snapshot.SnapshotStore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -18,6 +21,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -165,7 +169,8 @@ public class AemMcpServer {
     tools.add(buildTool("aem_assets_list", "List assets in a folder",
         Map.of(
             "path", prop("string", "DAM folder path", true),
-            "limit", prop("integer", "Max results (default 50)", false)
+            "limit", prop("integer", "Max results (default 50)", false),
+            "offline", prop("boolean", "Answer from the local snapshot", false)
         )));
 
     tools.add(buildTool("aem_assets_get", "Get asset details",
@@ -225,7 +230,8 @@ public class AemMcpServer {
         Map.of(
             "path", prop("string", "Tag path (default /content/cq:tags)", false),
             "recursive", prop("boolean", "Include nested tags", false),
-            "limit", prop("integer", "Max results (default 100)", false)
+            "limit", prop("integer", "Max results (default 100)", false),
+            "offline", prop("boolean", "Answer from the local snapshot", false)
         )));
 
     tools.add(buildTool("aem_tags_namespaces", "List tag namespaces", Map.of()));
@@ -257,7 +263,8 @@ public class AemMcpServer {
     tools.add(buildTool("aem_users_list", "List users",
         Map.of(
             "path", prop("string", "Users path (default /home/users)", false),
-            "limit", prop("integer", "Max results (default 50)", false)
+            "limit", prop("integer", "Max results (default 50)", false),
+            "offline", prop("boolean", "Answer from the local snapshot", false)
         )));
 
     tools.add(buildTool("aem_users_get", "Get user details with groups",
@@ -276,7 +283,10 @@ public class AemMcpServer {
         Map.of("userId", prop("string", "User ID", true))));
 
     tools.add(buildTool("aem_groups_list", "List groups",
-        Map.of("limit", prop("integer", "Max results (default 50)", false))));
+        Map.of(
+            "limit", prop("integer", "Max results (default 50)", false),
+            "offline", prop("boolean", "Answer from the local snapshot", false)
+        )));
 
     tools.add(buildTool("aem_groups_members", "Get group members",
         Map.of("groupId", prop("string", "Group ID", true))));
@@ -287,6 +297,17 @@ public class AemMcpServer {
             "groupId", prop("string", "Group ID", true)
         )));
 
+    // Snapshot tools
+    tools.add(buildTool("aem_snapshot_query", "Query the local snapshot of previously fetched content without calling AEM",
+        Map.of(
+            "type", prop("string", "Node type: asset, tag, user or group", false),
+            "path", prop("string", "Root path to search below", false),
+            "tag", prop("string", "Only nodes carrying this tag ID", false),
+            "model", prop("string", "Only content fragments of this model path", false),
+            "modifiedAfter", prop("string", "Only nodes modified after this ISO-8601 date", false),
+            "limit", prop("integer", "Max results (default 100)", false)
+        )));
+
     // Replication tools
     tools.add(buildTool("aem_replicate_activate", "Publish content",
         Map.of("path", prop("string", "Content path", true))));
@@ -426,6 +447,7 @@ public class AemMcpServer {
       case "aem_groups_list" -> handleGroupsList(args);
       case "aem_groups_members" -> handleGroupsMembers(args);
       case "aem_users_add_to_group" -> handleUsersAddToGroup(args);
+      case "aem_snapshot_query" -> handleSnapshotQuery(args);
       case "aem_replicate_activate" -> handleReplicateActivate(args);
       case "aem_replicate_deactivate" -> handleReplicateDeactivate(args);
       case "aem_replicate_status" -> handleReplicateStatus(args);
@@ -506,10 +528,12 @@ public class AemMcpServer {
 
   private Object handleStatus() {
     ConfigManager config = ConfigManager.getInstance();
+    CircuitBreaker breaker = CircuitBreaker.find(config.getActiveEnvironmentUrl());
     return Map.of(
         "connected", config.getActiveEnvironmentUrl() != null,
         "environment", nullSafe(config.getActiveEnvironment()),
-        "url", nullSafe(config.getActiveEnvironmentUrl())
+        "url", nullSafe(config.getActiveEnvironmentUrl()),
+        "circuit", breaker != null ? breaker.snapshot() : Map.of("state", "closed")
     );
   }
 
@@ -583,7 +607,20 @@ public class AemMcpServer {
     String path = args.path("path").asText();
     int limit = args.path("limit").asInt(50);
 
-    List<AssetsApi.Asset> assets = assetsApi.list(path, limit);
+    String root = (path.startsWith("/content/dam") ? path : "/content/dam" + (path.startsWith("/") ? "" : "/") + path)
+        .replaceAll("/+$", "");
+    List<AssetsApi.Asset> assets;
+    if (isOffline(args)) {
+      assets = fromSnapshot(new SnapshotStore.Query()
+          .setType(SnapshotStore.TYPE_ASSET)
+          .setRoot(root, true)
+          .setLimit(limit), AssetsApi.Asset.class);
+    } else {
+      assets = assetsApi.list(path, limit);
+      SnapshotStore.mirror(SnapshotStore.TYPE_ASSET,
+          assets.stream().filter(a -> !"folder".equals(a.getMimeType())).toList(),
+          a -> root + "/" + a.getName());
+    }
     return Map.of(
         "count", assets.size(),
         "path", path,
@@ -719,7 +756,17 @@ public class AemMcpServer {
     boolean recursive = args.path("recursive").asBoolean(false);
     int limit = args.path("limit").asInt(100);
 
-    List<TagsApi.Tag> tags = tagsApi.listTags(path, recursive, limit);
+    List<TagsApi.Tag> tags;
+    if (isOffline(args)) {
+      String root = path.startsWith("/") ? path : "/content/cq:tags/" + path.replace(":", "/");
+      tags = fromSnapshot(new SnapshotStore.Query()
+          .setType(SnapshotStore.TYPE_TAG)
+          .setRoot(root, !recursive)
+          .setLimit(limit), TagsApi.Tag.class);
+    } else {
+      tags = tagsApi.listTags(path, recursive, limit);
+      SnapshotStore.mirror(SnapshotStore.TYPE_TAG, tags, TagsApi.Tag::path);
+    }
     return Map.of(
         "count", tags.size(),
         "tags", tags.stream().map(t -> Map.of(
@@ -789,7 +836,16 @@ public class AemMcpServer {
     String path = args.path("path").asText("/home/users");
     int limit = args.path("limit").asInt(50);
 
-    List<UsersApi.User> users = usersApi.listUsers(path, limit);
+    List<UsersApi.User> users;
+    if (isOffline(args)) {
+      users = fromSnapshot(new SnapshotStore.Query()
+          .setType(SnapshotStore.TYPE_USER)
+          .setRoot(path, false)
+          .setLimit(limit), UsersApi.User.class);
+    } else {
+      users = usersApi.listUsers(path, limit);
+      SnapshotStore.mirror(SnapshotStore.TYPE_USER, users, UsersApi.User::path);
+    }
     return Map.of(
         "count", users.size(),
         "users", users.stream().map(u -> Map.of(
@@ -840,7 +896,15 @@ public class AemMcpServer {
 
   private Object handleGroupsList(JsonNode args) throws Exception {
     int limit = args.path("limit").asInt(50);
-    List<UsersApi.Group> groups = usersApi.listGroups(null, limit);
+    List<UsersApi.Group> groups;
+    if (isOffline(args)) {
+      groups = fromSnapshot(new SnapshotStore.Query()
+          .setType(SnapshotStore.TYPE_GROUP)
+          .setLimit(limit), UsersApi.Group.class);
+    } else {
+      groups = usersApi.listGroups(null, limit);
+      SnapshotStore.mirror(SnapshotStore.TYPE_GROUP, groups, UsersApi.Group::path);
+    }
 
     return Map.of(
         "count", groups.size(),
@@ -852,6 +916,48 @@ public class AemMcpServer {
     );
   }
 
+  // === Snapshot Handlers ===
+
+  private boolean isOffline(JsonNode args) {
+    return args.path("offline").asBoolean(CliFlags.offlineMode);
+  }
+
+  private <T> List<T> fromSnapshot(SnapshotStore.Query query, Class<T> type) throws Exception {
+    return SnapshotStore.getInstance().query(SnapshotStore.currentEnvironment(), query, type);
+  }
+
+  private Object handleSnapshotQuery(JsonNode args) throws Exception {
+    SnapshotStore.Query query = new SnapshotStore.Query().setLimit(args.path("limit").asInt(100));
+    if (args.hasNonNull("type")) {
+      query.setType(args.get("type").asText());
+    }
+    if (args.hasNonNull("path")) {
+      query.setRoot(args.get("path").asText(), false);
+    }
+    if (args.hasNonNull("tag")) {
+      query.setTag(args.get("tag").asText());
+    }
+    if (args.hasNonNull("model")) {
+      query.setModel(args.get("model").asText());
+    }
+    if (args.hasNonNull("modifiedAfter")) {
+      query.setModifiedAfter(Instant.parse(args.get("modifiedAfter").asText()).toEpochMilli());
+    }
+
+    List<SnapshotStore.Node> nodes = SnapshotStore.getInstance().query(SnapshotStore.currentEnvironment(), query);
+    return Map.of(
+        "count", nodes.size(),
+        "nodes", nodes.stream().map(n -> Map.of(
+            "path", n.path(),
+            "type", n.type(),
+            "model", nullSafe(n.model()),
+            "modified", n.modified() > 0 ? Instant.ofEpochMilli(n.modified()).toString() : "",
+            "tags", n.tags(),
+            "data", n.data()
+        )).toList()
+    );
+  }
+
   private Object handleGroupsMembers(JsonNode args) throws Exception {
     String groupId = args.path("groupId").asText();
     List<String> members = usersApi.getGroupMembers(groupId);
@@ -0,0 +1,223 @@
+package com.aemtools.aem.operations;
+
+import com.aemtools.aem.client.AemHttpException;
+import com.aemtools.aem.client.RequestListener;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that finds the highest sustainable number of in-flight requests by itself,
+ * using additive-increase / multiplicative-decrease on the signals AEM gives back.
+ * <p>
+ * Register its {@link #scopedListener()} with {@link com.aemtools.aem.client.AemApiClient#addRequestListener}
+ * and it reacts to the requests sent by the operations it governs:
+ * <ul>
+ *   <li>While responses stay fast and the limit is actually in use, the limit grows by about
+ *       one permit per round trip.</li>
+ *   <li>A {@code 429}/{@code 503}, a timeout, or a short-term latency average above
+ *       {@code latencyTolerance} times the long-term one cuts the limit by {@code backoffRatio},
+ *       at most once per round trip so one congestion event is not punished repeatedly.</li>
+ *   <li>A {@code Retry-After} pauses new acquisitions until the server's deadline.</li>
+ * </ul>
+ * Comparing two latency averages rather than an absolute threshold keeps the signal meaningful
+ * for mixed workloads, where a query may legitimately take ten times as long as a property read.
+ */
+public class AdaptiveConcurrencyLimit extends ConcurrencyLimit implements RequestListener {
+
+    private static final double DEFAULT_BACKOFF_RATIO = 0.7;
+    private static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+    private static final double SHORT_SMOOTHING = 0.2;
+    private static final double LONG_SMOOTHING = 0.01;
+    private static final long MIN_DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+    private double latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+
+    private double estimate;
+    private double smoothedNanos;
+    private double baselineNanos;
+    private long lastDecrease;
+    private volatile long pausedUntil;
+
+    private final LongAdder increases = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder pauses = new LongAdder();
+
+    private final ThreadLocal<int[]> heldPermits = ThreadLocal.withInitial(() -> new int[1]);
+    private final RequestListener scopedListener = new RequestListener() {
+        @Override
+        public void onResponse(String method, int statusCode, long latencyNanos, long retryAfterMs) {
+            if (holdsPermit()) {
+                AdaptiveConcurrencyLimit.this.onResponse(method, statusCode, latencyNanos, retryAfterMs);
+            }
+        }
+
+        @Override
+        public void onFailure(String method, IOException error, long latencyNanos) {
+            if (holdsPermit()) {
+                AdaptiveConcurrencyLimit.this.onFailure(method, error, latencyNanos);
+            }
+        }
+    };
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        super(Math.max(Math.max(1, minLimit), Math.min(initialLimit, maxLimit)));
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.estimate = getLimit();
+        this.lastDecrease = System.nanoTime() - MIN_DECREASE_INTERVAL_NANOS;
+        this.pausedUntil = System.nanoTime();
+    }
+
+    @Override
+    public void acquire() throws InterruptedException {
+        long wait;
+        while ((wait = pausedUntil - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        super.acquire();
+        heldPermits.get()[0]++;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        if (pausedUntil - System.nanoTime() <= 0 && super.tryAcquire()) {
+            heldPermits.get()[0]++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void release() {
+        int[] held = heldPermits.get();
+        if (held[0] > 0) {
+            held[0]--;
+        }
+        super.release();
+    }
+
+    /**
+     * Returns a listener that only passes on requests sent from a thread holding one of this
+     * limit's permits, i.e. from the operations the limit governs. Register it instead of the limit
+     * itself when the client is shared, so unrelated traffic such as a background revalidation or
+     * another job cannot move the limit. Callbacks of asynchronous requests run on I/O threads and
+     * are not seen; operations under the limit should use the blocking API.
+     */
+    public RequestListener scopedListener() {
+        return scopedListener;
+    }
+
+    private boolean holdsPermit() {
+        return heldPermits.get()[0] > 0;
+    }
+
+    @Override
+    public void onResponse(String method, int statusCode, long latencyNanos, long retryAfterMs) {
+        if (AemHttpException.isOverload(statusCode)) {
+            throttled.increment();
+            if (retryAfterMs > 0) {
+                pause(retryAfterMs);
+            }
+            decrease();
+            return;
+        }
+        if (statusCode >= 500) {
+            // Application errors say nothing about load.
+            return;
+        }
+        onLatency(latencyNanos);
+    }
+
+    @Override
+    public void onFailure(String method, IOException error, long latencyNanos) {
+        decrease();
+    }
+
+    private synchronized void onLatency(long latencyNanos) {
+        if (smoothedNanos == 0) {
+            smoothedNanos = latencyNanos;
+            baselineNanos = latencyNanos;
+        } else {
+            smoothedNanos = smoothedNanos * (1 - SHORT_SMOOTHING) + latencyNanos * SHORT_SMOOTHING;
+            baselineNanos = baselineNanos * (1 - LONG_SMOOTHING) + latencyNanos * LONG_SMOOTHING;
+            // Let the baseline recover quickly once the instance is faster again.
+            baselineNanos = Math.min(baselineNanos, Math.max(smoothedNanos, latencyNanos));
+        }
+
+        if (smoothedNanos > baselineNanos * latencyTolerance) {
+            decrease();
+        } else if (inFlight() * 2 >= getLimit() && estimate < maxLimit) {
+            // Only grow while the limit is the bottleneck; an idle limit proves nothing.
+            estimate = Math.min(maxLimit, estimate + 1.0 / estimate);
+            applyEstimate();
+        }
+    }
+
+    private synchronized void decrease() {
+        long now = System.nanoTime();
+        long interval = Math.max(MIN_DECREASE_INTERVAL_NANOS, (long) smoothedNanos);
+        if (now - lastDecrease < interval) {
+            return;
+        }
+        lastDecrease = now;
+        estimate = Math.max(minLimit, estimate * backoffRatio);
+        applyEstimate();
+    }
+
+    private void applyEstimate() {
+        int target = (int) estimate;
+        int current = getLimit();
+        if (target > current) {
+            increases.increment();
+            setLimit(target);
+        } else if (target < current) {
+            decreases.increment();
+            setLimit(target);
+        }
+    }
+
+    private void pause(long retryAfterMs) {
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfterMs);
+        synchronized (this) {
+            if (until - pausedUntil > 0) {
+                pausedUntil = until;
+                pauses.increment();
+            }
+        }
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = Math.min(0.95, Math.max(0.1, backoffRatio));
+    }
+
+    public void setLatencyTolerance(double latencyTolerance) {
+        this.latencyTolerance = Math.max(1.1, latencyTolerance);
+    }
+
+    public boolean isPaused() {
+        return pausedUntil - System.nanoTime() > 0;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("limit", getLimit());
+        stats.put("min_limit", minLimit);
+        stats.put("max_limit", maxLimit);
+        stats.put("in_flight", inFlight());
+        stats.put("smoothed_latency_ms", String.format("%.1f", smoothedNanos / 1e6));
+        stats.put("baseline_latency_ms", String.format("%.1f", baselineNanos / 1e6));
+        stats.put("increases", increases.sum());
+        stats.put("decreases", decreases.sum());
+        stats.put("throttled", throttled.sum());
+        stats.put("pauses", pauses.sum());
+        return stats;
+    }
+}
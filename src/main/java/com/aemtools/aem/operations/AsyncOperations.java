@@ -15,9 +15,10 @@ public class AsyncOperations {
     private static final Logger logger = LoggerFactory.getLogger(AsyncOperations.class);
     private static final int DEFAULT_POLL_INTERVAL_MS = 2000;
     private static final int DEFAULT_TIMEOUT_MS = 300000;
+    private static final int DEFAULT_MAX_CONCURRENT = 32;
 
     private final AemApiClient client;
-    private final ExecutorService executor;
+    private final OperationExecutor executor;
     private int pollIntervalMs = DEFAULT_POLL_INTERVAL_MS;
     private int timeoutMs = DEFAULT_TIMEOUT_MS;
 
@@ -32,8 +33,12 @@ public class AsyncOperations {
     }
 
     public AsyncOperations(AemApiClient client) {
+        this(client, DEFAULT_MAX_CONCURRENT, OperationExecutor.Mode.VIRTUAL);
+    }
+
+    public AsyncOperations(AemApiClient client, int maxConcurrent, OperationExecutor.Mode mode) {
         this.client = client;
-        this.executor = Executors.newCachedThreadPool();
+        this.executor = new OperationExecutor(mode, maxConcurrent);
     }
 
     public <T> void executeAsync(Callable<T> task, AsyncCallback<T> callback) {
@@ -98,13 +103,7 @@ public class AsyncOperations {
     }
 
     public <T> CompletableFuture<T> toCompletableFuture(Callable<T> task) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return task.call();
-            } catch (Exception e) {
-                throw new CompletionException(e);
-            }
-        }, executor);
+        return executor.supply(task);
     }
 
     public void executeWithTimeout(Runnable task, int timeoutSeconds) {
@@ -130,15 +129,19 @@ public class AsyncOperations {
         this.timeoutMs = timeoutMs;
     }
 
+    public void setMaxConcurrent(int maxConcurrent) {
+        executor.setMaxConcurrent(maxConcurrent);
+    }
+
+    public int getMaxConcurrent() {
+        return executor.getMaxConcurrent();
+    }
+
+    public Map<String, Object> getExecutorStats() {
+        return executor.getStats();
+    }
+
     public void shutdown() {
         executor.shutdown();
-        try {
-            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
     }
 }
@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.function.Consumer;
 
@@ -16,9 +17,9 @@ public class BulkOperations {
     private static final int DEFAULT_MAX_CONCURRENT = 5;
 
     private final AemApiClient client;
-    private final ExecutorService executor;
+    private final OperationExecutor executor;
+    private final AdaptiveConcurrencyLimit adaptiveLimit;
     private int batchSize = DEFAULT_BATCH_SIZE;
-    private int maxConcurrent = DEFAULT_MAX_CONCURRENT;
 
     public interface BulkOperation<T> {
         T execute() throws Exception;
@@ -30,15 +31,38 @@ public class BulkOperations {
     }
 
     public BulkOperations(AemApiClient client) {
-        this.client = client;
-        this.executor = Executors.newFixedThreadPool(maxConcurrent);
+        this(client, DEFAULT_MAX_CONCURRENT, DEFAULT_BATCH_SIZE);
     }
 
     public BulkOperations(AemApiClient client, int maxConcurrent, int batchSize) {
+        this(client, maxConcurrent, batchSize, OperationExecutor.Mode.VIRTUAL);
+    }
+
+    /**
+     * @param mode {@link OperationExecutor.Mode#VIRTUAL} runs each operation on its own virtual
+     *             thread behind a resizable limit; {@link OperationExecutor.Mode#PLATFORM} keeps
+     *             a fixed-size platform pool
+     */
+    public BulkOperations(AemApiClient client, int maxConcurrent, int batchSize, OperationExecutor.Mode mode) {
         this.client = client;
-        this.maxConcurrent = maxConcurrent;
         this.batchSize = batchSize;
-        this.executor = Executors.newFixedThreadPool(maxConcurrent);
+        this.executor = new OperationExecutor(mode, maxConcurrent);
+        this.adaptiveLimit = null;
+    }
+
+    /**
+     * Runs operations under a limit that adapts to how AEM responds. The limit's scoped listener
+     * is registered on the client, so it sees the latency and 429/503 responses of the calls these
+     * operations make, and nothing else the client sends.
+     */
+    public BulkOperations(AemApiClient client, AdaptiveConcurrencyLimit limit, int batchSize) {
+        this.client = client;
+        this.batchSize = batchSize;
+        this.executor = new OperationExecutor(OperationExecutor.Mode.VIRTUAL, limit);
+        this.adaptiveLimit = limit;
+        if (client != null) {
+            client.addRequestListener(limit.scopedListener());
+        }
     }
 
     public <T> List<BulkResult<T>> executeBulk(List<BulkOperation<T>> operations) {
@@ -84,7 +108,7 @@ public class BulkOperations {
     }
 
     public <T> void executeBulkAsync(List<BulkOperation<T>> operations, Consumer<List<BulkResult<T>>> callback) {
-        executor.submit(() -> {
+        executor.startCoordinator(() -> {
             try {
                 List<BulkResult<T>> results = executeBulk(operations);
                 callback.accept(results);
@@ -94,7 +118,18 @@ public class BulkOperations {
         });
     }
 
+    /**
+     * Executes operations in fixed batches with a short pause in between. With an adaptive limit
+     * the batches and the pause are skipped: all operations are queued at once and the limit
+     * alone decides how many run, backing off when AEM slows down or asks to retry later.
+     */
     public <T> List<BulkResult<T>> executeInBatches(List<BulkOperation<T>> operations) {
+        if (adaptiveLimit != null) {
+            logger.info("Executing {} operations with adaptive concurrency (limit {})",
+                operations.size(), adaptiveLimit.getLimit());
+            return executeBulk(operations);
+        }
+
         List<BulkResult<T>> allResults = new ArrayList<>();
         
         for (int i = 0; i < operations.size(); i += batchSize) {
@@ -129,20 +164,31 @@ public class BulkOperations {
         this.batchSize = batchSize;
     }
 
+    /**
+     * Changes how many operations may run at once. Takes effect immediately, including for
+     * operations already queued by a running {@link #executeBulk} call.
+     */
     public void setMaxConcurrent(int maxConcurrent) {
-        this.maxConcurrent = maxConcurrent;
+        executor.setMaxConcurrent(maxConcurrent);
+    }
+
+    public int getMaxConcurrent() {
+        return executor.getMaxConcurrent();
+    }
+
+    public Map<String, Object> getExecutorStats() {
+        Map<String, Object> stats = executor.getStats();
+        if (adaptiveLimit != null) {
+            stats.put("adaptive", adaptiveLimit.getStats());
+        }
+        return stats;
     }
 
     public void shutdown() {
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
+        if (adaptiveLimit != null && client != null) {
+            client.removeRequestListener(adaptiveLimit.scopedListener());
         }
+        executor.shutdown();
     }
 
     public static class BulkResult<T> {
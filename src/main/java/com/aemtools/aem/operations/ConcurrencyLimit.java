@@ -0,0 +1,71 @@
+package com.aemtools.aem.operations;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Semaphore-based cap on concurrently running operations that can be resized at runtime.
+ * <p>
+ * Raising the limit releases waiting callers immediately. Lowering it takes effect as
+ * running operations finish: in-flight work is never interrupted, new work simply waits
+ * until the number of holders drops below the new limit.
+ */
+public class ConcurrencyLimit {
+
+    private final ResizableSemaphore permits;
+    private int limit;
+
+    public ConcurrencyLimit(int limit) {
+        this.limit = Math.max(1, limit);
+        this.permits = new ResizableSemaphore(this.limit);
+    }
+
+    public void acquire() throws InterruptedException {
+        permits.acquire();
+    }
+
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public synchronized void setLimit(int newLimit) {
+        newLimit = Math.max(1, newLimit);
+        int delta = newLimit - limit;
+        if (delta > 0) {
+            permits.release(delta);
+        } else if (delta < 0) {
+            permits.reducePermits(-delta);
+        }
+        limit = newLimit;
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Number of operations currently holding a permit. May briefly exceed the limit
+     * right after it was lowered.
+     */
+    public synchronized int inFlight() {
+        return limit - permits.availablePermits();
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    private static final class ResizableSemaphore extends Semaphore {
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.aemtools.aem.operations;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs I/O-bound AEM operations with a bounded number in flight.
+ * <p>
+ * In {@link Mode#VIRTUAL} mode every task gets its own virtual thread and a
+ * {@link ConcurrencyLimit} caps how many run at once, so tens of thousands of small
+ * operations can be queued without sizing a thread pool. {@link Mode#PLATFORM} keeps a
+ * classic fixed pool, resized together with the limit.
+ */
+public class OperationExecutor {
+
+    public enum Mode {
+        VIRTUAL,
+        PLATFORM
+    }
+
+    private final Mode mode;
+    private final ExecutorService executor;
+    private final ConcurrencyLimit limit;
+
+    public OperationExecutor(int maxConcurrent) {
+        this(Mode.VIRTUAL, maxConcurrent);
+    }
+
+    public OperationExecutor(Mode mode, int maxConcurrent) {
+        this(mode, new ConcurrencyLimit(maxConcurrent));
+    }
+
+    /**
+     * Uses a caller-supplied limit, e.g. an {@link AdaptiveConcurrencyLimit} that resizes itself.
+     * A platform pool is sized once from the initial limit, so adaptive limits belong with
+     * {@link Mode#VIRTUAL}.
+     */
+    public OperationExecutor(Mode mode, ConcurrencyLimit limit) {
+        this.mode = mode;
+        this.limit = limit;
+        if (mode == Mode.VIRTUAL) {
+            this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        } else {
+            int threads = limit.getLimit();
+            this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        }
+    }
+
+    /**
+     * Submits a task that runs once a concurrency permit is available.
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(() -> callLimited(task));
+    }
+
+    public Future<?> submit(Runnable task) {
+        return executor.submit(() -> callLimited(() -> {
+            task.run();
+            return null;
+        }));
+    }
+
+    public <T> CompletableFuture<T> supply(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return callLimited(task);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Starts a coordinating task outside the concurrency limit. Coordinators that submit
+     * and wait for other tasks must not hold a permit themselves, or a small limit deadlocks.
+     */
+    public void startCoordinator(Runnable task) {
+        Thread.ofVirtual().name("aem-bulk-coordinator").start(task);
+    }
+
+    private <T> T callLimited(Callable<T> task) throws Exception {
+        limit.acquire();
+        try {
+            return task.call();
+        } finally {
+            limit.release();
+        }
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        limit.setLimit(maxConcurrent);
+        if (executor instanceof ThreadPoolExecutor pool) {
+            int threads = limit.getLimit();
+            if (threads > pool.getMaximumPoolSize()) {
+                pool.setMaximumPoolSize(threads);
+                pool.setCorePoolSize(threads);
+            } else {
+                pool.setCorePoolSize(threads);
+                pool.setMaximumPoolSize(threads);
+            }
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return limit.getLimit();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", mode.name().toLowerCase());
+        stats.put("max_concurrent", limit.getLimit());
+        stats.put("in_flight", limit.inFlight());
+        stats.put("waiting", limit.waiting());
+        return stats;
+    }
+
+    /**
+     * Stops without waiting, interrupting running tasks; for callers abandoning their work.
+     */
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
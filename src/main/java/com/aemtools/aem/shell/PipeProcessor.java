@@ -1,5 +1,8 @@
 package com.aemtools.aem.shell;
 
+import com.aemtools.aem.snapshot.SnapshotStore;
+import com.fasterxml.jackson.databind.JsonNode;
+
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -109,6 +112,10 @@ public class PipeProcessor {
             return 0;
         }
 
+        if (cmd.equals("snapshot")) {
+            return handleSnapshotCommand(args, context);
+        }
+
         return executor.execute(cmd, args, context);
     }
 
@@ -244,6 +251,98 @@ public class PipeProcessor {
         }
     }
 
+    /**
+     * Loads nodes from the local snapshot into the pipe, so they can be filtered and exported
+     * without touching AEM.
+     */
+    private int handleSnapshotCommand(String[] args, PipeContext context) {
+        if (args.length > 0 && (args[0].equals("help") || args[0].equals("--help"))) {
+            System.out.println("Snapshot commands (answered from the local store, no AEM requests):");
+            System.out.println("  snapshot stats                          Stored nodes per type");
+            System.out.println("  snapshot [type] [options]               Load nodes into the pipe");
+            System.out.println("    type: asset, tag, user, group");
+            System.out.println("    --path <path>  --children  --tag <tagId>  --model <path>");
+            System.out.println("    --modified-after <date>  --modified-before <date>  --limit <n>");
+            return 0;
+        }
+
+        try {
+            SnapshotStore store = SnapshotStore.getInstance();
+            String env = SnapshotStore.currentEnvironment();
+
+            if (args.length > 0 && args[0].equals("stats")) {
+                Map<String, Long> counts = store.countByType(env);
+                context.previousResults = new ArrayList<>();
+                counts.forEach((type, count) -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("type", type);
+                    row.put("count", count);
+                    context.previousResults.add(row);
+                });
+                printAsTable(context.previousResults);
+                return 0;
+            }
+
+            SnapshotStore.Query query = new SnapshotStore.Query().setLimit(1000);
+            String root = null;
+            boolean children = false;
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                boolean hasValue = i + 1 < args.length;
+                if (arg.equals("--path") && hasValue) {
+                    root = args[++i];
+                } else if (arg.equals("--children")) {
+                    children = true;
+                } else if (arg.equals("--tag") && hasValue) {
+                    query.setTag(args[++i]);
+                } else if (arg.equals("--model") && hasValue) {
+                    query.setModel(args[++i]);
+                } else if (arg.equals("--modified-after") && hasValue) {
+                    query.setModifiedAfter(parseDateToTimestamp(args[++i]));
+                } else if (arg.equals("--modified-before") && hasValue) {
+                    query.setModifiedBefore(parseDateToTimestamp(args[++i]));
+                } else if (arg.equals("--limit") && hasValue) {
+                    query.setLimit(Integer.parseInt(args[++i]));
+                } else if (!arg.startsWith("--")) {
+                    query.setType(arg);
+                }
+            }
+            if (root != null) {
+                query.setRoot(root, children);
+            }
+
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (SnapshotStore.Node node : store.query(env, query)) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("path", node.path());
+                row.put("type", node.type());
+                Iterator<Map.Entry<String, JsonNode>> fields = node.data().fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if (field.getValue().isValueNode() && !row.containsKey(field.getKey())) {
+                        row.put(field.getKey(), field.getValue().asText());
+                    }
+                }
+                if (node.model() != null) {
+                    row.put("model", node.model());
+                }
+                if (node.modified() > 0) {
+                    row.put("modified", java.time.Instant.ofEpochMilli(node.modified()).toString());
+                }
+                if (!node.tags().isEmpty()) {
+                    row.put("tags", String.join(",", node.tags()));
+                }
+                results.add(row);
+            }
+            context.previousResults = results;
+            System.out.println("Loaded " + results.size() + " items from snapshot");
+            return 0;
+        } catch (Exception e) {
+            System.out.println("Error reading snapshot: " + e.getMessage());
+            return 1;
+        }
+    }
+
     private void printAsTable(List<Map<String, Object>> data) {
         if (data.isEmpty()) {
             System.out.println("No data to display");
@@ -400,6 +499,9 @@ public class PipeProcessor {
         System.out.println("  pipe list                        Show current piped data");
         System.out.println("  pipe clear                       Clear piped data");
         System.out.println("  pipe count                       Count items");
+        System.out.println("\nOffline:");
+        System.out.println("  snapshot [type] [options]        Load stored nodes without AEM requests");
+        System.out.println("  snapshot help                    Snapshot query options");
         System.out.println();
     }
 
@@ -0,0 +1,537 @@
+package com.aemtools.aem.snapshot;
+
+import com.aemtools.aem.config.AppPaths;
+import com.aemtools.aem.config.ConfigManager;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * On-disk mirror of content fetched from AEM, so read-only commands can answer from it with
+ * {@code --offline} instead of querying author.
+ * <p>
+ * Nodes are stored in SQLite keyed by environment and JCR path, with the fetched object as a
+ * JSON column and secondary indexes on type, tag, model and last-modified date. Live listings
+ * write through with {@link #mirror}; {@link com.aemtools.aem.api.DamSnapshot} keeps asset
+ * subtrees complete. Path scoping uses range scans on the primary key rather than
+ * {@code LIKE}, so "everything under a folder" stays an index lookup.
+ */
+public class SnapshotStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotStore.class);
+
+    public static final String TYPE_ASSET = "asset";
+    public static final String TYPE_TAG = "tag";
+    public static final String TYPE_USER = "user";
+    public static final String TYPE_GROUP = "group";
+
+    private static SnapshotStore instance;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final Path file;
+    private final Connection connection;
+
+    public SnapshotStore(Path file) throws IOException {
+        this.file = file;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            connection = DriverManager.getConnection("jdbc:sqlite:" + file);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode=WAL");
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS nodes (
+                        env TEXT NOT NULL,
+                        path TEXT NOT NULL,
+                        type TEXT NOT NULL,
+                        model TEXT,
+                        modified INTEGER,
+                        fetched INTEGER NOT NULL,
+                        data TEXT NOT NULL,
+                        PRIMARY KEY (env, path)
+                    )
+                """);
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS node_tags (
+                        env TEXT NOT NULL,
+                        path TEXT NOT NULL,
+                        tag TEXT NOT NULL,
+                        PRIMARY KEY (env, path, tag)
+                    )
+                """);
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS sync_state (
+                        env TEXT NOT NULL,
+                        scope TEXT NOT NULL,
+                        watermark INTEGER NOT NULL,
+                        last_verified INTEGER NOT NULL,
+                        PRIMARY KEY (env, scope)
+                    )
+                """);
+
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_nodes_type ON nodes(env, type, path)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_nodes_modified ON nodes(env, type, modified)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_nodes_model ON nodes(env, model) WHERE model IS NOT NULL");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_node_tags_tag ON node_tags(env, tag, path)");
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to open snapshot store " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The shared store under {@link AppPaths#getDataDir()}.
+     */
+    public static synchronized SnapshotStore getInstance() throws IOException {
+        if (instance == null) {
+            instance = new SnapshotStore(AppPaths.getDataDir().resolve("snapshot.db"));
+        }
+        return instance;
+    }
+
+    /**
+     * Key for the active environment; snapshots of different instances never mix.
+     */
+    public static String currentEnvironment() {
+        String url = ConfigManager.getInstance().getActiveEnvironmentUrl();
+        if (url == null || url.isEmpty()) {
+            return ConfigManager.getInstance().getActiveEnvironment();
+        }
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Writes objects fetched by a live command into the shared store for the active environment.
+     * Stored model, date and tags are kept, since listings carry less than a sync. Mirroring is
+     * best effort and never fails the command that fetched them.
+     */
+    public static <T> void mirror(String type, Collection<T> items, Function<T, String> pathOf) {
+        if (items.isEmpty()) {
+            return;
+        }
+        try {
+            SnapshotStore store = getInstance();
+            store.write(currentEnvironment(), writer -> {
+                for (T item : items) {
+                    String path = pathOf.apply(item);
+                    if (path != null && !path.isEmpty()) {
+                        writer.merge(store.node(type, path, item));
+                    }
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not mirror {} {} nodes to snapshot: {}", items.size(), type, e.getMessage());
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Builds a node from any object Jackson can serialize.
+     */
+    public Node node(String type, String path, Object value, String model, long modified, List<String> tags) {
+        return new Node(path, type, model, modified, tags != null ? tags : List.of(), mapper.valueToTree(value));
+    }
+
+    public Node node(String type, String path, Object value) {
+        return node(type, path, value, null, 0, List.of());
+    }
+
+    /**
+     * Converts a node's JSON back into the object it was built from.
+     */
+    public <T> T read(Node node, Class<T> type) throws IOException {
+        return mapper.treeToValue(node.data(), type);
+    }
+
+    /**
+     * Runs a group of writes in one transaction.
+     */
+    public synchronized void write(String env, WriteBody body) throws IOException {
+        try {
+            connection.setAutoCommit(false);
+            try {
+                body.apply(new Writer(env));
+                connection.commit();
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Snapshot write failed: " + e.getMessage(), e);
+        }
+    }
+
+    public synchronized Optional<Node> get(String env, String path) throws IOException {
+        List<Node> nodes = query(env, new Query().setPath(path).setLimit(1));
+        return nodes.isEmpty() ? Optional.empty() : Optional.of(nodes.get(0));
+    }
+
+    /**
+     * Returns matching nodes ordered by path.
+     */
+    public synchronized List<Node> query(String env, Query query) throws IOException {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT n.path, n.type, n.model, n.modified, n.data,"
+            + " (SELECT group_concat(t.tag, char(31)) FROM node_tags t WHERE t.env = n.env AND t.path = n.path)"
+            + " FROM nodes n"
+            + query.where(env, params) + " ORDER BY n.path" + (query.limit > 0 ? " LIMIT " + query.limit : "");
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            bind(pstmt, params);
+            List<Node> nodes = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String tags = rs.getString(6);
+                    nodes.add(new Node(rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4),
+                        tags == null ? List.of() : List.of(tags.split("\u001f")), mapper.readTree(rs.getString(5))));
+                }
+            }
+            return nodes;
+        } catch (SQLException e) {
+            throw new IOException("Snapshot query failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns matching nodes ordered by path, converted back into the objects they were built from.
+     */
+    public <T> List<T> query(String env, Query query, Class<T> type) throws IOException {
+        List<T> results = new ArrayList<>();
+        for (Node node : query(env, query)) {
+            results.add(read(node, type));
+        }
+        return results;
+    }
+
+    public synchronized long count(String env, Query query) throws IOException {
+        List<Object> params = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT COUNT(*) FROM nodes n" + query.where(env, params))) {
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Snapshot count failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Number of stored nodes per type for an environment.
+     */
+    public synchronized Map<String, Long> countByType(String env) throws IOException {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT type, COUNT(*) FROM nodes WHERE env = ? GROUP BY type ORDER BY type")) {
+            pstmt.setString(1, env);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getString(1), rs.getLong(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Snapshot count failed: " + e.getMessage(), e);
+        }
+        return counts;
+    }
+
+    public synchronized SyncState getSyncState(String env, String scope) throws IOException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT watermark, last_verified FROM sync_state WHERE env = ? AND scope = ?")) {
+            pstmt.setString(1, env);
+            pstmt.setString(2, scope);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? new SyncState(rs.getLong(1), rs.getLong(2)) : new SyncState(0, 0);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Snapshot read failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static void bind(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to close snapshot store: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes inside a {@link #write} transaction.
+     */
+    @FunctionalInterface
+    public interface WriteBody {
+        void apply(Writer writer) throws IOException, SQLException;
+    }
+
+    /**
+     * Write operations for one environment, valid only inside {@link #write}.
+     */
+    public class Writer {
+        private final String env;
+
+        private Writer(String env) {
+            this.env = env;
+        }
+
+        /**
+         * Inserts or replaces a node and its tags.
+         */
+        public void put(Node node) throws SQLException {
+            try (PreparedStatement pstmt = connection.prepareStatement("""
+                    INSERT OR REPLACE INTO nodes (env, path, type, model, modified, fetched, data)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                """)) {
+                pstmt.setString(1, env);
+                pstmt.setString(2, node.path());
+                pstmt.setString(3, node.type());
+                pstmt.setString(4, node.model());
+                pstmt.setLong(5, node.modified());
+                pstmt.setLong(6, System.currentTimeMillis());
+                pstmt.setString(7, node.data().toString());
+                pstmt.executeUpdate();
+            }
+            deleteTags(node.path());
+            insertTags(node);
+        }
+
+        private void insertTags(Node node) throws SQLException {
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "INSERT OR IGNORE INTO node_tags (env, path, tag) VALUES (?, ?, ?)")) {
+                for (String tag : node.tags()) {
+                    pstmt.setString(1, env);
+                    pstmt.setString(2, node.path());
+                    pstmt.setString(3, tag);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+
+        /**
+         * Inserts a node or refreshes its data and type, keeping a stored model, date and tags
+         * the new node lacks.
+         */
+        public void merge(Node node) throws SQLException {
+            try (PreparedStatement pstmt = connection.prepareStatement("""
+                    INSERT INTO nodes (env, path, type, model, modified, fetched, data)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (env, path) DO UPDATE SET
+                        type = excluded.type,
+                        model = coalesce(excluded.model, nodes.model),
+                        modified = max(excluded.modified, nodes.modified),
+                        fetched = excluded.fetched,
+                        data = excluded.data
+                """)) {
+                pstmt.setString(1, env);
+                pstmt.setString(2, node.path());
+                pstmt.setString(3, node.type());
+                pstmt.setString(4, node.model());
+                pstmt.setLong(5, node.modified());
+                pstmt.setLong(6, System.currentTimeMillis());
+                pstmt.setString(7, node.data().toString());
+                pstmt.executeUpdate();
+            }
+            if (!node.tags().isEmpty()) {
+                deleteTags(node.path());
+                insertTags(node);
+            }
+        }
+
+        public void delete(String path) throws SQLException {
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "DELETE FROM nodes WHERE env = ? AND path = ?")) {
+                pstmt.setString(1, env);
+                pstmt.setString(2, path);
+                pstmt.executeUpdate();
+            }
+            deleteTags(path);
+        }
+
+        /**
+         * Removes every node of a type at or below a path.
+         */
+        public void deleteUnder(String type, String root) throws SQLException {
+            String match = "env = ? AND type = ? AND (path = ? OR (path >= ? AND path < ?))";
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "DELETE FROM node_tags WHERE env = ? AND path IN (SELECT path FROM nodes WHERE " + match + ")")) {
+                bind(pstmt, List.<Object>of(env, env, type, root, root + "/", root + "0"));
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = connection.prepareStatement("DELETE FROM nodes WHERE " + match)) {
+                bind(pstmt, List.<Object>of(env, type, root, root + "/", root + "0"));
+                pstmt.executeUpdate();
+            }
+        }
+
+        public void setSyncState(String scope, SyncState state) throws SQLException {
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "INSERT OR REPLACE INTO sync_state (env, scope, watermark, last_verified) VALUES (?, ?, ?, ?)")) {
+                pstmt.setString(1, env);
+                pstmt.setString(2, scope);
+                pstmt.setLong(3, state.watermark());
+                pstmt.setLong(4, state.lastVerified());
+                pstmt.executeUpdate();
+            }
+        }
+
+        private void deleteTags(String path) throws SQLException {
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "DELETE FROM node_tags WHERE env = ? AND path = ?")) {
+                pstmt.setString(1, env);
+                pstmt.setString(2, path);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Filter for {@link #query}; unset criteria match everything.
+     */
+    public static class Query {
+        private String type;
+        private String path;
+        private String root;
+        private boolean childrenOnly;
+        private String tag;
+        private String model;
+        private long modifiedAfter = -1;
+        private long modifiedBefore = -1;
+        private int limit;
+
+        public Query setType(String type) {
+            this.type = type;
+            return this;
+        }
+
+        /**
+         * Matches one exact path.
+         */
+        public Query setPath(String path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Matches nodes below a path; with {@code childrenOnly}, only its direct children.
+         */
+        public Query setRoot(String root, boolean childrenOnly) {
+            this.root = root.endsWith("/") && root.length() > 1 ? root.substring(0, root.length() - 1) : root;
+            this.childrenOnly = childrenOnly;
+            return this;
+        }
+
+        public Query setTag(String tag) {
+            this.tag = tag;
+            return this;
+        }
+
+        public Query setModel(String model) {
+            this.model = model;
+            return this;
+        }
+
+        /**
+         * Matches nodes modified after this time, in epoch milliseconds.
+         */
+        public Query setModifiedAfter(long modifiedAfter) {
+            this.modifiedAfter = modifiedAfter;
+            return this;
+        }
+
+        public Query setModifiedBefore(long modifiedBefore) {
+            this.modifiedBefore = modifiedBefore;
+            return this;
+        }
+
+        public Query setLimit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        String where(String env, List<Object> params) {
+            StringBuilder sql = new StringBuilder(" WHERE n.env = ?");
+            params.add(env);
+            if (type != null) {
+                sql.append(" AND n.type = ?");
+                params.add(type);
+            }
+            if (path != null) {
+                sql.append(" AND n.path = ?");
+                params.add(path);
+            }
+            if (root != null) {
+                String prefix = root.equals("/") ? "/" : root + "/";
+                sql.append(" AND n.path >= ? AND n.path < ?");
+                params.add(prefix);
+                params.add(prefix.substring(0, prefix.length() - 1) + "0");
+                if (childrenOnly) {
+                    sql.append(" AND instr(substr(n.path, ?), '/') = 0");
+                    params.add(prefix.length() + 1);
+                }
+            }
+            if (tag != null) {
+                sql.append(" AND n.path IN (SELECT t.path FROM node_tags t WHERE t.env = ? AND t.tag = ?)");
+                params.add(env);
+                params.add(tag);
+            }
+            if (model != null) {
+                sql.append(" AND n.model = ?");
+                params.add(model);
+            }
+            if (modifiedAfter >= 0) {
+                sql.append(" AND n.modified > ?");
+                params.add(modifiedAfter);
+            }
+            if (modifiedBefore >= 0) {
+                sql.append(" AND n.modified < ?");
+                params.add(modifiedBefore);
+            }
+            return sql.toString();
+        }
+    }
+
+    /**
+     * A stored node: its JCR path, kind, optional model (content fragment model or template),
+     * last-modified time in epoch milliseconds (0 if unknown), tags and fetched JSON.
+     */
+    public record Node(String path, String type, String model, long modified, List<String> tags, JsonNode data) {
+    }
+
+    /**
+     * Watermark and last path reconciliation of an incremental sync, in epoch milliseconds.
+     */
+    public record SyncState(long watermark, long lastVerified) {
+    }
+}
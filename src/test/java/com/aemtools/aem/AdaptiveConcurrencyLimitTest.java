@@ -0,0 +1,114 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.client.AemHttpException;
+import com.aemtools.aem.client.RequestListener;
+import com.aemtools.aem.operations.AdaptiveConcurrencyLimit;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void testGrowsWhileBusyAndFast() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 64);
+        for (int i = 0; i < 4; i++) {
+            limit.acquire();
+        }
+        for (int i = 0; i < 200; i++) {
+            limit.onResponse("GET", 200, FAST, -1);
+        }
+        assertTrue(limit.getLimit() > 4, "limit " + limit.getLimit());
+        assertTrue(limit.getLimit() <= 64);
+    }
+
+    @Test
+    void testDoesNotGrowWhenIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 64);
+        for (int i = 0; i < 200; i++) {
+            limit.onResponse("GET", 200, FAST, -1);
+        }
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void testBacksOffOnThrottling() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 64);
+        limit.onResponse("POST", 429, FAST, -1);
+        assertEquals(14, limit.getLimit());
+        // A second signal within the same round trip is treated as the same event.
+        limit.onResponse("POST", 503, FAST, -1);
+        assertEquals(14, limit.getLimit());
+    }
+
+    @Test
+    void testNeverDropsBelowMinimum() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 2, 64);
+        for (int i = 0; i < 5; i++) {
+            limit.onResponse("GET", 503, 0, -1);
+            Thread.sleep(110);
+        }
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void testRetryAfterPausesAcquisition() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 64);
+        limit.onResponse("GET", 429, FAST, 5_000);
+        assertTrue(limit.isPaused());
+        assertFalse(limit.tryAcquire());
+    }
+
+    @Test
+    void testServerErrorsAreIgnored() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 64);
+        limit.onResponse("GET", 500, FAST, -1);
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    void testScopedListenerIgnoresRequestsOutsideTheLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 64);
+        RequestListener scoped = limit.scopedListener();
+
+        scoped.onResponse("GET", 429, FAST, 5_000);
+        assertEquals(20, limit.getLimit());
+        assertFalse(limit.isPaused());
+
+        limit.acquire();
+        scoped.onResponse("GET", 429, FAST, -1);
+        assertEquals(14, limit.getLimit());
+
+        Thread other = new Thread(() -> scoped.onFailure("GET", new IOException("timeout"), FAST));
+        Thread.sleep(110);
+        other.start();
+        other.join();
+        assertEquals(14, limit.getLimit(), "another thread's request is not this limit's signal");
+
+        limit.release();
+        Thread.sleep(110);
+        scoped.onFailure("GET", new IOException("timeout"), FAST);
+        assertEquals(14, limit.getLimit());
+    }
+
+    @Test
+    void testParseRetryAfter() {
+        assertEquals(120_000, AemHttpException.parseRetryAfter("120"));
+        assertEquals(-1, AemHttpException.parseRetryAfter(null));
+        assertEquals(-1, AemHttpException.parseRetryAfter("soon"));
+        assertEquals(0, AemHttpException.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+
+    @Test
+    void testHttpExceptionKeepsMessageFormat() {
+        AemHttpException e = new AemHttpException(503, "busy", 1000);
+        assertEquals("HTTP 503: busy", e.getMessage());
+        assertTrue(e.isOverload());
+        assertEquals(1000, e.getRetryAfterMs());
+    }
+}
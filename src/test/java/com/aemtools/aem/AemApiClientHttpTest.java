@@ -0,0 +1,444 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.api.AssetsApi;
+import com.aemtools.aem.api.PackagesApi;
+import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.client.AemHttpException;
+import com.aemtools.aem.client.RetryPolicy;
+import com.aemtools.aem.config.ConfigManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises {@link AemApiClient} against a local HTTP server standing in for AEM.
+ */
+@DisplayName("AemApiClient HTTP Tests")
+class AemApiClientHttpTest {
+
+    private static final String ENVIRONMENT = "http-test";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final List<Recorded> requests = new CopyOnWriteArrayList<>();
+    private final Map<String, Responder> routes = new ConcurrentHashMap<>();
+    private String previousEnvironment;
+    private AemApiClient client;
+
+    /** A request as the server received it. */
+    record Recorded(String method, String path, Map<String, List<String>> headers, byte[] body) {
+        String header(String name) {
+            for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(name)) {
+                    return entry.getValue().get(0);
+                }
+            }
+            return null;
+        }
+
+        String text() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    @FunctionalInterface
+    interface Responder {
+        void respond(HttpExchange exchange) throws IOException;
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+            requests.add(new Recorded(exchange.getRequestMethod(), path, Map.copyOf(exchange.getRequestHeaders()), body));
+            Responder responder = routes.get(exchange.getRequestMethod() + " " + path);
+            try {
+                if (responder != null) {
+                    responder.respond(exchange);
+                } else {
+                    respond(exchange, 404, "");
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.start();
+
+        ConfigManager config = ConfigManager.getInstance();
+        previousEnvironment = config.getActiveEnvironment();
+        config.setEnvironmentUrl(ENVIRONMENT, "http://127.0.0.1:" + server.getAddress().getPort());
+        config.setActiveEnvironment(ENVIRONMENT);
+
+        client = new AemApiClient();
+        client.setRetryPolicy(RetryPolicy.none());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        server.stop(0);
+        serverThreads.shutdownNow();
+        ConfigManager.getInstance().setActiveEnvironment(previousEnvironment);
+    }
+
+    static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private void route(String methodAndPath, int status, String json) {
+        routes.put(methodAndPath, exchange -> respond(exchange, status, json));
+    }
+
+    private List<Recorded> requestsTo(String path) {
+        return requests.stream().filter(r -> r.path().equals(path)).toList();
+    }
+
+    private void routeBytes(String methodAndPath, byte[] data) {
+        routes.put(methodAndPath, exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/zip");
+            exchange.sendResponseHeaders(200, data.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(data);
+            }
+        });
+    }
+
+    /** Answers with the given status once the latch is released, so requests pile up meanwhile. */
+    private void routeBlocked(String methodAndPath, CountDownLatch release, int status, String json) {
+        routes.put(methodAndPath, exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, status, json);
+        });
+    }
+
+    private long cacheStat(String name) {
+        return ((Number) client.getCacheStats().get(name)).longValue();
+    }
+
+    private void awaitCacheStat(String name, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (cacheStat(name) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, cacheStat(name));
+    }
+
+    private List<Future<JsonNode>> getConcurrently(String path, int callers, ExecutorService executor) {
+        List<Future<JsonNode>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> client.get(path)));
+        }
+        return results;
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    @DisplayName("Byte array uploads declare their length")
+    void testUploadByteArray() throws Exception {
+        route("POST /content/dam/a.bin", 200, "{}");
+        byte[] data = randomBytes(1000);
+
+        client.upload("/content/dam/a.bin", data, "application/octet-stream");
+
+        Recorded request = requestsTo("/content/dam/a.bin").get(0);
+        assertArrayEquals(data, request.body());
+        assertEquals("1000", request.header("Content-Length"));
+        assertTrue(request.header("Content-Type").startsWith("application/octet-stream"));
+    }
+
+    @Test
+    @DisplayName("File uploads stream the whole file with its length")
+    void testUploadPath() throws Exception {
+        route("POST /content/dam/big.bin", 201, "{}");
+        byte[] data = randomBytes(300_000);
+        Path file = Files.write(tempDir.resolve("big.bin"), data);
+
+        client.upload("/content/dam/big.bin", file, "application/octet-stream");
+
+        Recorded request = requestsTo("/content/dam/big.bin").get(0);
+        assertArrayEquals(data, request.body());
+        assertEquals("300000", request.header("Content-Length"));
+    }
+
+    @Test
+    @DisplayName("Stream uploads of unknown length are chunked")
+    void testUploadInputStream() throws Exception {
+        route("POST /content/dam/s.bin", 200, "{}");
+        byte[] data = randomBytes(70_000);
+
+        client.upload("/content/dam/s.bin", new ByteArrayInputStream(data), -1, "application/octet-stream");
+
+        Recorded request = requestsTo("/content/dam/s.bin").get(0);
+        assertArrayEquals(data, request.body());
+        assertNull(request.header("Content-Length"));
+        assertEquals("chunked", request.header("Transfer-Encoding"));
+    }
+
+    @Test
+    @DisplayName("Multipart posts carry the form fields and the file part")
+    void testPostMultipart() throws Exception {
+        route("POST /crx/packmgr/service/.json/", 200, "{\"success\":true}");
+        Path file = Files.writeString(tempDir.resolve("pkg.zip"), "zip-content");
+
+        client.postMultipart("/crx/packmgr/service/.json/?cmd=upload", Map.of("force", "false"),
+            "package", file, "application/zip");
+
+        Recorded request = requestsTo("/crx/packmgr/service/.json/").get(0);
+        assertTrue(request.header("Content-Type").startsWith("multipart/form-data"));
+        String body = request.text();
+        assertTrue(body.contains("name=\"force\""));
+        assertTrue(body.contains("name=\"package\"; filename=\"pkg.zip\""));
+        assertTrue(body.contains("zip-content"));
+    }
+
+    @Test
+    @DisplayName("Direct binary upload sends the parts and completes the upload")
+    void testDirectUpload() throws Exception {
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        route("POST /content/dam/folder.initiateUpload.json", 200, """
+            {"completeURI": "/content/dam/folder.completeUpload.json",
+             "files": [{"fileName": "file.bin", "uploadToken": "t1",
+                        "uploadURIs": ["%1$s/blob/1", "%1$s/blob/2"]}]}
+            """.formatted(base));
+        route("PUT /blob/1", 201, "");
+        route("PUT /blob/2", 201, "");
+        route("POST /content/dam/folder.completeUpload.json", 200, "{}");
+        byte[] data = randomBytes(100_001);
+        Path file = Files.write(tempDir.resolve("file.bin"), data);
+
+        AssetsApi.Asset asset = new AssetsApi(client).uploadFile("/content/dam/folder", file);
+
+        assertEquals("/content/dam/folder/file.bin", asset.getPath());
+        byte[] first = requestsTo("/blob/1").get(0).body();
+        byte[] second = requestsTo("/blob/2").get(0).body();
+        assertEquals(50_001, first.length);
+        byte[] joined = new byte[first.length + second.length];
+        System.arraycopy(first, 0, joined, 0, first.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        assertArrayEquals(data, joined);
+        assertTrue(requestsTo("/content/dam/folder.completeUpload.json").get(0).text().contains("uploadToken=t1"));
+    }
+
+    @Test
+    @DisplayName("Falls back to the Assets API when direct upload is not available")
+    void testDirectUploadFallsBackOnNotFound() throws Exception {
+        route("POST /content/dam/folder.initiateUpload.json", 404, "");
+        route("POST /api/assets/folder/file.txt", 201, "{\"properties\":{\"name\":\"file.txt\"}}");
+        Path file = Files.writeString(tempDir.resolve("file.txt"), "hello");
+        AssetsApi assets = new AssetsApi(client);
+
+        assets.uploadFile("/content/dam/folder", file);
+        assets.uploadFile("/content/dam/folder", file);
+
+        assertEquals(2, requestsTo("/api/assets/folder/file.txt").size());
+        assertEquals("hello", requestsTo("/api/assets/folder/file.txt").get(0).text());
+        // Unsupported is remembered, so the second upload goes straight to the fallback
+        assertEquals(1, requestsTo("/content/dam/folder.initiateUpload.json").size());
+    }
+
+    @Test
+    @DisplayName("Falls back when the initiate response offers no upload URIs")
+    void testDirectUploadFallsBackWithoutUploadUris() throws Exception {
+        route("POST /content/dam/folder.initiateUpload.json", 200, "{}");
+        route("POST /api/assets/folder/file.txt", 201, "{\"properties\":{\"name\":\"file.txt\"}}");
+        Path file = Files.writeString(tempDir.resolve("file.txt"), "hello");
+
+        new AssetsApi(client).uploadFile("/content/dam/folder", file);
+
+        assertEquals(1, requestsTo("/api/assets/folder/file.txt").size());
+    }
+
+    @Test
+    @DisplayName("Other initiate failures are reported, not treated as unsupported")
+    void testDirectUploadDoesNotFallBackOnServerError() throws Exception {
+        route("POST /content/dam/folder.initiateUpload.json", 500, "{\"error\":\"boom\"}");
+        route("POST /api/assets/folder/file.txt", 201, "{\"properties\":{\"name\":\"file.txt\"}}");
+        Path file = Files.writeString(tempDir.resolve("file.txt"), "hello");
+        AssetsApi assets = new AssetsApi(client);
+
+        AemHttpException e = assertThrows(AemHttpException.class, () -> assets.uploadFile("/content/dam/folder", file));
+        assertEquals(500, e.getStatusCode());
+        assertTrue(requestsTo("/api/assets/folder/file.txt").isEmpty());
+
+        // Direct upload is still tried next time
+        assertThrows(AemHttpException.class, () -> assets.uploadFile("/content/dam/folder", file));
+        assertEquals(2, requestsTo("/content/dam/folder.initiateUpload.json").size());
+    }
+
+    @Test
+    @DisplayName("Package downloads land at the destination once verified")
+    void testDownloadVerifiesChecksum() throws Exception {
+        byte[] data = randomBytes(200_000);
+        routeBytes("GET /crx/packmgr/my_packages/site.zip", data);
+        Path dest = tempDir.resolve("site.zip");
+
+        AemApiClient.TransferResult result = new PackagesApi(client)
+            .download("my_packages", "site", dest, sha256(data).toUpperCase(), null);
+
+        assertEquals(data.length, result.bytes());
+        assertEquals(sha256(data), result.sha256());
+        assertArrayEquals(data, Files.readAllBytes(dest));
+        assertFalse(Files.exists(tempDir.resolve("site.zip.part")));
+    }
+
+    @Test
+    @DisplayName("A checksum mismatch removes the partial file and keeps the old destination")
+    void testDownloadChecksumMismatch() throws Exception {
+        routeBytes("GET /crx/packmgr/my_packages/site.zip", randomBytes(1000));
+        Path dest = Files.writeString(tempDir.resolve("site.zip"), "previous");
+
+        IOException e = assertThrows(IOException.class, () -> new PackagesApi(client)
+            .download("my_packages", "site", dest, sha256(new byte[0]), null));
+
+        assertTrue(e.getMessage().contains("Checksum mismatch"));
+        assertFalse(Files.exists(tempDir.resolve("site.zip.part")));
+        assertEquals("previous", Files.readString(dest));
+    }
+
+    @Test
+    @DisplayName("A failed download leaves neither a partial nor a destination file")
+    void testDownloadHttpErrorCleansUp() throws Exception {
+        route("GET /crx/packmgr/my_packages/site.zip", 500, "{\"error\":\"boom\"}");
+        Path dest = tempDir.resolve("site.zip");
+
+        assertThrows(IOException.class, () -> new PackagesApi(client).download("my_packages", "site", dest, null));
+
+        assertFalse(Files.exists(tempDir.resolve("site.zip.part")));
+        assertFalse(Files.exists(dest));
+    }
+
+    @Test
+    @DisplayName("Concurrent identical GETs share a single request")
+    void testSingleFlightCoalescesConcurrentGets() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        routeBlocked("GET /content/site.json", release, 200, "{\"title\":\"Site\"}");
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<JsonNode>> results = getConcurrently("/content/site.json", 8, callers);
+            awaitCacheStat("single_flight_coalesced", 7);
+            release.countDown();
+
+            for (Future<JsonNode> result : results) {
+                assertEquals("Site", result.get(10, TimeUnit.SECONDS).path("title").asText());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, requestsTo("/content/site.json").size());
+        assertEquals(1, cacheStat("single_flight_leaders"));
+        assertEquals(0, cacheStat("single_flight_in_progress"));
+    }
+
+    @Test
+    @DisplayName("A failed shared request fails every waiter and is not remembered")
+    void testSingleFlightPropagatesFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        routeBlocked("GET /content/site.json", release, 500, "{\"error\":\"boom\"}");
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<JsonNode>> results = getConcurrently("/content/site.json", 4, callers);
+            awaitCacheStat("single_flight_coalesced", 3);
+            release.countDown();
+
+            for (Future<JsonNode> result : results) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                AemHttpException http = assertInstanceOf(AemHttpException.class, e.getCause());
+                assertEquals(500, http.getStatusCode());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, requestsTo("/content/site.json").size());
+        assertEquals(0, cacheStat("single_flight_in_progress"));
+
+        // The failure is not shared with later callers
+        route("GET /content/site.json", 200, "{\"title\":\"Site\"}");
+        assertEquals("Site", client.get("/content/site.json").path("title").asText());
+        assertEquals(2, requestsTo("/content/site.json").size());
+    }
+
+    @Test
+    @DisplayName("A read that races a mutation of its path is not cached")
+    void testReadRacingMutationIsNotCached() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        routeBlocked("GET /content/site.json", release, 200, "{\"title\":\"Old\"}");
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try {
+            Future<JsonNode> racing = callers.submit(() -> client.get("/content/site.json"));
+            awaitCacheStat("single_flight_in_progress", 1);
+            client.invalidateCache("/content/site");
+            release.countDown();
+
+            assertEquals("Old", racing.get(10, TimeUnit.SECONDS).path("title").asText());
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(0, cacheStat("single_flight_in_progress"));
+
+        route("GET /content/site.json", 200, "{\"title\":\"New\"}");
+        assertEquals("New", client.get("/content/site.json").path("title").asText());
+        assertEquals(2, requestsTo("/content/site.json").size());
+
+        // Without a racing mutation the next read is served from the cache
+        assertEquals("New", client.get("/content/site.json").path("title").asText());
+        assertEquals(2, requestsTo("/content/site.json").size());
+    }
+}
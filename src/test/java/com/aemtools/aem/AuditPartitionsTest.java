@@ -0,0 +1,172 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.audit.AuditLogger;
+import com.aemtools.aem.audit.AuditPartitions;
+import com.aemtools.aem.audit.AuditWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditPartitionsTest {
+
+    /** 2026-01-01T00:00:00Z */
+    private static final long JAN_1 = 1767225600000L;
+    private static final long DAY = AuditPartitions.DAY_MS;
+
+    @TempDir
+    Path tempDir;
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("audit.db"));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connection.close();
+    }
+
+    private static AuditWriter.ApiCall call(long timestamp) {
+        return new AuditWriter.ApiCall(timestamp, "GET", "/api/assets/a.json", 200, "dev", null, null, 0,
+            new AuditLogger.CallMetrics(-1, -1, 1_000_000, 0, 10));
+    }
+
+    /** Writes {@code perDay} calls spread evenly over each of the given days. */
+    private void write(int perDay, long... days) throws SQLException {
+        try (AuditPartitions partitions = new AuditPartitions(connection)) {
+            for (long day : days) {
+                for (int i = 0; i < perDay; i++) {
+                    partitions.add(call(day + i * (DAY / perDay)), "GET /api/assets/{path}.json");
+                }
+            }
+            partitions.executeBatches();
+        }
+    }
+
+    private long count(String table) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    @Test
+    void testRecordsAreStoredByUtcDay() throws Exception {
+        assertEquals("api_calls_20260101", AuditPartitions.tableFor(JAN_1));
+        assertEquals("api_calls_20260101", AuditPartitions.tableFor(JAN_1 + DAY - 1));
+        assertEquals("api_calls_20260102", AuditPartitions.tableFor(JAN_1 + DAY));
+        assertEquals(JAN_1, AuditPartitions.dayStart("api_calls_20260101"));
+
+        write(4, JAN_1, JAN_1 + DAY, JAN_1 + 2 * DAY);
+
+        assertEquals(List.of("api_calls_20260103", "api_calls_20260102", "api_calls_20260101"),
+            AuditPartitions.tables(connection));
+        assertEquals(4, count("api_calls_20260102"));
+    }
+
+    @Test
+    void testDropBeforeDropsWholeDaysAndTrimsBoundary() throws Exception {
+        write(4, JAN_1, JAN_1 + DAY, JAN_1 + 2 * DAY);
+
+        // Cutoff at noon on the second day
+        int deleted = AuditPartitions.dropBefore(connection, JAN_1 + DAY + DAY / 2);
+
+        assertEquals(6, deleted);
+        assertEquals(List.of("api_calls_20260103", "api_calls_20260102"), AuditPartitions.tables(connection));
+        assertEquals(2, count("api_calls_20260102"));
+        assertEquals(4, count("api_calls_20260103"));
+    }
+
+    private long freePages() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA freelist_count")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    @Test
+    void testReleaseFreePagesEmptiesFreeListAfterDrop() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA auto_vacuum=INCREMENTAL");
+        }
+        write(2000, JAN_1, JAN_1 + DAY);
+        AuditPartitions.dropBefore(connection, JAN_1 + DAY);
+        long freed = freePages();
+        assertTrue(freed > 1, "dropping a partition frees pages");
+
+        assertEquals(freed, AuditPartitions.releaseFreePages(connection));
+        assertEquals(0, freePages());
+        assertEquals(0, AuditPartitions.releaseFreePages(connection));
+    }
+
+    @Test
+    void testReleaseFreePagesWithoutAutoVacuumKeepsFreeList() throws Exception {
+        write(2000, JAN_1, JAN_1 + DAY);
+        AuditPartitions.dropBefore(connection, JAN_1 + DAY);
+        long freed = freePages();
+
+        assertEquals(0, AuditPartitions.releaseFreePages(connection));
+        assertEquals(freed, freePages());
+    }
+
+    @Test
+    void testMigratesLegacyTable() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE api_calls (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    timestamp TEXT NOT NULL,
+                    method TEXT NOT NULL,
+                    path TEXT NOT NULL,
+                    status_code INTEGER,
+                    duration_ms INTEGER,
+                    environment TEXT,
+                    user_id TEXT,
+                    request_size INTEGER,
+                    response_size INTEGER,
+                    error_message TEXT,
+                    retry_count INTEGER DEFAULT 0,
+                    lease_ns INTEGER,
+                    ttfb_ns INTEGER,
+                    total_ns INTEGER,
+                    endpoint TEXT
+                )
+            """);
+            stmt.execute("""
+                INSERT INTO api_calls (timestamp, method, path, status_code, duration_ms, retry_count)
+                VALUES ('2026-01-01T10:00:00.250Z', 'GET', '/home/users/j/jdoe.json', 200, 12, 0),
+                       ('2026-01-02T10:00:00Z', 'POST', '/bin/replicate.json?cmd=Activate', 500, 30, 1)
+            """);
+        }
+
+        assertEquals(2, AuditPartitions.migrateLegacy(connection));
+
+        assertEquals(List.of("api_calls_20260102", "api_calls_20260101"), AuditPartitions.tables(connection));
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT ts, endpoint, total_ns FROM api_calls_20260101")) {
+            assertTrue(rs.next());
+            assertEquals(JAN_1 + 10 * 3_600_000L + 250, rs.getLong("ts"));
+            assertEquals("GET /home/users/{path}.json", rs.getString("endpoint"));
+            assertEquals(12_000_000L, rs.getLong("total_ns"));
+        }
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'api_calls'")) {
+            assertFalse(rs.next());
+        }
+        assertEquals(0, AuditPartitions.migrateLegacy(connection));
+    }
+}
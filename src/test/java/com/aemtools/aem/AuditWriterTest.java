@@ -0,0 +1,184 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.audit.AuditLogger;
+import com.aemtools.aem.audit.AuditWriter;
+import com.aemtools.aem.audit.AuditWriter.OverflowPolicy;
+import com.aemtools.aem.audit.AuditWriter.Settings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** 2026-01-01T00:00:00Z */
+    private static final long JAN_1 = 1767225600000L;
+    private static final String PARTITION = "api_calls_20260101";
+
+    private String url;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        url = "jdbc:sqlite:" + tempDir.resolve("audit.db");
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL");
+        }
+    }
+
+    private AuditWriter writer(Settings settings) throws SQLException {
+        return new AuditWriter(DriverManager.getConnection(url), settings);
+    }
+
+    private static AuditWriter.ApiCall call(int i) {
+        return new AuditWriter.ApiCall(JAN_1, "GET", "/path/" + i, 200, "dev", null, null, 0,
+            new AuditLogger.CallMetrics(-1, i * 500_000L, i * 1_000_000L, 0, 100));
+    }
+
+    private long rows() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + PARTITION)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    @Test
+    void testConcurrentSubmitsAreWrittenInBatches() throws Exception {
+        AuditWriter writer = writer(new Settings(10_000, 200, 50, OverflowPolicy.BLOCK)).start();
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int base = t * 250;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 250; i++) {
+                    writer.submit(call(base + i));
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertTrue(writer.flush(10_000));
+        assertEquals(2000, rows());
+        assertTrue(writer.getBatches() < 2000, "batched: " + writer.getBatches());
+        assertEquals(0, writer.getDropped());
+        writer.close();
+    }
+
+    @Test
+    void testTimeTriggerFlushesPartialBatch() throws Exception {
+        AuditWriter writer = writer(new Settings(100, 500, 20, OverflowPolicy.BLOCK)).start();
+
+        writer.submit(call(1));
+        writer.submit(call(2));
+
+        assertTrue(writer.flush(5_000));
+        assertEquals(2, rows());
+        writer.close();
+    }
+
+    @Test
+    void testStoresTimingsAndLeavesUnmeasuredValuesNull() throws Exception {
+        AuditWriter writer = writer(new Settings(100, 10, 20, OverflowPolicy.BLOCK)).start();
+        writer.submit(call(3));
+        writer.close();
+
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT ts, duration_ms, ttfb_ns, total_ns, lease_ns, request_size, response_size FROM " + PARTITION)) {
+            assertTrue(rs.next());
+            assertEquals(JAN_1, rs.getLong("ts"));
+            assertEquals(3, rs.getLong("duration_ms"));
+            assertEquals(1_500_000, rs.getLong("ttfb_ns"));
+            assertEquals(3_000_000, rs.getLong("total_ns"));
+            rs.getLong("lease_ns");
+            assertTrue(rs.wasNull());
+            assertEquals(0, rs.getLong("request_size"));
+            assertEquals(100, rs.getLong("response_size"));
+        }
+    }
+
+    @Test
+    void testBatchesAreRolledUpPerEndpointAndMerged() throws Exception {
+        AuditWriter writer = writer(new Settings(100, 10, 20, OverflowPolicy.BLOCK)).start();
+        for (int i = 1; i <= 4; i++) {
+            writer.submit(new AuditWriter.ApiCall(JAN_1 + 30_000, "GET",
+                "/bin/querybuilder.json?type=dam:Asset&p.limit=" + i,
+                i == 4 ? 500 : 200, "dev", null, null, i == 3 ? 2 : 0,
+                new AuditLogger.CallMetrics(-1, -1, i * 10_000_000L, 0, 100)));
+            // Separate batches, so later calls merge into the stored rows
+            assertTrue(writer.flush(5_000));
+        }
+        writer.close();
+
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT resolution_ms, bucket_start, endpoint, calls, errors, retries, retried, timed, total_ns, max_ns"
+                     + " FROM api_latency_rollup ORDER BY resolution_ms")) {
+            for (long resolution : new long[] {60_000, 3_600_000}) {
+                assertTrue(rs.next());
+                assertEquals(resolution, rs.getLong("resolution_ms"));
+                assertEquals(JAN_1, rs.getLong("bucket_start"));
+                assertEquals("GET querybuilder type=dam:Asset", rs.getString("endpoint"));
+                assertEquals(4, rs.getLong("calls"));
+                assertEquals(1, rs.getLong("errors"));
+                assertEquals(2, rs.getLong("retries"));
+                assertEquals(1, rs.getLong("retried"));
+                assertEquals(4, rs.getLong("timed"));
+                assertEquals(100_000_000L, rs.getLong("total_ns"));
+                assertEquals(40_000_000L, rs.getLong("max_ns"));
+            }
+            assertFalse(rs.next());
+        }
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT DISTINCT endpoint FROM " + PARTITION)) {
+            assertTrue(rs.next());
+            assertEquals("GET querybuilder type=dam:Asset", rs.getString(1));
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    void testDropPolicyDiscardsWhenFull() throws Exception {
+        // Not started yet, so nothing drains the queue
+        AuditWriter writer = writer(new Settings(3, 10, 20, OverflowPolicy.DROP));
+
+        for (int i = 0; i < 5; i++) {
+            writer.submit(call(i));
+        }
+        assertEquals(2, writer.getDropped());
+        assertEquals(3, writer.getQueued());
+
+        writer.start();
+        assertTrue(writer.flush(5_000));
+        assertEquals(3, rows());
+        writer.close();
+    }
+
+    @Test
+    void testCloseDrainsQueue() throws Exception {
+        AuditWriter writer = writer(new Settings(1000, 100, 60_000, OverflowPolicy.BLOCK)).start();
+        for (int i = 0; i < 250; i++) {
+            writer.submit(call(i));
+        }
+
+        writer.close();
+
+        assertEquals(250, rows());
+        assertFalse(writer.submit(call(999)));
+    }
+}
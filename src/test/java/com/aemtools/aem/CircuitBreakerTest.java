@@ -0,0 +1,116 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.client.CircuitBreaker;
+import com.aemtools.aem.client.CircuitBreaker.CircuitOpenException;
+import com.aemtools.aem.client.CircuitBreaker.State;
+import com.aemtools.aem.client.RetryPolicy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private CircuitBreaker breaker(long openMs) {
+        return new CircuitBreaker("http://author.test", new CircuitBreaker.Settings(10, 5, 50, openMs, 2));
+    }
+
+    @Test
+    void testStaysClosedBelowMinimumCalls() throws Exception {
+        CircuitBreaker breaker = breaker(1_000);
+        for (int i = 0; i < 4; i++) {
+            breaker.acquire();
+            breaker.onFailure();
+        }
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testOpensAtFailureRateAndFailsFast() throws Exception {
+        CircuitBreaker breaker = breaker(60_000);
+        for (int i = 0; i < 5; i++) {
+            breaker.acquire();
+            breaker.onResponse(i % 2 == 0 ? 503 : 200);
+        }
+        assertEquals(State.OPEN, breaker.getState());
+        CircuitOpenException e = assertThrows(CircuitOpenException.class, breaker::acquire);
+        assertTrue(e.getRetryInMs() > 0);
+        assertEquals(1L, breaker.snapshot().get("rejected"));
+    }
+
+    @Test
+    void testClientErrorsDoNotCount() throws Exception {
+        CircuitBreaker breaker = breaker(1_000);
+        for (int i = 0; i < 10; i++) {
+            breaker.acquire();
+            breaker.onResponse(i % 2 == 0 ? 404 : 500);
+        }
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenClosesAfterSuccessfulProbes() throws Exception {
+        CircuitBreaker breaker = breaker(20);
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(State.OPEN, breaker.getState());
+        Thread.sleep(40);
+
+        breaker.acquire();
+        breaker.acquire();
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenFailureReopens() throws Exception {
+        CircuitBreaker breaker = breaker(20);
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure();
+        }
+        Thread.sleep(40);
+        breaker.acquire();
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.getState());
+        assertEquals(2L, breaker.snapshot().get("times_opened"));
+    }
+
+    @Test
+    void testReleaseReturnsHalfOpenPermit() throws Exception {
+        CircuitBreaker breaker = breaker(20);
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure();
+        }
+        Thread.sleep(40);
+        breaker.acquire();
+        breaker.acquire();
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+
+        // Both probes died without an outcome, e.g. on a RuntimeException
+        breaker.release();
+        breaker.release();
+
+        breaker.acquire();
+        breaker.acquire();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testReleaseWhileClosedRecordsNothing() throws Exception {
+        CircuitBreaker breaker = breaker(1_000);
+        breaker.acquire();
+        breaker.release();
+        assertEquals(0, breaker.snapshot().get("window_calls"));
+    }
+
+    @Test
+    void testOpenCircuitIsNotRetried() {
+        assertFalse(RetryPolicy.defaults().shouldRetry("GET", new CircuitOpenException("http://author.test", 100), 1));
+    }
+}
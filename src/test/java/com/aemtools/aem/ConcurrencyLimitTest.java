@@ -0,0 +1,78 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.operations.ConcurrencyLimit;
+import com.aemtools.aem.operations.OperationExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitTest {
+
+    @Test
+    void testLimitCanGrowAndShrink() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(2);
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.setLimit(3);
+        assertTrue(limit.tryAcquire());
+        assertEquals(3, limit.inFlight());
+
+        limit.setLimit(1);
+        limit.release();
+        limit.release();
+        assertFalse(limit.tryAcquire());
+        limit.release();
+        assertTrue(limit.tryAcquire());
+        assertEquals(1, limit.inFlight());
+    }
+
+    @Test
+    void testLimitIsAtLeastOne() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(0);
+        assertEquals(1, limit.getLimit());
+        limit.setLimit(-5);
+        assertEquals(1, limit.getLimit());
+    }
+
+    @Test
+    void testVirtualExecutorBoundsInFlightTasks() throws Exception {
+        OperationExecutor executor = new OperationExecutor(OperationExecutor.Mode.VIRTUAL, 4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            final int n = i;
+            futures.add(executor.submit(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(2);
+                running.decrementAndGet();
+                return n;
+            }));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).get(10, TimeUnit.SECONDS));
+        }
+
+        assertTrue(peak.get() <= 4, "peak " + peak.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void testPlatformExecutorResizes() throws Exception {
+        OperationExecutor executor = new OperationExecutor(OperationExecutor.Mode.PLATFORM, 2);
+        executor.setMaxConcurrent(6);
+        assertEquals(6, executor.getMaxConcurrent());
+        assertEquals("platform", executor.getStats().get("mode"));
+        assertEquals("ok", executor.submit(() -> "ok").get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,142 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.api.AssetsApi;
+import com.aemtools.aem.api.DamCrawler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DamCrawlerTest {
+
+    @Mock
+    private AssetsApi assets;
+
+    private static AssetsApi.Folder folder(String path) {
+        AssetsApi.Folder folder = new AssetsApi.Folder();
+        folder.setPath(path);
+        folder.setName(path.substring(path.lastIndexOf('/') + 1));
+        return folder;
+    }
+
+    private static AssetsApi.Asset asset(String path) {
+        AssetsApi.Asset asset = new AssetsApi.Asset();
+        asset.setPath(path);
+        asset.setName(path.substring(path.lastIndexOf('/') + 1));
+        return asset;
+    }
+
+    /**
+     * Serves a tree where every folder has {@code width} subfolders and one asset,
+     * {@code levels} folders deep, paged by the requested offset and limit.
+     */
+    private void serveTree(int width, int levels) throws IOException {
+        when(assets.listChildren(anyString(), anyInt(), anyInt())).thenAnswer(inv -> {
+            String path = inv.getArgument(0);
+            int offset = inv.getArgument(1);
+            int limit = inv.getArgument(2);
+            int level = path.split("/").length - 3;
+            List<Object> children = new ArrayList<>();
+            if (level < levels) {
+                for (int i = 0; i < width; i++) {
+                    children.add(folder(path + "/f" + i));
+                }
+            }
+            children.add(asset(path + "/a.jpg"));
+
+            List<AssetsApi.Folder> folders = new ArrayList<>();
+            List<AssetsApi.Asset> files = new ArrayList<>();
+            List<Object> page = children.subList(Math.min(offset, children.size()),
+                Math.min(offset + limit, children.size()));
+            for (Object child : page) {
+                if (child instanceof AssetsApi.Folder f) {
+                    folders.add(f);
+                } else {
+                    files.add((AssetsApi.Asset) child);
+                }
+            }
+            return new AssetsApi.Listing(folders, files, page.size());
+        });
+    }
+
+    private static class Recorder implements DamCrawler.Visitor {
+        final Set<String> folders = ConcurrentHashMap.newKeySet();
+        final Set<String> assets = ConcurrentHashMap.newKeySet();
+        final List<String> errors = new ArrayList<>();
+
+        @Override
+        public void visitFolder(AssetsApi.Folder folder, int depth) {
+            String parent = folder.getPath().substring(0, folder.getPath().lastIndexOf('/'));
+            assertTrue(depth == 1 || folders.contains(parent), "parent visited first: " + folder.getPath());
+            assertTrue(folders.add(folder.getPath()));
+        }
+
+        @Override
+        public void visitAsset(AssetsApi.Asset asset, int depth) {
+            assertTrue(assets.add(asset.getPath()));
+        }
+
+        @Override
+        public void onError(String folderPath, IOException error) {
+            errors.add(folderPath);
+        }
+    }
+
+    @Test
+    void testVisitsWholeTreeAcrossPages() throws Exception {
+        serveTree(3, 3);
+        Recorder recorder = new Recorder();
+
+        DamCrawler.CrawlStats stats = new DamCrawler(assets)
+            .setPageSize(3)
+            .setMaxConcurrent(4)
+            .crawl("/content/dam", recorder);
+
+        // 3 + 9 + 27 folders, one asset in the root and in each folder
+        assertEquals(39, recorder.folders.size());
+        assertEquals(40, recorder.assets.size());
+        assertEquals(39, stats.folders());
+        assertEquals(40, stats.assets());
+        assertEquals(0, stats.errors());
+        assertFalse(stats.cancelled());
+        // Folders with 4 children need 2 pages; leaves fit in 1
+        assertEquals(13 * 2 + 27, stats.requests());
+        verify(assets).listChildren("/content/dam", 3, 3);
+    }
+
+    @Test
+    void testMaxDepthStopsDescent() throws Exception {
+        serveTree(3, 5);
+        Recorder recorder = new Recorder();
+
+        new DamCrawler(assets).setMaxDepth(2).crawl("/content/dam", recorder);
+
+        assertEquals(3 + 9, recorder.folders.size());
+        verify(assets, never()).listChildren(matches("/content/dam/f\\d/f\\d"), anyInt(), anyInt());
+    }
+
+    @Test
+    void testFailedFolderIsReportedAndSkipped() throws Exception {
+        serveTree(2, 2);
+        when(assets.listChildren(eq("/content/dam/f1"), anyInt(), anyInt())).thenThrow(new IOException("HTTP 500"));
+        Recorder recorder = new Recorder();
+
+        DamCrawler.CrawlStats stats = new DamCrawler(assets).crawl("/content/dam", recorder);
+
+        assertEquals(List.of("/content/dam/f1"), recorder.errors);
+        assertEquals(1, stats.errors());
+        assertTrue(recorder.folders.contains("/content/dam/f0/f1"));
+        assertFalse(recorder.folders.contains("/content/dam/f1/f0"));
+    }
+}
@@ -0,0 +1,234 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.api.DamDeltaSync;
+import com.aemtools.aem.api.DamSnapshot;
+import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.snapshot.SnapshotStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DamDeltaSyncTest {
+
+    private static final String ROOT = "/content/dam/site";
+    private static final long BASE = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
+    @Mock
+    private AemApiClient client;
+
+    @TempDir
+    Path tempDir;
+
+    private SnapshotStore store;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Long> server = new TreeMap<>();
+    private final List<String> queries = new ArrayList<>();
+    /** Assets served without {@code jcr:lastModified}, though the query still orders them by it. */
+    private final Set<String> undated = new HashSet<>();
+
+    private static String encodedLowerBound(long millis) {
+        return "daterange.lowerBound=" + URLEncoder.encode(Instant.ofEpochMilli(millis).toString(), StandardCharsets.UTF_8);
+    }
+
+    private static String param(String query, String name) {
+        Matcher m = Pattern.compile("[?&]" + Pattern.quote(name) + "=([^&]*)").matcher(query);
+        return m.find() ? URLDecoder.decode(m.group(1), StandardCharsets.UTF_8) : null;
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new SnapshotStore(tempDir.resolve("snapshot.db"));
+        for (int i = 0; i < 10; i++) {
+            server.put(ROOT + "/a" + i + ".jpg", BASE + i * 1000L);
+        }
+        lenient().when(client.getUncached(anyString())).thenAnswer(inv -> answer(inv.getArgument(0)));
+        lenient().when(client.getUncachedAsync(anyString()))
+            .thenAnswer(inv -> CompletableFuture.completedFuture(answer(inv.getArgument(0))));
+    }
+
+    /**
+     * Answers QueryBuilder requests from {@link #server}, honouring the date range,
+     * ordering, offset and limit the sync uses.
+     */
+    private JsonNode answer(String query) {
+        queries.add(query);
+        List<Map.Entry<String, Long>> matches = new ArrayList<>(server.entrySet());
+        String lower = param(query, "daterange.lowerBound");
+        if (lower != null) {
+            long bound = Instant.parse(lower).toEpochMilli();
+            matches.removeIf(e -> e.getValue() < bound);
+            matches.sort(Map.Entry.comparingByValue());
+        }
+        if ("true".equals(param(query, "path.exact"))) {
+            matches.removeIf(e -> !e.getKey().equals(param(query, "path")));
+        }
+        int offset = param(query, "p.offset") != null ? Integer.parseInt(param(query, "p.offset")) : 0;
+        int limit = Integer.parseInt(param(query, "p.limit"));
+
+        ObjectNode response = mapper.createObjectNode();
+        response.put("total", matches.size());
+        ArrayNode hits = response.putArray("hits");
+        for (Map.Entry<String, Long> e : matches.subList(Math.min(offset, matches.size()),
+                Math.min(offset + limit, matches.size()))) {
+            ObjectNode hit = hits.addObject().put("jcr:path", e.getKey());
+            ObjectNode content = hit.putObject("jcr:content");
+            if (!undated.contains(e.getKey())) {
+                content.put("jcr:lastModified", Instant.ofEpochMilli(e.getValue()).toString());
+            }
+            content.putObject("metadata").put("dc:format", "image/jpeg");
+        }
+        return response;
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private DamSnapshot snapshot() {
+        return new DamSnapshot(store, "test", ROOT);
+    }
+
+    private DamDeltaSync sync(DamSnapshot snapshot) {
+        return new DamDeltaSync(client, snapshot).setPageSize(4);
+    }
+
+    @Test
+    void testFirstSyncLoadsEverythingAndPersists() throws Exception {
+        DamSnapshot snapshot = snapshot();
+
+        DamDeltaSync.SyncResult result = sync(snapshot).sync(false);
+
+        assertTrue(result.full());
+        assertEquals(10, result.added());
+        assertEquals(BASE + 9000, snapshot.getWatermark());
+
+        DamSnapshot reloaded = snapshot();
+        reloaded.load();
+        assertEquals(10, reloaded.size());
+        assertEquals("image/jpeg", reloaded.get(ROOT + "/a3.jpg").getMimeType());
+        assertEquals(BASE + 9000, reloaded.getWatermark());
+    }
+
+    @Test
+    void testDeltaFetchesOnlyChangedAssets() throws Exception {
+        DamSnapshot snapshot = snapshot();
+        sync(snapshot).sync(false);
+        queries.clear();
+
+        server.put(ROOT + "/a2.jpg", BASE + 3_600_000);
+        server.put(ROOT + "/new.png", BASE + 3_600_000);
+        DamDeltaSync.SyncResult result = sync(snapshot).setOverlap(Duration.ZERO).sync(false);
+
+        assertFalse(result.full());
+        assertEquals(1, result.added());
+        // The asset at the old watermark is re-read, plus the edited one
+        assertEquals(2, result.updated());
+        assertEquals(0, result.removed());
+        assertEquals(11, result.total());
+        assertEquals(BASE + 3_600_000, snapshot.getWatermark());
+        assertTrue(queries.stream().filter(q -> q.contains("daterange")).allMatch(q -> q.contains("p.offset=0")));
+    }
+
+    @Test
+    void testKeysetPagingCrossesPagesWithSharedDates() throws Exception {
+        DamSnapshot snapshot = snapshot();
+        sync(snapshot).sync(false);
+
+        // Nine assets saved in the same millisecond, more than a page of four
+        long bulk = BASE + 7_200_000;
+        for (int i = 0; i < 9; i++) {
+            server.put(ROOT + "/bulk" + i + ".jpg", bulk);
+        }
+        DamDeltaSync.SyncResult result = sync(snapshot).setOverlap(Duration.ZERO).sync(false);
+
+        assertEquals(9, result.added());
+        assertEquals(19, snapshot.size());
+        assertEquals(bulk, snapshot.getWatermark());
+    }
+
+    @Test
+    void testUndatedHitAtPageEndDoesNotRewindTheBound() throws Exception {
+        DamSnapshot snapshot = snapshot();
+        sync(snapshot).sync(false);
+
+        long edited = BASE + 3_600_000;
+        for (int i = 0; i < 8; i++) {
+            server.put(ROOT + "/n" + i + ".jpg", edited + i * 1000L);
+        }
+        // Ends the second page of the delta query
+        undated.add(ROOT + "/n6.jpg");
+        queries.clear();
+
+        DamDeltaSync.SyncResult result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> sync(snapshot).setOverlap(Duration.ZERO).sync(false));
+
+        assertEquals(8, result.added());
+        assertEquals(18, snapshot.size());
+        assertEquals(edited + 7000, snapshot.getWatermark());
+        assertTrue(queries.stream().filter(q -> q.contains("daterange"))
+            .noneMatch(q -> q.contains(encodedLowerBound(0))), "bound moved back to the epoch");
+    }
+
+    @Test
+    void testCountMismatchReconcilesDeletionsAndMoves() throws Exception {
+        DamSnapshot snapshot = snapshot();
+        sync(snapshot).sync(false);
+
+        server.remove(ROOT + "/a1.jpg");
+        server.remove(ROOT + "/a2.jpg");
+        // Moved: new path, unchanged date, so the delta query cannot see it
+        server.put(ROOT + "/moved/a3.jpg", server.remove(ROOT + "/a3.jpg"));
+
+        DamDeltaSync.SyncResult result = sync(snapshot).setOverlap(Duration.ZERO).sync(false);
+
+        assertTrue(result.verified());
+        assertEquals(3, result.removed());
+        assertEquals(8, result.total());
+        assertTrue(snapshot.contains(ROOT + "/moved/a3.jpg"));
+        assertFalse(snapshot.contains(ROOT + "/a1.jpg"));
+        assertTrue(queries.stream().anyMatch(q -> q.contains("path.exact=true")));
+    }
+
+    @Test
+    void testMatchingCountSkipsReconcile() throws Exception {
+        DamSnapshot snapshot = snapshot();
+        sync(snapshot).sync(false);
+        queries.clear();
+
+        DamDeltaSync.SyncResult result = sync(snapshot).sync(false);
+
+        assertFalse(result.verified());
+        assertTrue(queries.stream().noneMatch(q -> q.contains("p.hits=selective")));
+        verify(client, atLeastOnce()).getUncached(contains("p.limit=0"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.audit.EndpointNormalizer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointNormalizerTest {
+
+    @Test
+    void testAssetsApiPathsCollapse() {
+        assertEquals("/api/assets/{path}.json", EndpointNormalizer.normalize("/api/assets/my-site/hero.jpg.json"));
+        assertEquals("/api/assets/{path}.json", EndpointNormalizer.normalize("/api/assets/other/folder.json"));
+        assertEquals("/api/assets/{path}", EndpointNormalizer.normalize("/api/assets/my-site/hero.jpg"));
+        assertEquals("/api/assets", EndpointNormalizer.normalize("/api/assets"));
+    }
+
+    @Test
+    void testRepositoryPathsKeepSelectorsAndExtension() {
+        assertEquals("/content/dam/{path}.infinity.json",
+            EndpointNormalizer.normalize("/content/dam/site/folder.infinity.json"));
+        assertEquals("/content/dam/{path}.{n}.json", EndpointNormalizer.normalize("/content/dam/site.1.json"));
+        assertEquals("/home/users/{path}.json", EndpointNormalizer.normalize("/home/users/j/jdoe.json"));
+        assertEquals("/etc/packages/{path}.zip",
+            EndpointNormalizer.normalize("/etc/packages/my_packages/my-package-1.zip"));
+        assertEquals("/graphql/execute.json/{path}",
+            EndpointNormalizer.normalize("/graphql/execute.json/my-project/all-fragments"));
+        assertEquals("/content/cq:tags/{path}.json", EndpointNormalizer.normalize("/content/cq:tags/ns/tag.json"));
+    }
+
+    @Test
+    void testQueryBuilderKeepsTypeAndProperty() {
+        assertEquals("querybuilder type=rep:User property=rep:authorizableId", EndpointNormalizer.normalize(
+            "/bin/querybuilder.json?path=/home/users&type=rep:User&property=rep:authorizableId&property.value=jdoe"));
+        assertEquals("querybuilder property=cq:tags",
+            EndpointNormalizer.normalize("/bin/querybuilder.json?property=cq:tags&property.value=ns:a&p.limit=1"));
+        assertEquals("querybuilder type=cq:Page fulltext",
+            EndpointNormalizer.normalize("/bin/querybuilder.json?type=cq%3APage&fulltext=hello"));
+    }
+
+    @Test
+    void testQueryStringKeepsOnlyCommand() {
+        assertEquals("/bin/replicate.json?cmd=status",
+            EndpointNormalizer.normalize("/bin/replicate.json?cmd=status&path=/content/site"));
+        assertEquals("/bin/workflow/inbox.json", EndpointNormalizer.normalize("/bin/workflow/inbox.json?limit=20"));
+    }
+
+    @Test
+    void testIdsAndHostsAreRemoved() {
+        assertEquals("/api/workflow/instances/{id}", EndpointNormalizer.normalize("/api/workflow/instances/1234"));
+        assertEquals("/jobs/{id}.json",
+            EndpointNormalizer.normalize("/jobs/123e4567-e89b-12d3-a456-426614174000.json"));
+        assertEquals("/api/assets/{path}.json",
+            EndpointNormalizer.normalize("https://author.example.com/api/assets/a/b.json?x=1"));
+    }
+
+    @Test
+    void testMethodPrefix() {
+        assertEquals("DELETE /api/pages/{path}", EndpointNormalizer.normalize("DELETE", "/api/pages/site/en/page"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.client.HttpSettings;
+import com.aemtools.aem.config.ConfigManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests reading the per-environment {@code http.*} transport settings.
+ */
+@DisplayName("HttpSettings Tests")
+class HttpSettingsTest {
+
+    private static final String ENVIRONMENT = "http-settings-test";
+    private static final List<String> KEYS = List.of(HttpSettings.MAX_TOTAL, HttpSettings.MAX_PER_ROUTE,
+        HttpSettings.RESPONSE_TIMEOUT_MS, HttpSettings.KEEP_ALIVE_MS, HttpSettings.TRANSPORT);
+
+    private ConfigManager config;
+
+    @BeforeEach
+    void setUp() {
+        config = ConfigManager.getInstance();
+        KEYS.forEach(key -> config.setEnvironmentSetting(ENVIRONMENT, key, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        KEYS.forEach(key -> config.setEnvironmentSetting(ENVIRONMENT, key, null));
+    }
+
+    @Test
+    @DisplayName("Environment keys override the defaults")
+    void testReadsEnvironmentKeys() {
+        config.setEnvironmentSetting(ENVIRONMENT, HttpSettings.MAX_TOTAL, "64");
+        config.setEnvironmentSetting(ENVIRONMENT, HttpSettings.MAX_PER_ROUTE, " 32 ");
+        config.setEnvironmentSetting(ENVIRONMENT, HttpSettings.RESPONSE_TIMEOUT_MS, "120000");
+        config.setEnvironmentSetting(ENVIRONMENT, HttpSettings.TRANSPORT, "h2");
+
+        HttpSettings settings = HttpSettings.fromConfig(config, ENVIRONMENT);
+
+        assertEquals(64, settings.maxTotal());
+        assertEquals(32, settings.maxPerRoute());
+        assertEquals(120_000, settings.responseTimeoutMs());
+        assertEquals(HttpSettings.Transport.HTTP2, settings.transport());
+        assertEquals(HttpSettings.defaults().keepAliveMs(), settings.keepAliveMs());
+    }
+
+    @Test
+    @DisplayName("Invalid or missing values fall back to the defaults")
+    void testInvalidValuesFallBack() {
+        config.setEnvironmentSetting(ENVIRONMENT, HttpSettings.MAX_TOTAL, "lots");
+        config.setEnvironmentSetting(ENVIRONMENT, HttpSettings.KEEP_ALIVE_MS, "");
+        config.setEnvironmentSetting(ENVIRONMENT, HttpSettings.TRANSPORT, "carrier-pigeon");
+
+        HttpSettings settings = HttpSettings.fromConfig(config, ENVIRONMENT);
+        HttpSettings defaults = HttpSettings.defaults();
+
+        assertEquals(defaults.maxTotal(), settings.maxTotal());
+        assertEquals(defaults.keepAliveMs(), settings.keepAliveMs());
+        assertEquals(HttpSettings.Transport.HTTP1, settings.transport());
+    }
+
+    @Test
+    @DisplayName("Settings of one environment do not leak into another")
+    void testSettingsArePerEnvironment() {
+        config.setEnvironmentSetting(ENVIRONMENT, HttpSettings.MAX_TOTAL, "7");
+
+        assertEquals(7, HttpSettings.fromConfig(config, ENVIRONMENT).maxTotal());
+        assertEquals(HttpSettings.defaults().maxTotal(),
+            HttpSettings.fromConfig(config, ENVIRONMENT + "-other").maxTotal());
+    }
+}
@@ -0,0 +1,71 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.client.JsonArrayStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonArrayStreamTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static InputStream json(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testStreamsHitsAndCollectsHeader() throws Exception {
+        String body = """
+            {"success":true,"results":3,"total":1200,"more":true,"offset":0,
+             "facets":{"type":{"x":1}},
+             "hits":[{"jcr:path":"/a"},{"jcr:path":"/b"},{"jcr:path":"/c"}],
+             "trailer":"ignored"}
+            """;
+        try (JsonArrayStream<String> hits = JsonArrayStream.of(json(body), mapper, "hits",
+                node -> node.path("jcr:path").asText())) {
+            assertEquals(1200, hits.header().path("total").asInt());
+            assertTrue(hits.header().path("more").asBoolean());
+            assertFalse(hits.header().has("facets"));
+            assertEquals(List.of("/a", "/b", "/c"), hits.stream().toList());
+        }
+    }
+
+    @Test
+    void testNullMappingsAreSkipped() throws Exception {
+        String body = "{\"entities\":[{\"class\":\"asset\",\"n\":1},{\"class\":\"other\"},{\"class\":\"asset\",\"n\":2}]}";
+        JsonArrayStream<Integer> entities = JsonArrayStream.of(json(body), mapper, "entities",
+            node -> "asset".equals(node.path("class").asText()) ? node.path("n").asInt() : null);
+        assertEquals(List.of(1, 2), entities.stream().toList());
+    }
+
+    @Test
+    void testMissingFieldYieldsEmptyStream() throws Exception {
+        JsonArrayStream<String> hits = JsonArrayStream.of(json("{\"total\":0}"), mapper, "hits",
+            node -> node.asText());
+        assertFalse(hits.hasNext());
+        assertEquals(0, hits.header().path("total").asInt());
+    }
+
+    @Test
+    void testClosingStreamClosesInput() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream input = new ByteArrayInputStream("{\"hits\":[1,2,3,4]}".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        try (Stream<Integer> hits = JsonArrayStream.of(input, mapper, "hits", node -> node.asInt()).stream()) {
+            assertEquals(1, hits.findFirst().orElseThrow());
+        }
+        assertTrue(closed.get());
+    }
+}
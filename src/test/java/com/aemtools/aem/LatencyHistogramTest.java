@@ -0,0 +1,97 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.audit.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    private static void assertWithin(long expected, long actual, double tolerance) {
+        assertTrue(Math.abs(actual - expected) <= expected * tolerance,
+            "expected ~" + expected + " but was " + actual);
+    }
+
+    @Test
+    void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentile(99));
+    }
+
+    @Test
+    void testPercentilesOfUniformValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertWithin(50_000, histogram.percentile(50), 0.04);
+        assertWithin(95_000, histogram.percentile(95), 0.04);
+        assertWithin(99_000, histogram.percentile(99), 0.04);
+        assertEquals(100_000, histogram.percentile(100));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 10; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(4, histogram.percentile(50));
+        assertEquals(9, histogram.percentile(100));
+    }
+
+    @Test
+    void testRecordsNanosAsMicros() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(250_000_000L);
+
+        assertEquals(250_000, histogram.getMax());
+        assertWithin(250_000, histogram.percentile(50), 0.04);
+    }
+
+    @Test
+    void testMergeAddsCounts() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            fast.record(1_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            slow.record(500_000);
+        }
+
+        fast.add(slow);
+
+        assertEquals(100, fast.getCount());
+        assertEquals(500_000, fast.getMax());
+        assertWithin(1_000, fast.percentile(90), 0.04);
+        assertWithin(500_000, fast.percentile(95), 0.04);
+    }
+
+    @Test
+    void testBytesRoundTrip() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 100; micros < 1_000_000; micros *= 3) {
+            histogram.record(micros);
+        }
+
+        LatencyHistogram copy = LatencyHistogram.fromBytes(histogram.toBytes());
+
+        assertEquals(histogram.getCount(), copy.getCount());
+        assertEquals(histogram.getMax(), copy.getMax());
+        assertEquals(histogram.percentile(50), copy.percentile(50));
+        assertEquals(histogram.percentile(99), copy.percentile(99));
+    }
+
+    @Test
+    void testUnreadableBytesGiveEmptyHistogram() {
+        assertEquals(0, LatencyHistogram.fromBytes(null).getCount());
+        assertEquals(0, LatencyHistogram.fromBytes(new byte[]{9, 1, 2}).getCount());
+    }
+}
@@ -0,0 +1,107 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.api.ParallelQueryFetcher;
+import com.aemtools.aem.client.AemApiClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ParallelQueryFetcherTest {
+
+    private static final String QUERY = "/bin/querybuilder.json?path=/content&type=cq:Page";
+    private static final Pattern OFFSET = Pattern.compile("p\\.offset=(\\d+)&p\\.limit=(\\d+)");
+
+    @Mock
+    private AemApiClient client;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private void serve(int total) throws IOException {
+        when(client.getUncached(anyString())).thenAnswer(invocation -> {
+            Matcher m = OFFSET.matcher(invocation.getArgument(0, String.class));
+            assertTrue(m.find());
+            int offset = Integer.parseInt(m.group(1));
+            int limit = Integer.parseInt(m.group(2));
+            // Later pages finish out of order.
+            Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            ObjectNode response = mapper.createObjectNode();
+            response.put("total", total);
+            ArrayNode hits = response.putArray("hits");
+            for (int i = offset; i < Math.min(total, offset + limit); i++) {
+                hits.addObject().put("jcr:path", "/content/p" + i);
+            }
+            return response;
+        });
+    }
+
+    private ParallelQueryFetcher<String> fetcher(int pageSize) {
+        return new ParallelQueryFetcher<>(client, QUERY, pageSize, hit -> hit.path("jcr:path").asText());
+    }
+
+    @Test
+    void testReassemblesPagesInOffsetOrder() throws Exception {
+        serve(103);
+        ParallelQueryFetcher<String> fetcher = fetcher(10).setParallelism(4).setReadAhead(6);
+
+        List<String> paths = fetcher.toList();
+
+        assertEquals(IntStream.range(0, 103).mapToObj(i -> "/content/p" + i).toList(), paths);
+        assertEquals(11, fetcher.getPagesFetched());
+        assertEquals(103, fetcher.getTotal());
+        verify(client).getUncached(endsWith("p.offset=0&p.limit=10"));
+        verify(client).getUncached(endsWith("p.offset=100&p.limit=3&p.guessTotal=true"));
+        verify(client, never()).get(anyString());
+    }
+
+    @Test
+    void testMaxResultsCapsTotalAndLastPage() throws Exception {
+        serve(1000);
+        List<String> paths = fetcher(10).setMaxResults(25).toList();
+
+        assertEquals(25, paths.size());
+        verify(client).getUncached(endsWith("p.offset=0&p.limit=10&p.guessTotal=25"));
+        verify(client).getUncached(contains("p.offset=20&p.limit=5"));
+        verify(client, times(3)).getUncached(anyString());
+    }
+
+    @Test
+    void testPageFailureSurfacesAsIOException() throws Exception {
+        ObjectNode first = mapper.createObjectNode();
+        first.put("total", 20);
+        ArrayNode hits = first.putArray("hits");
+        for (int i = 0; i < 10; i++) {
+            hits.addObject().put("jcr:path", "/content/p" + i);
+        }
+        when(client.getUncached(contains("p.offset=0&"))).thenReturn(first);
+        when(client.getUncached(contains("p.offset=10&"))).thenThrow(new IOException("HTTP 503"));
+
+        ParallelQueryFetcher<String> fetcher = fetcher(10);
+        IOException e = assertThrows(IOException.class, fetcher::toList);
+        assertEquals("HTTP 503", e.getMessage());
+        assertFalse(fetcher.hasNext());
+    }
+
+    @Test
+    void testIteratorWrapsFailures() throws Exception {
+        when(client.getUncached(anyString())).thenThrow(new IOException("down"));
+        assertThrows(UncheckedIOException.class, () -> fetcher(10).hasNext());
+    }
+}
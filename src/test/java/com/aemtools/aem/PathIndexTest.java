@@ -0,0 +1,88 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.client.PathIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the JCR path index used for cache invalidation.
+ */
+@DisplayName("PathIndex Tests")
+class PathIndexTest {
+
+    private PathIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PathIndex();
+    }
+
+    @Test
+    @DisplayName("Should map request paths to JCR resources")
+    void testResourcePath() {
+        assertEquals("/content/dam/foo", PathIndex.resourcePath("/content/dam/foo.1.json"));
+        assertEquals("/content/dam/foo", PathIndex.resourcePath("/api/assets/foo.json"));
+        assertEquals("/content/dam", PathIndex.resourcePath("/api/assets.json"));
+        assertEquals("/content/cq:tags/ns",
+            PathIndex.resourcePath("/bin/querybuilder.json?path=%2Fcontent%2Fcq%3Atags%2Fns&type=cq:Tag"));
+        assertEquals("/", PathIndex.resourcePath("/bin/querybuilder.json?type=dam:Asset"));
+        assertEquals("/content/site/page", PathIndex.resourcePath("/bin/workflow/history.json?payload=/content/site/page"));
+        assertEquals("/home/users/a/alice", PathIndex.resourcePath("/home/users/a/alice.rw.json?props=memberOf"));
+        assertEquals("/content/dam/foo", PathIndex.resourcePath("https://author.example.com/content/dam/foo.json"));
+    }
+
+    @Test
+    @DisplayName("Should keep dots that belong to the node name")
+    void testResourcePathKeepsDottedNames() {
+        assertEquals("/content/dam/foo/bar.jpg", PathIndex.resourcePath("/api/assets/foo/bar.jpg"));
+        assertEquals("/content/dam/foo/bar.jpg", PathIndex.resourcePath("/api/assets/foo/bar.jpg.json"));
+        assertEquals("/content/dam/foo/bar.jpg", PathIndex.resourcePath("/content/dam/foo/bar.jpg.infinity.json"));
+        assertEquals("/content/site/page", PathIndex.resourcePath("/content/site/page.-1.json"));
+        assertEquals("/etc/packages/my_packages/site-1.0.zip",
+            PathIndex.resourcePath("/etc/packages/my_packages/site-1.0.zip"));
+        assertEquals("/crx/packmgr/service", PathIndex.resourcePath("/crx/packmgr/service/.json?cmd=upload"));
+    }
+
+    @Test
+    @DisplayName("Should invalidate everything from the root")
+    void testInvalidateRoot() {
+        index.register("asset", "/content/dam/foo/bar.jpg");
+        index.register("user", "/home/users/a/alice");
+
+        assertEquals(Set.of("asset", "user"), index.invalidate(PathIndex.ROOT));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("Should invalidate the subtree and exact ancestors only")
+    void testInvalidateSubtreeAndAncestors() {
+        index.register("listing", "/content/dam");
+        index.register("folder", "/content/dam/foo");
+        index.register("child", "/content/dam/foo/bar/image");
+        index.register("sibling", "/content/dam/other");
+        index.register("siblingChild", "/content/dam/other/image");
+        index.register("query", "/");
+
+        Set<String> affected = index.invalidate("/content/dam/foo/bar");
+
+        assertEquals(Set.of("listing", "folder", "child", "query"), affected);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should forget removed keys and bump the generation on invalidation")
+    void testRemoveAndGeneration() {
+        index.register("a", "/content/dam/foo");
+        index.remove("a");
+        assertEquals(0, index.size());
+
+        long generation = index.generation();
+        assertTrue(index.invalidate("/content/dam/foo").isEmpty());
+        assertTrue(index.generation() > generation);
+    }
+}
@@ -0,0 +1,85 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.api.QueryPager;
+import com.aemtools.aem.client.AemApiClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class QueryPagerTest {
+
+    private static final String QUERY = "/bin/querybuilder.json?path=/content&type=cq:Page";
+
+    @Mock
+    private AemApiClient client;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private JsonNode page(int from, int count, long total) {
+        ObjectNode response = mapper.createObjectNode();
+        response.put("total", total);
+        response.put("more", from + count < total);
+        ArrayNode hits = response.putArray("hits");
+        for (int i = from; i < from + count; i++) {
+            hits.addObject().put("jcr:path", "/content/p" + i);
+        }
+        return response;
+    }
+
+    @Test
+    void testFetchesPagesOnDemandUntilShortPage() throws Exception {
+        when(client.getUncached(contains("p.offset=0&"))).thenReturn(page(0, 2, 5));
+        when(client.getUncached(contains("p.offset=2&"))).thenReturn(page(2, 2, 5));
+        when(client.getUncached(contains("p.offset=4&"))).thenReturn(page(4, 1, 5));
+
+        QueryPager<String> pager = new QueryPager<>(client, QUERY, 2, hit -> hit.path("jcr:path").asText());
+        assertEquals("/content/p0", pager.next());
+        verify(client, times(1)).getUncached(anyString());
+
+        assertEquals(List.of("/content/p1", "/content/p2", "/content/p3", "/content/p4"), pager.toList());
+        assertEquals(3, pager.getPagesFetched());
+        assertEquals(5, pager.getTotal());
+        verify(client).getUncached(contains("orderby=path&p.offset=0&p.limit=2&p.guessTotal=true"));
+        verify(client, never()).get(anyString());
+    }
+
+    @Test
+    void testMaxResultsShrinksLastPage() throws Exception {
+        when(client.getUncached(contains("p.offset=0&p.limit=3"))).thenReturn(page(0, 3, 100));
+        when(client.getUncached(contains("p.offset=3&p.limit=1"))).thenReturn(page(3, 1, 100));
+
+        List<String> paths = new QueryPager<>(client, QUERY, 3, hit -> hit.path("jcr:path").asText())
+            .setMaxResults(4)
+            .toList();
+
+        assertEquals(4, paths.size());
+        verify(client, times(2)).getUncached(anyString());
+    }
+
+    @Test
+    void testPrefetchRequestsNextPageInBackground() throws Exception {
+        when(client.getUncached(contains("p.offset=0&"))).thenReturn(page(0, 2, 3));
+        when(client.getUncachedAsync(contains("p.offset=2&"))).thenReturn(CompletableFuture.completedFuture(page(2, 1, 3)));
+
+        QueryPager<String> pager = new QueryPager<>(client, QUERY, 2, hit -> hit.path("jcr:path").asText())
+            .setPrefetch(true);
+        assertTrue(pager.hasNext());
+        verify(client).getUncachedAsync(contains("p.offset=2&"));
+
+        assertEquals(3, pager.toList().size());
+        verify(client, times(1)).getUncached(anyString());
+    }
+}
@@ -0,0 +1,174 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.client.ResponseCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the concurrent W-TinyLFU response cache.
+ */
+@DisplayName("ResponseCache Tests")
+class ResponseCacheTest {
+
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new ObjectMapper();
+    }
+
+    private JsonNode node(String value) {
+        return mapper.createObjectNode().put("value", value);
+    }
+
+    @Test
+    @DisplayName("Should return the same parsed tree on hit")
+    void testHitReturnsSameTree() {
+        ResponseCache cache = new ResponseCache(10, 1024 * 1024, 60_000);
+        JsonNode tree = node("a");
+        cache.put("k", tree, 10);
+
+        assertSame(tree, cache.get("k"));
+        assertNull(cache.get("missing"));
+
+        Map<String, Object> stats = cache.stats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+    }
+
+    @Test
+    @DisplayName("Should honor the configured TTL")
+    void testTtlIsHonored() {
+        ResponseCache cache = new ResponseCache(10, 1024 * 1024, 60_000);
+        cache.put("k", node("a"), 10);
+        assertNotNull(cache.get("k"));
+
+        cache.setTtlMs(0);
+        assertNull(cache.get("k"));
+    }
+
+    @Test
+    @DisplayName("Should keep expired entries with validators for revalidation")
+    void testRevalidation() {
+        ResponseCache cache = new ResponseCache(10, 1024 * 1024, 60_000);
+        JsonNode tree = node("a");
+        cache.put("k", tree, 10, "\"v1\"", null);
+        cache.setTtlMs(0);
+
+        ResponseCache.Entry entry = cache.getEntry("k");
+        assertNotNull(entry);
+        assertTrue(cache.isExpired(entry));
+        assertTrue(entry.hasValidators());
+        assertEquals("\"v1\"", entry.etag());
+
+        cache.setTtlMs(60_000);
+        cache.revalidated("k", entry, null, "Tue, 01 Jan 2030 00:00:00 GMT");
+        ResponseCache.Entry refreshed = cache.getEntry("k");
+        assertSame(tree, refreshed.value());
+        assertEquals("\"v1\"", refreshed.etag());
+        assertEquals("Tue, 01 Jan 2030 00:00:00 GMT", refreshed.lastModified());
+        assertFalse(cache.isExpired(refreshed));
+        assertEquals(1L, cache.stats().get("not_modified"));
+    }
+
+    @Test
+    @DisplayName("Should serve expired entries only within the stale window")
+    void testStaleWindow() {
+        ResponseCache cache = new ResponseCache(10, 1024 * 1024, 0);
+        cache.put("k", node("a"), 10);
+        ResponseCache.Entry entry = cache.getEntry("k");
+
+        assertFalse(cache.isServableStale(entry));
+        cache.setStaleWhileRevalidateMs(60_000);
+        assertTrue(cache.isServableStale(entry));
+    }
+
+    @Test
+    @DisplayName("Should stay within the entry budget")
+    void testEntryBound() {
+        ResponseCache cache = new ResponseCache(50, Long.MAX_VALUE, 60_000);
+        for (int i = 0; i < 500; i++) {
+            cache.put("k" + i, node("v" + i), 1);
+        }
+        assertTrue(cache.size() <= 50, "size was " + cache.size());
+    }
+
+    @Test
+    @DisplayName("Should stay within the weight budget")
+    void testWeightBound() {
+        ResponseCache cache = new ResponseCache(1000, 1000, 60_000);
+        for (int i = 0; i < 100; i++) {
+            cache.put("k" + i, node("v" + i), 100);
+        }
+        assertTrue((long) cache.stats().get("weight_bytes") <= 1000);
+        assertTrue(cache.size() <= 10);
+    }
+
+    @Test
+    @DisplayName("Should not accumulate nodes for overwritten or invalidated keys")
+    void testOverwritesDoNotGrowQueues() {
+        ResponseCache cache = new ResponseCache(1000, Long.MAX_VALUE, 60_000);
+        for (int round = 0; round < 1000; round++) {
+            for (int i = 0; i < 10; i++) {
+                cache.put("k" + i, node("v" + round), 1);
+            }
+            cache.invalidate("k" + (round % 10));
+        }
+        assertTrue(cache.size() <= 10);
+        int queued = (int) cache.stats().get("queued_nodes");
+        assertTrue(queued <= 40, "queued nodes: " + queued);
+    }
+
+    @Test
+    @DisplayName("Should keep frequently read entries over one-off entries")
+    void testFrequentEntrySurvivesScan() {
+        ResponseCache cache = new ResponseCache(100, Long.MAX_VALUE, 60_000);
+        cache.put("hot", node("hot"), 1);
+        for (int i = 0; i < 10; i++) {
+            cache.get("hot");
+        }
+        for (int i = 0; i < 1000; i++) {
+            cache.put("scan" + i, node("scan"), 1);
+        }
+        assertNotNull(cache.get("hot"));
+    }
+
+    @Test
+    @DisplayName("Should tolerate concurrent readers and writers")
+    void testConcurrentAccess() throws Exception {
+        ResponseCache cache = new ResponseCache(64, Long.MAX_VALUE, 60_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        String key = "k" + ((i * 31 + thread) % 200);
+                        if (cache.get(key) == null) {
+                            cache.put(key, node(key), 1);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 64);
+    }
+}
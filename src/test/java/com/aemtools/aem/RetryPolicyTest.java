@@ -0,0 +1,76 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.client.RetryBudget;
+import com.aemtools.aem.client.RetryPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryPolicyTest {
+
+    private final RetryPolicy policy = new RetryPolicy(3, 100, 1_000, 5_000, Set.of(429, 502, 503, 504));
+
+    @Test
+    void testIdempotentMethodsRetryOnServerErrors() {
+        assertTrue(policy.shouldRetry("GET", 503, 1));
+        assertTrue(policy.shouldRetry("PUT", 502, 2));
+        assertTrue(policy.shouldRetry("delete", 504, 1));
+        assertFalse(policy.shouldRetry("GET", 500, 1));
+        assertFalse(policy.shouldRetry("GET", 404, 1));
+    }
+
+    @Test
+    void testStopsAtMaxAttempts() {
+        assertFalse(policy.shouldRetry("GET", 503, 3));
+        assertFalse(policy.shouldRetry("GET", new SocketTimeoutException(), 3));
+    }
+
+    @Test
+    void testPostOnlyRetriesWhenNotProcessed() {
+        assertTrue(policy.shouldRetry("POST", 429, 1));
+        assertFalse(policy.shouldRetry("POST", 503, 1));
+        assertTrue(policy.shouldRetry("POST", new ConnectException("refused"), 1));
+        assertFalse(policy.shouldRetry("POST", new SocketTimeoutException("read timed out"), 1));
+        assertTrue(policy.shouldRetry("GET", new IOException("connection reset"), 1));
+    }
+
+    @Test
+    void testDelayUsesJitterWithinCeiling() {
+        for (int i = 0; i < 100; i++) {
+            long first = policy.delayMs(1, -1);
+            assertTrue(first >= 0 && first <= 100, "first " + first);
+            long later = policy.delayMs(10, -1);
+            assertTrue(later >= 0 && later <= 1_000, "later " + later);
+        }
+    }
+
+    @Test
+    void testDelayHonorsRetryAfter() {
+        assertTrue(policy.delayMs(1, 2_000) >= 2_000);
+        assertEquals(-1, policy.delayMs(1, 60_000));
+    }
+
+    @Test
+    void testNonePolicyNeverRetries() {
+        assertFalse(RetryPolicy.none().shouldRetry("GET", 503, 1));
+    }
+
+    @Test
+    void testBudgetLimitsRetriesToShareOfTraffic() {
+        RetryBudget budget = new RetryBudget(0.1, 0, 100);
+        assertFalse(budget.tryAcquireRetry());
+        for (int i = 0; i < 30; i++) {
+            budget.onRequest();
+        }
+        int granted = 0;
+        while (budget.tryAcquireRetry()) {
+            granted++;
+        }
+        assertEquals(3, granted);
+    }
+}
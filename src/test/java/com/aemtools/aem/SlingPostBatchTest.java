@@ -0,0 +1,123 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.api.SlingPostBatch;
+import com.aemtools.aem.client.AemApiClient;
+import com.aemtools.aem.client.AemHttpException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SlingPostBatchTest {
+
+    @Mock
+    private AemApiClient client;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @SuppressWarnings("unchecked")
+    private static List<Map.Entry<String, String>> form(Object argument) {
+        return (List<Map.Entry<String, String>>) argument;
+    }
+
+    private JsonNode changed(List<Map.Entry<String, String>> form, String root) {
+        ObjectNode response = mapper.createObjectNode();
+        ArrayNode changes = response.putArray("changes");
+        form.stream()
+            .map(Map.Entry::getKey)
+            .filter(name -> name.startsWith("./") && !name.contains("@"))
+            .distinct()
+            .forEach(name -> changes.addObject().put("type", "modified")
+                .put("argument", (root.equals("/") ? "" : root) + "/" + name.substring(2)));
+        return response;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGroupsNodesUnderCommonAncestor() throws Exception {
+        when(client.postForm(anyString(), anyList())).thenAnswer(inv ->
+            changed(form(inv.getArgument(1)), inv.getArgument(0)));
+
+        SlingPostBatch batch = new SlingPostBatch(client)
+            .patch("/content/site/en/a/jcr:content", "cq:tags", List.of("ns:new"), List.of("ns:old"))
+            .patch("/content/site/fr/b/jcr:content", "cq:tags", List.of("ns:new"), List.of("ns:old"));
+        Map<String, SlingPostBatch.Result> results = batch.execute();
+
+        assertEquals(1, batch.getRequestCount());
+        assertTrue(results.values().stream().allMatch(SlingPostBatch.Result::success));
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(client).postForm(eq("/content/site"), captor.capture());
+        List<Map.Entry<String, String>> params = form(captor.getValue());
+        assertTrue(params.contains(Map.entry("./en/a/jcr:content/cq:tags", "-ns:old")));
+        assertTrue(params.contains(Map.entry("./fr/b/jcr:content/cq:tags", "+ns:new")));
+        assertTrue(params.contains(Map.entry("./en/a/jcr:content/cq:tags@Patch", "true")));
+    }
+
+    @Test
+    void testSplitsAtMaxNodes() throws Exception {
+        when(client.postForm(anyString(), anyList())).thenAnswer(inv ->
+            changed(form(inv.getArgument(1)), inv.getArgument(0)));
+
+        SlingPostBatch batch = new SlingPostBatch(client).setMaxNodes(2);
+        for (int i = 0; i < 5; i++) {
+            batch.set("/content/p" + i, "cq:tags", List.of("ns:t"));
+        }
+        assertEquals(5, batch.execute().size());
+        assertEquals(3, batch.getRequestCount());
+    }
+
+    @Test
+    void testBisectsToIsolateFailingNode() throws Exception {
+        when(client.postForm(anyString(), anyList())).thenAnswer(inv -> {
+            List<Map.Entry<String, String>> params = form(inv.getArgument(1));
+            String root = inv.getArgument(0);
+            boolean poisoned = root.startsWith("/content/p2")
+                || params.stream().anyMatch(p -> p.getKey().startsWith("./p2/"));
+            if (poisoned) {
+                throw new AemHttpException(500, "{\"error\":\"constraint violation\"}", -1);
+            }
+            return changed(params, root);
+        });
+
+        SlingPostBatch batch = new SlingPostBatch(client);
+        for (int i = 0; i < 4; i++) {
+            batch.set("/content/p" + i, "cq:tags", List.of("ns:t"));
+        }
+        Map<String, SlingPostBatch.Result> results = batch.execute();
+
+        assertFalse(results.get("/content/p2").success());
+        assertTrue(results.get("/content/p0").success());
+        assertTrue(results.get("/content/p1").success());
+        assertTrue(results.get("/content/p3").success());
+        // 4 -> [0,1] ok, [2,3] fails -> [2] fails, [3] ok
+        assertEquals(5, batch.getRequestCount());
+    }
+
+    @Test
+    void testOverloadFailsChunkWithoutSplitting() throws Exception {
+        when(client.postForm(anyString(), anyList())).thenThrow(new AemHttpException(503, "busy", 1000));
+
+        SlingPostBatch batch = new SlingPostBatch(client);
+        for (int i = 0; i < 4; i++) {
+            batch.delete("/content/p" + i, "cq:tags");
+        }
+        Map<String, SlingPostBatch.Result> results = batch.execute();
+
+        assertEquals(1, batch.getRequestCount());
+        assertTrue(results.values().stream().noneMatch(SlingPostBatch.Result::success));
+    }
+}
@@ -0,0 +1,132 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.api.TagsApi;
+import com.aemtools.aem.snapshot.SnapshotStore;
+import com.aemtools.aem.snapshot.SnapshotStore.Node;
+import com.aemtools.aem.snapshot.SnapshotStore.Query;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotStoreTest {
+
+    private static final String ENV = "http://localhost:4502";
+
+    @TempDir
+    Path tempDir;
+
+    private SnapshotStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new SnapshotStore(tempDir.resolve("snapshot.db"));
+        store.write(ENV, writer -> {
+            writer.put(asset("/content/dam/site/a.jpg", null, 1000, List.of("site:red")));
+            writer.put(asset("/content/dam/site/b.jpg", null, 2000, List.of("site:red", "site:blue")));
+            writer.put(asset("/content/dam/site/sub/c.jpg", null, 3000, List.of()));
+            writer.put(asset("/content/dam/site/cf/article", "/conf/site/models/article", 4000, List.of("site:blue")));
+            writer.put(asset("/content/dam/site2/d.jpg", null, 5000, List.of()));
+            writer.put(store.node(SnapshotStore.TYPE_TAG, "/content/cq:tags/site/red",
+                new TagsApi.Tag("site:red", "/content/cq:tags/site/red", "Red", null, "site", 0)));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private Node asset(String path, String model, long modified, List<String> tags) {
+        return store.node(SnapshotStore.TYPE_ASSET, path, Map.of("path", path), model, modified, tags);
+    }
+
+    private List<String> paths(Query query) throws IOException {
+        return store.query(ENV, query).stream().map(Node::path).toList();
+    }
+
+    @Test
+    void testRootQueryDoesNotMatchSiblingPrefix() throws Exception {
+        Query query = new Query().setType(SnapshotStore.TYPE_ASSET).setRoot("/content/dam/site", false);
+
+        assertEquals(List.of("/content/dam/site/a.jpg", "/content/dam/site/b.jpg",
+            "/content/dam/site/cf/article", "/content/dam/site/sub/c.jpg"), paths(query));
+        assertEquals(4, store.count(ENV, query));
+    }
+
+    @Test
+    void testChildrenOnly() throws Exception {
+        assertEquals(List.of("/content/dam/site/a.jpg", "/content/dam/site/b.jpg"),
+            paths(new Query().setType(SnapshotStore.TYPE_ASSET).setRoot("/content/dam/site", true).setLimit(2)));
+        assertEquals(List.of("/content/dam/site/sub/c.jpg"),
+            paths(new Query().setRoot("/content/dam/site/sub", true)));
+    }
+
+    @Test
+    void testTagModelAndDateFilters() throws Exception {
+        assertEquals(List.of("/content/dam/site/b.jpg", "/content/dam/site/cf/article"),
+            paths(new Query().setTag("site:blue")));
+        assertEquals(List.of("/content/dam/site/cf/article"),
+            paths(new Query().setModel("/conf/site/models/article")));
+        assertEquals(List.of("/content/dam/site/cf/article", "/content/dam/site/sub/c.jpg"),
+            paths(new Query().setRoot("/content/dam/site", false).setModifiedAfter(2000)));
+        assertEquals(List.of("site:blue", "site:red"),
+            store.get(ENV, "/content/dam/site/b.jpg").orElseThrow().tags().stream().sorted().toList());
+    }
+
+    @Test
+    void testEnvironmentsAreSeparate() throws Exception {
+        assertTrue(store.query("other", new Query()).isEmpty());
+        assertEquals(Map.of(SnapshotStore.TYPE_ASSET, 5L, SnapshotStore.TYPE_TAG, 1L), store.countByType(ENV));
+    }
+
+    @Test
+    void testMergeKeepsStoredModelDateAndTags() throws Exception {
+        store.write(ENV, writer -> writer.merge(
+            store.node(SnapshotStore.TYPE_ASSET, "/content/dam/site/cf/article", Map.of("title", "Renamed"))));
+
+        Node node = store.get(ENV, "/content/dam/site/cf/article").orElseThrow();
+        assertEquals("/conf/site/models/article", node.model());
+        assertEquals(4000, node.modified());
+        assertEquals(List.of("site:blue"), node.tags());
+        assertEquals("Renamed", node.data().path("title").asText());
+    }
+
+    @Test
+    void testDeleteUnderAndSyncState() throws Exception {
+        store.write(ENV, writer -> {
+            writer.deleteUnder(SnapshotStore.TYPE_ASSET, "/content/dam/site");
+            writer.setSyncState("dam:/content/dam/site", new SnapshotStore.SyncState(42, 7));
+        });
+
+        assertEquals(List.of("/content/dam/site2/d.jpg"), paths(new Query().setType(SnapshotStore.TYPE_ASSET)));
+        assertTrue(paths(new Query().setTag("site:blue")).isEmpty());
+        assertEquals(new SnapshotStore.SyncState(42, 7), store.getSyncState(ENV, "dam:/content/dam/site"));
+        assertEquals(new SnapshotStore.SyncState(0, 0), store.getSyncState(ENV, "dam:/content/dam/other"));
+    }
+
+    @Test
+    void testFailedWriteRollsBack() throws Exception {
+        assertThrows(IOException.class, () -> store.write(ENV, writer -> {
+            writer.delete("/content/dam/site/a.jpg");
+            throw new IOException("interrupted");
+        }));
+
+        assertTrue(store.get(ENV, "/content/dam/site/a.jpg").isPresent());
+    }
+
+    @Test
+    void testReadsBackTypedObjects() throws Exception {
+        List<TagsApi.Tag> tags = store.query(ENV, new Query().setType(SnapshotStore.TYPE_TAG), TagsApi.Tag.class);
+
+        assertEquals(1, tags.size());
+        assertEquals("site:red", tags.get(0).tagId());
+    }
+}
@@ -0,0 +1,187 @@
+package com.aemtools.aem;
+
+import com.aemtools.aem.api.TagsApi;
+import com.aemtools.aem.api.TagsApi.MergeResult;
+import com.aemtools.aem.client.AemApiClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the streaming tag merge behind {@link TagsApi#mergeTags} using a mocked HTTP client.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TagMergePipeline Mock Tests")
+class TagMergePipelineMockTest {
+
+    private static final String SOURCE = "ns:source";
+    private static final String DEST = "ns:dest";
+
+    @Mock
+    private AemApiClient mockClient;
+
+    private TagsApi tagsApi;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /** Paths the source query returns. */
+    private final List<String> sourceTagged = new ArrayList<>();
+    /** Hits the destination query returns, with their tags. */
+    private final Map<String, List<String>> destTagged = new LinkedHashMap<>();
+    private long remaining;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tagsApi = new TagsApi(mockClient);
+        lenient().when(mockClient.getUncached(anyString())).thenAnswer(inv -> query(inv.getArgument(0)));
+        lenient().when(mockClient.delete(anyString())).thenReturn(true);
+    }
+
+    private JsonNode query(String query) {
+        ObjectNode response = mapper.createObjectNode();
+        if (query.endsWith("&p.limit=1")) {
+            response.put("total", remaining);
+            response.putArray("hits");
+            return response;
+        }
+        ArrayNode hits = response.putArray("hits");
+        if (query.contains("property.value=ns%3Asource")) {
+            sourceTagged.forEach(path -> hits.addObject().put("jcr:path", path));
+        } else if (query.contains("property.value=ns%3Adest")) {
+            destTagged.forEach((path, tags) -> {
+                ArrayNode tagArray = hits.addObject().put("jcr:path", path).putArray("cq:tags");
+                tags.forEach(tagArray::add);
+            });
+        }
+        response.put("total", hits.size());
+        return response;
+    }
+
+    private void tagged(int count) {
+        for (int i = 0; i < count; i++) {
+            String path = "/content/site/page" + i + "/jcr:content";
+            sourceTagged.add(path);
+            destTagged.put(path, List.of(SOURCE, DEST));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Map.Entry<String, String>>> postedForms() throws IOException {
+        ArgumentCaptor<List<Map.Entry<String, String>>> forms = ArgumentCaptor.forClass(List.class);
+        verify(mockClient, atLeastOnce()).postForm(anyString(), forms.capture());
+        return forms.getAllValues();
+    }
+
+    private static long countParams(List<List<Map.Entry<String, String>>> forms, String value) {
+        return forms.stream().flatMap(List::stream).filter(param -> param.getValue().equals(value)).count();
+    }
+
+    @Test
+    @DisplayName("Adds the destination, removes the source and deletes the source tag")
+    void testMergeRunsBothPassesAndDeletesSource() throws IOException {
+        tagged(5);
+        destTagged.put("/content/site/other/jcr:content", List.of(DEST));
+        when(mockClient.postForm(anyString(), anyList())).thenReturn(mapper.createObjectNode());
+
+        MergeResult result = tagsApi.mergeTags(SOURCE, DEST, 2, 2, null);
+
+        assertEquals(5, result.discovered());
+        assertEquals(5, result.retagged());
+        assertEquals(0, result.failed());
+        assertTrue(result.sourceDeleted());
+        List<List<Map.Entry<String, String>>> forms = postedForms();
+        assertEquals(5, countParams(forms, "+" + DEST));
+        // Content that only carries the destination is scanned but not written
+        assertEquals(5, countParams(forms, "-" + SOURCE));
+        verify(mockClient).delete("/content/cq:tags/ns/source");
+    }
+
+    @Test
+    @DisplayName("Keeps the source tag when content still carries it")
+    void testKeepsSourceWhileStillTagged() throws IOException {
+        tagged(3);
+        remaining = 1;
+        when(mockClient.postForm(anyString(), anyList())).thenReturn(mapper.createObjectNode());
+
+        MergeResult result = tagsApi.mergeTags(SOURCE, DEST, 2, 2, null);
+
+        assertEquals(0, result.failed());
+        assertEquals(1, result.remaining());
+        assertFalse(result.sourceDeleted());
+        verify(mockClient, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("Keeps the source tag when a write fails")
+    void testKeepsSourceAfterFailedWrites() throws IOException {
+        tagged(3);
+        when(mockClient.postForm(anyString(), anyList())).thenThrow(new IOException("HTTP 500"));
+
+        MergeResult result = tagsApi.mergeTags(SOURCE, DEST, 2, 2, null);
+
+        assertEquals(0, result.retagged());
+        assertTrue(result.failed() > 0);
+        assertFalse(result.sourceDeleted());
+        verify(mockClient, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("A worker error fails its chunk without stalling discovery")
+    void testWorkerErrorCountsAsFailed() throws IOException {
+        // More items than the queue holds, so a dead worker would block discovery
+        tagged(40);
+        when(mockClient.postForm(anyString(), anyList())).thenThrow(new IllegalStateException("broken response"));
+
+        MergeResult result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> tagsApi.mergeTags(SOURCE, DEST, 2, 2, null));
+
+        assertEquals(40, result.discovered());
+        assertEquals(0, result.retagged());
+        assertEquals(80, result.failed(), "every node fails in both passes");
+        assertFalse(result.sourceDeleted());
+        verify(mockClient, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("A discovery error fails the merge and keeps the source tag")
+    void testDiscoveryErrorFailsMerge() throws IOException {
+        doThrow(new IOException("HTTP 503")).when(mockClient).getUncached(contains("property.value=ns%3Asource"));
+
+        IOException e = assertThrows(IOException.class, () -> tagsApi.mergeTags(SOURCE, DEST, 2, 2, null));
+
+        assertEquals("HTTP 503", e.getMessage());
+        verify(mockClient, never()).postForm(anyString(), anyList());
+        verify(mockClient, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("Rejects merging a tag into itself")
+    void testRejectsMergeIntoSelf() throws IOException {
+        tagged(3);
+
+        assertThrows(IllegalArgumentException.class, () -> tagsApi.mergeTags(SOURCE, SOURCE, 2, 2, null));
+        assertThrows(IllegalArgumentException.class, () -> tagsApi.mergeTags("ns:source", "ns/source", 2, 2, null));
+
+        verify(mockClient, never()).getUncached(anyString());
+        verify(mockClient, never()).postForm(anyString(), anyList());
+        verify(mockClient, never()).delete(anyString());
+    }
+}
@@ -160,7 +160,7 @@ class WorkflowApiMockTest {
             response.put("modelTitle", "Request for Activation");
             response.put("payload", "/content/dam/test.jpg");
 
-            when(mockClient.post(contains("workflow/instances"), any())).thenReturn(response);
+            when(mockClient.post(contains("workflow/instances"), any(), anyList())).thenReturn(response);
 
             WorkflowInstance instance = workflowApi.startWorkflow(
                 "/var/workflow/models/request_for_activation",
@@ -171,7 +171,8 @@ class WorkflowApiMockTest {
             assertEquals("wf-new-001", instance.getId());
             assertEquals("RUNNING", instance.getStatus());
 
-            verify(mockClient).post(contains("workflow/instances"), any());
+            // The payload is in the body, so it is passed explicitly for cache invalidation
+            verify(mockClient).post(contains("workflow/instances"), any(), eq(List.of("/content/dam/test.jpg")));
         }
 
         @Test
@@ -181,7 +182,7 @@ class WorkflowApiMockTest {
             response.put("id", "wf-meta-001");
             response.put("status", "RUNNING");
 
-            when(mockClient.post(anyString(), any())).thenReturn(response);
+            when(mockClient.post(anyString(), any(), anyList())).thenReturn(response);
 
             Map<String, String> metadata = Map.of("comment", "Test workflow", "priority", "high");
             WorkflowInstance instance = workflowApi.startWorkflow(
@@ -199,13 +200,13 @@ class WorkflowApiMockTest {
         @DisplayName("Should fallback to classic endpoint on error")
         void testStartWorkflowFallback() throws IOException {
             // First call fails, second succeeds
-            when(mockClient.post(contains("api/workflow"), any()))
+            when(mockClient.post(contains("api/workflow"), any(), anyList()))
                 .thenThrow(new IOException("API not found"));
 
             ObjectNode fallbackResponse = mapper.createObjectNode();
             fallbackResponse.put("id", "wf-fallback-001");
 
-            when(mockClient.post(contains("etc/workflow"), any()))
+            when(mockClient.post(contains("etc/workflow"), any(), anyList()))
                 .thenReturn(fallbackResponse);
 
             WorkflowInstance instance = workflowApi.startWorkflow(
@@ -389,7 +390,7 @@ class WorkflowApiMockTest {
             response.put("id", "wf-bulk");
             response.put("status", "RUNNING");
 
-            when(mockClient.post(anyString(), any())).thenReturn(response);
+            when(mockClient.post(anyString(), any(), anyList())).thenReturn(response);
 
             List<String> payloads = List.of("/content/dam/a.jpg", "/content/dam/b.jpg", "/content/dam/c.jpg");
             Map<String, String> results = workflowApi.startBulkWorkflows(
@@ -408,7 +409,7 @@ class WorkflowApiMockTest {
             // For /content/a - api/workflow succeeds
             // For /content/b - both api/workflow and etc/workflow fail
             // For /content/c - api/workflow succeeds
-            when(mockClient.post(anyString(), any()))
+            when(mockClient.post(anyString(), any(), anyList()))
                 .thenReturn(mapper.createObjectNode().put("id", "wf-1"))  // /content/a succeeds
                 .thenThrow(new IOException("API failed"))                  // /content/b api fails
                 .thenThrow(new IOException("Fallback failed"))             // /content/b fallback fails
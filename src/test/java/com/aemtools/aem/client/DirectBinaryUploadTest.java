@@ -0,0 +1,72 @@
+package com.aemtools.aem.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Same package as {@link DirectBinaryUpload} for access to the part planning.
+ */
+class DirectBinaryUploadTest {
+
+    private static final long GIB = 1024L * 1024 * 1024;
+
+    private static ArrayNode uris(int count) {
+        ArrayNode uris = new ObjectMapper().createArrayNode();
+        for (int i = 1; i <= count; i++) {
+            uris.add("https://blob.test/part" + i);
+        }
+        return uris;
+    }
+
+    @Test
+    void testSplitsEvenlyAcrossUris() throws Exception {
+        List<DirectBinaryUpload.Part> parts = DirectBinaryUpload.planParts(10, uris(3), 0, 0);
+
+        assertEquals(3, parts.size());
+        assertEquals(new DirectBinaryUpload.Part("https://blob.test/part1", 0, 4), parts.get(0));
+        assertEquals(new DirectBinaryUpload.Part("https://blob.test/part2", 4, 4), parts.get(1));
+        assertEquals(new DirectBinaryUpload.Part("https://blob.test/part3", 8, 2), parts.get(2));
+    }
+
+    @Test
+    void testMinPartSizeUsesFewerUris() throws Exception {
+        List<DirectBinaryUpload.Part> parts = DirectBinaryUpload.planParts(1000, uris(10), 600, 0);
+
+        assertEquals(2, parts.size());
+        assertEquals(600, parts.get(0).length());
+        assertEquals(400, parts.get(1).length());
+        assertEquals(600, parts.get(1).offset());
+    }
+
+    @Test
+    void testRejectsFileThatNeedsMoreUrisThanOffered() {
+        IOException e = assertThrows(IOException.class,
+            () -> DirectBinaryUpload.planParts(1000, uris(2), 0, 100));
+        assertTrue(e.getMessage().contains("max part size 100"));
+    }
+
+    @Test
+    void testEmptyFileIsOneEmptyPart() throws Exception {
+        List<DirectBinaryUpload.Part> parts = DirectBinaryUpload.planParts(0, uris(3), 0, 0);
+
+        assertEquals(List.of(new DirectBinaryUpload.Part("https://blob.test/part1", 0, 0)), parts);
+    }
+
+    @Test
+    void testPartsOverTwoGibAreNotMapped() throws Exception {
+        List<DirectBinaryUpload.Part> parts = DirectBinaryUpload.planParts(5 * GIB, uris(2), 0, 0);
+
+        assertEquals(2, parts.size());
+        assertEquals(5 * GIB, parts.get(0).length() + parts.get(1).length());
+        assertFalse(parts.get(0).mappable());
+
+        assertTrue(new DirectBinaryUpload.Part("u", 0, Integer.MAX_VALUE).mappable());
+        assertFalse(new DirectBinaryUpload.Part("u", 0, Integer.MAX_VALUE + 1L).mappable());
+    }
+}
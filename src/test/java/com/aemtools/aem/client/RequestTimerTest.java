@@ -0,0 +1,97 @@
+package com.aemtools.aem.client;
+
+import com.aemtools.aem.audit.AuditLogger.CallMetrics;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Same package as {@link RequestTimer}, which is internal to the client.
+ */
+class RequestTimerTest {
+
+    @Test
+    void testUnmeasuredPhasesAreReportedAsUnknown() {
+        RequestTimer timer = new RequestTimer(null);
+
+        CallMetrics metrics = timer.finish(0, 42);
+
+        assertEquals(-1, metrics.leaseNanos());
+        assertEquals(-1, metrics.ttfbNanos());
+        assertTrue(metrics.totalNanos() >= 0);
+        assertEquals(0, metrics.requestBytes());
+        assertEquals(42, metrics.responseBytes());
+    }
+
+    @Test
+    void testTimeToFirstByteFitsInTotal() throws Exception {
+        RequestTimer timer = new RequestTimer(null);
+        Thread.sleep(5);
+        timer.headersReceived();
+        Thread.sleep(5);
+
+        CallMetrics metrics = timer.finish(null, 0);
+
+        assertEquals(-1, metrics.leaseNanos(), "no pool, so no lease time");
+        assertTrue(metrics.ttfbNanos() >= 5_000_000L);
+        assertTrue(metrics.totalNanos() >= metrics.ttfbNanos() + 5_000_000L);
+        assertTrue(timer.startNanos() <= System.nanoTime() - metrics.totalNanos());
+    }
+
+    @Test
+    void testEntitiesWithKnownLengthAreNotWrapped() {
+        HttpEntity entity = new ByteArrayEntity(new byte[10], ContentType.APPLICATION_OCTET_STREAM);
+
+        assertSame(entity, RequestTimer.counting(entity));
+        assertNull(RequestTimer.counting(null));
+        assertEquals(10, RequestTimer.requestBytes(entity));
+        assertEquals(0, RequestTimer.requestBytes(null));
+    }
+
+    @Test
+    void testChunkedEntityCountsBytesWritten() throws Exception {
+        HttpEntity chunked = new InputStreamEntity(new ByteArrayInputStream(new byte[1234]), -1,
+            ContentType.APPLICATION_OCTET_STREAM);
+
+        HttpEntity counting = RequestTimer.counting(chunked);
+        assertNotSame(chunked, counting);
+        assertSame(counting, RequestTimer.counting(counting));
+        assertEquals(-1, RequestTimer.requestBytes(counting), "nothing written yet");
+
+        counting.writeTo(new ByteArrayOutputStream());
+
+        assertEquals(1234, RequestTimer.requestBytes(counting));
+        assertEquals(1234, new RequestTimer(null).finish(counting, 0).requestBytes());
+    }
+
+    @Test
+    void testCountingInputStreamCountsReadsAndSkips() throws Exception {
+        RequestTimer.CountingInputStream in = new RequestTimer.CountingInputStream(
+            new ByteArrayInputStream(new byte[100]));
+
+        in.read();
+        in.read(new byte[20], 0, 20);
+        in.skip(30);
+        assertEquals(51, in.getCount());
+
+        in.readAllBytes();
+        assertEquals(-1, in.read());
+        assertEquals(100, in.getCount());
+    }
+
+    @Test
+    void testEmptyStreamCountsNothing() throws Exception {
+        RequestTimer.CountingInputStream in = new RequestTimer.CountingInputStream(InputStream.nullInputStream());
+
+        assertEquals(-1, in.read());
+        assertEquals(0, in.getCount());
+    }
+}